@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the cost of creating a scoped registry, such as a project or task scope, and of looking up services through its parents.
+ */
+@Fork(2)
+@Warmup(iterations = 10)
+@State(Scope.Benchmark)
+public class DefaultServiceRegistryBenchmark {
+
+    private DefaultServiceRegistry parent;
+    private DefaultServiceRegistry child;
+
+    @Setup
+    public void setupRegistries() {
+        parent = new ParentServices();
+        child = new ChildServices(parent);
+    }
+
+    @Benchmark
+    public void lookupOwnService(Blackhole bh) {
+        bh.consume(child.get(ChildService.class));
+    }
+
+    @Benchmark
+    public void lookupParentServiceByInterface(Blackhole bh) {
+        bh.consume(child.get(Runnable.class));
+    }
+
+    @Benchmark
+    public void createScopeAndLookupServices(Blackhole bh) {
+        DefaultServiceRegistry scope = new ChildServices(parent);
+        bh.consume(scope.get(ChildService.class));
+        bh.consume(scope.get(DecoratedService.class));
+    }
+
+    public static class ParentServices extends DefaultServiceRegistry {
+        protected ParentService createParentService() {
+            return new ParentService();
+        }
+
+        protected DecoratedService createDecoratedService() {
+            return new DecoratedService(0);
+        }
+
+        protected List<String> createNames() {
+            return new ArrayList<String>();
+        }
+    }
+
+    public static class ChildServices extends DefaultServiceRegistry {
+        public ChildServices(ServiceRegistry parent) {
+            super(parent);
+        }
+
+        protected ChildService createChildService(ParentService parentService, List<String> names) {
+            return new ChildService(parentService, names);
+        }
+
+        protected DecoratedService decorateDecoratedService(DecoratedService parent) {
+            return new DecoratedService(parent.depth + 1);
+        }
+    }
+
+    public static class ParentService implements Runnable {
+        @Override
+        public void run() {
+        }
+    }
+
+    public static class ChildService {
+        ChildService(ParentService parentService, List<String> names) {
+        }
+    }
+
+    public static class DecoratedService {
+        final int depth;
+
+        DecoratedService(int depth) {
+            this.depth = depth;
+        }
+    }
+}
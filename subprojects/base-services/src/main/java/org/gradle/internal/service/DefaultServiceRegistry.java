@@ -19,8 +19,10 @@ import org.gradle.api.Action;
 import org.gradle.internal.Factory;
 import org.gradle.internal.concurrent.CompositeStoppable;
 
+import javax.annotation.Nullable;
 import java.io.Closeable;
 import java.lang.annotation.Annotation;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Member;
@@ -32,13 +34,16 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Formatter;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -72,12 +77,18 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable, Conta
     private final static ServiceRegistry[] NO_PARENTS = new ServiceRegistry[0];
     private final static Service[] NO_DEPENDENTS = new Service[0];
     private final static Object[] NO_PARAMS = new Object[0];
+    // Weak keys, and values which only weakly reference the types, so that the cache does not keep the class loaders of plugins alive
+    private final static Map<Class<?>, ServiceTypes> SERVICE_TYPES_CACHE = Collections.synchronizedMap(new WeakHashMap<Class<?>, ServiceTypes>());
 
     private final OwnServices ownServices;
     private final ServiceProvider allServices;
     private final ServiceProvider parentServices;
     private final String displayName;
     private final ServiceProvider thisAsServiceProvider;
+    private final DefaultServiceRegistry[] parents;
+    // Services located by class, so that repeated lookups do not search this registry and its parents again.
+    // Created on the first lookup, and discarded when this registry or one of its parents is closed
+    private volatile ConcurrentMap<Class<?>, Service> servicesByClass;
 
     private AtomicReference<State> state = new AtomicReference<State>(State.INIT);
 
@@ -96,6 +107,7 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable, Conta
     public DefaultServiceRegistry(String displayName, ServiceRegistry... parents) {
         this.displayName = displayName;
         this.ownServices = new OwnServices();
+        this.parents = toDefaultServiceRegistries(parents);
         if (parents.length == 0) {
             this.parentServices = null;
             this.allServices = ownServices;
@@ -127,6 +139,17 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable, Conta
         return thisAsServiceProvider;
     }
 
+    private static DefaultServiceRegistry[] toDefaultServiceRegistries(ServiceRegistry[] parents) {
+        DefaultServiceRegistry[] registries = new DefaultServiceRegistry[parents.length];
+        for (int i = 0; i < parents.length; i++) {
+            if (!(parents[i] instanceof DefaultServiceRegistry)) {
+                throw new IllegalArgumentException(String.format("Service registry %s cannot be used as a parent for another service registry.", parents[i]));
+            }
+            registries[i] = (DefaultServiceRegistry) parents[i];
+        }
+        return registries;
+    }
+
     private static ServiceProvider toParentServices(ServiceRegistry serviceRegistry) {
         if (serviceRegistry instanceof ContainsServices) {
             return new ParentServices(((ContainsServices) serviceRegistry).asProvider());
@@ -255,6 +278,7 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable, Conta
     public void close() {
         noLongerMutable();
         if (state.compareAndSet(State.STARTED, State.CLOSED)) {
+            servicesByClass = null;
             CompositeStoppable.stoppable(allServices).stop();
         }
     }
@@ -267,9 +291,7 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable, Conta
     }
 
     private void noLongerMutable() {
-        if (state.compareAndSet(State.INIT, State.STARTED)) {
-            ownServices.noLongerMutable();
-        }
+        state.compareAndSet(State.INIT, State.STARTED);
     }
 
     public boolean isClosed() {
@@ -304,7 +326,49 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable, Conta
 
     private Service getService(Type serviceType) {
         serviceRequested();
-        return find(serviceType, allServices);
+        if (!(serviceType instanceof Class)) {
+            return find(serviceType, allServices);
+        }
+        ConcurrentMap<Class<?>, Service> servicesByClass = getServicesByClass();
+        if (servicesByClass == null) {
+            return find(serviceType, allServices);
+        }
+        Service service = servicesByClass.get(serviceType);
+        if (service == null) {
+            service = find(serviceType, allServices);
+            if (service != null) {
+                servicesByClass.putIfAbsent((Class<?>) serviceType, service);
+            }
+        }
+        return service;
+    }
+
+    /**
+     * Returns the services located by class, or null when they cannot be cached because a parent has been closed.
+     */
+    @Nullable
+    private ConcurrentMap<Class<?>, Service> getServicesByClass() {
+        if (hasClosedParent()) {
+            // Services located in a closed parent must not be returned again
+            servicesByClass = null;
+            return null;
+        }
+        ConcurrentMap<Class<?>, Service> services = servicesByClass;
+        if (services == null) {
+            // Concurrent lookups may each create a map, in which case some lookups are not remembered
+            services = new ConcurrentHashMap<Class<?>, Service>();
+            servicesByClass = services;
+        }
+        return services;
+    }
+
+    private boolean hasClosedParent() {
+        for (DefaultServiceRegistry parent : parents) {
+            if (parent.isClosed() || parent.hasClosedParent()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
@@ -368,7 +432,6 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable, Conta
     private class OwnServices implements ServiceProvider {
         private final Map<Class<?>, List<ServiceProvider>> providersByType = new HashMap<Class<?>, List<ServiceProvider>>(16, 0.5f);
         private final CompositeStoppable stoppable = CompositeStoppable.stoppable();
-        private ProviderAnalyser analyser = new ProviderAnalyser();
 
         @Override
         public Service getFactory(Class<?> type) {
@@ -471,42 +534,70 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable, Conta
                 throw new UnsupportedOperationException("Unsupported service provider type: " + serviceProvider);
             }
             stoppable.add(serviceProvider);
-            analyser.addProviderForClassHierarchy(((SingletonService) serviceProvider).serviceClass, serviceProvider);
-        }
-
-        public void noLongerMutable() {
-            analyser = null;
+            for (Class<?> type : serviceTypesOf(((SingletonService) serviceProvider).serviceClass)) {
+                List<ServiceProvider> serviceProviders = providersByType.get(type);
+                if (serviceProviders == null) {
+                    serviceProviders = new ArrayList<ServiceProvider>(2);
+                    providersByType.put(type, serviceProviders);
+                }
+                serviceProviders.add(serviceProvider);
+            }
         }
+    }
 
-        private class ProviderAnalyser {
-            private Set<Class<?>> seen = new HashSet<Class<?>>(4, 0.5f);
+    /**
+     * Returns the types that a service of the given class can be located by, which is the class and all of its supertypes except {@code Object}.
+     * These are calculated once per class and shared by all registries.
+     */
+    private static List<Class<?>> serviceTypesOf(Class<?> serviceClass) {
+        ServiceTypes cached = SERVICE_TYPES_CACHE.get(serviceClass);
+        List<Class<?>> serviceTypes = cached == null ? null : cached.get();
+        if (serviceTypes == null) {
+            Set<Class<?>> seen = new LinkedHashSet<Class<?>>();
+            collectServiceTypes(serviceClass, seen);
+            serviceTypes = new ArrayList<Class<?>>(seen);
+            SERVICE_TYPES_CACHE.put(serviceClass, new ServiceTypes(serviceTypes));
+        }
+        return serviceTypes;
+    }
 
-            public void addProviderForClassHierarchy(Class<?> serviceType, ServiceProvider serviceProvider) {
-                analyseType(serviceType, serviceProvider);
-                seen.clear();
+    private static void collectServiceTypes(Class<?> type, Set<Class<?>> seen) {
+        if (type == null || type == Object.class) {
+            return;
+        }
+        if (seen.add(type)) {
+            collectServiceTypes(type.getSuperclass(), seen);
+            for (Class<?> iface : type.getInterfaces()) {
+                collectServiceTypes(iface, seen);
             }
+        }
+    }
 
-            private void analyseType(Class<?> type, ServiceProvider serviceProvider) {
-                if (type == null || type == Object.class) {
-                    return;
-                }
-                if (seen.add(type)) {
-                    putServiceType(type, serviceProvider);
-                    analyseType(type.getSuperclass(), serviceProvider);
-                    for (Class<?> iface : type.getInterfaces()) {
-                        analyseType(iface, serviceProvider);
-                    }
-                }
+    /**
+     * The types that a service class can be located by. The types are only weakly referenced: they are all reachable from the service class itself, so they
+     * remain available for as long as the cache entry for that class does.
+     */
+    private static class ServiceTypes {
+        private final List<WeakReference<Class<?>>> types;
+
+        ServiceTypes(List<Class<?>> types) {
+            this.types = new ArrayList<WeakReference<Class<?>>>(types.size());
+            for (Class<?> type : types) {
+                this.types.add(new WeakReference<Class<?>>(type));
             }
+        }
 
-            private void putServiceType(Class<?> type, ServiceProvider serviceProvider) {
-                List<ServiceProvider> serviceProviders = providersByType.get(type);
-                if (serviceProviders == null) {
-                    serviceProviders = new ArrayList<ServiceProvider>(2);
-                    providersByType.put(type, serviceProviders);
+        @Nullable
+        List<Class<?>> get() {
+            List<Class<?>> result = new ArrayList<Class<?>>(types.size());
+            for (WeakReference<Class<?>> reference : types) {
+                Class<?> type = reference.get();
+                if (type == null) {
+                    return null;
                 }
-                serviceProviders.add(serviceProvider);
+                result.add(type);
             }
+            return result;
         }
     }
 
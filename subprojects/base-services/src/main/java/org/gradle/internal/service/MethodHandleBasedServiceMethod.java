@@ -19,21 +19,29 @@ import org.gradle.internal.UncheckedException;
 
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 
+/**
+ * Invokes a service method through a method handle that is adapted once to take the target and an argument array,
+ * so that each invocation avoids binding and adapting the handle again.
+ */
 class MethodHandleBasedServiceMethod extends AbstractServiceMethod {
     private final static MethodHandles.Lookup LOOKUP = (MethodHandles.Lookup) MethodHandles.publicLookup();
     private final MethodHandle method;
 
     MethodHandleBasedServiceMethod(Method target) throws IllegalAccessException {
         super(target);
-        this.method = LOOKUP.unreflect(target);
+        int parameterCount = target.getParameterTypes().length;
+        this.method = LOOKUP.unreflect(target)
+            .asType(MethodType.genericMethodType(parameterCount + 1))
+            .asSpreader(Object[].class, parameterCount);
     }
 
     @Override
     public Object invoke(Object target, Object... args) {
         try {
-            return method.bindTo(target).invokeWithArguments(args);
+            return (Object) method.invokeExact(target, args);
         } catch (Throwable e) {
             throw UncheckedException.throwAsUncheckedException(e);
         }
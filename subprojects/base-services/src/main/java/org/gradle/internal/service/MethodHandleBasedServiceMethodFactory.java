@@ -33,13 +33,16 @@ class MethodHandleBasedServiceMethodFactory implements ServiceMethodFactory {
 
     @Override
     public ServiceMethod toServiceMethod(Method method) {
-        if (Modifier.isPublic(method.getModifiers()) && Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
-            try {
-                return new MethodHandleBasedServiceMethod(method);
-            } catch (IllegalAccessException ex) {
-                return new ReflectionBasedServiceMethod(method);
+        try {
+            if (!Modifier.isPublic(method.getModifiers()) || !Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                // Most service methods are protected, so make them accessible rather than falling back to reflection for each call
+                method.setAccessible(true);
             }
+            return new MethodHandleBasedServiceMethod(method);
+        } catch (IllegalAccessException ex) {
+            return new ReflectionBasedServiceMethod(method);
+        } catch (SecurityException ex) {
+            return new ReflectionBasedServiceMethod(method);
         }
-        return new ReflectionBasedServiceMethod(method);
     }
 }
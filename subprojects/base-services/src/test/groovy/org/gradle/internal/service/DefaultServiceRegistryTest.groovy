@@ -20,10 +20,12 @@ import com.google.common.reflect.TypeToken
 import org.gradle.api.Action
 import org.gradle.internal.Factory
 import org.gradle.internal.concurrent.Stoppable
+import org.gradle.test.fixtures.ConcurrentTestUtil
 import org.gradle.util.TextUtil
 import spock.lang.Specification
 
 import java.lang.annotation.Annotation
+import java.lang.ref.WeakReference
 import java.lang.reflect.Type
 import java.util.concurrent.Callable
 
@@ -71,6 +73,74 @@ class DefaultServiceRegistryTest extends Specification {
         1 * parent2.get(BigDecimal) >> value
     }
 
+    def "looks up service in parent only once"() {
+        def value = BigDecimal.TEN
+        def parent = Mock(ParentServices)
+        def registry = new TestRegistry(registry(parent))
+
+        when:
+        def first = registry.get(BigDecimal)
+        def second = registry.get(BigDecimal)
+
+        then:
+        first == value
+        second == value
+
+        and:
+        1 * parent.get(BigDecimal) >> value
+    }
+
+    def "does not return service from parent after parent has been closed"() {
+        def parent = new DefaultServiceRegistry()
+        def parentService = Mock(TestCloseService)
+        def child = new DefaultServiceRegistry(parent)
+        def created = 0
+        parent.addProvider(new Object() {
+            Closeable createCloseableService() {
+                created++
+                parentService
+            }
+        })
+
+        when:
+        def first = child.get(Closeable)
+        def second = child.get(Closeable)
+
+        then:
+        first == parentService
+        second == parentService
+        created == 1
+
+        when:
+        parent.close()
+        child.get(Closeable)
+
+        then:
+        1 * parentService.close()
+        created == 2
+    }
+
+    def "does not keep class of service alive"() {
+        def loader = new GroovyClassLoader(getClass().classLoader)
+        def serviceClass = loader.parseClass("class LoadedService implements Runnable { void run() { } }")
+        def registry = new DefaultServiceRegistry()
+        registry.add(serviceClass, serviceClass.newInstance())
+        registry.get(Runnable)
+        registry.close()
+        def loaderRef = new WeakReference(loader)
+
+        when:
+        loader = null
+        serviceClass = null
+        registry = null
+
+        then:
+        ConcurrentTestUtil.poll {
+            System.gc()
+            assert loaderRef.get() == null
+        }
+    }
+
     def throwsExceptionForUnknownParentService() {
         def parent = Mock(ParentServices);
         def registry = new TestRegistry(registry(parent))
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api
+
+import org.gradle.integtests.fixtures.AbstractIntegrationSpec
+import org.gradle.test.fixtures.server.http.BlockingHttpServer
+import org.junit.Rule
+
+class ParallelProjectConfigurationIntegrationTest extends AbstractIntegrationSpec {
+    @Rule
+    BlockingHttpServer server = new BlockingHttpServer()
+
+    def setup() {
+        server.start()
+        file("gradle.properties") << """
+            org.gradle.configuration.parallel=true
+            org.gradle.parallel=true
+            org.gradle.workers.max=6
+        """.stripIndent()
+    }
+
+    def "sibling projects that read the root project are configured in parallel"() {
+        settingsFile << "include 'a', 'b', 'c'"
+        buildFile << """
+            ext.shared = 'root'
+        """
+        ['a', 'b', 'c'].each {
+            file("$it/build.gradle") << """
+                assert rootProject.shared == 'root'
+                assert parent.name == rootProject.name
+                ${server.callFromBuild(it)}
+                assert rootProject.shared == 'root'
+            """
+        }
+
+        expect:
+        server.expectConcurrent("a", "b", "c")
+        succeeds("help")
+    }
+
+    def "subproject can depend on the evaluation of sibling projects"() {
+        settingsFile << "include 'a', 'b', 'c'"
+        file("a/build.gradle") << """
+            ${server.callFromBuild("a")}
+            evaluationDependsOn(':b')
+            assert project(':b').fromB == 'b'
+        """
+        file("b/build.gradle") << """
+            ${server.callFromBuild("b")}
+            ext.fromB = 'b'
+        """
+        file("c/build.gradle") << """
+            ${server.callFromBuild("c")}
+            evaluationDependsOn(':b')
+            evaluationDependsOn(':a')
+            assert project(':b').fromB == 'b'
+        """
+
+        expect:
+        server.expectConcurrent("a", "b", "c")
+        succeeds("help")
+    }
+
+    def "reports circular evaluation dependency between subprojects"() {
+        settingsFile << "include 'a', 'b'"
+        file("a/build.gradle") << "evaluationDependsOn(':b')"
+        file("b/build.gradle") << "evaluationDependsOn(':a')"
+
+        expect:
+        fails("help")
+        failure.assertHasCause("Circular referencing during ")
+    }
+
+    def "applies allprojects and subprojects blocks run from a subproject"() {
+        settingsFile << "include 'a', 'a:child', 'b', 'c'"
+        buildFile << """
+            gradle.projectsEvaluated {
+                assert subprojects.every { it.configuredBySubprojects }
+                assert project(':a').allprojects.every { it.configuredByAllprojects }
+                assert !project(':b').hasProperty('configuredByAllprojects')
+            }
+        """
+        file("a/build.gradle") << """
+            ${server.callFromBuild("a")}
+            rootProject.subprojects {
+                ext.configuredBySubprojects = true
+            }
+            allprojects {
+                ext.configuredByAllprojects = true
+            }
+        """
+        file("b/build.gradle") << """
+            ${server.callFromBuild("b")}
+        """
+        file("c/build.gradle") << """
+            ${server.callFromBuild("c")}
+        """
+
+        expect:
+        server.expectConcurrent("a", "b", "c")
+        succeeds("help")
+    }
+
+    def "changes made to other projects by subprojects configured in parallel are not lost"() {
+        def projects = (1..4).collect { "p$it" }
+        settingsFile << "include 'shared', ${projects.collect { "'$it'" }.join(', ')}"
+        buildFile << """
+            ext.count = 0
+            gradle.projectsEvaluated {
+                assert count == ${projects.size()}
+                assert project(':shared').tasks.names.findAll { it.startsWith('from') }.size() == ${projects.size()}
+            }
+        """
+        projects.each {
+            file("$it/build.gradle") << """
+                ${server.callFromBuild(it)}
+                project(':') {
+                    count = count + 1
+                }
+                project(':shared') {
+                    tasks.create("from${it}")
+                }
+            """
+        }
+
+        expect:
+        server.expectConcurrent(projects)
+        succeeds("help")
+    }
+
+    def "notifies project evaluation listeners one at a time"() {
+        settingsFile << "include 'a', 'b', 'c', 'd'"
+        buildFile << """
+            def active = 0
+            def maxActive = 0
+            gradle.beforeProject {
+                active++
+                maxActive = Math.max(maxActive, active)
+                active--
+            }
+            subprojects {
+                afterEvaluate {
+                    active++
+                    maxActive = Math.max(maxActive, active)
+                    active--
+                }
+            }
+            gradle.projectsEvaluated {
+                assert maxActive == 1
+            }
+        """
+        ['a', 'b', 'c', 'd'].each {
+            file("$it/build.gradle") << """
+                ${server.callFromBuild(it)}
+            """
+        }
+
+        expect:
+        server.expectConcurrent("a", "b", "c", "d")
+        succeeds("help")
+    }
+}
@@ -25,6 +25,7 @@ import java.util.Set;
 
 public class StartParameterInternal extends StartParameter implements Deprecatable {
     private final Deprecatable deprecationHandler = new LoggingDeprecatable();
+    private boolean parallelProjectConfiguration;
 
     @Override
     public StartParameter newInstance() {
@@ -36,6 +37,13 @@ public class StartParameterInternal extends StartParameter implements Deprecatab
         return prepareNewBuild(new StartParameterInternal());
     }
 
+    @Override
+    protected StartParameter prepareNewBuild(StartParameter p) {
+        super.prepareNewBuild(p);
+        ((StartParameterInternal) p).parallelProjectConfiguration = parallelProjectConfiguration;
+        return p;
+    }
+
     @Override
     public void addDeprecation(String deprecation) {
         deprecationHandler.addDeprecation(deprecation);
@@ -58,4 +66,15 @@ public class StartParameterInternal extends StartParameter implements Deprecatab
     public void setGradleHomeDir(File gradleHomeDir) {
         this.gradleHomeDir = gradleHomeDir;
     }
+
+    /**
+     * Returns true when the projects of a build should be configured in parallel, where possible.
+     */
+    public boolean isParallelProjectConfiguration() {
+        return parallelProjectConfiguration;
+    }
+
+    public void setParallelProjectConfiguration(boolean parallelProjectConfiguration) {
+        this.parallelProjectConfiguration = parallelProjectConfiguration;
+    }
 }
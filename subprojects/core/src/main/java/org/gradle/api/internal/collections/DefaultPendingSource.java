@@ -17,45 +17,63 @@
 package org.gradle.api.internal.collections;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import org.gradle.api.Action;
 import org.gradle.api.internal.provider.CollectionProviderInternal;
 import org.gradle.api.internal.provider.Collectors.*;
 import org.gradle.api.internal.provider.ProviderInternal;
 
-import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 public class DefaultPendingSource<T> implements PendingSource<T> {
-    private final List<TypedCollector<T>> pending = Lists.newArrayList();
+    // Keyed by provider, so that an element realized through its provider can be removed without scanning the pending elements
+    private final Map<ProviderInternal<?>, TypedCollector<T>> pending = Maps.newLinkedHashMap();
+    // The number of pending elements of each type, so that a type with no pending elements can be skipped without scanning the pending elements
+    private final Map<Class<?>, Integer> pendingTypes = Maps.newHashMap();
     private Action<T> flushAction;
 
     @Override
     public void realizePending() {
         if (!pending.isEmpty()) {
-            List<TypedCollector<T>> copied = Lists.newArrayList(pending);
+            List<Map.Entry<ProviderInternal<?>, TypedCollector<T>>> copied = Lists.newArrayList(pending.entrySet());
             realize(copied);
         }
     }
 
     @Override
     public void realizePending(Class<?> type) {
-        if (!pending.isEmpty()) {
-            List<TypedCollector<T>> copied = Lists.newArrayList();
-            for (TypedCollector<T> collector : pending) {
-                if (collector.getType() == null || type.isAssignableFrom(collector.getType())) {
-                    copied.add(collector);
-                }
+        if (!hasPendingOfType(type)) {
+            return;
+        }
+        List<Map.Entry<ProviderInternal<?>, TypedCollector<T>>> copied = Lists.newArrayList();
+        for (Map.Entry<ProviderInternal<?>, TypedCollector<T>> entry : pending.entrySet()) {
+            Class<? extends T> collectorType = entry.getValue().getType();
+            if (collectorType == null || type.isAssignableFrom(collectorType)) {
+                copied.add(entry);
+            }
+        }
+        realize(copied);
+    }
+
+    private boolean hasPendingOfType(Class<?> type) {
+        for (Class<?> pendingType : pendingTypes.keySet()) {
+            if (pendingType == null || type.isAssignableFrom(pendingType)) {
+                return true;
             }
-            realize(copied);
         }
+        return false;
     }
 
-    private void realize(Iterable<TypedCollector<T>> collectors) {
-        for (TypedCollector<T> collector : collectors) {
+    private void realize(Iterable<Map.Entry<ProviderInternal<?>, TypedCollector<T>>> collectors) {
+        for (Map.Entry<ProviderInternal<?>, TypedCollector<T>> entry : collectors) {
             if (flushAction != null) {
-                pending.remove(collector);
+                if (!removeByProvider(entry.getKey())) {
+                    // Already realized while realizing an earlier element
+                    continue;
+                }
                 List<T> realized = Lists.newArrayList();
-                collector.collectInto(realized);
+                entry.getValue().collectInto(realized);
                 for (T element : realized) {
                     flushAction.execute(element);
                 }
@@ -67,7 +85,7 @@ public class DefaultPendingSource<T> implements PendingSource<T> {
 
     @Override
     public boolean addPending(ProviderInternal<? extends T> provider) {
-        return pending.add(new TypedCollector<T>(provider.getType(), new ElementFromProvider<T>(provider)));
+        return add(provider, new TypedCollector<T>(provider.getType(), new ElementFromProvider<T>(provider)));
     }
 
     @Override
@@ -75,21 +93,37 @@ public class DefaultPendingSource<T> implements PendingSource<T> {
         return removeByProvider(provider);
     }
 
+    private boolean add(ProviderInternal<?> provider, TypedCollector<T> collector) {
+        TypedCollector<T> previous = pending.put(provider, collector);
+        if (previous != null) {
+            removeType(previous.getType());
+        }
+        Integer count = pendingTypes.get(collector.getType());
+        pendingTypes.put(collector.getType(), count == null ? 1 : count + 1);
+        return true;
+    }
+
     private boolean removeByProvider(ProviderInternal<?> provider) {
-        Iterator<TypedCollector<T>> iterator = pending.iterator();
-        while (iterator.hasNext()) {
-            TypedCollector<T> collector = iterator.next();
-            if (collector.isProvidedBy(provider)) {
-                iterator.remove();
-                return true;
-            }
+        TypedCollector<T> collector = pending.remove(provider);
+        if (collector == null) {
+            return false;
+        }
+        removeType(collector.getType());
+        return true;
+    }
+
+    private void removeType(Class<?> type) {
+        int count = pendingTypes.get(type);
+        if (count == 1) {
+            pendingTypes.remove(type);
+        } else {
+            pendingTypes.put(type, count - 1);
         }
-        return false;
     }
 
     @Override
     public boolean addPendingCollection(CollectionProviderInternal<T, ? extends Iterable<T>> provider) {
-        return pending.add(new TypedCollector<T>(provider.getElementType(), new ElementsFromCollectionProvider<T>(provider)));
+        return add(provider, new TypedCollector<T>(provider.getElementType(), new ElementsFromCollectionProvider<T>(provider)));
     }
 
     @Override
@@ -115,7 +149,7 @@ public class DefaultPendingSource<T> implements PendingSource<T> {
     @Override
     public int size() {
         int count = 0;
-        for (TypedCollector<T> collector : pending) {
+        for (TypedCollector<T> collector : pending.values()) {
             count += collector.size();
         }
         return count;
@@ -124,5 +158,6 @@ public class DefaultPendingSource<T> implements PendingSource<T> {
     @Override
     public void clear() {
         pending.clear();
+        pendingTypes.clear();
     }
 }
@@ -82,14 +82,12 @@ public class FilteredCollection<T, S extends T> implements ElementSource<S> {
     public boolean isEmpty() {
         if (collection.isEmpty()) {
             return true;
-        } else {
-            for (T o : this) {
-                if (accept(o)) {
-                    return false;
-                }
-            }
-            return true;
         }
+        // Avoid realizing the pending elements when an element that has already been realized matches
+        if (iteratorNoFlush().hasNext()) {
+            return false;
+        }
+        return !iterator().hasNext();
     }
 
     @Override
@@ -159,6 +159,8 @@ public class DefaultProject extends AbstractPluginAware implements ProjectIntern
 
     private ProjectEvaluator projectEvaluator;
 
+    private ProjectStateRegistry projectStateRegistry;
+
     private ScriptSource buildScriptSource;
 
     private final File projectDir;
@@ -651,12 +653,12 @@ public class DefaultProject extends AbstractPluginAware implements ProjectIntern
 
     @Override
     public void subprojects(Action<? super Project> action) {
-        getProjectConfigurator().subprojects(getSubprojects(), action);
+        getProjectConfigurator().subprojects(getSubprojects(), withCrossProjectAccess(action));
     }
 
     @Override
     public void allprojects(Action<? super Project> action) {
-        getProjectConfigurator().allprojects(getAllprojects(), action);
+        getProjectConfigurator().allprojects(getAllprojects(), withCrossProjectAccess(action));
     }
 
     @Override
@@ -765,12 +767,39 @@ public class DefaultProject extends AbstractPluginAware implements ProjectIntern
         return evaluationDependsOn(projectToEvaluate);
     }
 
-    private Project evaluationDependsOn(DefaultProject projectToEvaluate) {
-        if (projectToEvaluate.getState().isConfiguring()) {
-            throw new CircularReferenceException(String.format("Circular referencing during evaluation for %s.",
-                projectToEvaluate));
-        }
-        return projectToEvaluate.evaluate();
+    private Project evaluationDependsOn(final DefaultProject projectToEvaluate) {
+        // When projects are configured in parallel, take the lock of the project first, to wait for any other thread that is configuring it
+        return getProjectStateRegistry().withCrossProjectAccess(projectToEvaluate, new Factory<Project>() {
+            @Override
+            public Project create() {
+                if (projectToEvaluate.getState().isConfiguring()) {
+                    throw new CircularReferenceException(String.format("Circular referencing during evaluation for %s.",
+                        projectToEvaluate));
+                }
+                return projectToEvaluate.evaluate();
+            }
+        });
+    }
+
+    /**
+     * Wraps the given action, which configures other projects, so that it holds the lock of each of these projects while it runs when projects are configured in parallel.
+     */
+    private Action<Project> withCrossProjectAccess(final Action<? super Project> action) {
+        return new Action<Project>() {
+            @Override
+            public void execute(final Project project) {
+                if (project == DefaultProject.this) {
+                    action.execute(project);
+                    return;
+                }
+                getProjectStateRegistry().withCrossProjectAccess((ProjectInternal) project, new Runnable() {
+                    @Override
+                    public void run() {
+                        action.execute(project);
+                    }
+                });
+            }
+        };
     }
 
     @Override
@@ -1146,22 +1175,22 @@ public class DefaultProject extends AbstractPluginAware implements ProjectIntern
 
     @Override
     public void subprojects(Closure configureClosure) {
-        getProjectConfigurator().subprojects(getSubprojects(), ConfigureUtil.<Project>configureUsing(configureClosure));
+        subprojects(ConfigureUtil.<Project>configureUsing(configureClosure));
     }
 
     @Override
     public void allprojects(Closure configureClosure) {
-        getProjectConfigurator().allprojects(getAllprojects(), ConfigureUtil.<Project>configureUsing(configureClosure));
+        allprojects(ConfigureUtil.<Project>configureUsing(configureClosure));
     }
 
     @Override
     public Project project(String path, Closure configureClosure) {
-        return getProjectConfigurator().project(project(path), ConfigureUtil.<Project>configureUsing(configureClosure));
+        return project(path, ConfigureUtil.<Project>configureUsing(configureClosure));
     }
 
     @Override
     public Project project(String path, Action<? super Project> configureAction) {
-        return getProjectConfigurator().project(project(path), configureAction);
+        return getProjectConfigurator().project(project(path), withCrossProjectAccess(configureAction));
     }
 
     @Override
@@ -1446,6 +1475,13 @@ public class DefaultProject extends AbstractPluginAware implements ProjectIntern
 
     @Override
     public ProjectState getMutationState() {
-        return services.get(ProjectStateRegistry.class).stateFor(this);
+        return getProjectStateRegistry().stateFor(this);
+    }
+
+    private ProjectStateRegistry getProjectStateRegistry() {
+        if (projectStateRegistry == null) {
+            projectStateRegistry = services.get(ProjectStateRegistry.class);
+        }
+        return projectStateRegistry;
     }
 }
@@ -17,15 +17,22 @@ package org.gradle.api.internal.project;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.gradle.api.CircularReferenceException;
 import org.gradle.api.Project;
+import org.gradle.api.Transformer;
 import org.gradle.api.artifacts.component.BuildIdentifier;
 import org.gradle.api.artifacts.component.ProjectComponentIdentifier;
 import org.gradle.initialization.DefaultProjectDescriptor;
+import org.gradle.internal.Actions;
 import org.gradle.internal.Factories;
 import org.gradle.internal.Factory;
 import org.gradle.internal.Pair;
 import org.gradle.internal.build.BuildState;
+import org.gradle.internal.resources.ExclusiveAccessResourceLock;
 import org.gradle.internal.resources.ResourceLock;
+import org.gradle.internal.resources.ResourceLockCoordinationService;
+import org.gradle.internal.resources.ResourceLockState;
 import org.gradle.internal.work.WorkerLeaseService;
 import org.gradle.util.Path;
 
@@ -38,7 +45,12 @@ import java.util.concurrent.locks.ReentrantLock;
 
 public class DefaultProjectStateRegistry implements ProjectStateRegistry {
     private final WorkerLeaseService workerLeaseService;
+    private final ResourceLockCoordinationService coordinationService;
     private final Object lock = new Object();
+    // The locks taken by threads that are configuring projects in parallel. Guarded by the resource lock state of the coordination service
+    private final Map<ResourceLock, ParallelConfiguration> parallelLockOwners = Maps.newHashMap();
+    private final ThreadLocal<ParallelConfiguration> parallelConfiguration = new ThreadLocal<ParallelConfiguration>();
+    private final ResourceLock evaluationListenersLock;
     private final Map<Path, ProjectStateImpl> projectsByPath = Maps.newLinkedHashMap();
     private final Map<ProjectComponentIdentifier, ProjectStateImpl> projectsById = Maps.newLinkedHashMap();
     private final Map<Pair<BuildIdentifier, Path>, ProjectStateImpl> projectsByCompId = Maps.newLinkedHashMap();
@@ -49,8 +61,10 @@ public class DefaultProjectStateRegistry implements ProjectStateRegistry {
         }
     };
 
-    public DefaultProjectStateRegistry(WorkerLeaseService workerLeaseService) {
+    public DefaultProjectStateRegistry(WorkerLeaseService workerLeaseService, ResourceLockCoordinationService coordinationService) {
         this.workerLeaseService = workerLeaseService;
+        this.coordinationService = coordinationService;
+        this.evaluationListenersLock = new ExclusiveAccessResourceLock("project evaluation listeners", coordinationService, Actions.<ResourceLock>doNothing(), Actions.<ResourceLock>doNothing());
     }
 
     @Override
@@ -136,6 +150,64 @@ public class DefaultProjectStateRegistry implements ProjectStateRegistry {
         }
     }
 
+    @Override
+    public void withParallelConfiguration(Runnable action) {
+        if (parallelConfiguration.get() != null) {
+            action.run();
+            return;
+        }
+        parallelConfiguration.set(new ParallelConfiguration());
+        try {
+            action.run();
+        } finally {
+            parallelConfiguration.remove();
+        }
+    }
+
+    @Override
+    public void withCrossProjectAccess(ProjectInternal project, Runnable action) {
+        withCrossProjectAccess(project, Factories.toFactory(action));
+    }
+
+    @Override
+    public <T> T withCrossProjectAccess(ProjectInternal project, Factory<T> factory) {
+        ParallelConfiguration parallel = parallelConfiguration.get();
+        if (parallel == null) {
+            return factory.create();
+        }
+        return parallel.withLock(((ProjectStateImpl) stateFor(project)).projectLock, factory);
+    }
+
+    @Override
+    public void notifyProjectEvaluationListeners(Runnable notification) {
+        ParallelConfiguration parallel = parallelConfiguration.get();
+        if (parallel == null) {
+            notification.run();
+            return;
+        }
+        parallel.withLock(evaluationListenersLock, Factories.toFactory(notification));
+    }
+
+    /**
+     * Returns true when waiting for the given lock would deadlock, because the lock is held by a thread that is waiting, directly or through other threads, for a lock held by the given thread.
+     * Must be called while holding the resource lock state.
+     */
+    private boolean wouldDeadlock(ParallelConfiguration waiting, ResourceLock lock) {
+        Set<ParallelConfiguration> visited = Sets.newHashSet();
+        ResourceLock next = lock;
+        while (next != null) {
+            ParallelConfiguration owner = parallelLockOwners.get(next);
+            if (owner == null || !visited.add(owner)) {
+                return false;
+            }
+            if (owner == waiting) {
+                return true;
+            }
+            next = owner.waitingFor;
+        }
+        return false;
+    }
+
     @Override
     public SafeExclusiveLock newExclusiveOperationLock() {
         return new SafeExclusiveLockImpl();
@@ -193,6 +265,12 @@ public class DefaultProjectStateRegistry implements ProjectStateRegistry {
                 return factory.create();
             }
 
+            ParallelConfiguration parallel = parallelConfiguration.get();
+            if (parallel != null) {
+                // Keep the locks of the projects this thread is configuring, so that no other thread can change them part way through
+                return parallel.withLock(projectLock, factory);
+            }
+
             Collection<? extends ResourceLock> currentLocks = workerLeaseService.getCurrentProjectLocks();
             if (currentLocks.contains(projectLock)) {
                 // if we already hold the project lock for this project
@@ -233,6 +311,71 @@ public class DefaultProjectStateRegistry implements ProjectStateRegistry {
         }
     }
 
+    private class ParallelConfiguration {
+        private ResourceLock waitingFor;
+        private boolean alreadyHeld;
+        private boolean circular;
+
+        /**
+         * Creates the given object while holding the given lock, keeping the locks already held by this thread while waiting for it.
+         */
+        <T> T withLock(ResourceLock lock, Factory<T> factory) {
+            if (!acquire(lock)) {
+                return factory.create();
+            }
+            try {
+                return factory.create();
+            } finally {
+                release(lock);
+            }
+        }
+
+        /**
+         * @return false when the current thread already holds the lock.
+         */
+        private boolean acquire(final ResourceLock lock) {
+            alreadyHeld = false;
+            circular = false;
+            coordinationService.withStateLock(new Transformer<ResourceLockState.Disposition, ResourceLockState>() {
+                @Override
+                public ResourceLockState.Disposition transform(ResourceLockState resourceLockState) {
+                    if (lock.isLockedByCurrentThread()) {
+                        alreadyHeld = true;
+                        return ResourceLockState.Disposition.FINISHED;
+                    }
+                    if (lock.tryLock()) {
+                        waitingFor = null;
+                        parallelLockOwners.put(lock, ParallelConfiguration.this);
+                        return ResourceLockState.Disposition.FINISHED;
+                    }
+                    if (wouldDeadlock(ParallelConfiguration.this, lock)) {
+                        waitingFor = null;
+                        circular = true;
+                        return ResourceLockState.Disposition.FINISHED;
+                    }
+                    waitingFor = lock;
+                    return ResourceLockState.Disposition.RETRY;
+                }
+            });
+            if (circular) {
+                throw new CircularReferenceException(String.format("Circular referencing during parallel configuration: the thread that holds the lock for %s is waiting for a lock held by the current thread.",
+                    lock.getDisplayName()));
+            }
+            return !alreadyHeld;
+        }
+
+        private void release(final ResourceLock lock) {
+            coordinationService.withStateLock(new Transformer<ResourceLockState.Disposition, ResourceLockState>() {
+                @Override
+                public ResourceLockState.Disposition transform(ResourceLockState resourceLockState) {
+                    parallelLockOwners.remove(lock);
+                    lock.unlock();
+                    return ResourceLockState.Disposition.FINISHED;
+                }
+            });
+        }
+    }
+
     private class SafeExclusiveLockImpl implements SafeExclusiveLock {
         private final ReentrantLock lock = new ReentrantLock();
 
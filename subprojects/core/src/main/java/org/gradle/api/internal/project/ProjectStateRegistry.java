@@ -72,6 +72,30 @@ public interface ProjectStateRegistry {
      */
     <T> T withLenientState(Factory<T> factory);
 
+    /**
+     * Runs the given action, which configures projects in parallel with other threads. While the action runs, the current thread keeps the project
+     * locks it holds while it waits for another one, and releases each lock as soon as the code that took it completes. Waiting for a lock that is held
+     * by a thread that is itself waiting for a lock held by the current thread fails with a {@link org.gradle.api.CircularReferenceException}.
+     */
+    void withParallelConfiguration(Runnable action);
+
+    /**
+     * Runs the given action, which changes the given project from the configuration of another project. When the current thread is running
+     * {@link #withParallelConfiguration(Runnable)}, holds the lock of the given project while the action runs. Runs the action directly otherwise.
+     */
+    void withCrossProjectAccess(ProjectInternal project, Runnable action);
+
+    /**
+     * Creates the given object, which changes the given project from the configuration of another project. See {@link #withCrossProjectAccess(ProjectInternal, Runnable)}.
+     */
+    <T> T withCrossProjectAccess(ProjectInternal project, Factory<T> factory);
+
+    /**
+     * Runs the given notification of project evaluation listeners. When the current thread is running {@link #withParallelConfiguration(Runnable)},
+     * waits until no other thread is notifying these listeners first, as listeners expect projects to be configured one at a time.
+     */
+    void notifyProjectEvaluationListeners(Runnable notification);
+
     /**
      * Returns a {@link SafeExclusiveLock}.
      */
@@ -34,12 +34,14 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class TaskStatistics implements Closeable {
     private final static Logger LOGGER = Logging.getLogger(TaskStatistics.class);
     private final static String TASK_STATISTICS_PROPERTY = "org.gradle.internal.tasks.stats";
+    private final static String[] INTERNAL_PACKAGES = {"org.gradle.api.internal.", "org.gradle.internal.", "org.gradle.util.", "org.codehaus.groovy.", "groovy.", "java.", "javax.", "sun.", "jdk.", "com.sun."};
 
     private final AtomicInteger eagerTasks = new AtomicInteger();
     private final AtomicInteger lazyTasks = new AtomicInteger();
     private final AtomicInteger lazyRealizedTasks = new AtomicInteger();
     private final Map<Class, Integer> typeCounts = Maps.newHashMap();
     private final Map<Class, Integer> realizedTypeCounts = Maps.newHashMap();
+    private final Map<String, Integer> realizingCallerCounts = Maps.newHashMap();
     private final boolean collectStatistics;
 
     private PrintWriter lazyTaskLog;
@@ -67,15 +69,7 @@ public class TaskStatistics implements Closeable {
     public void eagerTask(Class<?> type) {
         if (collectStatistics) {
             eagerTasks.incrementAndGet();
-            synchronized (typeCounts) {
-                Integer count = typeCounts.get(type);
-                if (count == null) {
-                    count = 1;
-                } else {
-                    count = count + 1;
-                }
-                typeCounts.put(type, count);
-            }
+            increment(typeCounts, type);
         }
     }
 
@@ -88,19 +82,47 @@ public class TaskStatistics implements Closeable {
     public void lazyTaskRealized(Class<?> type) {
         if (collectStatistics) {
             lazyRealizedTasks.incrementAndGet();
-            synchronized (realizedTypeCounts) {
-                Integer count = realizedTypeCounts.get(type);
-                if (count == null) {
-                    count = 1;
-                } else {
-                    count = count + 1;
-                }
-                realizedTypeCounts.put(type, count);
-            }
+            increment(realizedTypeCounts, type);
+            Throwable realizedBy = new Throwable();
+            increment(realizingCallerCounts, realizingCaller(realizedBy.getStackTrace()));
             if (lazyTaskLog != null) {
-                new Throwable().printStackTrace(lazyTaskLog);
+                realizedBy.printStackTrace(lazyTaskLog);
+            }
+        }
+    }
+
+    private static <K> void increment(Map<K, Integer> counts, K key) {
+        synchronized (counts) {
+            Integer count = counts.get(key);
+            if (count == null) {
+                count = 1;
+            } else {
+                count = count + 1;
+            }
+            counts.put(key, count);
+        }
+    }
+
+    /**
+     * Returns the first stack frame outside of Gradle's internals and the language runtime, which is usually the build script or plugin that caused the task to be created.
+     */
+    private static String realizingCaller(StackTraceElement[] stackTrace) {
+        for (StackTraceElement element : stackTrace) {
+            String className = element.getClassName();
+            if (!isInternal(className)) {
+                return element.toString();
+            }
+        }
+        return "unknown";
+    }
+
+    private static boolean isInternal(String className) {
+        for (String prefix : INTERNAL_PACKAGES) {
+            if (className.startsWith(prefix)) {
+                return true;
             }
         }
+        return false;
     }
 
     @Override
@@ -117,20 +139,21 @@ public class TaskStatistics implements Closeable {
 
             printTypeCounts("\nTask types that were created with the old API", typeCounts);
             printTypeCounts("\nTask types that were registered with the new API but were created anyways", realizedTypeCounts);
+            printTypeCounts("\nCallers that caused tasks registered with the new API to be created", realizingCallerCounts);
             IoActions.closeQuietly(lazyTaskLog);
         }
     }
 
-    private void printTypeCounts(String header, Map<Class, Integer> typeCounts) {
+    private <K> void printTypeCounts(String header, Map<K, Integer> typeCounts) {
         if (!typeCounts.isEmpty()) {
             LOGGER.lifecycle(header);
-            List<Map.Entry<Class, Integer>> sorted = CollectionUtils.sort(typeCounts.entrySet(), new Comparator<Map.Entry<Class, Integer>>() {
+            List<Map.Entry<K, Integer>> sorted = CollectionUtils.sort(typeCounts.entrySet(), new Comparator<Map.Entry<K, Integer>>() {
                 @Override
-                public int compare(Map.Entry<Class, Integer> a, Map.Entry<Class, Integer> b) {
+                public int compare(Map.Entry<K, Integer> a, Map.Entry<K, Integer> b) {
                     return b.getValue().compareTo(a.getValue());
                 }
             });
-            for (Map.Entry<Class, Integer> typeCount : sorted) {
+            for (Map.Entry<K, Integer> typeCount : sorted) {
                 LOGGER.lifecycle(typeCount.getKey() + " " + typeCount.getValue());
             }
         }
@@ -17,6 +17,7 @@ package org.gradle.configuration;
 
 import org.gradle.StartParameter;
 import org.gradle.api.internal.GradleInternal;
+import org.gradle.api.internal.StartParameterInternal;
 import org.gradle.execution.ProjectConfigurer;
 import org.gradle.initialization.BuildLoader;
 import org.gradle.initialization.ModelConfigurationListener;
@@ -51,6 +52,9 @@ public class DefaultProjectsPreparer implements ProjectsPreparer {
         }
         if (gradle.getStartParameter().isConfigureOnDemand()) {
             projectConfigurer.configure(gradle.getRootProject());
+        } else if (isParallelProjectConfiguration(gradle.getStartParameter())) {
+            projectConfigurer.configureHierarchyInParallel(gradle.getRootProject());
+            new ProjectsEvaluatedNotifier(buildOperationExecutor).notify(gradle);
         } else {
             projectConfigurer.configureHierarchy(gradle.getRootProject());
             new ProjectsEvaluatedNotifier(buildOperationExecutor).notify(gradle);
@@ -64,6 +68,12 @@ public class DefaultProjectsPreparer implements ProjectsPreparer {
 
         if (startParameter.isConfigureOnDemand()) {
             SingleMessageLogger.incubatingFeatureUsed("Configuration on demand");
+        } else if (isParallelProjectConfiguration(startParameter)) {
+            SingleMessageLogger.incubatingFeatureUsed("Parallel project configuration");
         }
     }
+
+    private static boolean isParallelProjectConfiguration(StartParameter startParameter) {
+        return startParameter instanceof StartParameterInternal && ((StartParameterInternal) startParameter).isParallelProjectConfiguration();
+    }
 }
@@ -20,6 +20,7 @@ import org.gradle.api.ProjectConfigurationException;
 import org.gradle.api.ProjectEvaluationListener;
 import org.gradle.api.internal.project.ProjectInternal;
 import org.gradle.api.internal.project.ProjectStateInternal;
+import org.gradle.api.internal.project.ProjectStateRegistry;
 import org.gradle.internal.operations.BuildOperationCategory;
 import org.gradle.internal.operations.BuildOperationContext;
 import org.gradle.internal.operations.BuildOperationDescriptor;
@@ -56,16 +57,26 @@ public class LifecycleProjectEvaluator implements ProjectEvaluator {
 
     private final BuildOperationExecutor buildOperationExecutor;
     private final ProjectEvaluator delegate;
+    private final ProjectStateRegistry projectStateRegistry;
 
-    public LifecycleProjectEvaluator(BuildOperationExecutor buildOperationExecutor, ProjectEvaluator delegate) {
+    public LifecycleProjectEvaluator(BuildOperationExecutor buildOperationExecutor, ProjectEvaluator delegate, ProjectStateRegistry projectStateRegistry) {
         this.buildOperationExecutor = buildOperationExecutor;
         this.delegate = delegate;
+        this.projectStateRegistry = projectStateRegistry;
     }
 
     @Override
     public void evaluate(final ProjectInternal project, final ProjectStateInternal state) {
         if (state.isUnconfigured()) {
-            buildOperationExecutor.run(new EvaluateProject(project, state));
+            project.getMutationState().withMutableState(new Runnable() {
+                @Override
+                public void run() {
+                    // Check again, as another thread may have configured the project while this thread was waiting for its lock
+                    if (state.isUnconfigured()) {
+                        buildOperationExecutor.run(new EvaluateProject(project, state));
+                    }
+                }
+            });
         }
     }
 
@@ -93,35 +104,39 @@ public class LifecycleProjectEvaluator implements ProjectEvaluator {
 
         @Override
         public void run(final BuildOperationContext context) {
-            project.getMutationState().withMutableState(new Runnable() {
-                @Override
-                public void run() {
-                    // Note: beforeEvaluate and afterEvaluate ops do not throw, instead mark state as failed
+            // Note: beforeEvaluate and afterEvaluate ops do not throw, instead mark state as failed
+            try {
+                state.toBeforeEvaluate();
+                notifyListeners(new NotifyBeforeEvaluate(project, state));
+
+                if (!state.hasFailure()) {
+                    state.toEvaluate();
                     try {
-                        state.toBeforeEvaluate();
-                        buildOperationExecutor.run(new NotifyBeforeEvaluate(project, state));
-
-                        if (!state.hasFailure()) {
-                            state.toEvaluate();
-                            try {
-                                delegate.evaluate(project, state);
-                            } catch (Exception e) {
-                                addConfigurationFailure(project, state, e, context);
-                            } finally {
-                                state.toAfterEvaluate();
-                                buildOperationExecutor.run(new NotifyAfterEvaluate(project, state));
-                            }
-                        }
-
-                        if (state.hasFailure()) {
-                            state.rethrowFailure();
-                        } else {
-                            context.setResult(ConfigureProjectBuildOperationType.RESULT);
-                        }
+                        delegate.evaluate(project, state);
+                    } catch (Exception e) {
+                        addConfigurationFailure(project, state, e, context);
                     } finally {
-                        state.configured();
+                        state.toAfterEvaluate();
+                        notifyListeners(new NotifyAfterEvaluate(project, state));
                     }
                 }
+
+                if (state.hasFailure()) {
+                    state.rethrowFailure();
+                } else {
+                    context.setResult(ConfigureProjectBuildOperationType.RESULT);
+                }
+            } finally {
+                state.configured();
+            }
+        }
+
+        private void notifyListeners(final RunnableBuildOperation notification) {
+            projectStateRegistry.notifyProjectEvaluationListeners(new Runnable() {
+                @Override
+                public void run() {
+                    buildOperationExecutor.run(notification);
+                }
             });
         }
 
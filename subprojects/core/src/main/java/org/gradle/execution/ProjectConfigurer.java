@@ -34,6 +34,11 @@ public interface ProjectConfigurer {
      */
     void configureHierarchy(ProjectInternal project);
 
+    /**
+     * Configures the given project and all its sub-projects, configuring the sub-projects at each level of the hierarchy in parallel.
+     */
+    void configureHierarchyInParallel(ProjectInternal project);
+
     /*
      * Configures the project and all of its sub-projects, including task discovery and binding model rules.
      */
@@ -16,16 +16,32 @@
 
 package org.gradle.execution;
 
+import org.gradle.api.Action;
 import org.gradle.api.BuildCancelledException;
 import org.gradle.api.Project;
 import org.gradle.api.internal.project.ProjectInternal;
+import org.gradle.api.internal.project.ProjectStateRegistry;
 import org.gradle.initialization.BuildCancellationToken;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.BuildOperationQueue;
+import org.gradle.internal.operations.RunnableBuildOperation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 public class TaskPathProjectEvaluator implements ProjectConfigurer {
     private final BuildCancellationToken cancellationToken;
+    private final BuildOperationExecutor buildOperationExecutor;
+    private final ProjectStateRegistry projectStateRegistry;
 
-    public TaskPathProjectEvaluator(BuildCancellationToken cancellationToken) {
+    public TaskPathProjectEvaluator(BuildCancellationToken cancellationToken, BuildOperationExecutor buildOperationExecutor, ProjectStateRegistry projectStateRegistry) {
         this.cancellationToken = cancellationToken;
+        this.buildOperationExecutor = buildOperationExecutor;
+        this.projectStateRegistry = projectStateRegistry;
     }
 
     @Override
@@ -65,6 +81,34 @@ public class TaskPathProjectEvaluator implements ProjectConfigurer {
         }
     }
 
+    @Override
+    public void configureHierarchyInParallel(ProjectInternal project) {
+        configure(project);
+
+        // A project is configured after its parent, so that the allprojects {} and subprojects {} actions of the parent have been applied to it.
+        // Each project is configured while holding its project lock. Configuration that changes another project also takes the lock of that
+        // project while it does so. Reading another project takes no lock, so projects that only read a shared project are configured concurrently.
+        Map<Integer, List<ProjectInternal>> projectsByDepth = new TreeMap<Integer, List<ProjectInternal>>();
+        for (Project sub : project.getSubprojects()) {
+            List<ProjectInternal> projects = projectsByDepth.get(sub.getDepth());
+            if (projects == null) {
+                projects = new ArrayList<ProjectInternal>();
+                projectsByDepth.put(sub.getDepth(), projects);
+            }
+            projects.add((ProjectInternal) sub);
+        }
+        for (final List<ProjectInternal> projects : projectsByDepth.values()) {
+            buildOperationExecutor.runAll(new Action<BuildOperationQueue<ConfigureProject>>() {
+                @Override
+                public void execute(BuildOperationQueue<ConfigureProject> queue) {
+                    for (ProjectInternal sub : projects) {
+                        queue.add(new ConfigureProject(sub));
+                    }
+                }
+            });
+        }
+    }
+
     @Override
     public void configureHierarchyFully(ProjectInternal project) {
         configureFully(project);
@@ -72,4 +116,27 @@ public class TaskPathProjectEvaluator implements ProjectConfigurer {
             configureFully((ProjectInternal) sub);
         }
     }
+
+    private class ConfigureProject implements RunnableBuildOperation {
+        private final ProjectInternal project;
+
+        ConfigureProject(ProjectInternal project) {
+            this.project = project;
+        }
+
+        @Override
+        public void run(BuildOperationContext context) {
+            projectStateRegistry.withParallelConfiguration(new Runnable() {
+                @Override
+                public void run() {
+                    configure(project);
+                }
+            });
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            return BuildOperationDescriptor.displayName("Configure " + project.getDisplayName() + " in parallel");
+        }
+    }
 }
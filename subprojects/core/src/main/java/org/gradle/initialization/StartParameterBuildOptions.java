@@ -54,6 +54,7 @@ public class StartParameterBuildOptions {
         options.add(new ExcludeTaskOption());
         options.add(new IncludeBuildOption());
         options.add(new ConfigureOnDemandOption());
+        options.add(new ParallelProjectConfigurationOption());
         options.add(new BuildCacheOption());
         options.add(new BuildCacheDebugLoggingOption());
         options.add(new BuildScanOption());
@@ -252,6 +253,19 @@ public class StartParameterBuildOptions {
         }
     }
 
+    public static class ParallelProjectConfigurationOption extends BooleanBuildOption<StartParameterInternal> {
+        public static final String GRADLE_PROPERTY = "org.gradle.configuration.parallel";
+
+        public ParallelProjectConfigurationOption() {
+            super(GRADLE_PROPERTY);
+        }
+
+        @Override
+        public void applyTo(boolean value, StartParameterInternal settings, Origin origin) {
+            settings.setParallelProjectConfiguration(value);
+        }
+    }
+
     public static class BuildCacheOption extends BooleanBuildOption<StartParameterInternal> {
         public static final String GRADLE_PROPERTY = "org.gradle.caching";
 
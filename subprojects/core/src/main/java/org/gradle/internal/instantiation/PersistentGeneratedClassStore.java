@@ -0,0 +1,104 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.instantiation;
+
+import org.gradle.cache.CacheRepository;
+import org.gradle.cache.FileLockManager;
+import org.gradle.cache.PersistentCache;
+import org.gradle.cache.internal.LeastRecentlyUsedCacheCleanup;
+import org.gradle.cache.internal.SingleDepthFilesFinder;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.resource.local.FileAccessTimeJournal;
+import org.gradle.internal.resource.local.SingleDepthFileAccessTracker;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+import static org.gradle.cache.internal.LeastRecentlyUsedCacheCleanup.DEFAULT_MAX_AGE_IN_DAYS_FOR_RECREATABLE_CACHE_ENTRIES;
+import static org.gradle.cache.internal.filelock.LockOptionsBuilder.mode;
+
+/**
+ * Stores generated classes in a cache in the Gradle user home, which is specific to the Gradle version and shared by all daemons.
+ *
+ * <p>Each entry is kept in its own file, which is written atomically, so entries can be read and written without locking the cache.
+ * Entries which have not been used recently are removed by cache cleanup.</p>
+ */
+public class PersistentGeneratedClassStore implements GeneratedClassStore, Closeable {
+    private static final int FILE_TREE_DEPTH_TO_TRACK_AND_CLEANUP = 1;
+
+    private final PersistentCache cache;
+    private final File storeDir;
+    private final SingleDepthFileAccessTracker fileAccessTracker;
+
+    public PersistentGeneratedClassStore(CacheRepository cacheRepository, FileAccessTimeJournal fileAccessTimeJournal) {
+        cache = cacheRepository
+            .cache("generated-classes")
+            .withDisplayName("generated classes cache")
+            .withCleanup(new LeastRecentlyUsedCacheCleanup(new SingleDepthFilesFinder(FILE_TREE_DEPTH_TO_TRACK_AND_CLEANUP), fileAccessTimeJournal, DEFAULT_MAX_AGE_IN_DAYS_FOR_RECREATABLE_CACHE_ENTRIES))
+            .withLockOptions(mode(FileLockManager.LockMode.None)) // Lock on demand
+            .open();
+        storeDir = cache.getBaseDir();
+        fileAccessTracker = new SingleDepthFileAccessTracker(fileAccessTimeJournal, storeDir, FILE_TREE_DEPTH_TO_TRACK_AND_CLEANUP);
+    }
+
+    @Nullable
+    @Override
+    public byte[] load(HashCode key) {
+        File entryFile = entryFile(key);
+        byte[] entry;
+        try {
+            entry = Files.readAllBytes(entryFile.toPath());
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            // Generate the class again instead
+            return null;
+        }
+        fileAccessTracker.markAccessed(entryFile);
+        return entry;
+    }
+
+    @Override
+    public void store(HashCode key, byte[] entry) {
+        File entryFile = entryFile(key);
+        File tempFile = new File(storeDir, key + "-" + UUID.randomUUID() + ".tmp");
+        try {
+            Files.write(tempFile.toPath(), entry);
+            Files.move(tempFile.toPath(), entryFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            // Not stored, so the class is generated again by the next process
+            tempFile.delete();
+            return;
+        }
+        fileAccessTracker.markAccessed(entryFile);
+    }
+
+    private File entryFile(HashCode key) {
+        return new File(storeDir, key + ".bin");
+    }
+
+    @Override
+    public void close() {
+        cache.close();
+    }
+}
@@ -25,6 +25,7 @@ import org.gradle.initialization.exception.DefaultExceptionAnalyser;
 import org.gradle.initialization.exception.MultipleBuildFailuresExceptionAnalyser;
 import org.gradle.initialization.exception.StackTraceSanitizingExceptionAnalyser;
 import org.gradle.internal.event.ListenerManager;
+import org.gradle.internal.resources.ResourceLockCoordinationService;
 import org.gradle.internal.service.DefaultServiceRegistry;
 import org.gradle.internal.service.ServiceRegistration;
 import org.gradle.internal.service.ServiceRegistry;
@@ -54,7 +55,7 @@ public class BuildTreeScopeServices extends DefaultServiceRegistry {
         return exceptionAnalyser;
     }
 
-    public DefaultProjectStateRegistry createProjectPathRegistry(WorkerLeaseService workerLeaseService) {
-        return new DefaultProjectStateRegistry(workerLeaseService);
+    public DefaultProjectStateRegistry createProjectPathRegistry(WorkerLeaseService workerLeaseService, ResourceLockCoordinationService coordinationService) {
+        return new DefaultProjectStateRegistry(workerLeaseService, coordinationService);
     }
 }
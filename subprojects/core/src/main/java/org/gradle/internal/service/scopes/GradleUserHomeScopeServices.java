@@ -75,6 +75,11 @@ import org.gradle.internal.hash.FileHasher;
 import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.hash.StreamHasher;
 import org.gradle.internal.id.LongIdGenerator;
+import org.gradle.internal.instantiation.DefaultInstantiatorFactory;
+import org.gradle.internal.instantiation.GeneratedClassStore;
+import org.gradle.internal.instantiation.InjectAnnotationHandler;
+import org.gradle.internal.instantiation.InstantiatorFactory;
+import org.gradle.internal.instantiation.PersistentGeneratedClassStore;
 import org.gradle.internal.jvm.inspection.JvmVersionDetector;
 import org.gradle.internal.logging.LoggingManagerInternal;
 import org.gradle.internal.logging.events.OutputEventListener;
@@ -147,6 +152,15 @@ public class GradleUserHomeScopeServices {
         return new CrossBuildInMemoryCachingScriptClassCache(cacheFactory);
     }
 
+    PersistentGeneratedClassStore createGeneratedClassStore(CacheRepository cacheRepository, FileAccessTimeJournal fileAccessTimeJournal) {
+        return new PersistentGeneratedClassStore(cacheRepository, fileAccessTimeJournal);
+    }
+
+    InstantiatorFactory createInstantiatorFactory(CrossBuildInMemoryCacheFactory cacheFactory, List<InjectAnnotationHandler> annotationHandlers, GeneratedClassStore generatedClassStore, ClassLoaderHierarchyHasher classLoaderHierarchyHasher) {
+        // Classes generated in this process are shared with the global factory, and classes generated by other processes are reused from the store
+        return new DefaultInstantiatorFactory(cacheFactory, annotationHandlers, generatedClassStore, classLoaderHierarchyHasher);
+    }
+
     DefaultValueSnapshotter createValueSnapshotter(ClassLoaderHierarchyHasher classLoaderHierarchyHasher) {
         return new DefaultValueSnapshotter(classLoaderHierarchyHasher);
     }
@@ -38,6 +38,7 @@ import org.gradle.api.internal.plugins.PluginManagerInternal;
 import org.gradle.api.internal.project.AbstractPluginAware;
 import org.gradle.api.internal.project.CrossProjectConfigurator;
 import org.gradle.api.internal.project.ProjectInternal;
+import org.gradle.api.internal.project.ProjectStateRegistry;
 import org.gradle.api.invocation.Gradle;
 import org.gradle.configuration.ScriptPluginFactory;
 import org.gradle.configuration.internal.ListenerBuildOperationDecorator;
@@ -235,10 +236,15 @@ public class DefaultGradle extends AbstractPluginAware implements GradleInternal
         rootProject("Gradle.rootProject", action);
     }
 
-    private void rootProject(String registrationPoint, Action<? super Project> action) {
+    private void rootProject(String registrationPoint, final Action<? super Project> action) {
         if (projectsLoaded) {
             assert rootProject != null;
-            action.execute(rootProject);
+            getProjectStateRegistry().withCrossProjectAccess(rootProject, new Runnable() {
+                @Override
+                public void run() {
+                    action.execute(rootProject);
+                }
+            });
         } else {
             // only need to decorate when this callback is delayed
             rootProjectActions.add(getListenerBuildOperationDecorator().decorate(registrationPoint, action));
@@ -483,6 +489,11 @@ public class DefaultGradle extends AbstractPluginAware implements GradleInternal
         throw new UnsupportedOperationException();
     }
 
+    @Inject
+    protected ProjectStateRegistry getProjectStateRegistry() {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     @Inject
     public PluginManagerInternal getPluginManager() {
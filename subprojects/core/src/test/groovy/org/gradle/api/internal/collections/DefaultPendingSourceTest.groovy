@@ -70,6 +70,40 @@ class DefaultPendingSourceTest extends Specification {
         pending.size() == 1
     }
 
+    def "does not realize pending elements when none has the given type"() {
+        _ * provider1.getType() >> SomeOtherType.class
+        _ * provider2.getType() >> SomeOtherType.class
+
+        when:
+        pending.addPending(provider1)
+        pending.addPending(provider2)
+        pending.realizePending(SomeType.class)
+
+        then:
+        0 * realize.execute(_)
+        0 * provider1.get()
+        0 * provider2.get()
+
+        and:
+        pending.size() == 2
+    }
+
+    def "does not realize pending element again when it is realized while realizing another element"() {
+        given:
+        pending.addPending(provider1)
+        pending.addPending(provider2)
+
+        when:
+        pending.realizePending()
+
+        then:
+        1 * realize.execute("provider1") >> { pending.realizeExternal(provider2) }
+        0 * realize.execute("provider2")
+
+        and:
+        pending.isEmpty()
+    }
+
     def "cannot realize pending elements when realize action is not set"() {
         given:
         pending.onRealize(null)
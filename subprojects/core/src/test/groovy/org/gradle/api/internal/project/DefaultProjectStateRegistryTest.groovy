@@ -16,6 +16,7 @@
 
 package org.gradle.api.internal.project
 
+import org.gradle.api.CircularReferenceException
 import org.gradle.api.internal.SettingsInternal
 import org.gradle.api.internal.artifacts.DefaultBuildIdentifier
 import org.gradle.api.internal.artifacts.DefaultProjectComponentIdentifier
@@ -28,10 +29,13 @@ import org.gradle.internal.work.DefaultWorkerLeaseService
 import org.gradle.test.fixtures.concurrent.ConcurrentSpec
 import org.gradle.util.Path
 
+import java.util.concurrent.CopyOnWriteArrayList
+
 class DefaultProjectStateRegistryTest extends ConcurrentSpec {
-    def workerLeaseService =  new DefaultWorkerLeaseService(new DefaultResourceLockCoordinationService(), new ParallelismConfigurationManagerFixture(true, 4))
+    def coordinationService = new DefaultResourceLockCoordinationService()
+    def workerLeaseService =  new DefaultWorkerLeaseService(coordinationService, new ParallelismConfigurationManagerFixture(true, 4))
     def parentLease = workerLeaseService.getWorkerLease()
-    def registry = new DefaultProjectStateRegistry(workerLeaseService)
+    def registry = new DefaultProjectStateRegistry(workerLeaseService, coordinationService)
 
     def "adds projects for a build"() {
         given:
@@ -149,6 +153,184 @@ class DefaultProjectStateRegistryTest extends ConcurrentSpec {
         !registry.stateFor(project("p1")).hasMutableState()
     }
 
+    def "holds the lock of another project only while changing it when configuring in parallel"() {
+        given:
+        def build = build("p1", "p2")
+        def project1 = project("p1")
+        def project2 = project("p2")
+
+        registry.registerProjects(build)
+        def state1 = registry.stateFor(project1)
+        def state2 = registry.stateFor(project2)
+
+        def projectLock1 = workerLeaseService.getProjectLock(build.getIdentityPath(), project1.getIdentityPath())
+        def projectLock2 = workerLeaseService.getProjectLock(build.getIdentityPath(), project2.getIdentityPath())
+
+        when:
+        async {
+            workerThread {
+                registry.withParallelConfiguration {
+                    state1.withMutableState {
+                        thread.blockUntil.start2
+                        registry.withCrossProjectAccess(project2) {
+                            instant.access
+                            assert workerLeaseService.getCurrentProjectLocks() as Set == [projectLock1, projectLock2] as Set
+                        }
+                        assert workerLeaseService.getCurrentProjectLocks() as Set == [projectLock1] as Set
+                    }
+                }
+                assert workerLeaseService.getCurrentProjectLocks().empty
+            }
+            workerThread {
+                registry.withParallelConfiguration {
+                    state2.withMutableState {
+                        instant.start2
+                        thread.block()
+                        instant.finished2
+                    }
+                }
+            }
+        }
+
+        then:
+        instant.access > instant.finished2
+    }
+
+    def "keeps project locks while waiting for another project when configuring in parallel"() {
+        given:
+        def build = build("p1", "p2")
+        def project1 = project("p1")
+        def project2 = project("p2")
+
+        registry.registerProjects(build)
+        def state1 = registry.stateFor(project1)
+        def state2 = registry.stateFor(project2)
+
+        when:
+        async {
+            workerThread {
+                registry.withParallelConfiguration {
+                    state1.withMutableState {
+                        thread.blockUntil.start2
+                        instant.waiting1
+                        registry.withCrossProjectAccess(project2) {
+                            instant.access1
+                        }
+                    }
+                }
+            }
+            workerThread {
+                registry.withParallelConfiguration {
+                    state2.withMutableState {
+                        instant.start2
+                        thread.blockUntil.waiting1
+                        thread.block()
+                    }
+                }
+            }
+            workerThread {
+                thread.blockUntil.waiting1
+                state1.withMutableState {
+                    instant.access3
+                }
+            }
+        }
+
+        then:
+        instant.access3 > instant.access1
+    }
+
+    def "reports projects that change each other while configuring in parallel"() {
+        given:
+        def build = build("p1", "p2")
+        def project1 = project("p1")
+        def project2 = project("p2")
+
+        registry.registerProjects(build)
+        def state1 = registry.stateFor(project1)
+        def state2 = registry.stateFor(project2)
+        def failures = new CopyOnWriteArrayList<CircularReferenceException>()
+
+        when:
+        async {
+            workerThread {
+                registry.withParallelConfiguration {
+                    state1.withMutableState {
+                        instant.start1
+                        thread.blockUntil.start2
+                        try {
+                            registry.withCrossProjectAccess(project2) {}
+                        } catch (CircularReferenceException e) {
+                            failures << e
+                        }
+                    }
+                }
+            }
+            workerThread {
+                registry.withParallelConfiguration {
+                    state2.withMutableState {
+                        instant.start2
+                        thread.blockUntil.start1
+                        try {
+                            registry.withCrossProjectAccess(project1) {}
+                        } catch (CircularReferenceException e) {
+                            failures << e
+                        }
+                    }
+                }
+            }
+        }
+
+        then:
+        failures.size() == 1
+        failures[0].message.startsWith("Circular referencing during parallel configuration")
+    }
+
+    def "does not take lock of other project when not configuring in parallel"() {
+        given:
+        def build = build("p1", "p2")
+        registry.registerProjects(build)
+        def state1 = registry.stateFor(project("p1"))
+        def state2 = registry.stateFor(project("p2"))
+
+        expect:
+        async {
+            workerThread {
+                state1.withMutableState {
+                    registry.withCrossProjectAccess(project("p2")) {
+                        assert !state2.hasMutableState()
+                    }
+                }
+            }
+        }
+    }
+
+    def "notifies project evaluation listeners one thread at a time when configuring in parallel"() {
+        when:
+        async {
+            workerThread {
+                registry.withParallelConfiguration {
+                    registry.notifyProjectEvaluationListeners {
+                        instant.notify1
+                        thread.block()
+                        instant.finished1
+                    }
+                }
+            }
+            workerThread {
+                registry.withParallelConfiguration {
+                    thread.blockUntil.notify1
+                    registry.notifyProjectEvaluationListeners {
+                        instant.notify2
+                    }
+                }
+            }
+        }
+
+        then:
+        instant.notify2 > instant.finished1
+    }
+
     ProjectInternal project(String name) {
         def project = Stub(ProjectInternal)
         project.identityPath >> (name == ':' ? Path.ROOT : Path.ROOT.child(name))
@@ -225,6 +225,8 @@ class DefaultProjectTest extends Specification {
         serviceRegistryMock.get(ProjectStateRegistry) >> projectStateRegistryMock
         projectStateRegistryMock.stateFor(_) >> projectStateMock
         projectStateMock.withMutableState(_) >> { Runnable runnable -> runnable.run() }
+        projectStateRegistryMock.withCrossProjectAccess(_, _ as Runnable) >> { ProjectInternal project, Runnable runnable -> runnable.run() }
+        projectStateRegistryMock.withCrossProjectAccess(_, _ as Factory) >> { ProjectInternal project, Factory factory -> factory.create() }
 
         ModelSchemaStore modelSchemaStore = Stub(ModelSchemaStore)
         serviceRegistryMock.get((Type) ModelSchemaStore) >> modelSchemaStore
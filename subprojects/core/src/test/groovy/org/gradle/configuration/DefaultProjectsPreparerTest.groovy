@@ -15,8 +15,8 @@
  */
 package org.gradle.configuration
 
-import org.gradle.StartParameter
 import org.gradle.api.internal.GradleInternal
+import org.gradle.api.internal.StartParameterInternal
 import org.gradle.api.internal.project.ProjectInternal
 import org.gradle.execution.ProjectConfigurer
 import org.gradle.initialization.BuildLoader
@@ -26,7 +26,7 @@ import org.gradle.internal.operations.BuildOperationExecutor
 import spock.lang.Specification
 
 class DefaultProjectsPreparerTest extends Specification {
-    def startParameter = Mock(StartParameter)
+    def startParameter = Mock(StartParameterInternal)
     def gradle = Mock(GradleInternal)
     def rootProject = Mock(ProjectInternal)
     def projectConfigurer = Mock(ProjectConfigurer)
@@ -57,4 +57,14 @@ class DefaultProjectsPreparerTest extends Specification {
         startParameter.isConfigureOnDemand() >> true
         1 * projectConfigurer.configure(rootProject)
     }
+
+    def "configures build for parallel mode"() {
+        when:
+        configurer.prepareProjects(gradle)
+
+        then:
+        startParameter.isParallelProjectConfiguration() >> true
+        1 * projectConfigurer.configureHierarchyInParallel(rootProject)
+        0 * projectConfigurer.configureHierarchy(_)
+    }
 }
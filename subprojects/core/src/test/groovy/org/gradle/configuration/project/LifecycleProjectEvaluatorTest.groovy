@@ -23,6 +23,7 @@ import org.gradle.api.internal.GradleInternal
 import org.gradle.api.internal.project.ProjectInternal
 import org.gradle.api.internal.project.ProjectState
 import org.gradle.api.internal.project.ProjectStateInternal
+import org.gradle.api.internal.project.ProjectStateRegistry
 import org.gradle.internal.operations.TestBuildOperationExecutor
 import org.gradle.util.Path
 import spock.lang.Specification
@@ -34,7 +35,8 @@ class LifecycleProjectEvaluatorTest extends Specification {
     private listener = Mock(ProjectEvaluationListener)
     private delegate = Mock(ProjectEvaluator)
     private buildOperationExecutor = new TestBuildOperationExecutor()
-    private evaluator = new LifecycleProjectEvaluator(buildOperationExecutor, delegate)
+    private projectStateRegistry = Mock(ProjectStateRegistry)
+    private evaluator = new LifecycleProjectEvaluator(buildOperationExecutor, delegate, projectStateRegistry)
     private state = new ProjectStateInternal()
     private mutationState = Mock(ProjectState)
 
@@ -57,6 +59,7 @@ class LifecycleProjectEvaluatorTest extends Specification {
         }
         project.getMutationState() >> mutationState
         mutationState.withMutableState(_) >> { args -> args[0].run() }
+        projectStateRegistry.notifyProjectEvaluationListeners(_) >> { Runnable notification -> notification.run() }
     }
 
     void "nothing happens if project was already configured"() {
@@ -89,6 +92,21 @@ class LifecycleProjectEvaluatorTest extends Specification {
         operations.empty
     }
 
+    void "nothing happens if project was configured by another thread while waiting for its lock"() {
+        when:
+        evaluate()
+
+        then:
+        1 * mutationState.withMutableState(_) >> { Runnable action ->
+            state.configured()
+            action.run()
+        }
+        0 * delegate._
+
+        and:
+        operations.empty
+    }
+
     void "evaluates the project firing all necessary listeners and updating the state"() {
         when:
         evaluate()
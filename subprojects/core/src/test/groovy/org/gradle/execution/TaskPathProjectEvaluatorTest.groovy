@@ -18,13 +18,17 @@ package org.gradle.execution
 
 import org.gradle.api.BuildCancelledException
 import org.gradle.api.internal.project.ProjectInternal
+import org.gradle.api.internal.project.ProjectStateRegistry
 import org.gradle.initialization.BuildCancellationToken
+import org.gradle.internal.operations.TestBuildOperationExecutor
 import spock.lang.Specification
 
 class TaskPathProjectEvaluatorTest extends Specification {
     private cancellationToken = Mock(BuildCancellationToken)
     private project = Mock(ProjectInternal)
-    private evaluator = new TaskPathProjectEvaluator(cancellationToken)
+    private buildOperationExecutor = new TestBuildOperationExecutor()
+    private projectStateRegistry = Mock(ProjectStateRegistry)
+    private evaluator = new TaskPathProjectEvaluator(cancellationToken, buildOperationExecutor, projectStateRegistry)
 
     def "project configuration fails when cancelled"() {
         given:
@@ -60,4 +64,28 @@ class TaskPathProjectEvaluatorTest extends Specification {
         1 * child1.evaluate()
         0 * child2._
     }
+
+    def "configures each level of the project hierarchy in parallel after its parent"() {
+        def child1 = Mock(ProjectInternal) { getDepth() >> 1 }
+        def child2 = Mock(ProjectInternal) { getDepth() >> 1 }
+        def grandchild = Mock(ProjectInternal) { getDepth() >> 2 }
+
+        given:
+        project.subprojects >> [child1, grandchild, child2]
+
+        when:
+        evaluator.configureHierarchyInParallel(project)
+
+        then:
+        1 * project.evaluate()
+
+        then:
+        2 * projectStateRegistry.withParallelConfiguration(_) >> { Runnable action -> action.run() }
+        1 * child1.evaluate()
+        1 * child2.evaluate()
+
+        then:
+        1 * projectStateRegistry.withParallelConfiguration(_) >> { Runnable action -> action.run() }
+        1 * grandchild.evaluate()
+    }
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.instantiation
+
+import org.gradle.cache.internal.CacheScopeMapping
+import org.gradle.cache.internal.DefaultCacheRepository
+import org.gradle.internal.hash.HashCode
+import org.gradle.internal.resource.local.ModificationTimeFileAccessTimeJournal
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.testfixtures.internal.InMemoryCacheFactory
+import org.junit.Rule
+import spock.lang.Specification
+
+class PersistentGeneratedClassStoreTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+
+    def cacheDir = tmpDir.createDir("generated-classes")
+    def cacheScopeMapping = Stub(CacheScopeMapping) {
+        getBaseDirectory(_, "generated-classes", _) >> cacheDir
+    }
+    def cacheRepository = new DefaultCacheRepository(cacheScopeMapping, new InMemoryCacheFactory())
+    def store = new PersistentGeneratedClassStore(cacheRepository, new ModificationTimeFileAccessTimeJournal())
+
+    def "loads stored entries"() {
+        def key = HashCode.fromInt(123)
+
+        expect:
+        store.load(key) == null
+
+        when:
+        store.store(key, [1, 2, 3] as byte[])
+
+        then:
+        store.load(key) == [1, 2, 3] as byte[]
+        new PersistentGeneratedClassStore(cacheRepository, new ModificationTimeFileAccessTimeJournal()).load(key) == [1, 2, 3] as byte[]
+    }
+
+    def "replaces existing entry"() {
+        def key = HashCode.fromInt(123)
+        store.store(key, [1] as byte[])
+
+        when:
+        store.store(key, [2] as byte[])
+
+        then:
+        store.load(key) == [2] as byte[]
+        cacheDir.listFiles().findAll { it.name.endsWith(".tmp") }.empty
+    }
+
+    def "removes entries which have not been used recently on cleanup"() {
+        def used = HashCode.fromInt(1)
+        def unused = HashCode.fromInt(2)
+        store.store(used, [1] as byte[])
+        store.store(unused, [2] as byte[])
+        cacheDir.file("${unused}.bin").lastModified = 0
+
+        when:
+        store.close()
+
+        then:
+        store.load(used) == [1] as byte[]
+        store.load(unused) == null
+    }
+}
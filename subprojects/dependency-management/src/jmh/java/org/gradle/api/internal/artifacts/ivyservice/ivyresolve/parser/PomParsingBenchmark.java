@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.w3c.dom.Document;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Compares parsing POMs into a W3C DOM, which is what {@link PomReader} used to do, with the streaming parser.
+ *
+ * <p>The POMs are the real-world POMs found in a directory, by default the module cache of the Gradle user home,
+ * which contains the POMs of the dependencies of every build that used it. Use the {@code corpusDir} parameter
+ * to run against a different set of POMs, such as a local Maven repository.</p>
+ */
+@Fork(2)
+@State(Scope.Benchmark)
+@Warmup(iterations = 10, time = 1, timeUnit = SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = SECONDS)
+public class PomParsingBenchmark {
+    private static final int MAX_POMS = 1000;
+
+    @Param({""})
+    String corpusDir;
+
+    private final List<byte[]> poms = new ArrayList<byte[]>();
+    private final List<String> systemIds = new ArrayList<String>();
+    private DocumentBuilderFactory documentBuilderFactory;
+    private byte[] m2Entities;
+
+    @Setup
+    public void setup() throws Exception {
+        File dir = corpusDir.isEmpty() ? defaultCorpusDir() : new File(corpusDir);
+        List<File> files = new ArrayList<File>(FileUtils.listFiles(dir, new String[]{"pom"}, true));
+        if (files.isEmpty()) {
+            throw new IllegalStateException("No POM files found in " + dir + ". Use the corpusDir parameter to point to a directory containing POM files.");
+        }
+        Collections.sort(files);
+        for (File file : files.subList(0, Math.min(MAX_POMS, files.size()))) {
+            poms.add(FileUtils.readFileToByteArray(file));
+            systemIds.add(file.toURI().toASCIIString());
+        }
+
+        InputStream entities = org.apache.ivy.plugins.parser.m2.PomReader.class.getResourceAsStream("m2-entities.ent");
+        try {
+            m2Entities = IOUtils.toByteArray(entities);
+        } finally {
+            entities.close();
+        }
+        documentBuilderFactory = DocumentBuilderFactory.newInstance();
+        documentBuilderFactory.setValidating(false);
+    }
+
+    private static File defaultCorpusDir() {
+        String userHome = System.getProperty("gradle.user.home");
+        File gradleUserHome = userHome != null ? new File(userHome) : new File(System.getProperty("user.home"), ".gradle");
+        return new File(gradleUserHome, "caches/modules-2/files-2.1");
+    }
+
+    @Benchmark
+    public void dom(Blackhole blackhole) throws Exception {
+        for (int i = 0; i < poms.size(); i++) {
+            DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
+            documentBuilder.setEntityResolver(new EntityResolver() {
+                @Override
+                public InputSource resolveEntity(String publicId, String systemId) {
+                    if (systemId != null && systemId.endsWith("m2-entities.ent")) {
+                        return new InputSource(new ByteArrayInputStream(m2Entities));
+                    }
+                    return null;
+                }
+            });
+            Document document = documentBuilder.parse(new PomDomParser.AddDTDFilterInputStream(new ByteArrayInputStream(poms.get(i))), systemIds.get(i));
+            blackhole.consume(document);
+        }
+    }
+
+    @Benchmark
+    public void stax(Blackhole blackhole) throws Exception {
+        for (int i = 0; i < poms.size(); i++) {
+            blackhole.consume(PomDomParser.parse(new ByteArrayInputStream(poms.get(i)), systemIds.get(i)));
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.modulecache;
+
+import org.gradle.api.Transformer;
+import org.gradle.api.internal.artifacts.DefaultModuleIdentifier;
+import org.gradle.cache.CacheAccess;
+import org.gradle.cache.PersistentIndexedCache;
+import org.gradle.cache.internal.btree.BTreePersistentIndexedCache;
+import org.gradle.internal.Factory;
+import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier;
+import org.gradle.internal.serialize.MapSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.Map;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.gradle.internal.serialize.BaseSerializerFactory.LONG_SERIALIZER;
+import static org.gradle.internal.serialize.BaseSerializerFactory.STRING_SERIALIZER;
+
+/**
+ * Compares looking up a module that is recorded as missing in the module metadata cache, which is what
+ * {@link PersistentModuleMetadataCache} used to do for every miss, with looking it up in the {@link MissingModuleIndex}.
+ *
+ * <p>Both lookups use a file backed B-tree. The cost of acquiring the cache lock, which the module metadata cache lookup
+ * also pays on every miss, is not included.</p>
+ */
+@Fork(2)
+@State(Scope.Benchmark)
+@Warmup(iterations = 10, time = 1, timeUnit = SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = SECONDS)
+public class MissingModuleLookupBenchmark {
+    private static final CacheAccess NO_LOCKING = new CacheAccess() {
+        @Override
+        public <T> T useCache(Factory<? extends T> action) {
+            return action.create();
+        }
+
+        @Override
+        public void useCache(Runnable action) {
+            action.run();
+        }
+    };
+
+    @Param({"100"})
+    int groups;
+
+    @Param({"20"})
+    int modulesPerGroup;
+
+    private File dir;
+    private BTreePersistentIndexedCache<String, ModuleMetadataCacheEntry> metadataCache;
+    private BTreePersistentIndexedCache<String, Map<String, Long>> indexStore;
+    private MissingModuleIndex index;
+    private ModuleComponentAtRepositoryKey[] keys;
+    private int next;
+
+    @Setup
+    public void setup() throws Exception {
+        dir = File.createTempFile("missing-modules", "");
+        dir.delete();
+        dir.mkdirs();
+        metadataCache = new BTreePersistentIndexedCache<String, ModuleMetadataCacheEntry>(new File(dir, "module-metadata.bin"), STRING_SERIALIZER, new ModuleMetadataCacheEntrySerializer());
+        indexStore = new BTreePersistentIndexedCache<String, Map<String, Long>>(new File(dir, "module-metadata-missing.bin"), STRING_SERIALIZER, new MapSerializer<String, Long>(STRING_SERIALIZER, LONG_SERIALIZER));
+        MissingModuleIndex writer = new MissingModuleIndex(new BTreeCache<Map<String, Long>>(indexStore), NO_LOCKING);
+        keys = new ModuleComponentAtRepositoryKey[groups * modulesPerGroup];
+        for (int group = 0; group < groups; group++) {
+            for (int module = 0; module < modulesPerGroup; module++) {
+                ModuleComponentAtRepositoryKey key = new ModuleComponentAtRepositoryKey("repo", DefaultModuleComponentIdentifier.newId(DefaultModuleIdentifier.newId("group" + group, "module" + module), "1.0"));
+                keys[group * modulesPerGroup + module] = key;
+                metadataCache.put(key.toString(), ModuleMetadataCacheEntry.forMissingModule(1000));
+                writer.recordMissing(key, 1000);
+            }
+        }
+        // The index is build scoped, so a build starts with nothing loaded
+        index = new MissingModuleIndex(new BTreeCache<Map<String, Long>>(indexStore), NO_LOCKING);
+    }
+
+    @TearDown
+    public void tearDown() {
+        metadataCache.close();
+        indexStore.close();
+        for (File file : dir.listFiles()) {
+            file.delete();
+        }
+        dir.delete();
+    }
+
+    @Benchmark
+    public ModuleMetadataCacheEntry metadataCacheLookup() {
+        return metadataCache.get(nextKey().toString());
+    }
+
+    @Benchmark
+    public Long missingModuleIndexLookup() {
+        return index.getMissingTimestamp(nextKey());
+    }
+
+    private ModuleComponentAtRepositoryKey nextKey() {
+        ModuleComponentAtRepositoryKey key = keys[next];
+        next = (next + 1) % keys.length;
+        return key;
+    }
+
+    private static class BTreeCache<V> implements PersistentIndexedCache<String, V> {
+        private final BTreePersistentIndexedCache<String, V> delegate;
+
+        BTreeCache(BTreePersistentIndexedCache<String, V> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public V get(String key) {
+            return delegate.get(key);
+        }
+
+        @Override
+        public V get(String key, Transformer<? extends V, ? super String> producer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void put(String key, V value) {
+            delegate.put(key, value);
+        }
+
+        @Override
+        public void remove(String key) {
+            delegate.remove(key);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.builder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Measures what {@link ResolvedGraphSizeHints} saves: filling collections sized like those of {@link ResolveState}, either from the
+ * estimate based on the number of declared dependencies, or from the size recorded by the previous resolution of the same configuration.
+ *
+ * <p>The collections are filled with as many entries as a graph of the given number of modules puts in them. Only the cost of sizing
+ * and filling the collections is measured, not the cost of resolving the graph.</p>
+ */
+@Fork(2)
+@State(Scope.Benchmark)
+@Warmup(iterations = 10, time = 1, timeUnit = SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = SECONDS)
+public class ResolveStateSizingBenchmark {
+    @Param({"5", "30", "150"})
+    int declaredDependencies;
+
+    @Param({"50", "400", "2000"})
+    int modules;
+
+    private Object[] keys;
+    private int estimatedSize;
+    private int recordedSize;
+
+    @Setup
+    public void setup() {
+        keys = new Object[5 * modules / 2];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "key" + i;
+        }
+        // Same as DependencyGraphBuilder.estimateSize() and ResolvedGraphSizeHints.expectedSize()
+        estimatedSize = Math.max(10, (int) (512 * Math.log(declaredDependencies)));
+        recordedSize = Math.max(10, modules * 4 / 3 + 1);
+    }
+
+    @Benchmark
+    public void sizedFromEstimate(Blackhole blackhole) {
+        fill(estimatedSize, blackhole);
+    }
+
+    @Benchmark
+    public void sizedFromPreviousResolution(Blackhole blackhole) {
+        fill(recordedSize, blackhole);
+    }
+
+    private void fill(int graphSize, Blackhole blackhole) {
+        Map<Object, Object> moduleStates = new LinkedHashMap<Object, Object>(graphSize);
+        Map<Object, Object> nodes = new LinkedHashMap<Object, Object>(3 * graphSize / 2);
+        Map<Object, Object> selectors = new LinkedHashMap<Object, Object>(5 * graphSize / 2);
+        ArrayDeque<Object> queue = new ArrayDeque<Object>(graphSize);
+        for (int i = 0; i < modules; i++) {
+            moduleStates.put(keys[i], keys[i]);
+            queue.add(keys[i]);
+        }
+        for (int i = 0; i < 3 * modules / 2; i++) {
+            nodes.put(keys[i], keys[i]);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            selectors.put(keys[i], keys[i]);
+        }
+        blackhole.consume(moduleStates);
+        blackhole.consume(nodes);
+        blackhole.consume(selectors);
+        blackhole.consume(queue);
+    }
+}
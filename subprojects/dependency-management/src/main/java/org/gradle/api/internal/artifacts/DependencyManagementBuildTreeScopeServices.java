@@ -16,8 +16,10 @@
 
 package org.gradle.api.internal.artifacts;
 
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.builder.ResolvedGraphSizeHints;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.store.ResolutionResultsStoreFactory;
 import org.gradle.api.internal.file.TemporaryFileProvider;
+import org.gradle.initialization.layout.ProjectCacheDir;
 
 /**
  * The set of dependency management services that are created per build tree.
@@ -27,4 +29,8 @@ class DependencyManagementBuildTreeScopeServices {
     ResolutionResultsStoreFactory createResolutionResultsStoreFactory(TemporaryFileProvider temporaryFileProvider) {
         return new ResolutionResultsStoreFactory(temporaryFileProvider);
     }
+
+    ResolvedGraphSizeHints createResolvedGraphSizeHints(ResolvedGraphSizeHints.Store store, ProjectCacheDir projectCacheDir) {
+        return new ResolvedGraphSizeHints(store, projectCacheDir.getDir());
+    }
 }
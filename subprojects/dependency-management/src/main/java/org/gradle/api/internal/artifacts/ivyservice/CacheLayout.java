@@ -54,12 +54,14 @@ public enum CacheLayout {
         .changedTo(68, "5.0-milestone-1")
         .changedTo(69, "5.0-rc-1")
         .changedTo(71, "5.3-rc-1")
+        .changedTo(72, "5.6-rc-1")
     ),
 
     RESOURCES(ROOT, "resources", introducedIn("1.9-rc-1")),
 
     TRANSFORMS(null, "transforms", introducedIn("3.5-rc-1")
-        .changedTo(2, "5.1")),
+        .changedTo(2, "5.1")
+        .changedTo(3, "5.6-rc-1")),
 
     TRANSFORMS_STORE(TRANSFORMS, "files", introducedIn("3.5-rc-1"));
 
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.gradle.internal.resource.local.LocallyAvailableExternalResource;
+
+import java.io.File;
+
+/**
+ * Caches the parsed content of parent POMs and imported BOMs for the lifetime of a build, so that POMs
+ * which are shared by many modules are only parsed once. The POM of the module being resolved is usually
+ * only parsed once, so it is only taken from the cache when it has already been parsed as a parent or BOM.
+ *
+ * Entries are softly referenced and the number of entries is bounded, so that large dependency graphs
+ * do not retain every parsed document.
+ *
+ * Only the document itself is cached: the effective model of a POM depends on the properties of the
+ * POM that refers to it, so a new {@link PomReader} is created for each use.
+ */
+public class PomDocumentCache {
+    private static final int MAX_DOCUMENTS = 2000;
+
+    private final Cache<String, CachedDocument> documents = CacheBuilder.newBuilder().maximumSize(MAX_DOCUMENTS).softValues().build();
+
+    /**
+     * Returns the parsed content of a POM that is referenced by other POMs, such as a parent POM or an imported BOM, caching it.
+     */
+    public PomElement getShared(LocallyAvailableExternalResource resource) {
+        return get(resource, true);
+    }
+
+    /**
+     * Returns the parsed content of the POM of a module, without caching it.
+     */
+    public PomElement get(LocallyAvailableExternalResource resource) {
+        return get(resource, false);
+    }
+
+    private PomElement get(LocallyAvailableExternalResource resource, boolean shared) {
+        File file = resource.getFile();
+        String path = file.getAbsolutePath();
+        long length = file.length();
+        long lastModified = file.lastModified();
+        CachedDocument cached = documents.getIfPresent(path);
+        if (cached != null && cached.length == length && cached.lastModified == lastModified) {
+            return cached.document;
+        }
+        PomElement document = PomDomParser.parse(resource);
+        if (shared) {
+            documents.put(path, new CachedDocument(document, length, lastModified));
+        }
+        return document;
+    }
+
+    private static class CachedDocument {
+        private final PomElement document;
+        private final long length;
+        private final long lastModified;
+
+        private CachedDocument(PomElement document, long length, long lastModified) {
+            this.document = document;
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+    }
+}
@@ -16,39 +16,149 @@
 
 package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser;
 
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
+import com.google.common.collect.ImmutableList;
+import org.apache.commons.io.IOUtils;
+import org.gradle.api.Transformer;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.classloader.ClassLoaderUtils;
+import org.gradle.internal.resource.local.LocallyAvailableExternalResource;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLResolver;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.*;
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 
+/**
+ * Reads POM files into a tree of {@link PomElement}s using a single streaming (StAX) pass over the content.
+ *
+ * Compared to building a W3C DOM, this only retains the elements, text and comments that {@link PomReader} uses,
+ * and produces an immutable tree that can be cached and shared between threads.
+ */
 public final class PomDomParser {
+    private static final byte[] M2_ENTITIES_RESOURCE;
+
+    // XMLInputFactory implementations are not required to be thread-safe, so each thread uses its own factory
+    private static final ThreadLocal<XMLInputFactory> XML_INPUT_FACTORY = new ThreadLocal<XMLInputFactory>() {
+        @Override
+        protected XMLInputFactory initialValue() {
+            return createXmlInputFactory();
+        }
+    };
+
+    private static final XMLResolver M2_ENTITY_RESOLVER = new XMLResolver() {
+        @Override
+        public Object resolveEntity(String publicId, String systemId, String baseUri, String namespace) {
+            if ((systemId != null) && systemId.endsWith("m2-entities.ent")) {
+                return new ByteArrayInputStream(M2_ENTITIES_RESOURCE);
+            }
+            return null;
+        }
+    };
+
+    static {
+        byte[] bytes;
+        try {
+            bytes = IOUtils.toByteArray(org.apache.ivy.plugins.parser.m2.PomReader.class.getResourceAsStream("m2-entities.ent"));
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+        M2_ENTITIES_RESOURCE = bytes;
+    }
+
     private PomDomParser() {}
 
-    public static String getTextContent(Element element) {
-        StringBuilder result = new StringBuilder();
+    private static XMLInputFactory createXmlInputFactory() {
+        // Set the context classloader the bootstrap classloader, to work around the way that JAXP locates implementation classes
+        // This should ensure that the StAX implementation provided by the JVM is used, rather than some other implementation
+        ClassLoader original = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(ClassLoaderUtils.getPlatformClassLoader());
+        try {
+            XMLInputFactory factory = XMLInputFactory.newFactory();
+            factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+            factory.setProperty(XMLInputFactory.IS_VALIDATING, false);
+            factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+            factory.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, true);
+            factory.setXMLResolver(M2_ENTITY_RESOLVER);
+            return factory;
+        } finally {
+            Thread.currentThread().setContextClassLoader(original);
+        }
+    }
 
-        NodeList childNodes = element.getChildNodes();
-        for (int i = 0; i < childNodes.getLength(); i++) {
-            Node child = childNodes.item(i);
+    /**
+     * Parses the given POM resource, returning its root element.
+     */
+    public static PomElement parse(final LocallyAvailableExternalResource resource) {
+        final String systemId = resource.getFile().toURI().toASCIIString();
+        return resource.withContent(new Transformer<PomElement, InputStream>() {
+            @Override
+            public PomElement transform(InputStream inputStream) {
+                try {
+                    return parse(inputStream, systemId);
+                } catch (Exception e) {
+                    throw new MetaDataParseException("POM", resource, e);
+                }
+            }
+        }).getResult();
+    }
 
-            switch (child.getNodeType()) {
-                case Node.CDATA_SECTION_NODE:
-                case Node.TEXT_NODE:
-                    result.append(child.getNodeValue());
-                    break;
-                default:
-                    break;
+    /**
+     * Parses the given POM content, returning its root element.
+     */
+    public static PomElement parse(InputStream stream, String systemId) throws IOException, XMLStreamException {
+        XMLStreamReader reader = XML_INPUT_FACTORY.get().createXMLStreamReader(systemId, new AddDTDFilterInputStream(stream));
+        try {
+            Deque<ElementBuilder> openElements = new ArrayDeque<ElementBuilder>();
+            PomElement root = null;
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        openElements.push(new ElementBuilder(reader.getLocalName()));
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        PomElement element = openElements.pop().build();
+                        if (openElements.isEmpty()) {
+                            root = element;
+                        } else {
+                            openElements.peek().addChild(element);
+                        }
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        if (!openElements.isEmpty()) {
+                            openElements.peek().appendText(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                        }
+                        break;
+                    case XMLStreamConstants.COMMENT:
+                        if (!openElements.isEmpty()) {
+                            openElements.peek().addComment(reader.getText());
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+            if (root == null) {
+                throw new XMLStreamException("Premature end of file.", reader.getLocation());
             }
+            return root;
+        } finally {
+            reader.close();
         }
+    }
 
-        return result.toString();
+    public static String getTextContent(PomElement element) {
+        return element.getTextContent();
     }
 
-    public static String getFirstChildText(Element parentElem, String name) {
-        Element node = getFirstChildElement(parentElem, name);
+    public static String getFirstChildText(PomElement parentElem, String name) {
+        PomElement node = getFirstChildElement(parentElem, name);
         if (node != null) {
             return getTextContent(node);
         } else {
@@ -56,32 +166,58 @@ public final class PomDomParser {
         }
     }
 
-    public static Element getFirstChildElement(Element parentElem, String name) {
+    public static PomElement getFirstChildElement(PomElement parentElem, String name) {
         if (parentElem == null) {
             return null;
         }
-        NodeList childs = parentElem.getChildNodes();
-        for (int i = 0; i < childs.getLength(); i++) {
-            Node node = childs.item(i);
-            if (node instanceof Element && name.equals(node.getNodeName())) {
-                return (Element) node;
-            }
+        return parentElem.getFirstChild(name);
+    }
+
+    public static List<PomElement> getAllChilds(PomElement parent) {
+        if (parent == null) {
+            return ImmutableList.of();
         }
-        return null;
+        return parent.getChildren();
     }
 
-    public static List<Element> getAllChilds(Element parent) {
-        List<Element> r = new LinkedList<Element>();
-        if (parent != null) {
-            NodeList childs = parent.getChildNodes();
-            for (int i = 0; i < childs.getLength(); i++) {
-                Node node = childs.item(i);
-                if (node instanceof Element) {
-                    r.add((Element) node);
-                }
+    private static class ElementBuilder {
+        private final String name;
+        private StringBuilder text;
+        private ImmutableList.Builder<PomElement> children;
+        private ImmutableList.Builder<String> comments;
+
+        ElementBuilder(String name) {
+            this.name = name;
+        }
+
+        void appendText(char[] chars, int start, int length) {
+            if (text == null) {
+                text = new StringBuilder(length);
             }
+            text.append(chars, start, length);
+        }
+
+        void addChild(PomElement child) {
+            if (children == null) {
+                children = ImmutableList.builder();
+            }
+            children.add(child);
+        }
+
+        void addComment(String comment) {
+            if (comments == null) {
+                comments = ImmutableList.builder();
+            }
+            comments.add(comment);
+        }
+
+        PomElement build() {
+            return new PomElement(
+                name,
+                text == null ? "" : text.toString(),
+                children == null ? ImmutableList.<PomElement>of() : children.build(),
+                comments == null ? ImmutableList.<String>of() : comments.build());
         }
-        return r;
     }
 
     public static final class AddDTDFilterInputStream extends FilterInputStream {
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser;
+
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * An immutable element of a parsed POM, holding only what {@link PomReader} needs: the element name, its direct
+ * text content, its child elements and its direct comments.
+ *
+ * Instances are safe to share between threads, so that parsed documents can be reused across POMs.
+ */
+public final class PomElement {
+    private final String name;
+    private final String textContent;
+    private final ImmutableList<PomElement> children;
+    private final ImmutableList<String> comments;
+
+    PomElement(String name, String textContent, ImmutableList<PomElement> children, ImmutableList<String> comments) {
+        this.name = name;
+        this.textContent = textContent;
+        this.children = children;
+        this.comments = comments;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the concatenation of the text and CDATA content directly contained in this element.
+     */
+    public String getTextContent() {
+        return textContent;
+    }
+
+    public List<PomElement> getChildren() {
+        return children;
+    }
+
+    /**
+     * Returns the comments directly contained in this element.
+     */
+    public List<String> getComments() {
+        return comments;
+    }
+
+    @Nullable
+    public PomElement getFirstChild(String name) {
+        for (PomElement child : children) {
+            if (child.name.equals(name)) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "<" + name + ">";
+    }
+}
@@ -20,6 +20,11 @@ import org.gradle.util.BuildCommencedTimeProvider;
 
 import java.util.Map;
 
+/**
+ * Keeps the metadata of modules in memory for the duration of the build. Metadata that is loaded from the persistent cache
+ * keeps the content of each variant in its encoded form until the variant is selected, so that unused variants only cost
+ * a byte array rather than a graph of dependency objects.
+ */
 public class InMemoryModuleMetadataCache extends AbstractModuleMetadataCache {
     private Map<ModuleComponentAtRepositoryKey, CachedMetadata> inMemoryCache = Maps.newConcurrentMap();
     private final AbstractModuleMetadataCache delegate;
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.modulecache;
+
+import com.google.common.collect.ImmutableMap;
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+import org.gradle.cache.CacheAccess;
+import org.gradle.cache.PersistentIndexedCache;
+import org.gradle.internal.Factory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An index of the modules that have been recorded as missing from a repository, grouped by repository and module group.
+ *
+ * <p>Each group is read from the persistent index the first time it is queried and is then answered from memory, so that looking up a module that is known to be
+ * missing does not need to lock the cache or search the module metadata cache. The index is exact: a module is reported as missing only when its absence has
+ * been recorded, and recording that a module is present removes it from the index again.</p>
+ *
+ * <p>Changes are written through to the persistent index while holding the cache lock, merging with the changes made by other processes.</p>
+ */
+class MissingModuleIndex {
+    private final PersistentIndexedCache<String, Map<String, Long>> store;
+    private final CacheAccess cacheAccess;
+    // Values are never modified, they are replaced while holding the cache lock
+    private final ConcurrentMap<String, Map<String, Long>> groups = new ConcurrentHashMap<String, Map<String, Long>>();
+
+    MissingModuleIndex(PersistentIndexedCache<String, Map<String, Long>> store, CacheAccess cacheAccess) {
+        this.store = store;
+        this.cacheAccess = cacheAccess;
+    }
+
+    /**
+     * Returns the time at which the given module was recorded as missing, or null if it has not been recorded as missing.
+     */
+    Long getMissingTimestamp(ModuleComponentAtRepositoryKey key) {
+        final String groupKey = groupKey(key);
+        Map<String, Long> modules = groups.get(groupKey);
+        if (modules == null) {
+            modules = cacheAccess.useCache(new Factory<Map<String, Long>>() {
+                @Override
+                public Map<String, Long> create() {
+                    return load(groupKey);
+                }
+            });
+        }
+        return modules.get(moduleKey(key.getComponentId()));
+    }
+
+    /**
+     * Records that the given module is missing. Must be called while holding the cache lock.
+     */
+    void recordMissing(ModuleComponentAtRepositoryKey key, long timestamp) {
+        String groupKey = groupKey(key);
+        Map<String, Long> persisted = store.get(groupKey);
+        Map<String, Long> modules = persisted == null ? new LinkedHashMap<String, Long>() : new LinkedHashMap<String, Long>(persisted);
+        modules.put(moduleKey(key.getComponentId()), timestamp);
+        store.put(groupKey, modules);
+        groups.put(groupKey, ImmutableMap.copyOf(modules));
+    }
+
+    /**
+     * Records that the given module is present. Must be called while holding the cache lock.
+     */
+    void recordPresent(ModuleComponentAtRepositoryKey key) {
+        String groupKey = groupKey(key);
+        Map<String, Long> persisted = store.get(groupKey);
+        if (persisted == null) {
+            groups.put(groupKey, ImmutableMap.<String, Long>of());
+            return;
+        }
+        Map<String, Long> modules = new LinkedHashMap<String, Long>(persisted);
+        if (modules.remove(moduleKey(key.getComponentId())) != null) {
+            if (modules.isEmpty()) {
+                store.remove(groupKey);
+            } else {
+                store.put(groupKey, modules);
+            }
+        }
+        groups.put(groupKey, ImmutableMap.copyOf(modules));
+    }
+
+    private Map<String, Long> load(String groupKey) {
+        Map<String, Long> modules = groups.get(groupKey);
+        if (modules == null) {
+            Map<String, Long> persisted = store.get(groupKey);
+            modules = persisted == null ? ImmutableMap.<String, Long>of() : ImmutableMap.copyOf(persisted);
+            groups.put(groupKey, modules);
+        }
+        return modules;
+    }
+
+    private static String groupKey(ModuleComponentAtRepositoryKey key) {
+        return key.getRepositoryId() + ":" + key.getComponentId().getGroup();
+    }
+
+    private static String moduleKey(ModuleComponentIdentifier id) {
+        return id.getModule() + ":" + id.getVersion();
+    }
+}
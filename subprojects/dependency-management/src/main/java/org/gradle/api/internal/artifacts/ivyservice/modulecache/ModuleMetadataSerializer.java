@@ -35,6 +35,7 @@ import org.gradle.api.internal.artifacts.repositories.metadata.IvyMutableModuleM
 import org.gradle.api.internal.artifacts.repositories.metadata.MavenMutableModuleMetadataFactory;
 import org.gradle.api.internal.artifacts.repositories.resolver.MavenUniqueSnapshotComponentIdentifier;
 import org.gradle.api.internal.attributes.ImmutableAttributes;
+import org.gradle.internal.UncheckedException;
 import org.gradle.internal.component.external.descriptor.Artifact;
 import org.gradle.internal.component.external.descriptor.Configuration;
 import org.gradle.internal.component.external.descriptor.DefaultExclude;
@@ -42,6 +43,9 @@ import org.gradle.internal.component.external.descriptor.MavenScope;
 import org.gradle.internal.component.external.model.ComponentVariant;
 import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier;
 import org.gradle.internal.component.external.model.ExternalDependencyDescriptor;
+import org.gradle.internal.component.external.model.ImmutableCapabilities;
+import org.gradle.internal.component.external.model.ImmutableCapability;
+import org.gradle.internal.component.external.model.LazyVariantContent;
 import org.gradle.internal.component.external.model.ModuleComponentResolveMetadata;
 import org.gradle.internal.component.external.model.MutableComponentVariant;
 import org.gradle.internal.component.external.model.MutableModuleComponentResolveMetadata;
@@ -59,9 +63,14 @@ import org.gradle.internal.component.model.IvyArtifactName;
 import org.gradle.internal.hash.HashValue;
 import org.gradle.internal.serialize.Decoder;
 import org.gradle.internal.serialize.Encoder;
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
@@ -72,6 +81,7 @@ import java.util.Set;
 public class ModuleMetadataSerializer {
     private static final byte TYPE_IVY = 1;
     private static final byte TYPE_MAVEN = 2;
+    private static final int VARIANT_CONTENT_BUFFER_SIZE = 256;
 
     private final ModuleComponentSelectorSerializer componentSelectorSerializer;
     private final MavenMutableModuleMetadataFactory mavenMetadataFactory;
@@ -130,13 +140,26 @@ public class ModuleMetadataSerializer {
             for (ComponentVariant variant : metadata.getVariants()) {
                 encoder.writeString(variant.getName());
                 writeAttributes(variant.getAttributes());
-                writeVariantDependencies(variant.getDependencies());
-                writeVariantConstraints(variant.getDependencyConstraints());
-                writeVariantFiles(variant.getFiles());
                 writeVariantCapabilities(variant.getCapabilities().getCapabilities());
+                encoder.writeBinary(encodeVariantContent(variant));
             }
         }
 
+        /**
+         * Encodes the dependencies, dependency constraints and files of a variant as a self-contained, length prefixed
+         * block, so that a reader can skip over the content of a variant and only decode it when the variant is selected.
+         */
+        private byte[] encodeVariantContent(ComponentVariant variant) throws IOException {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            KryoBackedEncoder contentEncoder = new KryoBackedEncoder(content, VARIANT_CONTENT_BUFFER_SIZE);
+            Writer contentWriter = new Writer(contentEncoder, attributeContainerSerializer, componentSelectorSerializer);
+            contentWriter.writeVariantDependencies(variant.getDependencies());
+            contentWriter.writeVariantConstraints(variant.getDependencyConstraints());
+            contentWriter.writeVariantFiles(variant.getFiles());
+            contentEncoder.flush();
+            return content.toByteArray();
+        }
+
         private void writeVariantConstraints(ImmutableList<? extends ComponentVariant.DependencyConstraint> constraints) throws IOException {
             encoder.writeSmallInt(constraints.size());
             for (ComponentVariant.DependencyConstraint constraint : constraints) {
@@ -440,14 +463,18 @@ public class ModuleMetadataSerializer {
             for (int i = 0; i < count; i++) {
                 String name = decoder.readString();
                 ImmutableAttributes attributes = readAttributes();
-                MutableComponentVariant variant = metadata.addVariant(name, attributes);
-                readVariantDependencies(variant);
-                readVariantConstraints(variant);
-                readVariantFiles(variant);
-                readVariantCapabilities(variant);
+                ImmutableCapabilities capabilities = readVariantCapabilities();
+                byte[] content = decoder.readBinary();
+                metadata.addVariant(name, attributes, capabilities, new EncodedVariantContent(content, moduleIdentifierFactory, attributeContainerSerializer, componentSelectorSerializer));
             }
         }
 
+        private void readVariantContent(MutableComponentVariant variant) throws IOException {
+            readVariantDependencies(variant);
+            readVariantConstraints(variant);
+            readVariantFiles(variant);
+        }
+
         private ImmutableAttributes readAttributes() throws IOException {
             return attributeContainerSerializer.read(decoder);
         }
@@ -489,11 +516,16 @@ public class ModuleMetadataSerializer {
             }
         }
 
-        private void readVariantCapabilities(MutableComponentVariant variant) throws IOException {
+        private ImmutableCapabilities readVariantCapabilities() throws IOException {
             int count = decoder.readSmallInt();
+            if (count == 0) {
+                return ImmutableCapabilities.EMPTY;
+            }
+            List<ImmutableCapability> capabilities = Lists.newArrayListWithCapacity(count);
             for (int i = 0; i < count; i++) {
-                variant.addCapability(decoder.readString(), decoder.readString(), decoder.readString());
+                capabilities.add(new ImmutableCapability(decoder.readString(), decoder.readString(), decoder.readString()));
             }
+            return ImmutableCapabilities.of(capabilities);
         }
 
         private MutableModuleComponentResolveMetadata readIvy() throws IOException {
@@ -727,4 +759,48 @@ public class ModuleMetadataSerializer {
         }
     }
 
+    /**
+     * The encoded dependencies, dependency constraints and files of a variant, decoded when the variant is first queried.
+     */
+    private static class EncodedVariantContent implements LazyVariantContent {
+        private final byte[] content;
+        private final ImmutableModuleIdentifierFactory moduleIdentifierFactory;
+        private final AttributeContainerSerializer attributeContainerSerializer;
+        private final ModuleComponentSelectorSerializer componentSelectorSerializer;
+
+        private EncodedVariantContent(byte[] content, ImmutableModuleIdentifierFactory moduleIdentifierFactory, AttributeContainerSerializer attributeContainerSerializer, ModuleComponentSelectorSerializer componentSelectorSerializer) {
+            this.content = content;
+            this.moduleIdentifierFactory = moduleIdentifierFactory;
+            this.attributeContainerSerializer = attributeContainerSerializer;
+            this.componentSelectorSerializer = componentSelectorSerializer;
+        }
+
+        @Override
+        public void populate(MutableComponentVariant target) {
+            KryoBackedDecoder decoder = new KryoBackedDecoder(new ByteArrayInputStream(content), content.length);
+            try {
+                new Reader(decoder, moduleIdentifierFactory, attributeContainerSerializer, componentSelectorSerializer, null, null).readVariantContent(target);
+            } catch (IOException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            } finally {
+                decoder.close();
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            return Arrays.equals(content, ((EncodedVariantContent) o).content);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(content);
+        }
+    }
 }
@@ -33,11 +33,18 @@ import org.gradle.internal.resource.local.DefaultPathKeyFileStore;
 import org.gradle.internal.serialize.AbstractSerializer;
 import org.gradle.internal.serialize.Decoder;
 import org.gradle.internal.serialize.Encoder;
+import org.gradle.internal.serialize.MapSerializer;
 import org.gradle.util.BuildCommencedTimeProvider;
 
+import java.util.Map;
+
+import static org.gradle.internal.serialize.BaseSerializerFactory.LONG_SERIALIZER;
+import static org.gradle.internal.serialize.BaseSerializerFactory.STRING_SERIALIZER;
+
 public class PersistentModuleMetadataCache extends AbstractModuleMetadataCache {
 
     private PersistentIndexedCache<ModuleComponentAtRepositoryKey, ModuleMetadataCacheEntry> cache;
+    private MissingModuleIndex missingModules;
     private final ModuleMetadataStore moduleMetadataStore;
     private final ArtifactCacheLockingManager artifactCacheLockingManager;
 
@@ -65,8 +72,21 @@ public class PersistentModuleMetadataCache extends AbstractModuleMetadataCache {
         return artifactCacheLockingManager.createCache("module-metadata", new RevisionKeySerializer(), new ModuleMetadataCacheEntrySerializer());
     }
 
+    private synchronized MissingModuleIndex getMissingModules() {
+        if (missingModules == null) {
+            PersistentIndexedCache<String, Map<String, Long>> store = artifactCacheLockingManager.createCache("module-metadata-missing", STRING_SERIALIZER, new MapSerializer<String, Long>(STRING_SERIALIZER, LONG_SERIALIZER));
+            missingModules = new MissingModuleIndex(store, artifactCacheLockingManager);
+        }
+        return missingModules;
+    }
+
     @Override
     protected CachedMetadata get(ModuleComponentAtRepositoryKey key) {
+        Long missingTimestamp = getMissingModules().getMissingTimestamp(key);
+        if (missingTimestamp != null) {
+            // Known to be missing, no need to search the cache
+            return new DefaultCachedMetadata(ModuleMetadataCacheEntry.forMissingModule(missingTimestamp), null, timeProvider);
+        }
         final PersistentIndexedCache<ModuleComponentAtRepositoryKey, ModuleMetadataCacheEntry> cache = getCache();
         return artifactCacheLockingManager.useCache(new Factory<CachedMetadata>() {
             @Override
@@ -91,19 +111,21 @@ public class PersistentModuleMetadataCache extends AbstractModuleMetadataCache {
 
     @Override
     protected void store(final ModuleComponentAtRepositoryKey key, final ModuleMetadataCacheEntry entry, final CachedMetadata cachedMetadata) {
-        if (entry.isMissing()) {
-            getCache().put(key, entry);
-        } else {
-            // Need to lock the cache in order to write to the module metadata store
-            artifactCacheLockingManager.useCache(new Runnable() {
-                @Override
-                public void run() {
+        final MissingModuleIndex missingModules = getMissingModules();
+        // Need to lock the cache in order to update the index of missing modules and to write to the module metadata store
+        artifactCacheLockingManager.useCache(new Runnable() {
+            @Override
+            public void run() {
+                if (entry.isMissing()) {
+                    missingModules.recordMissing(key, entry.createTimestamp);
+                } else {
                     final ModuleComponentResolveMetadata metadata = cachedMetadata.getMetadata();
                     moduleMetadataStore.putModuleDescriptor(key, metadata);
-                    getCache().put(key, entry);
+                    missingModules.recordPresent(key);
                 }
-            });
-        }
+                getCache().put(key, entry);
+            }
+        });
     }
 
     private static class RevisionKeySerializer extends AbstractSerializer<ModuleComponentAtRepositoryKey> {
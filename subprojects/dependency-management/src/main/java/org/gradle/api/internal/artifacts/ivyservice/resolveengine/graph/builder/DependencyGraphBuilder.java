@@ -93,6 +93,7 @@ public class DependencyGraphBuilder {
     private final VersionSelectorScheme versionSelectorScheme;
     private final Comparator<Version> versionComparator;
     private final VersionParser versionParser;
+    private final ResolvedGraphSizeHints graphSizeHints;
 
     public DependencyGraphBuilder(DependencyToComponentIdResolver componentIdResolver,
                                   ComponentMetaDataResolver componentMetaDataResolver,
@@ -109,7 +110,8 @@ public class DependencyGraphBuilder {
                                   ImmutableAttributesFactory attributesFactory,
                                   VersionSelectorScheme versionSelectorScheme,
                                   Comparator<Version> versionComparator,
-                                  VersionParser versionParser) {
+                                  VersionParser versionParser,
+                                  ResolvedGraphSizeHints graphSizeHints) {
         this.idResolver = componentIdResolver;
         this.metaDataResolver = componentMetaDataResolver;
         this.moduleResolver = resolveContextToComponentResolver;
@@ -126,6 +128,7 @@ public class DependencyGraphBuilder {
         this.versionSelectorScheme = versionSelectorScheme;
         this.versionComparator = versionComparator;
         this.versionParser = versionParser;
+        this.graphSizeHints = graphSizeHints;
     }
 
     public void resolve(final ResolveContext resolveContext, final DependencyGraphVisitor modelVisitor) {
@@ -134,7 +137,8 @@ public class DependencyGraphBuilder {
         DefaultBuildableComponentResolveResult rootModule = new DefaultBuildableComponentResolveResult();
         moduleResolver.resolve(resolveContext, rootModule);
 
-        int graphSize = estimateSize(resolveContext);
+        Integer expectedSize = graphSizeHints.expectedSize(resolveContext);
+        int graphSize = expectedSize != null ? expectedSize : estimateSize(resolveContext);
         final ResolveState resolveState = new ResolveState(idGenerator, rootModule, resolveContext.getName(), idResolver, metaDataResolver, edgeFilter, attributesSchema, moduleExclusions, componentSelectorConverter, attributesFactory, dependencySubstitutionApplicator, versionSelectorScheme, versionComparator, versionParser, moduleConflictHandler.getResolver(), graphSize);
 
         Map<ModuleVersionIdentifier, ComponentIdentifier> componentIdentifierCache = Maps.newHashMapWithExpectedSize(graphSize/2);
@@ -142,12 +146,14 @@ public class DependencyGraphBuilder {
 
         validateGraph(resolveState);
 
+        graphSizeHints.recordSize(resolveContext, resolveState.getModules().size());
+
         assembleResult(resolveState, modelVisitor);
 
     }
 
     /**
-     * This method is a heuristic that gives an idea of the "size" of the graph. The larger
+     * This method is a heuristic that gives an idea of the "size" of the graph, used when the context has not been resolved before. The larger
      * the graph is, the higher the risk of internal resizes exists, so we try to estimate
      * the size of the graph to avoid maps resizing.
      */
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.builder;
+
+import org.gradle.api.internal.artifacts.ResolveContext;
+import org.gradle.api.internal.artifacts.configurations.ConfigurationInternal;
+import org.gradle.cache.internal.CrossBuildInMemoryCache;
+import org.gradle.cache.internal.CrossBuildInMemoryCacheFactory;
+
+import javax.annotation.Nullable;
+import java.io.File;
+
+/**
+ * Remembers the number of modules in the graph of each resolve context, so that the next resolution of the same context,
+ * for example when a project is synchronized again in the IDE, can size its state up front.
+ *
+ * <p>This is only a sizing tweak for the maps and queue of {@link ResolveState}: the graph is always resolved again from scratch,
+ * and nothing of the previous resolution other than its size is reused. See {@code ResolveStateSizingBenchmark} for what it saves.</p>
+ *
+ * <p>The sizes are kept per build tree, and each context is identified by its identity path, which includes the build and the project
+ * that own it. The size is only used as a hint: a graph which differs from the previous one is still resolved correctly.</p>
+ */
+public class ResolvedGraphSizeHints {
+    private final CrossBuildInMemoryCache<String, Integer> sizes;
+    private final String buildTreeId;
+
+    public ResolvedGraphSizeHints(Store store, File buildTreeDir) {
+        this.sizes = store.sizes;
+        this.buildTreeId = buildTreeDir.getAbsolutePath();
+    }
+
+    /**
+     * Returns the expected size of the graph for the given context, based on the last time it was resolved, or null when it has not been resolved before.
+     */
+    @Nullable
+    Integer expectedSize(ResolveContext resolveContext) {
+        Integer previous = sizes.get(keyOf(resolveContext));
+        if (previous == null) {
+            return null;
+        }
+        // Leave room for the default load factor of the maps sized with the expected size
+        return Math.max(10, previous * 4 / 3 + 1);
+    }
+
+    void recordSize(ResolveContext resolveContext, int size) {
+        sizes.put(keyOf(resolveContext), size);
+    }
+
+    private String keyOf(ResolveContext resolveContext) {
+        String contextId = resolveContext instanceof ConfigurationInternal
+            ? ((ConfigurationInternal) resolveContext).getIdentityPath().getPath()
+            : resolveContext.getDisplayName();
+        return buildTreeId + '|' + contextId;
+    }
+
+    /**
+     * Holds the sizes across builds in the daemon.
+     */
+    public static class Store {
+        private final CrossBuildInMemoryCache<String, Integer> sizes;
+
+        public Store(CrossBuildInMemoryCacheFactory cacheFactory) {
+            this.sizes = cacheFactory.newCache();
+        }
+    }
+}
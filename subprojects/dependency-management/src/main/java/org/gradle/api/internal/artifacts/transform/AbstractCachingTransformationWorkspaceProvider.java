@@ -46,20 +46,48 @@ public abstract class AbstractCachingTransformationWorkspaceProvider implements
     @Nullable
     @Override
     public Try<ImmutableList<File>> getCachedResult(TransformationWorkspaceIdentity identity) {
-        return inMemoryResultCache.getIfPresent(identity);
+        Try<ImmutableList<File>> cachedResult = inMemoryResultCache.getIfPresent(identity);
+        if (cachedResult == null) {
+            ImmutableList<File> persistedResult = loadPersistedResult(identity);
+            if (persistedResult != null) {
+                cachedResult = Try.successful(persistedResult);
+                inMemoryResultCache.put(identity, cachedResult);
+            }
+        }
+        return cachedResult;
     }
 
     @Override
     public Try<ImmutableList<File>> withWorkspace(TransformationWorkspaceIdentity identity, TransformationWorkspaceAction workspaceAction) {
         try {
             return inMemoryResultCache.get(identity, () -> {
-                    return delegate.withWorkspace(identity, workspaceAction);
-                });
+                ImmutableList<File> persistedResult = loadPersistedResult(identity);
+                if (persistedResult != null) {
+                    return Try.successful(persistedResult);
+                }
+                Try<ImmutableList<File>> result = delegate.withWorkspace(identity, workspaceAction);
+                result.ifSuccessful(files -> persistResult(identity, files));
+                return result;
+            });
         } catch (ExecutionException e) {
             throw UncheckedException.throwAsUncheckedException(e);
         }
     }
 
+    /**
+     * Returns the result for the given identity recorded by a previous build, if any.
+     */
+    @Nullable
+    protected ImmutableList<File> loadPersistedResult(TransformationWorkspaceIdentity identity) {
+        return null;
+    }
+
+    /**
+     * Records the result for the given identity, so that it can be used by later builds.
+     */
+    protected void persistResult(TransformationWorkspaceIdentity identity, ImmutableList<File> result) {
+    }
+
     public void clearInMemoryCache() {
         inMemoryResultCache.invalidateAll();
     }
@@ -20,7 +20,7 @@ import java.io.File;
 
 public class DefaultTransformationWorkspace implements TransformationWorkspaceProvider.TransformationWorkspace {
 
-    private static final String RESULTS_FILE_SUFFIX = ".bin";
+    static final String RESULTS_FILE_SUFFIX = ".bin";
 
     private final File outputDirectory;
     private final File resultsFile;
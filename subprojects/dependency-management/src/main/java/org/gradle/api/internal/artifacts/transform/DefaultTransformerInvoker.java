@@ -160,7 +160,7 @@ public class DefaultTransformerInvoker implements TransformerInvoker {
             @Override
             public Try<ImmutableList<File>> call(BuildOperationContext context) {
                 return fireTransformListeners(transformer, subject, () -> {
-                    String transformIdentity = "transform/" + identityString;
+                    String transformIdentity = getExecutionHistoryKey(identityString);
                     ExecutionHistoryStore executionHistoryStore = workspaceProvider.getExecutionHistoryStore();
                     FileCollectionFingerprinter outputFingerprinter = fingerprinterRegistry.getFingerprinter(OutputNormalizer.class);
 
@@ -227,6 +227,13 @@ public class DefaultTransformerInvoker implements TransformerInvoker {
         }));
     }
 
+    /**
+     * Returns the key of the execution history of the transform executed in the workspace with the given identity.
+     */
+    static String getExecutionHistoryKey(String workspaceIdentity) {
+        return "transform/" + workspaceIdentity;
+    }
+
     private TransformationWorkspaceIdentity getTransformationIdentity(@Nullable ProjectInternal project, FileSystemLocationSnapshot inputArtifactSnapshot, String inputArtifactPath, Transformer transformer, CurrentFileCollectionFingerprint dependenciesFingerprint) {
         return project == null
             ? getImmutableTransformationIdentity(inputArtifactPath, inputArtifactSnapshot, transformer, dependenciesFingerprint)
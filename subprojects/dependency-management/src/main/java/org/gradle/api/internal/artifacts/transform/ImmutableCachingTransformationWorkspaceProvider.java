@@ -16,8 +16,30 @@
 
 package org.gradle.api.internal.artifacts.transform;
 
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.Nullable;
+import java.io.File;
+
+/**
+ * Caches the results of transforms of external artifacts in memory for the duration of a build, and across builds in the result index of the immutable workspaces.
+ */
 public class ImmutableCachingTransformationWorkspaceProvider extends AbstractCachingTransformationWorkspaceProvider {
-    public ImmutableCachingTransformationWorkspaceProvider(TransformationWorkspaceProvider delegate) {
+    private final ImmutableTransformationWorkspaceProvider delegate;
+
+    public ImmutableCachingTransformationWorkspaceProvider(ImmutableTransformationWorkspaceProvider delegate) {
         super(delegate);
+        this.delegate = delegate;
+    }
+
+    @Nullable
+    @Override
+    protected ImmutableList<File> loadPersistedResult(TransformationWorkspaceIdentity identity) {
+        return delegate.loadResult(identity);
+    }
+
+    @Override
+    protected void persistResult(TransformationWorkspaceIdentity identity, ImmutableList<File> result) {
+        delegate.storeResult(identity, result);
     }
 }
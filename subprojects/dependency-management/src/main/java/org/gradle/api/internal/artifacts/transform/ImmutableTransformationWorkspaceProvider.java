@@ -19,50 +19,83 @@ package org.gradle.api.internal.artifacts.transform;
 import com.google.common.collect.ImmutableList;
 import org.gradle.cache.CacheBuilder;
 import org.gradle.cache.CacheRepository;
+import org.gradle.cache.CleanableStore;
 import org.gradle.cache.CleanupAction;
+import org.gradle.cache.CleanupProgressMonitor;
 import org.gradle.cache.FileLockManager;
 import org.gradle.cache.PersistentCache;
+import org.gradle.cache.PersistentIndexedCache;
+import org.gradle.cache.PersistentIndexedCacheParameters;
 import org.gradle.cache.internal.CompositeCleanupAction;
 import org.gradle.cache.internal.LeastRecentlyUsedCacheCleanup;
 import org.gradle.cache.internal.SingleDepthFilesFinder;
 import org.gradle.internal.Try;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.execution.history.AfterPreviousExecutionState;
 import org.gradle.internal.execution.history.ExecutionHistoryStore;
+import org.gradle.internal.fingerprint.FileCollectionFingerprint;
+import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.resource.local.FileAccessTimeJournal;
 import org.gradle.internal.resource.local.SingleDepthFileAccessTracker;
+import org.gradle.internal.serialize.ListSerializer;
+import org.gradle.internal.snapshot.FileSystemSnapshotter;
 
-import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
 import java.io.Closeable;
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 import static org.gradle.api.internal.artifacts.ivyservice.CacheLayout.TRANSFORMS_STORE;
 import static org.gradle.cache.internal.LeastRecentlyUsedCacheCleanup.DEFAULT_MAX_AGE_IN_DAYS_FOR_RECREATABLE_CACHE_ENTRIES;
 import static org.gradle.cache.internal.filelock.LockOptionsBuilder.mode;
+import static org.gradle.internal.serialize.BaseSerializerFactory.FILE_SERIALIZER;
 
-@NotThreadSafe
+@ThreadSafe
 public class ImmutableTransformationWorkspaceProvider implements TransformationWorkspaceProvider, Closeable {
     private static final int FILE_TREE_DEPTH_TO_TRACK_AND_CLEANUP = 1;
+    private static final String STALE_RESULTS_FILE_NAME = "stale-results.txt";
 
     private final SingleDepthFileAccessTracker fileAccessTracker;
     private final File filesOutputDirectory;
+    private final File staleResultsFile;
     private final ExecutionHistoryStore executionHistoryStore;
+    private final FileSystemSnapshotter fileSystemSnapshotter;
     private final PersistentCache cache;
+    // Only accessed while holding the cache lock, which also excludes the other threads of this process
+    private final PersistentIndexedCache<String, List<File>> resultIndex;
 
-    public ImmutableTransformationWorkspaceProvider(File transformsStoreDirectory, CacheRepository cacheRepository, FileAccessTimeJournal fileAccessTimeJournal, ExecutionHistoryStore executionHistoryStore) {
+    public ImmutableTransformationWorkspaceProvider(File transformsStoreDirectory, CacheRepository cacheRepository, FileAccessTimeJournal fileAccessTimeJournal, ExecutionHistoryStore executionHistoryStore, FileSystemSnapshotter fileSystemSnapshotter) {
         filesOutputDirectory = new File(transformsStoreDirectory, TRANSFORMS_STORE.getKey());
+        staleResultsFile = new File(transformsStoreDirectory, STALE_RESULTS_FILE_NAME);
         this.executionHistoryStore = executionHistoryStore;
+        this.fileSystemSnapshotter = fileSystemSnapshotter;
         cache = cacheRepository
             .cache(transformsStoreDirectory)
-            .withCleanup(createCleanupAction(filesOutputDirectory, fileAccessTimeJournal))
+            .withCleanup(createCleanupAction(filesOutputDirectory, staleResultsFile, fileAccessTimeJournal))
             .withCrossVersionCache(CacheBuilder.LockTarget.DefaultTarget)
             .withDisplayName("Artifact transforms cache")
             .withLockOptions(mode(FileLockManager.LockMode.None)) // Lock on demand
             .open();
+        resultIndex = cache.createCache(PersistentIndexedCacheParameters.of("results", String.class, new ListSerializer<File>(FILE_SERIALIZER)));
         fileAccessTracker = new SingleDepthFileAccessTracker(fileAccessTimeJournal, filesOutputDirectory, FILE_TREE_DEPTH_TO_TRACK_AND_CLEANUP);
+        cache.useCache(this::removeStaleResults);
     }
 
-    private CleanupAction createCleanupAction(File filesOutputDirectory, FileAccessTimeJournal fileAccessTimeJournal) {
+    private static CleanupAction createCleanupAction(File filesOutputDirectory, File staleResultsFile, FileAccessTimeJournal fileAccessTimeJournal) {
         return CompositeCleanupAction.builder()
-            .add(filesOutputDirectory, new LeastRecentlyUsedCacheCleanup(new SingleDepthFilesFinder(FILE_TREE_DEPTH_TO_TRACK_AND_CLEANUP), fileAccessTimeJournal, DEFAULT_MAX_AGE_IN_DAYS_FOR_RECREATABLE_CACHE_ENTRIES))
+            .add(filesOutputDirectory, new ResultRecordingCacheCleanup(fileAccessTimeJournal, staleResultsFile))
             .build();
     }
 
@@ -82,8 +115,127 @@ public class ImmutableTransformationWorkspaceProvider implements TransformationW
         });
     }
 
+    /**
+     * Returns the result of a previous successful execution in the workspace with the given identity, or null when there is none.
+     *
+     * <p>The identity of an immutable workspace includes the hash of the input artifact content, so a recorded result can be reused by any later build
+     * as long as the outputs of the workspace are the ones recorded in the execution history of the workspace. A result whose workspace was removed by
+     * cache cleanup or whose outputs have changed since is dropped from the index, and the workspace goes through the regular up-to-date check instead.</p>
+     */
+    @Nullable
+    public ImmutableList<File> loadResult(TransformationWorkspaceIdentity identity) {
+        String workspacePath = identity.getIdentity();
+        List<File> result = cache.useCache(() -> resultIndex.get(workspacePath));
+        if (result == null) {
+            return null;
+        }
+        TransformationWorkspace workspace = new DefaultTransformationWorkspace(new File(filesOutputDirectory, workspacePath));
+        if (!isUnchanged(workspacePath, workspace, result)) {
+            cache.useCache(() -> {
+                // Another thread may have recorded a new result in the meantime
+                if (result.equals(resultIndex.get(workspacePath))) {
+                    resultIndex.remove(workspacePath);
+                }
+            });
+            return null;
+        }
+        fileAccessTracker.markAccessed(workspace.getResultsFile());
+        fileAccessTracker.markAccessed(workspace.getOutputDirectory());
+        return ImmutableList.copyOf(result);
+    }
+
+    /**
+     * Records the result of a successful execution in the workspace with the given identity. The outputs of the execution must have been recorded in the execution history.
+     */
+    public void storeResult(TransformationWorkspaceIdentity identity, ImmutableList<File> result) {
+        cache.useCache(() -> resultIndex.put(identity.getIdentity(), result));
+    }
+
+    /**
+     * Checks the outputs of the workspace against the outputs recorded in its execution history. The outputs are snapshotted with the file system snapshotter,
+     * so outputs that have already been snapshotted during the build are not visited again.
+     */
+    private boolean isUnchanged(String workspacePath, TransformationWorkspace workspace, List<File> result) {
+        if (!workspace.getResultsFile().isFile()) {
+            return false;
+        }
+        for (File file : result) {
+            if (!file.exists()) {
+                return false;
+            }
+        }
+        Optional<AfterPreviousExecutionState> previousExecution = executionHistoryStore.load(DefaultTransformerInvoker.getExecutionHistoryKey(workspacePath));
+        if (!previousExecution.isPresent() || !previousExecution.get().isSuccessful()) {
+            return false;
+        }
+        for (FileCollectionFingerprint outputs : previousExecution.get().getOutputFileProperties().values()) {
+            for (Map.Entry<String, HashCode> root : outputs.getRootHashes().entries()) {
+                if (!fileSystemSnapshotter.snapshot(new File(root.getKey())).getHash().equals(root.getValue())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes the results of the workspaces deleted by cache cleanup from the index.
+     */
+    private void removeStaleResults() {
+        // Claim the recorded workspaces first, so that a cleanup running in another process records into a new file
+        File claimedFile = new File(staleResultsFile.getParentFile(), staleResultsFile.getName() + "." + UUID.randomUUID());
+        List<String> staleWorkspaces;
+        try {
+            Files.move(staleResultsFile.toPath(), claimedFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            staleWorkspaces = Files.readAllLines(claimedFile.toPath(), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return;
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+        for (String workspacePath : staleWorkspaces) {
+            resultIndex.remove(workspacePath);
+        }
+        claimedFile.delete();
+    }
+
     @Override
     public void close() {
         cache.close();
     }
+
+    /**
+     * Removes the workspaces which have not been used recently, and records them so that their results are removed from the index the next time it is opened.
+     * The index itself cannot be updated here, as cleanup runs after the cache has been closed.
+     */
+    private static class ResultRecordingCacheCleanup extends LeastRecentlyUsedCacheCleanup {
+        private final File staleResultsFile;
+        private final Set<String> deletedWorkspaces = new LinkedHashSet<>();
+
+        ResultRecordingCacheCleanup(FileAccessTimeJournal fileAccessTimeJournal, File staleResultsFile) {
+            super(new SingleDepthFilesFinder(FILE_TREE_DEPTH_TO_TRACK_AND_CLEANUP), fileAccessTimeJournal, DEFAULT_MAX_AGE_IN_DAYS_FOR_RECREATABLE_CACHE_ENTRIES);
+            this.staleResultsFile = staleResultsFile;
+        }
+
+        @Override
+        public void clean(CleanableStore cleanableStore, CleanupProgressMonitor progressMonitor) {
+            deletedWorkspaces.clear();
+            super.clean(cleanableStore, progressMonitor);
+            if (deletedWorkspaces.isEmpty()) {
+                return;
+            }
+            try {
+                Files.write(staleResultsFile.toPath(), deletedWorkspaces, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+        }
+
+        @Override
+        protected void handleDeletion(File file) {
+            super.handleDeletion(file);
+            String name = file.getName();
+            deletedWorkspaces.add(name.endsWith(DefaultTransformationWorkspace.RESULTS_FILE_SUFFIX) ? name.substring(0, name.length() - DefaultTransformationWorkspace.RESULTS_FILE_SUFFIX.length()) : name);
+        }
+    }
 }
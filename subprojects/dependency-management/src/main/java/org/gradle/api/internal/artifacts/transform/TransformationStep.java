@@ -30,12 +30,20 @@ import org.gradle.execution.ProjectExecutionServiceRegistry;
 import org.gradle.internal.Cast;
 import org.gradle.internal.Try;
 import org.gradle.internal.fingerprint.FileCollectionFingerprinterRegistry;
+import org.gradle.internal.operations.BuildOperationCategory;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.RunnableBuildOperation;
 import org.gradle.internal.service.ServiceRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -49,6 +57,7 @@ public class TransformationStep implements Transformation, TaskDependencyContain
 
     private final Transformer transformer;
     private final TransformerInvoker transformerInvoker;
+    private final BuildOperationExecutor buildOperationExecutor;
     private final DomainObjectProjectStateHandler projectStateHandler;
     private final ProjectStateRegistry.SafeExclusiveLock isolationLock;
     private final WorkNodeAction isolateAction;
@@ -56,9 +65,10 @@ public class TransformationStep implements Transformation, TaskDependencyContain
     private final FileCollectionFingerprinterRegistry globalFingerprinterRegistry;
     private final AtomicReference<FileCollectionFingerprinterRegistry> usedFingerprinterRegistry = new AtomicReference<>();
 
-    public TransformationStep(Transformer transformer, TransformerInvoker transformerInvoker, DomainObjectProjectStateHandler projectStateHandler, FileCollectionFingerprinterRegistry globalFingerprinterRegistry) {
+    public TransformationStep(Transformer transformer, TransformerInvoker transformerInvoker, BuildOperationExecutor buildOperationExecutor, DomainObjectProjectStateHandler projectStateHandler, FileCollectionFingerprinterRegistry globalFingerprinterRegistry) {
         this.transformer = transformer;
         this.transformerInvoker = transformerInvoker;
+        this.buildOperationExecutor = buildOperationExecutor;
         this.projectStateHandler = projectStateHandler;
         this.globalFingerprinterRegistry = globalFingerprinterRegistry;
         this.isolationLock = projectStateHandler.newExclusiveOperationLock();
@@ -116,10 +126,34 @@ public class TransformationStep implements Transformation, TaskDependencyContain
     }
 
     private Try<TransformationSubject> doTransform(TransformationSubject subjectToTransform, FileCollectionFingerprinterRegistry fingerprinterRegistry, ArtifactTransformDependencies dependencies, ImmutableList<File> inputArtifacts) {
-        ImmutableList.Builder<File> builder = ImmutableList.builder();
+        List<InputArtifactTransformation> transformations = new ArrayList<>(inputArtifacts.size());
+        List<InputArtifactTransformation> pending = new ArrayList<>(inputArtifacts.size());
+        AtomicBoolean failed = new AtomicBoolean();
         for (File inputArtifact : inputArtifacts) {
-            Try<ImmutableList<File>> result = transformerInvoker.createInvocation(transformer, inputArtifact, dependencies, subjectToTransform, fingerprinterRegistry).invoke();
+            InputArtifactTransformation transformation = new InputArtifactTransformation(inputArtifact, transformerInvoker.createInvocation(transformer, inputArtifact, dependencies, subjectToTransform, fingerprinterRegistry), failed);
+            transformations.add(transformation);
+            if (!transformation.hasResult()) {
+                pending.add(transformation);
+            }
+        }
 
+        // Each input artifact has its own workspace, so the input artifacts of a subject can be transformed in parallel,
+        // for example the jars produced by a previous step that unzips an archive.
+        // Once the transformation of one input artifact fails, the input artifacts which have not started yet are skipped.
+        if (pending.size() == 1) {
+            pending.get(0).run(null);
+        } else if (!pending.isEmpty()) {
+            buildOperationExecutor.runAll(queue -> pending.forEach(queue::add));
+        }
+
+        // Combine the results in input order, and report the failure of the first input artifact that failed
+        ImmutableList.Builder<File> builder = ImmutableList.builder();
+        for (InputArtifactTransformation transformation : transformations) {
+            Try<ImmutableList<File>> result = transformation.getResult();
+            if (result == null) {
+                // Skipped, as the transformation of another input artifact failed
+                continue;
+            }
             if (result.getFailure().isPresent()) {
                 return Try.failure(result.getFailure().get());
             }
@@ -186,4 +220,52 @@ public class TransformationStep implements Transformation, TaskDependencyContain
         }
         transformer.visitDependencies(context);
     }
+
+    private class InputArtifactTransformation implements RunnableBuildOperation {
+        private final File inputArtifact;
+        private final CacheableInvocation<ImmutableList<File>> invocation;
+        private final AtomicBoolean failed;
+        private Try<ImmutableList<File>> result;
+
+        InputArtifactTransformation(File inputArtifact, CacheableInvocation<ImmutableList<File>> invocation, AtomicBoolean failed) {
+            this.inputArtifact = inputArtifact;
+            this.invocation = invocation;
+            this.failed = failed;
+            this.result = invocation.getCachedResult().orElse(null);
+            if (result != null && result.getFailure().isPresent()) {
+                failed.set(true);
+            }
+        }
+
+        boolean hasResult() {
+            return result != null;
+        }
+
+        /**
+         * Returns the result of the transformation, or null when it was skipped.
+         */
+        @Nullable
+        Try<ImmutableList<File>> getResult() {
+            return result;
+        }
+
+        @Override
+        public void run(@Nullable BuildOperationContext context) {
+            if (failed.get()) {
+                return;
+            }
+            result = invocation.invoke();
+            if (result.getFailure().isPresent()) {
+                failed.set(true);
+            }
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            String displayName = "Transform " + inputArtifact.getName() + " with " + transformer.getDisplayName();
+            return BuildOperationDescriptor.displayName(displayName)
+                .progressDisplayName(displayName)
+                .operationType(BuildOperationCategory.UNCATEGORIZED);
+        }
+    }
 }
@@ -70,7 +70,7 @@ public abstract class AbstractMutableModuleComponentResolveMetadata implements M
 
     private final VariantMetadataRules variantMetadataRules;
 
-    private List<MutableVariantImpl> newVariants;
+    private List<PendingVariant> newVariants;
     private ImmutableList<? extends ComponentVariant> variants;
     private Set<ComponentIdentifier> owners;
 
@@ -209,11 +209,20 @@ public abstract class AbstractMutableModuleComponentResolveMetadata implements M
     @Override
     public MutableComponentVariant addVariant(String variantName, ImmutableAttributes attributes) {
         MutableVariantImpl variant = new MutableVariantImpl(variantName, attributes);
+        addPendingVariant(variant);
+        return variant;
+    }
+
+    @Override
+    public void addVariant(String variantName, ImmutableAttributes attributes, ImmutableCapabilities capabilities, LazyVariantContent content) {
+        addPendingVariant(new PendingLazyVariant(variantName, attributes, capabilities, content));
+    }
+
+    private void addPendingVariant(PendingVariant variant) {
         if (newVariants == null) {
-            newVariants = new ArrayList<MutableVariantImpl>();
+            newVariants = new ArrayList<PendingVariant>();
         }
         newVariants.add(variant);
-        return variant;
     }
 
     public ImmutableList<? extends ComponentVariant> getVariants() {
@@ -227,8 +236,8 @@ public abstract class AbstractMutableModuleComponentResolveMetadata implements M
         if (variants != null) {
             builder.addAll(variants);
         }
-        for (MutableVariantImpl variant : newVariants) {
-            builder.add(new ImmutableVariantImpl(getId(), variant.name, variant.attributes, ImmutableList.copyOf(variant.dependencies), ImmutableList.copyOf(variant.dependencyConstraints), ImmutableList.copyOf(variant.files), ImmutableCapabilities.of(variant.capabilities)));
+        for (PendingVariant variant : newVariants) {
+            builder.add(variant.asImmutable(getId()));
         }
         return builder.build();
     }
@@ -251,7 +260,30 @@ public abstract class AbstractMutableModuleComponentResolveMetadata implements M
         return owners;
     }
 
-    protected static class MutableVariantImpl implements MutableComponentVariant {
+    private interface PendingVariant {
+        ComponentVariant asImmutable(ModuleComponentIdentifier componentId);
+    }
+
+    private static class PendingLazyVariant implements PendingVariant {
+        private final String name;
+        private final ImmutableAttributes attributes;
+        private final ImmutableCapabilities capabilities;
+        private final LazyVariantContent content;
+
+        PendingLazyVariant(String name, ImmutableAttributes attributes, ImmutableCapabilities capabilities, LazyVariantContent content) {
+            this.name = name;
+            this.attributes = attributes;
+            this.capabilities = capabilities;
+            this.content = content;
+        }
+
+        @Override
+        public ComponentVariant asImmutable(ModuleComponentIdentifier componentId) {
+            return new LazyVariantImpl(componentId, name, attributes, capabilities, content);
+        }
+    }
+
+    protected static class MutableVariantImpl implements MutableComponentVariant, PendingVariant {
         private final String name;
         private final ImmutableAttributes attributes;
         private final List<DependencyImpl> dependencies = Lists.newArrayList();
@@ -287,6 +319,11 @@ public abstract class AbstractMutableModuleComponentResolveMetadata implements M
         public String getName() {
             return name;
         }
+
+        @Override
+        public ComponentVariant asImmutable(ModuleComponentIdentifier componentId) {
+            return new ImmutableVariantImpl(componentId, name, attributes, ImmutableList.copyOf(dependencies), ImmutableList.copyOf(dependencyConstraints), ImmutableList.copyOf(files), ImmutableCapabilities.of(capabilities));
+        }
     }
 
     protected static class FileImpl implements ComponentVariant.File {
@@ -542,6 +579,9 @@ public abstract class AbstractMutableModuleComponentResolveMetadata implements M
             if (this == o) {
                 return true;
             }
+            if (o instanceof LazyVariantImpl) {
+                return o.equals(this);
+            }
             if (o == null || getClass() != o.getClass()) {
                 return false;
             }
@@ -557,13 +597,119 @@ public abstract class AbstractMutableModuleComponentResolveMetadata implements M
 
         @Override
         public int hashCode() {
+            // Does not include the content of the variant, so that a lazy variant can calculate the same hash code without decoding its content
             return Objects.hashCode(componentId,
                 name,
-                attributes,
-                dependencies,
-                dependencyConstraints,
-                files);
+                attributes);
         }
     }
 
+    /**
+     * A variant whose name, attributes and capabilities are known up front, but whose dependencies,
+     * dependency constraints and files are only populated from the {@link LazyVariantContent} when first queried.
+     * Variant selection only requires the former, so the content of variants that are never selected is never decoded.
+     */
+    protected static class LazyVariantImpl implements ComponentVariant, VariantResolveMetadata {
+        private final ModuleComponentIdentifier componentId;
+        private final String name;
+        private final ImmutableAttributes attributes;
+        private final ImmutableCapabilities capabilities;
+        private final LazyVariantContent content;
+        private volatile ImmutableVariantImpl populated;
+
+        LazyVariantImpl(ModuleComponentIdentifier componentId, String name, ImmutableAttributes attributes, ImmutableCapabilities capabilities, LazyVariantContent content) {
+            this.componentId = componentId;
+            this.name = name;
+            this.attributes = attributes;
+            this.capabilities = capabilities;
+            this.content = content;
+        }
+
+        private ImmutableVariantImpl getPopulated() {
+            ImmutableVariantImpl result = populated;
+            if (result == null) {
+                synchronized (this) {
+                    result = populated;
+                    if (result == null) {
+                        MutableVariantImpl variant = new MutableVariantImpl(name, attributes);
+                        content.populate(variant);
+                        result = new ImmutableVariantImpl(componentId, name, attributes, ImmutableList.copyOf(variant.dependencies), ImmutableList.copyOf(variant.dependencyConstraints), ImmutableList.copyOf(variant.files), capabilities);
+                        populated = result;
+                    }
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public DisplayName asDescribable() {
+            return Describables.of(componentId, "variant", name);
+        }
+
+        @Override
+        public ImmutableAttributes getAttributes() {
+            return attributes;
+        }
+
+        @Override
+        public ImmutableList<? extends Dependency> getDependencies() {
+            return getPopulated().getDependencies();
+        }
+
+        @Override
+        public ImmutableList<? extends DependencyConstraint> getDependencyConstraints() {
+            return getPopulated().getDependencyConstraints();
+        }
+
+        @Override
+        public ImmutableList<? extends File> getFiles() {
+            return getPopulated().getFiles();
+        }
+
+        @Override
+        public CapabilitiesMetadata getCapabilities() {
+            return capabilities;
+        }
+
+        @Override
+        public List<? extends ComponentArtifactMetadata> getArtifacts() {
+            return getPopulated().getArtifacts();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o instanceof LazyVariantImpl) {
+                // Compare the encoded content, rather than decoding it
+                LazyVariantImpl that = (LazyVariantImpl) o;
+                return Objects.equal(componentId, that.componentId)
+                    && Objects.equal(name, that.name)
+                    && Objects.equal(attributes, that.attributes)
+                    && content.equals(that.content);
+            }
+            if (!(o instanceof ImmutableVariantImpl)) {
+                return false;
+            }
+            // Equal to the eagerly populated equivalent. Only decode the content when everything else is the same
+            ImmutableVariantImpl that = (ImmutableVariantImpl) o;
+            return Objects.equal(componentId, that.componentId)
+                && Objects.equal(name, that.name)
+                && Objects.equal(attributes, that.attributes)
+                && getPopulated().equals(that);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(componentId,
+                name,
+                attributes);
+        }
+    }
 }
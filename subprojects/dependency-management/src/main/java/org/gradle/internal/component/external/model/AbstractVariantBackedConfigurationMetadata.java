@@ -43,11 +43,24 @@ import java.util.Set;
 class AbstractVariantBackedConfigurationMetadata implements ConfigurationMetadata {
     private final ModuleComponentIdentifier componentId;
     private final ComponentVariant variant;
-    private final ImmutableList<GradleDependencyMetadata> dependencies;
+    private ImmutableList<GradleDependencyMetadata> dependencies;
 
     AbstractVariantBackedConfigurationMetadata(ModuleComponentIdentifier componentId, ComponentVariant variant) {
         this.componentId = componentId;
         this.variant = variant;
+    }
+
+    AbstractVariantBackedConfigurationMetadata(ModuleComponentIdentifier componentId, ComponentVariant variant, ImmutableList<GradleDependencyMetadata> dependencies) {
+        this.componentId = componentId;
+        this.variant = variant;
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * Dependencies are only calculated when requested, so that the dependencies of variants which are
+     * not selected (and which may be lazily decoded from the cache) are never visited.
+     */
+    private static ImmutableList<GradleDependencyMetadata> calculateDependencies(ComponentVariant variant) {
         List<GradleDependencyMetadata> dependencies = new ArrayList<GradleDependencyMetadata>(variant.getDependencies().size());
         // Forced dependencies are only supported for enforced platforms, so it is currently hardcoded.
         // Should we want to add this as a first class concept to Gradle metadata, then it should be available on the component variant
@@ -67,13 +80,7 @@ class AbstractVariantBackedConfigurationMetadata implements ConfigurationMetadat
                 forcedDependencies
             ));
         }
-        this.dependencies = ImmutableList.copyOf(dependencies);
-    }
-
-    AbstractVariantBackedConfigurationMetadata(ModuleComponentIdentifier componentId, ComponentVariant variant, ImmutableList<GradleDependencyMetadata> dependencies) {
-        this.componentId = componentId;
-        this.variant = variant;
-        this.dependencies = dependencies;
+        return ImmutableList.copyOf(dependencies);
     }
 
     @Override
@@ -147,7 +154,10 @@ class AbstractVariantBackedConfigurationMetadata implements ConfigurationMetadat
     }
 
     @Override
-    public List<? extends ModuleDependencyMetadata> getDependencies() {
+    public synchronized List<? extends ModuleDependencyMetadata> getDependencies() {
+        if (dependencies == null) {
+            dependencies = calculateDependencies(variant);
+        }
         return dependencies;
     }
 
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.component.external.model;
+
+/**
+ * The dependencies, dependency constraints and files of a variant, in a form that is only decoded on demand.
+ *
+ * <p>Implementations are equal when they hold the same encoded content, so that variants can be compared without decoding their content.</p>
+ */
+public interface LazyVariantContent {
+    /**
+     * Adds the dependencies, dependency constraints and files of the variant to the given target.
+     * Called at most once for a given variant.
+     */
+    void populate(MutableComponentVariant target);
+}
@@ -75,6 +75,11 @@ public interface MutableModuleComponentResolveMetadata {
      */
     MutableComponentVariant addVariant(String variantName, ImmutableAttributes attributes);
 
+    /**
+     * Adds a variant to this module, whose dependencies, dependency constraints and files are only populated from the given content when first queried.
+     */
+    void addVariant(String variantName, ImmutableAttributes attributes, ImmutableCapabilities capabilities, LazyVariantContent content);
+
     AttributeContainer getAttributes();
 
     void setAttributes(AttributeContainer attributes);
@@ -62,7 +62,7 @@ class CacheLayoutTest extends Specification {
         cacheLayout.versionMapping.getVersionUsedBy(GradleVersion.version("1.9-rc-2")).get() == CacheVersion.of(2, 1)
 
         where:
-        expectedVersion = 71
+        expectedVersion = 72
     }
 
     def "use transforms layout"() {
@@ -71,10 +71,10 @@ class CacheLayoutTest extends Specification {
 
         then:
         cacheLayout.name == 'transforms'
-        cacheLayout.key == 'transforms-2'
-        cacheLayout.version == CacheVersion.parse("2")
-        cacheLayout.version.toString() == '2'
-        cacheLayout.getPath(new File('some/dir')) == new File('some/dir/transforms-2')
+        cacheLayout.key == 'transforms-3'
+        cacheLayout.version == CacheVersion.parse("3")
+        cacheLayout.version.toString() == '3'
+        cacheLayout.getPath(new File('some/dir')) == new File('some/dir/transforms-3')
     }
 
     def "use transforms store layout"() {
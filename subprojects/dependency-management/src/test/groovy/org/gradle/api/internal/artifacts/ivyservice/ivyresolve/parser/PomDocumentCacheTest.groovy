@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser
+
+import org.gradle.api.internal.file.TestFiles
+import org.gradle.internal.resource.local.LocalFileStandInExternalResource
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class PomDocumentCacheTest extends Specification {
+    @Rule
+    public final TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    def cache = new PomDocumentCache()
+
+    def "parses document including comments and text content"() {
+        def pomFile = tmpDir.file('pom.xml')
+        pomFile << """
+<project>
+    <!-- a comment -->
+    <groupId>group-one</groupId>
+    <description><![CDATA[some]]> &amp; more</description>
+</project>
+"""
+
+        when:
+        def project = cache.get(new LocalFileStandInExternalResource(pomFile, TestFiles.fileSystem()))
+
+        then:
+        project.name == 'project'
+        project.comments == [' a comment ']
+        project.children*.name == ['groupId', 'description']
+        PomDomParser.getFirstChildText(project, 'description') == 'some & more'
+    }
+
+    def "reuses parsed shared document while the file is unchanged"() {
+        def pomFile = tmpDir.file('pom.xml')
+        pomFile.text = "<project><groupId>group-one</groupId></project>"
+        def resource = new LocalFileStandInExternalResource(pomFile, TestFiles.fileSystem())
+
+        when:
+        def first = cache.getShared(resource)
+        def second = cache.getShared(resource)
+
+        then:
+        first.is(second)
+
+        when:
+        pomFile.text = "<project><groupId>group-two-changed</groupId></project>"
+        def third = cache.getShared(resource)
+
+        then:
+        !third.is(first)
+        PomDomParser.getFirstChildText(third, 'groupId') == 'group-two-changed'
+    }
+
+    def "does not cache documents of modules"() {
+        def pomFile = tmpDir.file('pom.xml')
+        pomFile.text = "<project><groupId>group-one</groupId></project>"
+        def resource = new LocalFileStandInExternalResource(pomFile, TestFiles.fileSystem())
+
+        when:
+        def first = cache.get(resource)
+        def second = cache.get(resource)
+
+        then:
+        !first.is(second)
+
+        when:
+        def shared = cache.getShared(resource)
+
+        then:
+        cache.get(resource).is(shared)
+    }
+}
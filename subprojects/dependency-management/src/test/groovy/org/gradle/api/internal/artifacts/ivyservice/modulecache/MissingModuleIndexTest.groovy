@@ -0,0 +1,112 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.modulecache
+
+import org.gradle.api.internal.artifacts.DefaultModuleIdentifier
+import org.gradle.cache.CacheAccess
+import org.gradle.cache.PersistentIndexedCache
+import org.gradle.internal.Factory
+import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier
+import spock.lang.Specification
+
+class MissingModuleIndexTest extends Specification {
+    def entries = [:]
+    def store = Mock(PersistentIndexedCache) {
+        get(_) >> { String key -> entries[key] }
+        put(_, _) >> { String key, Map value -> entries[key] = value }
+        remove(_) >> { String key -> entries.remove(key) }
+    }
+    def cacheAccess = Stub(CacheAccess) {
+        useCache(_ as Factory) >> { Factory factory -> factory.create() }
+    }
+    def index = new MissingModuleIndex(store, cacheAccess)
+
+    def "does not report modules whose absence has not been recorded"() {
+        when:
+        index.recordMissing(key("repo", "a", "1.0"), 100)
+
+        then:
+        index.getMissingTimestamp(key("repo", "a", "1.0")) == 100
+        index.getMissingTimestamp(key("repo", "a", "2.0")) == null
+        index.getMissingTimestamp(key("repo", "b", "1.0")) == null
+        index.getMissingTimestamp(key("other", "a", "1.0")) == null
+    }
+
+    def "recorded absence is read back by later builds"() {
+        when:
+        index.recordMissing(key("repo", "a", "1.0"), 100)
+        index.recordMissing(key("repo", "a", "1.1"), 200)
+        def later = new MissingModuleIndex(store, cacheAccess)
+
+        then:
+        later.getMissingTimestamp(key("repo", "a", "1.0")) == 100
+        later.getMissingTimestamp(key("repo", "a", "1.1")) == 200
+        later.getMissingTimestamp(key("repo", "a", "2.0")) == null
+    }
+
+    def "recording a module as present removes it from the index"() {
+        given:
+        index.recordMissing(key("repo", "a", "1.0"), 100)
+        index.recordMissing(key("repo", "a", "1.1"), 100)
+
+        when:
+        index.recordPresent(key("repo", "a", "1.0"))
+
+        then:
+        index.getMissingTimestamp(key("repo", "a", "1.0")) == null
+        index.getMissingTimestamp(key("repo", "a", "1.1")) == 100
+        new MissingModuleIndex(store, cacheAccess).getMissingTimestamp(key("repo", "a", "1.0")) == null
+
+        when:
+        index.recordPresent(key("repo", "a", "1.1"))
+
+        then:
+        index.getMissingTimestamp(key("repo", "a", "1.1")) == null
+        entries.isEmpty()
+    }
+
+    def "merges the modules recorded by other processes"() {
+        def other = new MissingModuleIndex(store, cacheAccess)
+
+        when:
+        index.recordMissing(key("repo", "a", "1.0"), 100)
+        other.recordMissing(key("repo", "a", "1.1"), 200)
+        def later = new MissingModuleIndex(store, cacheAccess)
+
+        then:
+        later.getMissingTimestamp(key("repo", "a", "1.0")) == 100
+        later.getMissingTimestamp(key("repo", "a", "1.1")) == 200
+    }
+
+    def "reads each group from the store only once"() {
+        given:
+        entries["repo:a"] = ["m:1.0": 100L]
+
+        when:
+        index.getMissingTimestamp(key("repo", "a", "1.0"))
+        index.getMissingTimestamp(key("repo", "a", "1.1"))
+        index.getMissingTimestamp(key("repo", "a", "1.0"))
+
+        then:
+        1 * store.get("repo:a") >> { String key -> entries[key] }
+        0 * store._
+    }
+
+    private static ModuleComponentAtRepositoryKey key(String repositoryId, String group, String version) {
+        new ModuleComponentAtRepositoryKey(repositoryId, DefaultModuleComponentIdentifier.newId(DefaultModuleIdentifier.newId(group, "m"), version))
+    }
+}
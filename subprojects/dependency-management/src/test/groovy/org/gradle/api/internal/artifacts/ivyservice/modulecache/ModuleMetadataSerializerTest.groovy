@@ -26,6 +26,7 @@ import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser.GradlePomM
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser.IvyModuleDescriptorConverter
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser.IvyXmlModuleDescriptorParser
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser.MetaDataParser
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser.PomDocumentCache
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser.GradleModuleMetadataParser
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.DefaultVersionComparator
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.DefaultVersionSelectorScheme
@@ -36,6 +37,7 @@ import org.gradle.api.internal.artifacts.repositories.metadata.IvyMutableModuleM
 import org.gradle.api.internal.artifacts.repositories.metadata.MavenMutableModuleMetadataFactory
 import org.gradle.api.internal.file.TestFiles
 import org.gradle.api.internal.model.NamedObjectInstantiator
+import org.gradle.internal.component.external.model.AbstractMutableModuleComponentResolveMetadata
 import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier
 import org.gradle.internal.component.external.model.MutableModuleComponentResolveMetadata
 import org.gradle.internal.component.external.model.ivy.MutableIvyModuleResolveMetadata
@@ -95,6 +97,49 @@ class ModuleMetadataSerializerTest extends Specification {
 
     }
 
+    def "decodes the content of a variant only when it is queried"() {
+        given:
+        def metadata = parse(sampleFiles().find { it.name == 'module-with-variants.module' })
+        def originMetadata = metadata.asImmutable()
+
+        when:
+        def deserializedMetadata = deserialize(serialize(metadata)).asImmutable()
+
+        then:
+        deserializedMetadata.variants.size() == originMetadata.variants.size()
+        deserializedMetadata.variants.every { it instanceof AbstractMutableModuleComponentResolveMetadata.LazyVariantImpl && it.populated == null }
+        deserializedMetadata.variants*.name == originMetadata.variants*.name
+        deserializedMetadata.variants*.attributes == originMetadata.variants*.attributes
+        deserializedMetadata.variants*.capabilities*.capabilities == originMetadata.variants*.capabilities*.capabilities
+        deserializedMetadata.variants.every { it.populated == null }
+
+        when:
+        def first = deserializedMetadata.variants[0]
+
+        then:
+        first.dependencies == originMetadata.variants[0].dependencies
+        first.files == originMetadata.variants[0].files
+        first.populated != null
+        deserializedMetadata.variants.drop(1).every { it.populated == null }
+    }
+
+    def "compares and hashes variants without decoding their content"() {
+        given:
+        def metadata = parse(sampleFiles().find { it.name == 'module-with-variants.module' })
+        def serialized = serialize(metadata)
+
+        when:
+        def variants = deserialize(serialized).asImmutable().variants
+        def otherVariants = deserialize(serialized).asImmutable().variants
+        def set = new HashSet(variants)
+
+        then:
+        variants == otherVariants
+        set.containsAll(otherVariants)
+        set.size() == variants.size()
+        (variants + otherVariants).every { it.populated == null }
+    }
+
     private MutableModuleComponentResolveMetadata deserialize(byte[] serializedForm) {
         serializer.read(new InputStreamBackedDecoder(new ByteArrayInputStream(serializedForm)), moduleIdentifierFactory, Maps.newHashMap())
     }
@@ -162,7 +207,8 @@ class ModuleMetadataSerializerTest extends Specification {
             new MavenVersionSelectorScheme(new DefaultVersionSelectorScheme(new DefaultVersionComparator(), new VersionParser())),
             moduleIdentifierFactory,
             Stub(FileResourceRepository),
-            mavenMetadataFactory
+            mavenMetadataFactory,
+            new PomDocumentCache()
         )
     }
 
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.builder
+
+import org.gradle.api.internal.artifacts.ResolveContext
+import org.gradle.api.internal.artifacts.configurations.ConfigurationInternal
+import org.gradle.cache.internal.TestCrossBuildInMemoryCacheFactory
+import org.gradle.util.Path
+import spock.lang.Specification
+
+class ResolvedGraphSizeHintsTest extends Specification {
+    def store = new ResolvedGraphSizeHints.Store(new TestCrossBuildInMemoryCacheFactory())
+    def hints = new ResolvedGraphSizeHints(store, new File('tree-a'))
+
+    def "has no expected size for a context which has not been resolved"() {
+        expect:
+        hints.expectedSize(configuration(':a:compileClasspath')) == null
+    }
+
+    def "expects the previously recorded size with room for the load factor"() {
+        given:
+        hints.recordSize(configuration(':a:compileClasspath'), 300)
+
+        expect:
+        hints.expectedSize(configuration(':a:compileClasspath')) == 401
+    }
+
+    def "never expects less than the minimum size"() {
+        given:
+        hints.recordSize(configuration(':a:compileClasspath'), 0)
+
+        expect:
+        hints.expectedSize(configuration(':a:compileClasspath')) == 10
+    }
+
+    def "keeps the sizes of configurations with the same name in different projects and builds apart"() {
+        given:
+        hints.recordSize(configuration(':a:compileClasspath'), 300)
+
+        expect:
+        hints.expectedSize(configuration(':b:compileClasspath')) == null
+        hints.expectedSize(configuration(':included:a:compileClasspath')) == null
+    }
+
+    def "keeps the sizes of different build trees apart"() {
+        given:
+        def otherTree = new ResolvedGraphSizeHints(store, new File('tree-b'))
+        hints.recordSize(configuration(':compileClasspath'), 300)
+
+        expect:
+        otherTree.expectedSize(configuration(':compileClasspath')) == null
+        new ResolvedGraphSizeHints(store, new File('tree-a')).expectedSize(configuration(':compileClasspath')) == 401
+    }
+
+    def "uses the display name for contexts which are not configurations"() {
+        given:
+        def context = Stub(ResolveContext) {
+            getDisplayName() >> 'library main'
+        }
+        hints.recordSize(context, 30)
+
+        expect:
+        hints.expectedSize(context) == 41
+    }
+
+    private ConfigurationInternal configuration(String identityPath) {
+        return Stub(ConfigurationInternal) {
+            getIdentityPath() >> Path.path(identityPath)
+            getDisplayName() >> "configuration '${Path.path(identityPath).name}'"
+        }
+    }
+}
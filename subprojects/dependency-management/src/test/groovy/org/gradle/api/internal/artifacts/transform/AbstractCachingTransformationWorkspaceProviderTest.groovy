@@ -94,6 +94,55 @@ class AbstractCachingTransformationWorkspaceProviderTest extends ConcurrentSpec
         !workspaceProvider.getCachedResult(new TestWorkspaceIdentity("second"))
     }
 
+    def "uses result persisted by previous build"() {
+        def persisted = [:]
+        def persistingProvider = { ->
+            new AbstractCachingTransformationWorkspaceProvider(new TestTransformationWorkspaceProvider(tmpDir.file("transforms"), executionHistoryStore)) {
+                @Override
+                protected ImmutableList<File> loadPersistedResult(TransformationWorkspaceIdentity identity) {
+                    return persisted[identity.identity]
+                }
+
+                @Override
+                protected void persistResult(TransformationWorkspaceIdentity identity, ImmutableList<File> result) {
+                    persisted[identity.identity] = result
+                }
+            }
+        }
+        def result = ImmutableList.of(tmpDir.file("result"))
+
+        when:
+        persistingProvider().withWorkspace(new TestWorkspaceIdentity("first")) { id, workspace ->
+            return Try.successful(result)
+        }
+        def nextBuildProvider = persistingProvider()
+
+        then:
+        nextBuildProvider.getCachedResult(new TestWorkspaceIdentity("first")).get() == result
+        nextBuildProvider.withWorkspace(new TestWorkspaceIdentity("first")) { id, workspace ->
+            throw new IllegalStateException("Should not run the transform again")
+        }.get() == result
+        !nextBuildProvider.getCachedResult(new TestWorkspaceIdentity("second"))
+    }
+
+    def "does not persist failed results"() {
+        def persisted = [:]
+        def provider = new AbstractCachingTransformationWorkspaceProvider(new TestTransformationWorkspaceProvider(tmpDir.file("transforms"), executionHistoryStore)) {
+            @Override
+            protected void persistResult(TransformationWorkspaceIdentity identity, ImmutableList<File> result) {
+                persisted[identity.identity] = result
+            }
+        }
+
+        when:
+        provider.withWorkspace(new TestWorkspaceIdentity("first")) { id, workspace ->
+            return Try.failure(new RuntimeException("broken"))
+        }
+
+        then:
+        persisted.isEmpty()
+    }
+
     private static class TestWorkspaceIdentity implements TransformationWorkspaceIdentity {
         private final String name
 
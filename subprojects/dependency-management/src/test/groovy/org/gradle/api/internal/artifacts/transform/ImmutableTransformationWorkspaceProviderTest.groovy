@@ -0,0 +1,190 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.transform
+
+import com.google.common.collect.ImmutableList
+import com.google.common.collect.ImmutableMultimap
+import com.google.common.collect.ImmutableSortedMap
+import org.gradle.api.internal.cache.StringInterner
+import org.gradle.api.internal.changedetection.state.DefaultWellKnownFileLocations
+import org.gradle.api.internal.file.TestFiles
+import org.gradle.cache.internal.DefaultCacheRepository
+import org.gradle.internal.execution.history.AfterPreviousExecutionState
+import org.gradle.internal.execution.history.ExecutionHistoryStore
+import org.gradle.internal.fingerprint.FileCollectionFingerprint
+import org.gradle.internal.resource.local.ModificationTimeFileAccessTimeJournal
+import org.gradle.internal.snapshot.impl.DefaultFileSystemMirror
+import org.gradle.internal.snapshot.impl.DefaultFileSystemSnapshotter
+import org.gradle.test.fixtures.file.TestFile
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.testfixtures.internal.InMemoryCacheFactory
+import org.junit.Rule
+import spock.lang.Specification
+
+import static org.gradle.api.internal.artifacts.ivyservice.CacheLayout.TRANSFORMS_STORE
+
+class ImmutableTransformationWorkspaceProviderTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+
+    def cacheRepository = new DefaultCacheRepository(null, new InMemoryCacheFactory())
+    def fileSystemMirror = new DefaultFileSystemMirror(new DefaultWellKnownFileLocations([]))
+    def fileSystemSnapshotter = new DefaultFileSystemSnapshotter(TestFiles.fileHasher(), new StringInterner(), TestFiles.fileSystem(), fileSystemMirror)
+    def executionHistory = [:]
+    def executionHistoryStore = Stub(ExecutionHistoryStore) {
+        load(_) >> { String key -> Optional.ofNullable(executionHistory[key]) }
+    }
+    def storeDir = tmpDir.createDir("transforms")
+    def filesDir = storeDir.file(TRANSFORMS_STORE.key)
+    def identity = Stub(TransformationWorkspaceIdentity) {
+        getIdentity() >> "workspace"
+    }
+
+    def "loads stored result while the outputs of the workspace are unchanged"() {
+        def provider = createProvider()
+        def result = ImmutableList.of(createWorkspace().file("output.txt"))
+
+        when:
+        provider.storeResult(identity, result)
+
+        then:
+        provider.loadResult(identity) == result
+        createProvider().loadResult(identity) == result
+    }
+
+    def "does not load stored result when there is no successful execution recorded for the workspace"() {
+        def provider = createProvider()
+        def result = ImmutableList.of(createWorkspace().file("output.txt"))
+        provider.storeResult(identity, result)
+
+        when:
+        executionHistory.clear()
+
+        then:
+        provider.loadResult(identity) == null
+    }
+
+    def "loads and stores results from multiple threads"() {
+        def provider = createProvider()
+        def workspaces = (1..10).collect { "workspace$it" }
+        def results = [:].asSynchronized()
+
+        when:
+        workspaces.collect { workspacePath ->
+            def identity = Stub(TransformationWorkspaceIdentity) {
+                getIdentity() >> workspacePath
+            }
+            def result = ImmutableList.of(createWorkspace(workspacePath).file("output.txt"))
+            Thread.start {
+                provider.storeResult(identity, result)
+                results[workspacePath] = provider.loadResult(identity) == result
+            }
+        }*.join()
+
+        then:
+        results.size() == workspaces.size()
+        results.values().every { it }
+    }
+
+    def "drops stored result when the outputs of the workspace have changed"() {
+        def provider = createProvider()
+        def outputFile = createWorkspace().file("output.txt")
+        provider.storeResult(identity, ImmutableList.of(outputFile))
+
+        when:
+        outputFile.text = "changed"
+        fileSystemMirror.beforeOutputChange()
+
+        then:
+        provider.loadResult(identity) == null
+
+        when:
+        outputFile.text = "output"
+
+        then:
+        provider.loadResult(identity) == null
+    }
+
+    def "drops stored result when the workspace has been removed"() {
+        def provider = createProvider()
+        def workspace = createWorkspace()
+        def result = ImmutableList.of(workspace.file("output.txt"))
+        provider.storeResult(identity, result)
+
+        when:
+        workspace.deleteDir()
+        fileSystemMirror.beforeOutputChange()
+
+        then:
+        provider.loadResult(identity) == null
+
+        when:
+        createWorkspace()
+
+        then:
+        provider.loadResult(identity) == null
+    }
+
+    def "drops results of workspaces removed by cache cleanup"() {
+        def provider = createProvider()
+        def workspace = createWorkspace()
+        def result = ImmutableList.of(workspace.file("output.txt"))
+        provider.storeResult(identity, result)
+
+        when:
+        workspace.lastModified = 0
+        filesDir.file("workspace.bin").lastModified = 0
+        provider.close()
+
+        then:
+        workspace.assertDoesNotExist()
+
+        when:
+        createWorkspace()
+
+        then:
+        createProvider().loadResult(identity) == null
+    }
+
+    private ImmutableTransformationWorkspaceProvider createProvider() {
+        return new ImmutableTransformationWorkspaceProvider(storeDir, cacheRepository, new ModificationTimeFileAccessTimeJournal(), executionHistoryStore, fileSystemSnapshotter)
+    }
+
+    /**
+     * Creates the outputs of a workspace and records them in its execution history, like the execution of a transform does.
+     */
+    private TestFile createWorkspace(String workspacePath = "workspace") {
+        def workspace = filesDir.createDir(workspacePath)
+        workspace.file("output.txt").text = "output"
+        def resultsFile = filesDir.file("${workspacePath}.bin")
+        resultsFile.text = "output.txt"
+        def outputDirectoryFingerprint = fingerprintOf(workspace)
+        def resultsFileFingerprint = fingerprintOf(resultsFile)
+        executionHistory[DefaultTransformerInvoker.getExecutionHistoryKey(workspacePath)] = Stub(AfterPreviousExecutionState) {
+            isSuccessful() >> true
+            getOutputFileProperties() >> ImmutableSortedMap.of("outputDirectory", outputDirectoryFingerprint, "resultsFile", resultsFileFingerprint)
+        }
+        return workspace
+    }
+
+    private FileCollectionFingerprint fingerprintOf(TestFile file) {
+        def hash = fileSystemSnapshotter.snapshot(file).hash
+        return Stub(FileCollectionFingerprint) {
+            getRootHashes() >> ImmutableMultimap.of(file.absolutePath, hash)
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package org.gradle.api.internal.artifacts.transform
 
 import org.gradle.internal.fingerprint.FileCollectionFingerprinterRegistry
+import org.gradle.internal.operations.BuildOperationExecutor
 import spock.lang.Specification
 
 class TransformationMatchingSpec extends Specification {
@@ -26,8 +27,8 @@ class TransformationMatchingSpec extends Specification {
 
     def "different TransformationStep does not contain each other"() {
         given:
-        def step1 = new TransformationStep(Mock(Transformer), Mock(TransformerInvoker), projectStateHandler, fileCollectionFingerprinterRegistry)
-        def step2 = new TransformationStep(Mock(Transformer), Mock(TransformerInvoker), projectStateHandler, fileCollectionFingerprinterRegistry)
+        def step1 = new TransformationStep(Mock(Transformer), Mock(TransformerInvoker), Mock(BuildOperationExecutor), projectStateHandler, fileCollectionFingerprinterRegistry)
+        def step2 = new TransformationStep(Mock(Transformer), Mock(TransformerInvoker), Mock(BuildOperationExecutor), projectStateHandler, fileCollectionFingerprinterRegistry)
 
         expect:
         !step1.endsWith(step2)
@@ -36,7 +37,7 @@ class TransformationMatchingSpec extends Specification {
 
     def "TransformationStep contains itself"() {
         given:
-        def step = new TransformationStep(Mock(Transformer), Mock(TransformerInvoker), projectStateHandler, fileCollectionFingerprinterRegistry)
+        def step = new TransformationStep(Mock(Transformer), Mock(TransformerInvoker), Mock(BuildOperationExecutor), projectStateHandler, fileCollectionFingerprinterRegistry)
 
         expect:
         step.endsWith(step)
@@ -44,8 +45,8 @@ class TransformationMatchingSpec extends Specification {
 
     def "chain contains its final step"() {
         given:
-        def step1 = new TransformationStep(Mock(Transformer), Mock(TransformerInvoker), projectStateHandler, fileCollectionFingerprinterRegistry)
-        def step2 = new TransformationStep(Mock(Transformer), Mock(TransformerInvoker), projectStateHandler, fileCollectionFingerprinterRegistry)
+        def step1 = new TransformationStep(Mock(Transformer), Mock(TransformerInvoker), Mock(BuildOperationExecutor), projectStateHandler, fileCollectionFingerprinterRegistry)
+        def step2 = new TransformationStep(Mock(Transformer), Mock(TransformerInvoker), Mock(BuildOperationExecutor), projectStateHandler, fileCollectionFingerprinterRegistry)
         def chain = new TransformationChain(step1, step2)
 
         expect:
@@ -58,8 +59,8 @@ class TransformationMatchingSpec extends Specification {
 
     def "chain contains itself"() {
         given:
-        def step1 = new TransformationStep(Mock(Transformer), Mock(TransformerInvoker), projectStateHandler, fileCollectionFingerprinterRegistry)
-        def step2 = new TransformationStep(Mock(Transformer), Mock(TransformerInvoker), projectStateHandler, fileCollectionFingerprinterRegistry)
+        def step1 = new TransformationStep(Mock(Transformer), Mock(TransformerInvoker), Mock(BuildOperationExecutor), projectStateHandler, fileCollectionFingerprinterRegistry)
+        def step2 = new TransformationStep(Mock(Transformer), Mock(TransformerInvoker), Mock(BuildOperationExecutor), projectStateHandler, fileCollectionFingerprinterRegistry)
         def chain = new TransformationChain(step1, step2)
 
         expect:
@@ -68,9 +69,9 @@ class TransformationMatchingSpec extends Specification {
 
     def "longer chain contains shorter chain"() {
         given:
-        def step1 = new TransformationStep(Mock(Transformer), Mock(TransformerInvoker), projectStateHandler, fileCollectionFingerprinterRegistry)
-        def step2 = new TransformationStep(Mock(Transformer), Mock(TransformerInvoker), projectStateHandler, fileCollectionFingerprinterRegistry)
-        def step3 = new TransformationStep(Mock(Transformer), Mock(TransformerInvoker), projectStateHandler, fileCollectionFingerprinterRegistry)
+        def step1 = new TransformationStep(Mock(Transformer), Mock(TransformerInvoker), Mock(BuildOperationExecutor), projectStateHandler, fileCollectionFingerprinterRegistry)
+        def step2 = new TransformationStep(Mock(Transformer), Mock(TransformerInvoker), Mock(BuildOperationExecutor), projectStateHandler, fileCollectionFingerprinterRegistry)
+        def step3 = new TransformationStep(Mock(Transformer), Mock(TransformerInvoker), Mock(BuildOperationExecutor), projectStateHandler, fileCollectionFingerprinterRegistry)
         def subChain = new TransformationChain(step2, step3)
         def longChain = new TransformationChain(new TransformationChain(step1, step2), step3)
 
@@ -81,9 +82,9 @@ class TransformationMatchingSpec extends Specification {
 
     def "different chains do not contain each other"() {
         given:
-        def step1 = new TransformationStep(Mock(Transformer), Mock(TransformerInvoker), projectStateHandler, fileCollectionFingerprinterRegistry)
-        def step2 = new TransformationStep(Mock(Transformer), Mock(TransformerInvoker), projectStateHandler, fileCollectionFingerprinterRegistry)
-        def step3 = new TransformationStep(Mock(Transformer), Mock(TransformerInvoker), projectStateHandler, fileCollectionFingerprinterRegistry)
+        def step1 = new TransformationStep(Mock(Transformer), Mock(TransformerInvoker), Mock(BuildOperationExecutor), projectStateHandler, fileCollectionFingerprinterRegistry)
+        def step2 = new TransformationStep(Mock(Transformer), Mock(TransformerInvoker), Mock(BuildOperationExecutor), projectStateHandler, fileCollectionFingerprinterRegistry)
+        def step3 = new TransformationStep(Mock(Transformer), Mock(TransformerInvoker), Mock(BuildOperationExecutor), projectStateHandler, fileCollectionFingerprinterRegistry)
         def chain1 = new TransformationChain(step2, step3)
         def chain2 = new TransformationChain(step1, step2)
         def chain3 = new TransformationChain(step1, step3)
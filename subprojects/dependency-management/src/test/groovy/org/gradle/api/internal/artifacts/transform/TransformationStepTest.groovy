@@ -0,0 +1,196 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.transform
+
+import com.google.common.collect.ImmutableList
+import org.gradle.api.internal.project.ProjectStateRegistry
+import org.gradle.internal.Try
+import org.gradle.internal.concurrent.ParallelismConfigurationManagerFixture
+import org.gradle.internal.fingerprint.FileCollectionFingerprinterRegistry
+import org.gradle.internal.operations.BuildOperationListener
+import org.gradle.internal.operations.DefaultBuildOperationExecutor
+import org.gradle.internal.operations.DefaultBuildOperationIdFactory
+import org.gradle.internal.operations.DefaultBuildOperationQueueFactory
+import org.gradle.internal.progress.NoOpProgressLoggerFactory
+import org.gradle.internal.resources.DefaultResourceLockCoordinationService
+import org.gradle.internal.time.Clock
+import org.gradle.internal.work.DefaultWorkerLeaseService
+import org.gradle.internal.work.WorkerLeaseRegistry
+import org.gradle.test.fixtures.concurrent.ConcurrentSpec
+
+import java.util.function.Supplier
+
+class TransformationStepTest extends ConcurrentSpec {
+    def transformer = Stub(Transformer) {
+        isIsolated() >> true
+        getDisplayName() >> "Test"
+    }
+    def invocations = [:]
+    def transformerInvoker = Stub(TransformerInvoker) {
+        createInvocation(transformer, _, _, _, _) >> { args -> invocations[args[1]] }
+    }
+    def projectStateHandler = Stub(DomainObjectProjectStateHandler) {
+        newExclusiveOperationLock() >> Stub(ProjectStateRegistry.SafeExclusiveLock)
+    }
+    def dependenciesResolver = Stub(ExecutionGraphDependenciesResolver) {
+        forTransformer(transformer) >> Try.successful(Stub(ArtifactTransformDependencies))
+    }
+    WorkerLeaseRegistry workerLeaseService
+    WorkerLeaseRegistry.WorkerLeaseCompletion outerOperationCompletion
+    TransformationStep step
+
+    def setupStep(int maxWorkers) {
+        def parallelismConfigurationManager = new ParallelismConfigurationManagerFixture(true, maxWorkers)
+        workerLeaseService = new DefaultWorkerLeaseService(new DefaultResourceLockCoordinationService(), parallelismConfigurationManager)
+        def buildOperationExecutor = new DefaultBuildOperationExecutor(
+            Stub(BuildOperationListener), Stub(Clock), new NoOpProgressLoggerFactory(),
+            new DefaultBuildOperationQueueFactory(workerLeaseService), executorFactory, parallelismConfigurationManager, new DefaultBuildOperationIdFactory())
+        outerOperationCompletion = workerLeaseService.getWorkerLease().start()
+        step = new TransformationStep(transformer, transformerInvoker, buildOperationExecutor, projectStateHandler, Stub(FileCollectionFingerprinterRegistry))
+    }
+
+    def cleanup() {
+        if (outerOperationCompletion) {
+            outerOperationCompletion.leaseFinish()
+            workerLeaseService.stop()
+        }
+    }
+
+    def "transforms the input artifacts of a subject in parallel and combines the results in input order"() {
+        setupStep(4)
+        def first = file("first.jar")
+        def second = file("second.jar")
+        def third = file("third.jar")
+        invoked(first) {
+            thread.blockUntil.secondStarted
+            thread.blockUntil.thirdStarted
+            Try.successful(ImmutableList.of(file("first-transformed.jar")))
+        }
+        invoked(second) {
+            instant.secondStarted
+            Try.successful(ImmutableList.of(file("second-transformed.jar")))
+        }
+        invoked(third) {
+            instant.thirdStarted
+            Try.successful(ImmutableList.of(file("third-a.jar"), file("third-b.jar")))
+        }
+
+        when:
+        def result = transform(first, second, third)
+
+        then:
+        result.get().files == [file("first-transformed.jar"), file("second-transformed.jar"), file("third-a.jar"), file("third-b.jar")]
+    }
+
+    def "uses cached results and only runs the remaining input artifacts"() {
+        setupStep(4)
+        def first = file("first.jar")
+        def second = file("second.jar")
+        invocations[first] = CacheableInvocation.cached(Try.successful(ImmutableList.of(file("first-transformed.jar"))))
+        invoked(second) {
+            Try.successful(ImmutableList.of(file("second-transformed.jar")))
+        }
+
+        when:
+        def result = transform(first, second)
+
+        then:
+        result.get().files == [file("first-transformed.jar"), file("second-transformed.jar")]
+    }
+
+    def "reports the failure of the first failing input artifact in input order"() {
+        setupStep(4)
+        def first = file("first.jar")
+        def second = file("second.jar")
+        def firstFailure = new RuntimeException("first")
+        def secondFailure = new RuntimeException("second")
+        invoked(first) {
+            instant.firstStarted
+            thread.blockUntil.secondFailed
+            Try.failure(firstFailure)
+        }
+        invoked(second) {
+            thread.blockUntil.firstStarted
+            instant.secondFailed
+            Try.failure(secondFailure)
+        }
+
+        when:
+        def result = transform(first, second)
+
+        then:
+        result.failure.get() == firstFailure
+    }
+
+    def "does not start the remaining input artifacts once one has failed"() {
+        setupStep(1)
+        def failure = new RuntimeException("broken")
+        def first = file("first.jar")
+        def second = file("second.jar")
+        def third = file("third.jar")
+        def started = []
+        invoked(first) {
+            started << first
+            Try.successful(ImmutableList.of(file("first-transformed.jar")))
+        }
+        invoked(second) {
+            started << second
+            Try.failure(failure)
+        }
+        invoked(third) {
+            started << third
+            Try.successful(ImmutableList.of(file("third-transformed.jar")))
+        }
+
+        when:
+        def result = transform(first, second, third)
+
+        then:
+        result.failure.get() == failure
+        started == [first, second]
+    }
+
+    def "skips all input artifacts when a cached result has failed"() {
+        setupStep(4)
+        def failure = new RuntimeException("broken")
+        def first = file("first.jar")
+        def second = file("second.jar")
+        invocations[first] = CacheableInvocation.cached(Try.failure(failure))
+        invoked(second) {
+            throw new IllegalStateException("Should not run")
+        }
+
+        when:
+        def result = transform(first, second)
+
+        then:
+        result.failure.get() == failure
+    }
+
+    private void invoked(File inputArtifact, Closure<Try<ImmutableList<File>>> action) {
+        invocations[inputArtifact] = CacheableInvocation.nonCached(action as Supplier<Try<ImmutableList<File>>>)
+    }
+
+    private Try<TransformationSubject> transform(File... inputArtifacts) {
+        def subject = TransformationSubject.initial(file("input.aar")).createSubjectFromResult(ImmutableList.copyOf(inputArtifacts))
+        return step.createInvocation(subject, dependenciesResolver, null).invoke()
+    }
+
+    private static File file(String name) {
+        return new File(name).absoluteFile
+    }
+}
@@ -37,7 +37,7 @@ class BeanFieldDeserializer(
     private val filePropertyFactory: FilePropertyFactory
 ) {
     fun deserialize(decoder: Decoder, context: DeserializationContext) {
-        val fieldsByName = relevantStateOf(beanType).associateBy { it.name }
+        val fieldsByName = relevantStateByNameOf(beanType)
         while (true) {
             val fieldName = decoder.readString()
             if (fieldName.isEmpty()) {
@@ -46,7 +46,6 @@ class BeanFieldDeserializer(
             try {
                 val value = deserializer.read(decoder, context)
                 val field = fieldsByName.getValue(fieldName)
-                field.isAccessible = true
                 context.logFieldSerialization("deserialize", beanType, fieldName, value)
                 @Suppress("unchecked_cast")
                 when (field.type) {
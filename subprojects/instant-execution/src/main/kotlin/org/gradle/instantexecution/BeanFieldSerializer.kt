@@ -39,7 +39,6 @@ class BeanFieldSerializer(
     override fun invoke(encoder: Encoder, context: SerializationContext) {
         encoder.apply {
             for (field in relevantStateOf(beanType)) {
-                field.isAccessible = true
                 val fieldValue = field.get(bean)
                 val conventionalValue = fieldValue ?: conventionalValueOf(bean, field.name)
                 val finalValue = unpack(conventionalValue)
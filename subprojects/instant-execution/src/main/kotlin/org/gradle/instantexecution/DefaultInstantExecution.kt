@@ -34,8 +34,8 @@ import org.gradle.internal.hash.HashUtil
 import org.gradle.internal.serialize.BaseSerializerFactory
 import org.gradle.internal.serialize.Decoder
 import org.gradle.internal.serialize.Encoder
-import org.gradle.internal.serialize.kryo.KryoBackedDecoder
-import org.gradle.internal.serialize.kryo.KryoBackedEncoder
+import org.gradle.internal.serialize.kryo.StringDeduplicatingKryoBackedDecoder
+import org.gradle.internal.serialize.kryo.StringDeduplicatingKryoBackedEncoder
 import org.gradle.util.GradleVersion
 import org.gradle.util.Path
 
@@ -104,7 +104,7 @@ class DefaultInstantExecution(
     }
 
     override fun loadTaskGraph() {
-        KryoBackedDecoder(instantExecutionStateFile.inputStream()).use { decoder ->
+        StringDeduplicatingKryoBackedDecoder(instantExecutionStateFile.inputStream()).use { decoder ->
             val rootProjectName = decoder.readString()
             val build = host.createBuild(rootProjectName)
             loadRelevantProjects(decoder, build)
@@ -117,7 +117,7 @@ class DefaultInstantExecution(
     private
     fun saveTasks(build: ClassicModeBuild) {
         Files.createDirectories(instantExecutionStateFile.parentFile.toPath())
-        KryoBackedEncoder(instantExecutionStateFile.outputStream()).use { encoder ->
+        StringDeduplicatingKryoBackedEncoder(instantExecutionStateFile.outputStream()).use { encoder ->
             encoder.writeString(build.rootProject.name)
             val scheduledTasks = build.scheduledTasks
             saveRelevantProjectsFor(scheduledTasks, encoder)
@@ -174,8 +174,9 @@ class DefaultInstantExecution(
     fun loadTasksWithDependenciesFor(decoder: Decoder, build: InstantExecutionBuild): List<Pair<Task, List<String>>> {
         val classPath = decoder.deserializeClassPath()
         val taskClassLoader = classLoaderFor(classPath)
+        val deserializer = host.deserializerFor(taskClassLoader)
         return decoder.deserializeCollectionInto({ size -> ArrayList(size) }) { container ->
-            val task = loadTaskFor(build, decoder, taskClassLoader)
+            val task = loadTaskFor(build, decoder, taskClassLoader, deserializer)
             container.add(task)
         }
     }
@@ -212,14 +213,13 @@ class DefaultInstantExecution(
     }
 
     private
-    fun loadTaskFor(build: InstantExecutionBuild, decoder: Decoder, taskClassLoader: ClassLoader): Pair<Task, List<String>> {
+    fun loadTaskFor(build: InstantExecutionBuild, decoder: Decoder, taskClassLoader: ClassLoader, deserializer: StateDeserializer): Pair<Task, List<String>> {
         val projectPath = decoder.readString()
         val taskName = decoder.readString()
         val typeName = decoder.readString()
         val taskDependencies = decoder.deserializeStrings()
         val taskClass = taskClassLoader.loadClass(typeName).asSubclass(Task::class.java)
         val task = build.createTask(projectPath, taskName, taskClass)
-        val deserializer = host.deserializerFor(taskClassLoader)
         BeanFieldDeserializer(task, taskClass, deserializer, filePropertyFactory).deserialize(
             decoder,
             DeserializationContext(task, logger)
@@ -246,13 +246,40 @@ class DefaultInstantExecution(
 }
 
 
+/**
+ * Returns the fields of the given type that make up its state, made accessible.
+ *
+ * The fields are calculated once per type, as they are needed for every bean of the type that is saved or loaded.
+ */
 internal
-fun relevantStateOf(taskType: Class<*>): Sequence<Field> =
-    relevantTypeHierarchyOf(taskType).flatMap { type ->
-        type.declaredFields.asSequence().filterNot { field ->
-            Modifier.isStatic(field.modifiers) || Modifier.isTransient(field.modifiers)
-        }
-    }
+fun relevantStateOf(taskType: Class<*>): List<Field> =
+    relevantState.get(taskType).fields
+
+
+internal
+fun relevantStateByNameOf(taskType: Class<*>): Map<String, Field> =
+    relevantState.get(taskType).fieldsByName
+
+
+private
+class RelevantState(val fields: List<Field>) {
+    val fieldsByName = fields.associateBy { it.name }
+}
+
+
+private
+val relevantState = object : ClassValue<RelevantState>() {
+    override fun computeValue(type: Class<*>): RelevantState =
+        RelevantState(
+            relevantTypeHierarchyOf(type).flatMap { declaringType ->
+                declaringType.declaredFields.asSequence().filterNot { field ->
+                    Modifier.isStatic(field.modifiers) || Modifier.isTransient(field.modifiers)
+                }
+            }.onEach { field ->
+                field.isAccessible = true
+            }.toList()
+        )
+}
 
 
 private
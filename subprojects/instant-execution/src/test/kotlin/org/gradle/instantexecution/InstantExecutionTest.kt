@@ -18,6 +18,7 @@ package org.gradle.instantexecution
 
 import org.gradle.util.Path.path
 import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.CoreMatchers.sameInstance
 import org.hamcrest.MatcherAssert.assertThat
 import org.junit.Test
 
@@ -69,4 +70,36 @@ class InstantExecutionTest {
             )
         )
     }
+
+    @Test
+    fun `relevant state of a type is its accessible instance fields`() {
+        val fields = relevantStateOf(SomeBean::class.java)
+
+        assertThat(
+            fields.map { it.name }.toSet(),
+            equalTo(setOf("name", "count"))
+        )
+        assertThat(
+            fields.all { it.isAccessible },
+            equalTo(true)
+        )
+        assertThat(
+            relevantStateOf(SomeBean::class.java),
+            sameInstance(fields)
+        )
+    }
+
+    @Suppress("unused")
+    class SomeBean {
+
+        private
+        val name = "bean"
+
+        private
+        var count = 0
+
+        @Transient
+        private
+        var cached: String? = null
+    }
 }
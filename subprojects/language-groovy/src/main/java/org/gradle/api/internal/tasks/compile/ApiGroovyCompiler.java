@@ -19,10 +19,14 @@ package org.gradle.api.internal.tasks.compile;
 import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Sets;
 import groovy.lang.Binding;
 import groovy.lang.GroovyClassLoader;
 import groovy.lang.GroovyShell;
 import groovy.lang.GroovySystem;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.InnerClassNode;
+import org.codehaus.groovy.ast.ModuleNode;
 import org.codehaus.groovy.control.CompilationUnit;
 import org.codehaus.groovy.control.CompilerConfiguration;
 import org.codehaus.groovy.control.customizers.ImportCustomizer;
@@ -49,8 +53,10 @@ import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.gradle.internal.FileUtils.hasExtension;
 
@@ -177,6 +183,7 @@ public class ApiGroovyCompiler implements org.gradle.language.base.internal.comp
 
         try {
             unit.compile();
+            recordSourceClasses(spec, unit);
         } catch (org.codehaus.groovy.control.CompilationFailedException e) {
             System.err.println(e.getMessage());
             // Explicit flush, System.err is an auto-flushing PrintWriter unless it is replaced.
@@ -194,6 +201,34 @@ public class ApiGroovyCompiler implements org.gradle.language.base.internal.comp
         return WorkResults.didWork(true);
     }
 
+    /**
+     * Records the top level classes compiled from each Groovy source file, replacing what was recorded for the source files compiled by this
+     * compilation or since deleted, so that an incremental compilation knows which classes a changed source file has produced.
+     */
+    private void recordSourceClasses(GroovyJavaJointCompileSpec spec, CompilationUnit unit) {
+        File mappingFile = spec.getCompilationMappingFile();
+        if (mappingFile == null) {
+            return;
+        }
+        Map<File, Set<String>> mapping = SourceClassesMappingFile.read(mappingFile);
+        Iterator<File> sources = mapping.keySet().iterator();
+        while (sources.hasNext()) {
+            if (!sources.next().isFile()) {
+                sources.remove();
+            }
+        }
+        for (ModuleNode module : unit.getAST().getModules()) {
+            Set<String> classNames = Sets.newLinkedHashSet();
+            for (ClassNode classNode : module.getClasses()) {
+                if (!(classNode instanceof InnerClassNode)) {
+                    classNames.add(classNode.getName());
+                }
+            }
+            mapping.put(new File(module.getContext().getName()).getAbsoluteFile(), classNames);
+        }
+        SourceClassesMappingFile.write(mappingFile, mapping);
+    }
+
     private boolean shouldProcessAnnotations(GroovyJavaJointCompileSpec spec) {
         return spec.getGroovyCompileOptions().isJavaAnnotationProcessing()
             && !spec.getAnnotationProcessorPath().isEmpty()
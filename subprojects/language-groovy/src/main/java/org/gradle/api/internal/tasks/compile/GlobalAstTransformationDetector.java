@@ -0,0 +1,124 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.compile;
+
+import com.google.common.base.Charsets;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.io.CharStreams;
+import org.gradle.internal.IoActions;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.snapshot.FileSystemSnapshotter;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.gradle.internal.FileUtils.hasExtension;
+
+/**
+ * Finds the global AST transformations on a class path, other than the ones that ship with Groovy.
+ *
+ * <p>A global AST transformation runs on every class of a compilation, and can make a class depend on other classes in ways that the
+ * class files do not show, so a compilation that uses one cannot be incremental.</p>
+ *
+ * <p>The transformations of each class path entry are cached by the hash of its snapshot, so unchanged entries are not read again.</p>
+ */
+public class GlobalAstTransformationDetector {
+    private static final String SERVICE_FILE = "META-INF/services/org.codehaus.groovy.transform.ASTTransformation";
+    private static final int MAX_CACHED_ENTRIES = 10000;
+
+    private final FileSystemSnapshotter fileSystemSnapshotter;
+    private final Cache<HashCode, List<String>> transformationsByEntryHash = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_ENTRIES).build();
+
+    public GlobalAstTransformationDetector(FileSystemSnapshotter fileSystemSnapshotter) {
+        this.fileSystemSnapshotter = fileSystemSnapshotter;
+    }
+
+    public List<String> findGlobalAstTransformations(Iterable<File> classpath) {
+        List<String> transformations = Lists.newArrayList();
+        for (final File entry : classpath) {
+            if (!entry.isDirectory() && !hasExtension(entry, ".jar")) {
+                continue;
+            }
+            HashCode hash = fileSystemSnapshotter.snapshot(entry).getHash();
+            try {
+                transformations.addAll(transformationsByEntryHash.get(hash, new Callable<List<String>>() {
+                    @Override
+                    public List<String> call() throws IOException {
+                        return findTransformations(entry);
+                    }
+                }));
+            } catch (ExecutionException e) {
+                throw UncheckedException.throwAsUncheckedException(e.getCause());
+            }
+        }
+        return transformations;
+    }
+
+    private static List<String> findTransformations(File entry) throws IOException {
+        List<String> transformations = Lists.newArrayList();
+        if (entry.isDirectory()) {
+            File serviceFile = new File(entry, SERVICE_FILE);
+            if (serviceFile.isFile()) {
+                addTransformations(new FileInputStream(serviceFile), transformations);
+            }
+        } else if (entry.isFile()) {
+            ZipFile zipFile = new ZipFile(entry);
+            try {
+                ZipEntry serviceEntry = zipFile.getEntry(SERVICE_FILE);
+                if (serviceEntry != null) {
+                    addTransformations(zipFile.getInputStream(serviceEntry), transformations);
+                }
+            } finally {
+                zipFile.close();
+            }
+        }
+        return ImmutableList.copyOf(transformations);
+    }
+
+    private static void addTransformations(InputStream serviceFile, List<String> transformations) throws IOException {
+        List<String> lines;
+        try {
+            lines = CharStreams.readLines(new InputStreamReader(serviceFile, Charsets.UTF_8));
+        } finally {
+            IoActions.closeQuietly(serviceFile);
+        }
+        for (String line : lines) {
+            int commentStart = line.indexOf('#');
+            String className = (commentStart >= 0 ? line.substring(0, commentStart) : line).trim();
+            if (!className.isEmpty() && !isShippedWithGroovy(className)) {
+                transformations.add(className);
+            }
+        }
+    }
+
+    private static boolean isShippedWithGroovy(String className) {
+        return className.startsWith("org.codehaus.groovy.") || className.startsWith("org.apache.groovy.") || className.startsWith("groovy.");
+    }
+}
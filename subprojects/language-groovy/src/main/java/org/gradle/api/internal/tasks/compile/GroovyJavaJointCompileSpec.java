@@ -16,5 +16,15 @@
 
 package org.gradle.api.internal.tasks.compile;
 
+import javax.annotation.Nullable;
+import java.io.File;
+
 public interface GroovyJavaJointCompileSpec extends JavaCompileSpec, GroovyCompileSpec {
+    /**
+     * The file in which to record the classes compiled from each Groovy source file, or {@code null} when they should not be recorded.
+     */
+    @Nullable
+    File getCompilationMappingFile();
+
+    void setCompilationMappingFile(@Nullable File compilationMappingFile);
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.compile;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.SetMultimap;
+import org.gradle.api.internal.tasks.compile.incremental.recomp.SourceFileClassNameConverter;
+import org.gradle.api.internal.tasks.compile.incremental.recomp.SourceToNameConverter;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Uses the classes recorded for each Groovy source file by the previous compilation, as a Groovy source file can contain any number of classes with any names.
+ * Falls back to the naming convention for Java source files and for source files that have not been compiled before.
+ */
+public class GroovySourceFileClassNameConverter implements SourceFileClassNameConverter {
+    private final Map<File, Set<String>> classNamesBySource;
+    private final SetMultimap<String, File> sourcesByClassName = HashMultimap.create();
+    private final SourceToNameConverter sourceToNameConverter;
+
+    public GroovySourceFileClassNameConverter(Map<File, Set<String>> classNamesBySource, SourceToNameConverter sourceToNameConverter) {
+        this.classNamesBySource = classNamesBySource;
+        this.sourceToNameConverter = sourceToNameConverter;
+        for (Map.Entry<File, Set<String>> entry : classNamesBySource.entrySet()) {
+            for (String className : entry.getValue()) {
+                sourcesByClassName.put(className, entry.getKey());
+            }
+        }
+    }
+
+    @Override
+    public Collection<String> getClassNames(File sourceFile) {
+        Set<String> classNames = classNamesBySource.get(sourceFile.getAbsoluteFile());
+        if (classNames != null) {
+            return classNames;
+        }
+        String className = sourceToNameConverter.getClassName(sourceFile);
+        sourcesByClassName.put(className, sourceFile.getAbsoluteFile());
+        return Collections.singleton(className);
+    }
+
+    @Override
+    public Collection<File> getSourceFiles(String className) {
+        return sourcesByClassName.get(className);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.compile;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.io.Files;
+import org.gradle.internal.UncheckedException;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads and writes the classes compiled from each Groovy source file.
+ *
+ * <p>Each source file is written on its own line, followed by the names of its classes on lines that are indented by a single space.</p>
+ */
+public class SourceClassesMappingFile {
+    private static final String CLASS_NAME_PREFIX = " ";
+
+    private SourceClassesMappingFile() {
+    }
+
+    /**
+     * Returns the classes of each source file, or an empty map when the file does not exist.
+     */
+    public static Map<File, Set<String>> read(File mappingFile) {
+        Map<File, Set<String>> mapping = Maps.newLinkedHashMap();
+        if (!mappingFile.isFile()) {
+            return mapping;
+        }
+        List<String> lines;
+        try {
+            lines = Files.readLines(mappingFile, Charsets.UTF_8);
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+        Set<String> classNames = null;
+        for (String line : lines) {
+            if (line.startsWith(CLASS_NAME_PREFIX)) {
+                if (classNames != null) {
+                    classNames.add(line.substring(CLASS_NAME_PREFIX.length()));
+                }
+            } else if (!line.isEmpty()) {
+                classNames = Sets.newLinkedHashSet();
+                mapping.put(new File(line), classNames);
+            }
+        }
+        return mapping;
+    }
+
+    public static void write(File mappingFile, Map<File, ? extends Iterable<String>> mapping) {
+        List<String> lines = Lists.newArrayList();
+        for (Map.Entry<File, ? extends Iterable<String>> entry : mapping.entrySet()) {
+            lines.add(entry.getKey().getAbsolutePath());
+            for (String className : entry.getValue()) {
+                lines.add(CLASS_NAME_PREFIX + className);
+            }
+        }
+        try {
+            Files.createParentDirs(mappingFile);
+            Files.asCharSink(mappingFile, Charsets.UTF_8).writeLines(lines);
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.compile;
+
+import org.gradle.api.Action;
+import org.gradle.api.file.FileType;
+import org.gradle.api.tasks.incremental.IncrementalTaskInputs;
+import org.gradle.api.tasks.incremental.InputFileDetails;
+import org.gradle.work.ChangeType;
+import org.gradle.work.FileChange;
+
+import java.io.File;
+
+/**
+ * Presents the changes to the source files of a compilation to the incremental Java compilation infrastructure, which works with {@link IncrementalTaskInputs}.
+ * Changes to directories are left out.
+ */
+public class SourceFileChanges implements IncrementalTaskInputs {
+    private final boolean incremental;
+    private final Iterable<FileChange> changes;
+
+    public SourceFileChanges(boolean incremental, Iterable<FileChange> changes) {
+        this.incremental = incremental;
+        this.changes = changes;
+    }
+
+    @Override
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    @Override
+    public void outOfDate(Action<? super InputFileDetails> outOfDateAction) {
+        for (FileChange change : changes) {
+            if (change.getFileType() != FileType.DIRECTORY && change.getChangeType() != ChangeType.REMOVED) {
+                outOfDateAction.execute(new FileChangeDetails(change));
+            }
+        }
+    }
+
+    @Override
+    public void removed(Action<? super InputFileDetails> removedAction) {
+        for (FileChange change : changes) {
+            if (change.getFileType() != FileType.DIRECTORY && change.getChangeType() == ChangeType.REMOVED) {
+                removedAction.execute(new FileChangeDetails(change));
+            }
+        }
+    }
+
+    private static class FileChangeDetails implements InputFileDetails {
+        private final FileChange change;
+
+        FileChangeDetails(FileChange change) {
+            this.change = change;
+        }
+
+        @Override
+        public boolean isAdded() {
+            return change.getChangeType() == ChangeType.ADDED;
+        }
+
+        @Override
+        public boolean isModified() {
+            return change.getChangeType() == ChangeType.MODIFIED;
+        }
+
+        @Override
+        public boolean isRemoved() {
+            return change.getChangeType() == ChangeType.REMOVED;
+        }
+
+        @Override
+        public File getFile() {
+            return change.getFile();
+        }
+
+        @Override
+        public String toString() {
+            return change.toString();
+        }
+    }
+}
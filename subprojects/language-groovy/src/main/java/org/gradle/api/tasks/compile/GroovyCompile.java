@@ -18,27 +18,41 @@ package org.gradle.api.tasks.compile;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import org.gradle.api.Incubating;
 import org.gradle.api.InvalidUserDataException;
 import org.gradle.api.JavaVersion;
 import org.gradle.api.file.FileCollection;
 import org.gradle.api.file.FileTree;
 import org.gradle.api.internal.ClassPathRegistry;
+import org.gradle.api.internal.file.FileTreeInternal;
 import org.gradle.api.internal.tasks.JavaToolChainFactory;
 import org.gradle.api.internal.tasks.compile.CleaningGroovyCompiler;
 import org.gradle.api.internal.tasks.compile.CompilerForkUtils;
 import org.gradle.api.internal.tasks.compile.DefaultGroovyJavaJointCompileSpec;
 import org.gradle.api.internal.tasks.compile.DefaultGroovyJavaJointCompileSpecFactory;
+import org.gradle.api.internal.tasks.compile.GlobalAstTransformationDetector;
 import org.gradle.api.internal.tasks.compile.GroovyCompilerFactory;
 import org.gradle.api.internal.tasks.compile.GroovyJavaJointCompileSpec;
+import org.gradle.api.internal.tasks.compile.GroovySourceFileClassNameConverter;
+import org.gradle.api.internal.tasks.compile.SourceClassesMappingFile;
+import org.gradle.api.internal.tasks.compile.SourceFileChanges;
+import org.gradle.api.internal.tasks.compile.incremental.IncrementalCompilerFactory;
+import org.gradle.api.internal.tasks.compile.incremental.recomp.CompilationSourceDirs;
+import org.gradle.api.internal.tasks.compile.incremental.recomp.SourceToNameConverter;
 import org.gradle.api.internal.tasks.compile.processing.AnnotationProcessorDetector;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
 import org.gradle.api.model.ObjectFactory;
 import org.gradle.api.tasks.CacheableTask;
 import org.gradle.api.tasks.Classpath;
 import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
 import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.LocalState;
 import org.gradle.api.tasks.Nested;
 import org.gradle.api.tasks.PathSensitive;
 import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.SkipWhenEmpty;
 import org.gradle.api.tasks.TaskAction;
 import org.gradle.api.tasks.WorkResult;
 import org.gradle.internal.jvm.inspection.JvmVersionDetector;
@@ -47,30 +61,99 @@ import org.gradle.language.base.internal.compile.Compiler;
 import org.gradle.process.internal.JavaForkOptionsFactory;
 import org.gradle.process.internal.worker.child.WorkerDirectoryProvider;
 import org.gradle.util.GFileUtils;
+import org.gradle.work.Incremental;
+import org.gradle.work.InputChanges;
 import org.gradle.workers.internal.IsolatedClassloaderWorkerFactory;
 import org.gradle.workers.internal.WorkerDaemonFactory;
 
 import javax.inject.Inject;
 import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
 
 /**
  * Compiles Groovy source files, and optionally, Java source files.
  */
 @CacheableTask
 public class GroovyCompile extends AbstractCompile {
+    private static final Logger LOGGER = Logging.getLogger(GroovyCompile.class);
+
     private Compiler<GroovyJavaJointCompileSpec> compiler;
     private FileCollection groovyClasspath;
     private final CompileOptions compileOptions;
     private final GroovyCompileOptions groovyCompileOptions = new GroovyCompileOptions();
+    private final FileCollection stableSources = getProject().files(new Callable<FileTree>() {
+        @Override
+        public FileTree call() {
+            return getSource();
+        }
+    });
 
     public GroovyCompile() {
         CompileOptions compileOptions = getServices().get(ObjectFactory.class).newInstance(CompileOptions.class);
+        compileOptions.setIncremental(false);
         this.compileOptions = compileOptions;
         CompilerForkUtils.doNotCacheIfForkingViaExecutable(compileOptions, getOutputs());
     }
 
-    @Override
+    /**
+     * Compiles the source files. Only the source files affected by the changes since the previous compilation are recompiled
+     * when {@link CompileOptions#isIncremental()} is enabled, which it is not by default.
+     *
+     * @since 5.6
+     */
+    @Incubating
     @TaskAction
+    protected void compile(InputChanges inputChanges) {
+        if (!compileOptions.isIncremental()) {
+            // The classes of each source file are not recorded by this compilation, so a later incremental compilation cannot use them
+            GFileUtils.deleteQuietly(getSourceClassesMappingFile());
+            compile();
+            return;
+        }
+        checkGroovyClasspathIsNonEmpty();
+        DefaultGroovyJavaJointCompileSpec spec = createSpec();
+        File mappingFile = getSourceClassesMappingFile();
+        spec.setCompilationMappingFile(mappingFile);
+        Compiler<GroovyJavaJointCompileSpec> compiler = getCompiler(spec);
+        if (compiler instanceof CleaningGroovyCompiler) {
+            boolean incremental = inputChanges.isIncremental() && canCompileIncrementally(spec, mappingFile);
+            CompilationSourceDirs sourceDirs = new CompilationSourceDirs((FileTreeInternal) getSource());
+            GroovySourceFileClassNameConverter sourceFileClassNameConverter = new GroovySourceFileClassNameConverter(
+                incremental ? SourceClassesMappingFile.read(mappingFile) : Collections.<File, Set<String>>emptyMap(),
+                new SourceToNameConverter(sourceDirs)
+            );
+            compiler = getIncrementalCompilerFactory().makeIncremental(
+                (CleaningGroovyCompiler) compiler,
+                getPath(),
+                new SourceFileChanges(incremental, inputChanges.getFileChanges(getStableSources())),
+                getSource(),
+                sourceDirs,
+                sourceFileClassNameConverter,
+                // Local AST transformations, such as @Delegate on a private field, can derive the API of a class from its private dependencies
+                true
+            );
+        }
+        WorkResult result = compiler.execute(spec);
+        setDidWork(result.getDidWork());
+    }
+
+    private boolean canCompileIncrementally(GroovyJavaJointCompileSpec spec, File mappingFile) {
+        if (!mappingFile.isFile()) {
+            LOGGER.info("Groovy compilation is not incremental, as the classes of each source file of the previous compilation are not known.");
+            return false;
+        }
+        List<String> transformations = getServices().get(GlobalAstTransformationDetector.class).findGlobalAstTransformations(spec.getCompileClasspath());
+        if (!transformations.isEmpty()) {
+            LOGGER.info("Groovy compilation is not incremental, as the compile classpath contains global AST transformations: {}.", transformations);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
     protected void compile() {
         checkGroovyClasspathIsNonEmpty();
         DefaultGroovyJavaJointCompileSpec spec = createSpec();
@@ -148,11 +231,51 @@ public class GroovyCompile extends AbstractCompile {
      * {@inheritDoc}
      */
     @Override
-    @PathSensitive(PathSensitivity.RELATIVE) // Java source files are supported, too. Therefore we should care about the relative path.
+    @Internal("tracked via stableSources")
     public FileTree getSource() {
         return super.getSource();
     }
 
+    /**
+     * The sources for incremental change detection.
+     *
+     * @since 5.6
+     */
+    @Incubating
+    @SkipWhenEmpty
+    @InputFiles
+    @Incremental
+    @PathSensitive(PathSensitivity.RELATIVE) // Java source files are supported, too. Therefore we should care about the relative path.
+    protected FileCollection getStableSources() {
+        return stableSources;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Changes to the classpath do not prevent incremental compilation, as the incremental compilation works out which classes are affected by them.</p>
+     *
+     * @since 5.6
+     */
+    @Incubating
+    @Override
+    @Classpath
+    @Incremental
+    public FileCollection getClasspath() {
+        return super.getClasspath();
+    }
+
+    /**
+     * The classes compiled from each source file by the previous compilation, used by incremental compilation.
+     *
+     * @since 5.6
+     */
+    @Incubating
+    @LocalState
+    protected File getSourceClassesMappingFile() {
+        return new File(getTemporaryDir(), "source-classes-mapping.txt");
+    }
+
     /**
      * Gets the options for the Groovy compilation. To set specific options for the nested Java compilation, use {@link
      * #getOptions()}.
@@ -206,4 +329,9 @@ public class GroovyCompile extends AbstractCompile {
     protected JavaToolChainFactory getJavaToolChainFactory() {
         throw new UnsupportedOperationException();
     }
+
+    @Inject
+    protected IncrementalCompilerFactory getIncrementalCompilerFactory() {
+        throw new UnsupportedOperationException();
+    }
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.compile
+
+import org.gradle.internal.hash.HashCode
+import org.gradle.internal.snapshot.FileSystemLocationSnapshot
+import org.gradle.internal.snapshot.FileSystemSnapshotter
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class GlobalAstTransformationDetectorTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    def fileSystemSnapshotter = Mock(FileSystemSnapshotter)
+    def detector = new GlobalAstTransformationDetector(fileSystemSnapshotter)
+
+    def "finds the global AST transformations of class directories and jars, other than the ones that ship with Groovy"() {
+        def dir = tmpDir.file("classes")
+        dir.createFile("META-INF/services/org.codehaus.groovy.transform.ASTTransformation") << """
+            # a comment
+            com.example.DirTransformation
+            org.codehaus.groovy.transform.SomeTransformation
+        """
+        def jar = tmpDir.file("transforms.jar")
+        def jarContents = tmpDir.createDir("jarContents")
+        jarContents.createFile("META-INF/services/org.codehaus.groovy.transform.ASTTransformation") << "com.example.JarTransformation # comment"
+        jarContents.zipTo(jar)
+        def other = tmpDir.createFile("other.txt")
+        fileSystemSnapshotter.snapshot(dir) >> snapshot(1)
+        fileSystemSnapshotter.snapshot(jar) >> snapshot(2)
+
+        expect:
+        detector.findGlobalAstTransformations([dir, jar, other]) == ["com.example.DirTransformation", "com.example.JarTransformation"]
+    }
+
+    def "reads a class path entry again only when its snapshot changes"() {
+        def dir = tmpDir.file("classes")
+        def serviceFile = dir.createFile("META-INF/services/org.codehaus.groovy.transform.ASTTransformation")
+        serviceFile << "com.example.FirstTransformation"
+
+        when:
+        def first = detector.findGlobalAstTransformations([dir])
+        serviceFile.text = "com.example.SecondTransformation"
+        def second = detector.findGlobalAstTransformations([dir])
+
+        then:
+        2 * fileSystemSnapshotter.snapshot(dir) >> snapshot(1)
+        first == ["com.example.FirstTransformation"]
+        second == ["com.example.FirstTransformation"]
+
+        when:
+        def third = detector.findGlobalAstTransformations([dir])
+
+        then:
+        1 * fileSystemSnapshotter.snapshot(dir) >> snapshot(2)
+        third == ["com.example.SecondTransformation"]
+    }
+
+    private FileSystemLocationSnapshot snapshot(int hash) {
+        return Stub(FileSystemLocationSnapshot) {
+            getHash() >> HashCode.fromInt(hash)
+        }
+    }
+}
@@ -198,6 +198,36 @@ class SourceIncrementalJavaCompilationIntegrationTest extends AbstractIntegratio
         outputs.recompiledClasses 'A', 'B', 'C', 'C$InnerC'
     }
 
+    def "does not recompile dependents of classes that use the changed class only in their implementation"() {
+        java "class A {}",
+            "class B { void foo() { new A(); } }", "class C extends B {}",
+            "class D { private A a; }", "class E extends D {}",
+            "class F { private static class Inner { A a; } }", "class G extends F {}"
+        outputs.snapshot { run "compileJava" }
+
+        when:
+        java "class A { /* change */ }"
+        run "compileJava"
+
+        then:
+        outputs.recompiledClasses 'A', 'B', 'D', 'F', 'F$Inner'
+    }
+
+    def "recompiles dependents of classes that expose the changed class in their API"() {
+        java "class A {}",
+            "class B { A foo() { return null; } }", "class C extends B {}",
+            "class D { java.util.List<A> a; }", "class E extends D {}",
+            "class F { void foo() { new B(); } }", "class G extends F {}"
+        outputs.snapshot { run "compileJava" }
+
+        when:
+        java "class A { /* change */ }"
+        run "compileJava"
+
+        then:
+        outputs.recompiledClasses 'A', 'B', 'C', 'D', 'E', 'F'
+    }
+
     def "handles cycles in class dependencies"() {
         java "class A {}", "class D {}"
         java "class B extends A { C c; }", "class C extends B {}" //cycle
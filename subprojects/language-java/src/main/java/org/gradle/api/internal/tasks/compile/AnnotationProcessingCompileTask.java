@@ -30,6 +30,7 @@ import org.gradle.internal.classloader.FilteringClassLoader;
 import org.gradle.internal.classpath.DefaultClassPath;
 import org.gradle.internal.concurrent.CompositeStoppable;
 
+import javax.annotation.Nullable;
 import javax.annotation.processing.Processor;
 import javax.tools.JavaCompiler;
 import java.io.File;
@@ -56,15 +57,17 @@ class AnnotationProcessingCompileTask implements JavaCompiler.CompilationTask {
     private final Set<AnnotationProcessorDeclaration> processorDeclarations;
     private final List<File> annotationProcessorPath;
     private final AnnotationProcessingResult result;
+    private final ReusableProcessorClassLoaders reusableClassLoaders;
 
     private URLClassLoader processorClassloader;
     private boolean called;
 
-    AnnotationProcessingCompileTask(JavaCompiler.CompilationTask delegate, Set<AnnotationProcessorDeclaration> processorDeclarations, List<File> annotationProcessorPath, AnnotationProcessingResult result) {
+    AnnotationProcessingCompileTask(JavaCompiler.CompilationTask delegate, Set<AnnotationProcessorDeclaration> processorDeclarations, List<File> annotationProcessorPath, AnnotationProcessingResult result, @Nullable ReusableProcessorClassLoaders reusableClassLoaders) {
         this.delegate = delegate;
         this.processorDeclarations = processorDeclarations;
         this.annotationProcessorPath = annotationProcessorPath;
         this.result = result;
+        this.reusableClassLoaders = reusableClassLoaders;
     }
 
     @Override
@@ -87,11 +90,14 @@ class AnnotationProcessingCompileTask implements JavaCompiler.CompilationTask {
             throw new IllegalStateException("Cannot reuse a compilation task");
         }
         called = true;
+        boolean succeeded = false;
         try {
             setupProcessors();
-            return delegate.call();
+            Boolean result = delegate.call();
+            succeeded = Boolean.TRUE.equals(result);
+            return result;
         } finally {
-            cleanupProcessors();
+            cleanupProcessors(succeeded);
         }
     }
 
@@ -117,10 +123,12 @@ class AnnotationProcessingCompileTask implements JavaCompiler.CompilationTask {
     }
 
     private URLClassLoader createProcessorClassLoader() {
-        return new URLClassLoader(
-            DefaultClassPath.of(annotationProcessorPath).getAsURLArray(),
-            new FilteringClassLoader(delegate.getClass().getClassLoader(), getExtraAllowedPackages())
-        );
+        ClassLoader compilerClassLoader = delegate.getClass().getClassLoader();
+        FilteringClassLoader parent = new FilteringClassLoader(compilerClassLoader, getExtraAllowedPackages());
+        if (reusableClassLoaders != null && !processorDeclarations.isEmpty()) {
+            return reusableClassLoaders.acquire(compilerClassLoader, annotationProcessorPath, parent);
+        }
+        return new URLClassLoader(DefaultClassPath.of(annotationProcessorPath).getAsURLArray(), parent);
     }
 
     /**
@@ -169,7 +177,16 @@ class AnnotationProcessingCompileTask implements JavaCompiler.CompilationTask {
         return new TimeTrackingProcessor(processor, processorResult);
     }
 
-    private void cleanupProcessors() {
-        CompositeStoppable.stoppable(processorClassloader).stop();
+    private void cleanupProcessors(boolean succeeded) {
+        if (reusableClassLoaders != null && !processorDeclarations.isEmpty()) {
+            if (succeeded) {
+                // Keep the loaded processor classes for the next compilation with the same processor path
+                reusableClassLoaders.release(processorClassloader);
+            } else {
+                reusableClassLoaders.discard(processorClassloader);
+            }
+        } else {
+            CompositeStoppable.stoppable(processorClassloader).stop();
+        }
     }
 }
@@ -45,10 +45,11 @@ public class DaemonJavaCompiler extends AbstractDaemonCompiler<JavaCompileSpec>
         JavaForkOptions javaForkOptions = new BaseForkOptionsConverter(forkOptionsFactory).transform(forkOptions);
         javaForkOptions.setWorkingDir(daemonWorkingDir);
 
+        // Keep the daemon between builds, so that later builds compile in a warm JVM
         return new DaemonForkOptionsBuilder(forkOptionsFactory)
             .javaForkOptions(javaForkOptions)
             .sharedPackages(SHARED_PACKAGES)
-            .keepAliveMode(KeepAliveMode.SESSION)
+            .keepAliveMode(KeepAliveMode.DAEMON)
             .build();
     }
 }
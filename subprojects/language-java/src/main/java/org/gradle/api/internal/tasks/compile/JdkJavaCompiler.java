@@ -24,6 +24,7 @@ import org.gradle.language.base.internal.compile.Compiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.tools.JavaCompiler;
 import javax.tools.JavaFileObject;
@@ -37,10 +38,21 @@ import java.util.Set;
 public class JdkJavaCompiler implements Compiler<JavaCompileSpec>, Serializable {
     private static final Logger LOGGER = LoggerFactory.getLogger(JdkJavaCompiler.class);
     private final Factory<JavaCompiler> javaHomeBasedJavaCompilerFactory;
+    private final transient ReusableJavaFileManagers reusableFileManagers;
+    private final transient ReusableProcessorClassLoaders reusableClassLoaders;
 
     @Inject
     public JdkJavaCompiler(Factory<JavaCompiler> javaHomeBasedJavaCompilerFactory) {
+        this(javaHomeBasedJavaCompilerFactory, null, null);
+    }
+
+    /**
+     * Creates a compiler that runs in the daemon, and can reuse the file managers and processor class loaders of earlier compilations in the daemon when enabled.
+     */
+    public JdkJavaCompiler(Factory<JavaCompiler> javaHomeBasedJavaCompilerFactory, @Nullable ReusableJavaFileManagers reusableFileManagers, @Nullable ReusableProcessorClassLoaders reusableClassLoaders) {
         this.javaHomeBasedJavaCompilerFactory = javaHomeBasedJavaCompilerFactory;
+        this.reusableFileManagers = reusableFileManagers;
+        this.reusableClassLoaders = reusableClassLoaders;
     }
 
     @Override
@@ -60,7 +72,11 @@ public class JdkJavaCompiler implements Compiler<JavaCompileSpec>, Serializable
         List<String> options = new JavaCompilerArgumentsBuilder(spec).build();
         JavaCompiler compiler = javaHomeBasedJavaCompilerFactory.create();
         MinimalJavaCompileOptions compileOptions = spec.getCompileOptions();
-        StandardJavaFileManager standardFileManager = compiler.getStandardFileManager(null, null, compileOptions.getEncoding() != null ? Charset.forName(compileOptions.getEncoding()) : null);
+        Charset charset = compileOptions.getEncoding() != null ? Charset.forName(compileOptions.getEncoding()) : null;
+        ReusableJavaFileManagers reusableFileManagers = this.reusableFileManagers != null && ReusableJavaFileManagers.isEnabled() && ReusableJavaFileManagers.canReuseFor(options) ? this.reusableFileManagers : null;
+        StandardJavaFileManager standardFileManager = reusableFileManagers != null
+            ? reusableFileManagers.acquire(compiler, charset, options, spec.getCompileClasspath())
+            : compiler.getStandardFileManager(null, null, charset);
         Iterable<? extends JavaFileObject> compilationUnits = standardFileManager.getJavaFileObjectsFromFiles(spec.getSourceFiles());
         StandardJavaFileManager fileManager = standardFileManager;
         if (JavaVersion.current().isJava9Compatible() && emptySourcepathIn(options)) {
@@ -69,11 +85,18 @@ public class JdkJavaCompiler implements Compiler<JavaCompileSpec>, Serializable
         JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, spec.getClasses(), compilationUnits);
 
         Set<AnnotationProcessorDeclaration> annotationProcessors = spec.getEffectiveAnnotationProcessors();
-        task = new AnnotationProcessingCompileTask(task, annotationProcessors, spec.getAnnotationProcessorPath(), result.getAnnotationProcessingResult());
-        task = new ResourceCleaningCompilationTask(task, fileManager);
+        task = new AnnotationProcessingCompileTask(task, annotationProcessors, spec.getAnnotationProcessorPath(), result.getAnnotationProcessingResult(), getReusableClassLoaders());
+        task = reusableFileManagers != null
+            ? new ResourceCleaningCompilationTask(task, standardFileManager, reusableFileManagers)
+            : new ResourceCleaningCompilationTask(task, fileManager, null);
         return task;
     }
 
+    @Nullable
+    private ReusableProcessorClassLoaders getReusableClassLoaders() {
+        return reusableClassLoaders != null && ReusableProcessorClassLoaders.isEnabled() ? reusableClassLoaders : null;
+    }
+
     private static boolean emptySourcepathIn(List<String> options) {
         Iterator<String> optionsIter = options.iterator();
         while (optionsIter.hasNext()) {
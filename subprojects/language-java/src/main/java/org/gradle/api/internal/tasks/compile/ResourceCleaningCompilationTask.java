@@ -18,6 +18,7 @@ package org.gradle.api.internal.tasks.compile;
 
 import org.gradle.internal.concurrent.CompositeStoppable;
 
+import javax.annotation.Nullable;
 import javax.annotation.processing.Processor;
 import javax.tools.DiagnosticListener;
 import javax.tools.JavaCompiler;
@@ -26,15 +27,17 @@ import java.nio.charset.Charset;
 import java.util.Locale;
 
 /**
- * Cleans up resources (e.g. file handles) after compilation has finished.
+ * Cleans up resources (e.g. file handles) after compilation has finished, or gives the file manager back to be reused by a later compilation.
  */
 class ResourceCleaningCompilationTask implements JavaCompiler.CompilationTask {
     private final JavaCompiler.CompilationTask delegate;
     private final StandardJavaFileManager fileManager;
+    private final ReusableJavaFileManagers reusableFileManagers;
 
-    ResourceCleaningCompilationTask(JavaCompiler.CompilationTask delegate, StandardJavaFileManager fileManager) {
+    ResourceCleaningCompilationTask(JavaCompiler.CompilationTask delegate, StandardJavaFileManager fileManager, @Nullable ReusableJavaFileManagers reusableFileManagers) {
         this.delegate = delegate;
         this.fileManager = fileManager;
+        this.reusableFileManagers = reusableFileManagers;
     }
 
     @Override
@@ -56,8 +59,13 @@ class ResourceCleaningCompilationTask implements JavaCompiler.CompilationTask {
         try {
             return delegate.call();
         } finally {
-            CompositeStoppable.stoppable(fileManager).stop();
-            cleanupZipCache();
+            if (reusableFileManagers != null) {
+                // Keep the archives opened by the file manager, and the shared ZIP cache, for the next compilation. The ZIP cache is cleaned up when the file manager is closed
+                reusableFileManagers.release(fileManager);
+            } else {
+                CompositeStoppable.stoppable(fileManager).stop();
+                cleanupZipCache();
+            }
         }
     }
 
@@ -68,7 +76,7 @@ class ResourceCleaningCompilationTask implements JavaCompiler.CompilationTask {
      * method does not take arguments, so the cache can't be turned off.
      * So instead we clean it ourselves using reflection.
      */
-    private void cleanupZipCache() {
+    static void cleanupZipCache() {
         try {
             Class<?> zipFileIndexCache = Class.forName("com.sun.tools.javac.file.ZipFileIndexCache");
             Object instance = zipFileIndexCache.getMethod("getSharedInstance").invoke(null);
@@ -0,0 +1,295 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+import org.gradle.internal.concurrent.CompositeStoppable;
+import org.gradle.internal.concurrent.Stoppable;
+
+import javax.annotation.Nullable;
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the file managers of finished compilations open in this daemon, so that a later compilation can reuse the class path archives
+ * that they have already opened and indexed, rather than reading every archive on its class path again.
+ *
+ * <p>A file manager is reused only for compilations with the same options, apart from the options that set the locations which are reset
+ * before each compilation, as the compiler applies its options to the file manager. A file manager is reused only while none of the
+ * archives on the class paths it was used with has changed length or last modified time since, and only when the compilation does not use
+ * modules. A few idle file managers are kept, and a file manager is closed rather than kept once it has been
+ * used with many archives.</p>
+ *
+ * <p>Reuse is enabled with the {@value #REUSE_FILE_MANAGERS_PROPERTY} system property. Idle file managers keep their archives open,
+ * which prevents the archives from being deleted or replaced on Windows. They are closed when the daemon stops.</p>
+ */
+public class ReusableJavaFileManagers implements Stoppable {
+    static final String REUSE_FILE_MANAGERS_PROPERTY = "org.gradle.internal.java.compile.reuse-file-managers";
+
+    private static final int MAX_IDLE_FILE_MANAGERS = 4;
+    private static final int MAX_ARCHIVES_PER_FILE_MANAGER = 1000;
+    private static final List<StandardLocation> RESET_LOCATIONS = ImmutableList.of(
+        StandardLocation.CLASS_OUTPUT,
+        StandardLocation.SOURCE_OUTPUT,
+        StandardLocation.NATIVE_HEADER_OUTPUT,
+        StandardLocation.CLASS_PATH,
+        StandardLocation.SOURCE_PATH,
+        StandardLocation.ANNOTATION_PROCESSOR_PATH,
+        StandardLocation.PLATFORM_CLASS_PATH
+    );
+    private static final List<String> MODULE_OPTIONS = ImmutableList.of(
+        "--module-path", "-p", "--module-source-path", "--upgrade-module-path", "--patch-module", "--system", "--processor-module-path"
+    );
+    private static final List<String> RESET_LOCATION_OPTIONS = ImmutableList.of(
+        "-d", "-s", "-h", "-classpath", "-cp", "--class-path", "-sourcepath", "--source-path", "-processorpath", "--processor-path", "-bootclasspath", "--boot-class-path"
+    );
+    private final List<ReusableFileManager> idle = new ArrayList<ReusableFileManager>();
+    private final Map<StandardJavaFileManager, ReusableFileManager> inUse = new IdentityHashMap<StandardJavaFileManager, ReusableFileManager>();
+    private boolean stopped;
+    private final Runnable zipCacheCleanup;
+
+    public ReusableJavaFileManagers() {
+        this(new Runnable() {
+            @Override
+            public void run() {
+                ResourceCleaningCompilationTask.cleanupZipCache();
+            }
+        });
+    }
+
+    ReusableJavaFileManagers(Runnable zipCacheCleanup) {
+        this.zipCacheCleanup = zipCacheCleanup;
+    }
+
+    /**
+     * Returns whether file managers should be reused.
+     */
+    static boolean isEnabled() {
+        return Boolean.getBoolean(REUSE_FILE_MANAGERS_PROPERTY);
+    }
+
+    /**
+     * Returns whether a file manager can be reused for a compilation with the given options.
+     */
+    static boolean canReuseFor(List<String> options) {
+        for (String option : options) {
+            if (MODULE_OPTIONS.contains(option)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the options that the file manager of a compilation with the given options must have been used with to be reused. These are
+     * all the options but the ones that set a location which is reset before each compilation, and the annotation processor options.
+     */
+    static List<String> reuseKeyOptions(List<String> options) {
+        List<String> result = new ArrayList<String>(options.size());
+        Iterator<String> iterator = options.iterator();
+        while (iterator.hasNext()) {
+            String option = iterator.next();
+            if (RESET_LOCATION_OPTIONS.contains(option)) {
+                if (iterator.hasNext()) {
+                    iterator.next();
+                }
+            } else if (!option.startsWith("-A")) {
+                result.add(option);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns an idle file manager that is still up-to-date, or a new file manager, for a compilation with the given options and class path.
+     * The file manager must be given back with {@link #release(StandardJavaFileManager)} once the compilation has finished.
+     */
+    StandardJavaFileManager acquire(JavaCompiler compiler, @Nullable Charset charset, List<String> options, Iterable<File> classpath) {
+        List<String> keyOptions = reuseKeyOptions(options);
+        ReusableFileManager fileManager = takeIdle(compiler, charset, keyOptions);
+        if (fileManager == null) {
+            fileManager = new ReusableFileManager(compiler.getClass(), charset, keyOptions, compiler.getStandardFileManager(null, null, charset));
+        }
+        fileManager.usedWith(classpath);
+        synchronized (this) {
+            inUse.put(fileManager.fileManager, fileManager);
+        }
+        return fileManager.fileManager;
+    }
+
+    /**
+     * Keeps the given file manager for a later compilation, or closes it.
+     */
+    void release(StandardJavaFileManager fileManager) {
+        ReusableFileManager reusable;
+        synchronized (this) {
+            reusable = inUse.remove(fileManager);
+            if (reusable != null && !stopped && idle.size() < MAX_IDLE_FILE_MANAGERS && reusable.archives.size() <= MAX_ARCHIVES_PER_FILE_MANAGER) {
+                idle.add(reusable);
+                return;
+            }
+        }
+        close(Collections.singletonList(fileManager));
+    }
+
+    /**
+     * Closes the idle file managers. File managers that are in use are closed when they are given back.
+     */
+    @Override
+    public void stop() {
+        List<StandardJavaFileManager> fileManagers = new ArrayList<StandardJavaFileManager>();
+        synchronized (this) {
+            stopped = true;
+            for (ReusableFileManager fileManager : idle) {
+                fileManagers.add(fileManager.fileManager);
+            }
+            idle.clear();
+        }
+        close(fileManagers);
+    }
+
+    /**
+     * Closes the given file managers, then cleans up the shared ZIP cache of javac as a compilation that does not reuse its file manager does.
+     */
+    private void close(List<StandardJavaFileManager> fileManagers) {
+        if (fileManagers.isEmpty()) {
+            return;
+        }
+        try {
+            CompositeStoppable.stoppable(fileManagers).stop();
+        } finally {
+            zipCacheCleanup.run();
+        }
+    }
+
+    @Nullable
+    private ReusableFileManager takeIdle(JavaCompiler compiler, @Nullable Charset charset, List<String> keyOptions) {
+        List<ReusableFileManager> outOfDate = new ArrayList<ReusableFileManager>();
+        ReusableFileManager result = null;
+        synchronized (this) {
+            Iterator<ReusableFileManager> iterator = idle.iterator();
+            while (iterator.hasNext()) {
+                ReusableFileManager candidate = iterator.next();
+                if (candidate.compilerType == compiler.getClass() && Objects.equal(candidate.charset, charset) && candidate.options.equals(keyOptions)) {
+                    iterator.remove();
+                    if (candidate.isUpToDate() && candidate.reset()) {
+                        result = candidate;
+                        break;
+                    }
+                    outOfDate.add(candidate);
+                }
+            }
+        }
+        List<StandardJavaFileManager> fileManagers = new ArrayList<StandardJavaFileManager>(outOfDate.size());
+        for (ReusableFileManager fileManager : outOfDate) {
+            fileManagers.add(fileManager.fileManager);
+        }
+        close(fileManagers);
+        return result;
+    }
+
+    private static class ReusableFileManager {
+        private final Class<?> compilerType;
+        private final Charset charset;
+        private final List<String> options;
+        private final StandardJavaFileManager fileManager;
+        private final Map<File, ArchiveState> archives = new HashMap<File, ArchiveState>();
+
+        ReusableFileManager(Class<?> compilerType, @Nullable Charset charset, List<String> options, StandardJavaFileManager fileManager) {
+            this.compilerType = compilerType;
+            this.charset = charset;
+            this.options = options;
+            this.fileManager = fileManager;
+        }
+
+        void usedWith(Iterable<File> classpath) {
+            for (File file : classpath) {
+                if (!archives.containsKey(file) && file.isFile()) {
+                    archives.put(file, ArchiveState.of(file));
+                }
+            }
+        }
+
+        boolean isUpToDate() {
+            for (Map.Entry<File, ArchiveState> entry : archives.entrySet()) {
+                if (!entry.getValue().equals(ArchiveState.of(entry.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Clears the locations set by the options of the previous compilation, as a compilation only sets the locations it has options for.
+         */
+        boolean reset() {
+            try {
+                for (StandardLocation location : RESET_LOCATIONS) {
+                    fileManager.setLocation(location, null);
+                }
+                return true;
+            } catch (IOException e) {
+                return false;
+            } catch (RuntimeException e) {
+                return false;
+            }
+        }
+    }
+
+    static class ArchiveState {
+        private final long length;
+        private final long lastModified;
+
+        private ArchiveState(long length, long lastModified) {
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+
+        static ArchiveState of(File file) {
+            return new ArchiveState(file.length(), file.lastModified());
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj == null || obj.getClass() != getClass()) {
+                return false;
+            }
+            ArchiveState other = (ArchiveState) obj;
+            return length == other.length && lastModified == other.lastModified;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (int) (length ^ (length >>> 32)) + (int) (lastModified ^ (lastModified >>> 32));
+        }
+    }
+}
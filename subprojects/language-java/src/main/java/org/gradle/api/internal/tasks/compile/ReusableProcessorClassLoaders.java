@@ -0,0 +1,181 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.compile;
+
+import com.google.common.collect.ImmutableList;
+import org.gradle.internal.classpath.DefaultClassPath;
+import org.gradle.internal.concurrent.CompositeStoppable;
+import org.gradle.internal.concurrent.Stoppable;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the annotation processor class loaders of successful compilations open in this daemon, so that a later compilation with the same
+ * processor path can reuse the processor classes that have already been loaded and compiled by the JIT, rather than loading them again.
+ *
+ * <p>A class loader is only reused for the same processor path and parent class loader, while none of the jars on the processor path
+ * has changed since. A processor path that contains directories is never reused, as their classes may change at any time. Each
+ * compilation still creates its own processor instances, but static state of the processor classes survives between compilations.</p>
+ *
+ * <p>Reuse is enabled with the {@value #REUSE_PROCESSOR_CLASS_LOADERS_PROPERTY} system property. Idle class loaders keep their jars open,
+ * which prevents the jars from being deleted or replaced on Windows. They are closed when the daemon stops.</p>
+ */
+public class ReusableProcessorClassLoaders implements Stoppable {
+    static final String REUSE_PROCESSOR_CLASS_LOADERS_PROPERTY = "org.gradle.internal.java.compile.reuse-processor-classloaders";
+
+    private static final int MAX_IDLE_CLASS_LOADERS = 4;
+
+    private final List<ReusableClassLoader> idle = new ArrayList<ReusableClassLoader>();
+    private final Map<URLClassLoader, ReusableClassLoader> inUse = new IdentityHashMap<URLClassLoader, ReusableClassLoader>();
+    private boolean stopped;
+
+    /**
+     * Returns whether processor class loaders should be reused.
+     */
+    static boolean isEnabled() {
+        return Boolean.getBoolean(REUSE_PROCESSOR_CLASS_LOADERS_PROPERTY);
+    }
+
+    /**
+     * Returns an idle class loader that is still up-to-date, or a new class loader, for the given processor path. The class loader
+     * must be given back with {@link #release(URLClassLoader)} or {@link #discard(URLClassLoader)} once the compilation has finished.
+     *
+     * @param owner identifies the class loader that the parent of a new class loader delegates to. Class loaders are only reused for the same owner.
+     */
+    URLClassLoader acquire(ClassLoader owner, List<File> processorPath, ClassLoader parent) {
+        ReusableClassLoader classLoader = takeIdle(owner, processorPath);
+        if (classLoader == null) {
+            classLoader = new ReusableClassLoader(owner, processorPath, new URLClassLoader(DefaultClassPath.of(processorPath).getAsURLArray(), parent));
+        }
+        synchronized (this) {
+            inUse.put(classLoader.classLoader, classLoader);
+        }
+        return classLoader.classLoader;
+    }
+
+    /**
+     * Keeps the given class loader of a successful compilation for a later compilation, or closes it.
+     */
+    void release(URLClassLoader classLoader) {
+        ReusableClassLoader reusable;
+        synchronized (this) {
+            reusable = inUse.remove(classLoader);
+            if (reusable != null && !stopped && reusable.archives != null && idle.size() < MAX_IDLE_CLASS_LOADERS) {
+                idle.add(reusable);
+                return;
+            }
+        }
+        CompositeStoppable.stoppable(classLoader).stop();
+    }
+
+    /**
+     * Closes the given class loader of a failed compilation, as the failure may have left its processor classes in a broken state.
+     */
+    void discard(URLClassLoader classLoader) {
+        synchronized (this) {
+            inUse.remove(classLoader);
+        }
+        CompositeStoppable.stoppable(classLoader).stop();
+    }
+
+    /**
+     * Closes the idle class loaders. Class loaders that are in use are closed when they are given back.
+     */
+    @Override
+    public void stop() {
+        List<URLClassLoader> classLoaders = new ArrayList<URLClassLoader>();
+        synchronized (this) {
+            stopped = true;
+            for (ReusableClassLoader classLoader : idle) {
+                classLoaders.add(classLoader.classLoader);
+            }
+            idle.clear();
+        }
+        CompositeStoppable.stoppable(classLoaders).stop();
+    }
+
+    @Nullable
+    private ReusableClassLoader takeIdle(ClassLoader owner, List<File> processorPath) {
+        List<ReusableClassLoader> outOfDate = new ArrayList<ReusableClassLoader>();
+        ReusableClassLoader result = null;
+        synchronized (this) {
+            Iterator<ReusableClassLoader> iterator = idle.iterator();
+            while (iterator.hasNext()) {
+                ReusableClassLoader candidate = iterator.next();
+                if (candidate.owner == owner && candidate.processorPath.equals(processorPath)) {
+                    iterator.remove();
+                    if (candidate.isUpToDate()) {
+                        result = candidate;
+                        break;
+                    }
+                    outOfDate.add(candidate);
+                }
+            }
+        }
+        for (ReusableClassLoader classLoader : outOfDate) {
+            CompositeStoppable.stoppable(classLoader.classLoader).stop();
+        }
+        return result;
+    }
+
+    private static class ReusableClassLoader {
+        private final ClassLoader owner;
+        private final List<File> processorPath;
+        private final URLClassLoader classLoader;
+        private final Map<File, ReusableJavaFileManagers.ArchiveState> archives;
+
+        ReusableClassLoader(ClassLoader owner, List<File> processorPath, URLClassLoader classLoader) {
+            this.owner = owner;
+            this.processorPath = ImmutableList.copyOf(processorPath);
+            this.classLoader = classLoader;
+            this.archives = archiveStatesOf(processorPath);
+        }
+
+        /**
+         * Returns the state of the jars on the given processor path, or {@code null} when it contains anything but jars.
+         */
+        @Nullable
+        private static Map<File, ReusableJavaFileManagers.ArchiveState> archiveStatesOf(List<File> processorPath) {
+            Map<File, ReusableJavaFileManagers.ArchiveState> archives = new HashMap<File, ReusableJavaFileManagers.ArchiveState>();
+            for (File file : processorPath) {
+                if (!file.isFile()) {
+                    return null;
+                }
+                archives.put(file, ReusableJavaFileManagers.ArchiveState.of(file));
+            }
+            return archives;
+        }
+
+        boolean isUpToDate() {
+            for (Map.Entry<File, ReusableJavaFileManagers.ArchiveState> entry : archives.entrySet()) {
+                if (!entry.getValue().equals(ReusableJavaFileManagers.ArchiveState.of(entry.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -21,10 +21,13 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import org.gradle.api.file.FileTree;
+import org.gradle.api.file.FileTreeElement;
 import org.gradle.api.internal.file.FileOperations;
 import org.gradle.api.internal.tasks.compile.JavaCompileSpec;
 import org.gradle.api.internal.tasks.compile.incremental.processing.GeneratedResource;
 import org.gradle.api.internal.tasks.compile.incremental.recomp.RecompilationSpec;
+import org.gradle.api.internal.tasks.compile.incremental.recomp.SourceFileClassNameConverter;
+import org.gradle.api.specs.Spec;
 import org.gradle.api.tasks.util.PatternSet;
 import org.gradle.internal.Factory;
 import org.gradle.language.base.internal.tasks.SimpleStaleClassCleaner;
@@ -40,10 +43,12 @@ import java.util.Set;
 class IncrementalCompilationInitializer {
     private final FileOperations fileOperations;
     private final FileTree sourceTree;
+    private final SourceFileClassNameConverter sourceFileClassNameConverter;
 
-    public IncrementalCompilationInitializer(FileOperations fileOperations, FileTree sourceTree) {
+    public IncrementalCompilationInitializer(FileOperations fileOperations, FileTree sourceTree, SourceFileClassNameConverter sourceFileClassNameConverter) {
         this.fileOperations = fileOperations;
         this.sourceTree = sourceTree;
+        this.sourceFileClassNameConverter = sourceFileClassNameConverter;
     }
 
     public void initializeCompilation(JavaCompileSpec spec, RecompilationSpec recompilationSpec) {
@@ -57,6 +62,7 @@ class IncrementalCompilationInitializer {
         PatternSet sourceToCompile = patternSetFactory.create();
 
         prepareJavaPatterns(recompilationSpec.getClassesToCompile(), classesToDelete, sourceToCompile);
+        includeSourceFilesOf(recompilationSpec.getClassesToCompile(), sourceToCompile);
         spec.setSourceFiles(narrowDownSourcesToCompile(sourceTree, sourceToCompile));
         includePreviousCompilationOutputOnClasspath(spec);
         addClassesToProcess(spec, recompilationSpec);
@@ -114,6 +120,21 @@ class IncrementalCompilationInitializer {
         }
     }
 
+    private void includeSourceFilesOf(Collection<String> staleClasses, PatternSet sourceToCompile) {
+        final Set<File> sourceFiles = Sets.newHashSet();
+        for (String staleClass : staleClasses) {
+            sourceFiles.addAll(sourceFileClassNameConverter.getSourceFiles(staleClass));
+        }
+        if (!sourceFiles.isEmpty()) {
+            sourceToCompile.include(new Spec<FileTreeElement>() {
+                @Override
+                public boolean isSatisfiedBy(FileTreeElement element) {
+                    return sourceFiles.contains(element.getFile());
+                }
+            });
+        }
+    }
+
     private static Map<GeneratedResource.Location, PatternSet> prepareResourcePatterns(Collection<GeneratedResource> staleResources, Factory<PatternSet> patternSetFactory) {
         Map<GeneratedResource.Location, PatternSet> resourcesByLocation = new EnumMap<GeneratedResource.Location, PatternSet>(GeneratedResource.Location.class);
         for (GeneratedResource.Location location : GeneratedResource.Location.values()) {
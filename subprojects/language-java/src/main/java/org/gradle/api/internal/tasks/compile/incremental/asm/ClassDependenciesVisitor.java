@@ -30,6 +30,8 @@ import org.objectweb.asm.ModuleVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 import org.objectweb.asm.TypePath;
+import org.objectweb.asm.signature.SignatureReader;
+import org.objectweb.asm.signature.SignatureVisitor;
 
 import java.lang.annotation.RetentionPolicy;
 import java.util.Set;
@@ -38,25 +40,32 @@ public class ClassDependenciesVisitor extends ClassVisitor {
 
     private final static int API = AsmConstants.ASM_LEVEL;
 
-    private final MethodVisitor methodVisitor;
-    private final FieldVisitor fieldVisitor;
+    private final MethodVisitor privateMethodVisitor;
+    private final MethodVisitor accessibleMethodVisitor;
+    private final FieldVisitor privateFieldVisitor;
+    private final FieldVisitor accessibleFieldVisitor;
     private final IntSet constants;
-    private final Set<String> types;
+    private final Set<String> privateTypes;
+    private final Set<String> accessibleTypes;
     private final Predicate<String> typeFilter;
     private final StringInterner interner;
     private boolean isAnnotationType;
     private boolean dependencyToAll;
     private final RetentionPolicyVisitor retentionPolicyVisitor;
-    private final AnnotationVisitor annotationVisitor;
+    private final AnnotationVisitor accessibleAnnotationVisitor;
 
     private ClassDependenciesVisitor(Predicate<String> typeFilter, ClassReader reader, StringInterner interner) {
         super(API);
         this.constants = new IntOpenHashSet(2);
-        this.types = Sets.newHashSet();
-        this.methodVisitor = new MethodVisitor();
-        this.fieldVisitor = new FieldVisitor();
+        this.privateTypes = Sets.newHashSet();
+        this.accessibleTypes = Sets.newHashSet();
+        AnnotationVisitor privateAnnotationVisitor = new AnnotationVisitor(privateTypes);
+        this.accessibleAnnotationVisitor = new AnnotationVisitor(accessibleTypes);
+        this.privateMethodVisitor = new MethodVisitor(privateTypes, privateAnnotationVisitor);
+        this.accessibleMethodVisitor = new MethodVisitor(accessibleTypes, accessibleAnnotationVisitor);
+        this.privateFieldVisitor = new FieldVisitor(privateTypes, privateAnnotationVisitor);
+        this.accessibleFieldVisitor = new FieldVisitor(accessibleTypes, accessibleAnnotationVisitor);
         this.retentionPolicyVisitor = new RetentionPolicyVisitor();
-        this.annotationVisitor = new AnnotationVisitor();
         this.typeFilter = typeFilter;
         this.interner = interner;
         collectClassDependencies(reader);
@@ -65,7 +74,7 @@ public class ClassDependenciesVisitor extends ClassVisitor {
     public static ClassAnalysis analyze(String className, ClassReader reader, StringInterner interner) {
         ClassDependenciesVisitor visitor = new ClassDependenciesVisitor(new ClassRelevancyFilter(className), reader, interner);
         reader.accept(visitor, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
-        return new ClassAnalysis(interner.intern(className), visitor.getClassDependencies(), visitor.isDependencyToAll(), visitor.getConstants());
+        return new ClassAnalysis(interner.intern(className), visitor.getPrivateClassDependencies(), visitor.getAccessibleClassDependencies(), visitor.isDependencyToAll(), visitor.getConstants());
     }
 
     @Override
@@ -75,13 +84,13 @@ public class ClassDependenciesVisitor extends ClassVisitor {
             // superName can be null if what we are analyzing is `java.lang.Object`
             // which can happen when a custom Java SDK is on classpath (typically, android.jar)
             String type = typeOfFromSlashyString(superName);
-            maybeAddDependentType(type);
+            maybeAddDependentType(accessibleTypes, type);
         }
         for (String s : interfaces) {
             String interfaceType = typeOfFromSlashyString(s);
-            maybeAddDependentType(interfaceType);
+            maybeAddDependentType(accessibleTypes, interfaceType);
         }
-
+        maybeAddSignatureTypes(accessibleTypes, signature);
     }
 
     @Override
@@ -91,7 +100,8 @@ public class ClassDependenciesVisitor extends ClassVisitor {
     }
 
     // performs a fast analysis of classes referenced in bytecode (method bodies)
-    // avoiding us to implement a costly visitor and potentially missing edge cases
+    // avoiding us to implement a costly visitor and potentially missing edge cases.
+    // Those are private dependencies, unless the visitor also finds them in the signature of the class or of one of its non-private members
     private void collectClassDependencies(ClassReader reader) {
         char[] charBuffer = new char[reader.getMaxStringLength()];
         for (int i = 1; i < reader.getItemCount(); i++) {
@@ -108,17 +118,23 @@ public class ClassDependenciesVisitor extends ClassVisitor {
                     continue;
                 }
                 String name = type.getClassName();
-                maybeAddDependentType(name);
+                maybeAddDependentType(privateTypes, name);
             }
         }
     }
 
-    protected void maybeAddDependentType(String type) {
+    protected void maybeAddDependentType(Set<String> types, String type) {
         if (typeFilter.apply(type)) {
             types.add(intern(type));
         }
     }
 
+    private void maybeAddSignatureTypes(Set<String> types, String signature) {
+        if (signature != null) {
+            new SignatureReader(signature).accept(new SignatureTypesVisitor(types));
+        }
+    }
+
     private String intern(String type) {
         return interner.intern(type);
     }
@@ -127,8 +143,12 @@ public class ClassDependenciesVisitor extends ClassVisitor {
         return Type.getObjectType(slashyStyleDesc).getClassName();
     }
 
-    public Set<String> getClassDependencies() {
-        return types;
+    public Set<String> getPrivateClassDependencies() {
+        return Sets.difference(privateTypes, accessibleTypes);
+    }
+
+    public Set<String> getAccessibleClassDependencies() {
+        return accessibleTypes;
     }
 
     public IntSet getConstants() {
@@ -141,14 +161,16 @@ public class ClassDependenciesVisitor extends ClassVisitor {
 
     @Override
     public FieldVisitor visitField(int access, String name, String desc, String signature, Object value) {
-        maybeAddDependentType(descTypeOf(desc));
+        Set<String> types = isPrivate(access) ? privateTypes : accessibleTypes;
+        maybeAddDependentType(types, descTypeOf(desc));
+        maybeAddSignatureTypes(types, signature);
         if (isAccessibleConstant(access, value)) {
             // we need to compute a hash for a constant, which is based on the name of the constant + its value
             // otherwise we miss the case where a class defines several constants with the same value, or when
             // two values are switched
             constants.add((name + '|' + value).hashCode()); //non-private const
         }
-        return fieldVisitor;
+        return isPrivate(access) ? privateFieldVisitor : accessibleFieldVisitor;
     }
 
     private static boolean isAccessibleConstant(int access, Object value) {
@@ -165,12 +187,19 @@ public class ClassDependenciesVisitor extends ClassVisitor {
 
     @Override
     public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+        Set<String> types = isPrivate(access) ? privateTypes : accessibleTypes;
         Type methodType = Type.getMethodType(desc);
-        maybeAddDependentType(methodType.getReturnType().getClassName());
+        maybeAddDependentType(types, methodType.getReturnType().getClassName());
         for (Type argType : methodType.getArgumentTypes()) {
-            maybeAddDependentType(argType.getClassName());
+            maybeAddDependentType(types, argType.getClassName());
         }
-        return methodVisitor;
+        maybeAddSignatureTypes(types, signature);
+        if (exceptions != null) {
+            for (String exception : exceptions) {
+                maybeAddDependentType(types, typeOfFromSlashyString(exception));
+            }
+        }
+        return isPrivate(access) ? privateMethodVisitor : accessibleMethodVisitor;
     }
 
     @Override
@@ -178,8 +207,8 @@ public class ClassDependenciesVisitor extends ClassVisitor {
         if (isAnnotationType && "Ljava/lang/annotation/Retention;".equals(desc)) {
             return retentionPolicyVisitor;
         } else {
-            maybeAddDependentType(Type.getType(desc).getClassName());
-            return annotationVisitor;
+            maybeAddDependentType(accessibleTypes, Type.getType(desc).getClassName());
+            return accessibleAnnotationVisitor;
         }
     }
 
@@ -196,51 +225,59 @@ public class ClassDependenciesVisitor extends ClassVisitor {
     }
 
     private class FieldVisitor extends org.objectweb.asm.FieldVisitor {
+        private final Set<String> types;
+        private final AnnotationVisitor annotationVisitor;
 
-        public FieldVisitor() {
+        public FieldVisitor(Set<String> types, AnnotationVisitor annotationVisitor) {
             super(API);
+            this.types = types;
+            this.annotationVisitor = annotationVisitor;
         }
 
         @Override
         public org.objectweb.asm.AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
-            maybeAddDependentType(Type.getType(descriptor).getClassName());
+            maybeAddDependentType(types, Type.getType(descriptor).getClassName());
             return annotationVisitor;
         }
 
         @Override
         public org.objectweb.asm.AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
-            maybeAddDependentType(Type.getType(descriptor).getClassName());
+            maybeAddDependentType(types, Type.getType(descriptor).getClassName());
             return annotationVisitor;
         }
     }
 
     private class MethodVisitor extends org.objectweb.asm.MethodVisitor {
+        private final Set<String> types;
+        private final AnnotationVisitor annotationVisitor;
 
-        protected MethodVisitor() {
+        protected MethodVisitor(Set<String> types, AnnotationVisitor annotationVisitor) {
             super(API);
+            this.types = types;
+            this.annotationVisitor = annotationVisitor;
         }
 
         @Override
         public void visitLocalVariable(String name, String desc, String signature, Label start, Label end, int index) {
-            maybeAddDependentType(descTypeOf(desc));
+            maybeAddDependentType(privateTypes, descTypeOf(desc));
             super.visitLocalVariable(name, desc, signature, start, end, index);
         }
 
         @Override
         public org.objectweb.asm.AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
-            maybeAddDependentType(Type.getType(descriptor).getClassName());
+            maybeAddDependentType(types, Type.getType(descriptor).getClassName());
             return annotationVisitor;
         }
 
         @Override
         public org.objectweb.asm.AnnotationVisitor visitParameterAnnotation(int parameter, String descriptor, boolean visible) {
-            maybeAddDependentType(Type.getType(descriptor).getClassName());
+            maybeAddDependentType(types, Type.getType(descriptor).getClassName());
             return annotationVisitor;
         }
 
         @Override
         public org.objectweb.asm.AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
-            maybeAddDependentType(Type.getType(descriptor).getClassName());
+            maybeAddDependentType(types, Type.getType(descriptor).getClassName());
             return annotationVisitor;
         }
     }
@@ -262,14 +299,17 @@ public class ClassDependenciesVisitor extends ClassVisitor {
     }
 
     private class AnnotationVisitor extends org.objectweb.asm.AnnotationVisitor {
-        public AnnotationVisitor() {
+        private final Set<String> types;
+
+        public AnnotationVisitor(Set<String> types) {
             super(ClassDependenciesVisitor.API);
+            this.types = types;
         }
 
         @Override
         public void visit(String name, Object value) {
             if (value instanceof Type) {
-                maybeAddDependentType(((Type) value).getClassName());
+                maybeAddDependentType(types, ((Type) value).getClassName());
             }
         }
 
@@ -280,8 +320,78 @@ public class ClassDependenciesVisitor extends ClassVisitor {
 
         @Override
         public org.objectweb.asm.AnnotationVisitor visitAnnotation(String name, String descriptor) {
-            maybeAddDependentType(Type.getType(descriptor).getClassName());
+            maybeAddDependentType(types, Type.getType(descriptor).getClassName());
             return this;
         }
     }
+
+    /**
+     * Collects the classes used in a generic signature, such as the type arguments of a method's return type.
+     */
+    private class SignatureTypesVisitor extends SignatureVisitor {
+        private final Set<String> types;
+        private String classType;
+
+        public SignatureTypesVisitor(Set<String> types) {
+            super(ClassDependenciesVisitor.API);
+            this.types = types;
+        }
+
+        @Override
+        public void visitClassType(String name) {
+            classType = name;
+            maybeAddDependentType(types, typeOfFromSlashyString(name));
+        }
+
+        @Override
+        public void visitInnerClassType(String name) {
+            classType = classType + "$" + name;
+            maybeAddDependentType(types, typeOfFromSlashyString(classType));
+        }
+
+        @Override
+        public SignatureVisitor visitClassBound() {
+            return new SignatureTypesVisitor(types);
+        }
+
+        @Override
+        public SignatureVisitor visitInterfaceBound() {
+            return new SignatureTypesVisitor(types);
+        }
+
+        @Override
+        public SignatureVisitor visitSuperclass() {
+            return new SignatureTypesVisitor(types);
+        }
+
+        @Override
+        public SignatureVisitor visitInterface() {
+            return new SignatureTypesVisitor(types);
+        }
+
+        @Override
+        public SignatureVisitor visitParameterType() {
+            return new SignatureTypesVisitor(types);
+        }
+
+        @Override
+        public SignatureVisitor visitReturnType() {
+            return new SignatureTypesVisitor(types);
+        }
+
+        @Override
+        public SignatureVisitor visitExceptionType() {
+            return new SignatureTypesVisitor(types);
+        }
+
+        @Override
+        public SignatureVisitor visitArrayType() {
+            return new SignatureTypesVisitor(types);
+        }
+
+        @Override
+        public SignatureVisitor visitTypeArgument(char wildcard) {
+            return new SignatureTypesVisitor(types);
+        }
+    }
 }
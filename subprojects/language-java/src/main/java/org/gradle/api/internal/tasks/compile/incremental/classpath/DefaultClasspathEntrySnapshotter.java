@@ -15,7 +15,9 @@
  */
 package org.gradle.api.internal.tasks.compile.incremental.classpath;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import org.gradle.api.Action;
 import org.gradle.api.file.FileVisitDetails;
 import org.gradle.api.file.FileVisitor;
 import org.gradle.api.internal.file.FileOperations;
@@ -26,33 +28,52 @@ import org.gradle.internal.IoActions;
 import org.gradle.internal.hash.FileHasher;
 import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.hash.StreamHasher;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.BuildOperationQueue;
+import org.gradle.internal.operations.RunnableBuildOperation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.InputStream;
+import java.util.List;
 import java.util.Map;
 
 import static org.gradle.internal.FileUtils.hasExtension;
 
 public class DefaultClasspathEntrySnapshotter {
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultClasspathEntrySnapshotter.class);
+    static final int CLASSES_PER_OPERATION = 250;
 
     private final FileHasher fileHasher;
     private final StreamHasher hasher;
     private final ClassDependenciesAnalyzer analyzer;
     private final FileOperations fileOperations;
+    private final BuildOperationExecutor buildOperationExecutor;
+    private final boolean privateDependenciesAccessible;
 
-    public DefaultClasspathEntrySnapshotter(FileHasher fileHasher, StreamHasher streamHasher, ClassDependenciesAnalyzer analyzer, FileOperations fileOperations) {
+    public DefaultClasspathEntrySnapshotter(FileHasher fileHasher, StreamHasher streamHasher, ClassDependenciesAnalyzer analyzer, FileOperations fileOperations, BuildOperationExecutor buildOperationExecutor) {
+        this(fileHasher, streamHasher, analyzer, fileOperations, buildOperationExecutor, false);
+    }
+
+    /**
+     * @param privateDependenciesAccessible whether changes to the private dependencies of a class also affect the dependents of the class.
+     * See {@link ClassDependentsAccumulator#ClassDependentsAccumulator(boolean)}.
+     */
+    public DefaultClasspathEntrySnapshotter(FileHasher fileHasher, StreamHasher streamHasher, ClassDependenciesAnalyzer analyzer, FileOperations fileOperations, BuildOperationExecutor buildOperationExecutor, boolean privateDependenciesAccessible) {
         this.fileHasher = fileHasher;
         this.hasher = streamHasher;
         this.analyzer = analyzer;
         this.fileOperations = fileOperations;
+        this.buildOperationExecutor = buildOperationExecutor;
+        this.privateDependenciesAccessible = privateDependenciesAccessible;
     }
 
     public ClasspathEntrySnapshot createSnapshot(HashCode hash, File classpathEntry) {
         final Map<String, HashCode> hashes = Maps.newHashMap();
-        final ClassDependentsAccumulator accumulator = new ClassDependentsAccumulator();
+        final ClassDependentsAccumulator accumulator = new ClassDependentsAccumulator(privateDependenciesAccessible);
 
         try {
             visit(classpathEntry, hashes, accumulator);
@@ -71,15 +92,57 @@ public class DefaultClasspathEntrySnapshotter {
             fileOperations.zipTree(classpathEntry).visit(new JarEntryVisitor(accumulator, hashes));
         }
         if (classpathEntry.isDirectory()) {
-            fileOperations.fileTree(classpathEntry).visit(new DirectoryEntryVisitor(accumulator, hashes));
+            DirectoryEntryVisitor visitor = new DirectoryEntryVisitor();
+            fileOperations.fileTree(classpathEntry).visit(visitor);
+            analyzeAll(visitor.classFiles, accumulator, hashes);
+        }
+    }
+
+    /**
+     * Hashes and analyzes the given class files in batches, which run in parallel when there is more than one batch.
+     * The results are added in the order the class files were visited, so the snapshot does not depend on which batch finishes first.
+     */
+    private void analyzeAll(List<FileVisitDetails> classFiles, ClassDependentsAccumulator accumulator, Map<String, HashCode> hashes) {
+        final List<AnalyzeClasses> operations = Lists.newArrayList();
+        for (List<FileVisitDetails> batch : Lists.partition(classFiles, CLASSES_PER_OPERATION)) {
+            operations.add(new AnalyzeClasses(batch));
+        }
+        if (operations.size() == 1) {
+            operations.get(0).analyze();
+        } else if (operations.size() > 1) {
+            buildOperationExecutor.runAll(new Action<BuildOperationQueue<AnalyzeClasses>>() {
+                @Override
+                public void execute(BuildOperationQueue<AnalyzeClasses> queue) {
+                    for (AnalyzeClasses operation : operations) {
+                        queue.add(operation);
+                    }
+                }
+            });
+        }
+        for (AnalyzeClasses operation : operations) {
+            for (int i = 0; i < operation.classFiles.size(); i++) {
+                addClass(operation.classFiles.get(i), operation.hashes[i], operation.analyses[i], operation.failures[i], accumulator, hashes);
+            }
+        }
+    }
+
+    private static void addClass(FileVisitDetails fileDetails, HashCode classFileHash, ClassAnalysis analysis, Exception failure, ClassDependentsAccumulator accumulator, Map<String, HashCode> hashes) {
+        if (failure == null) {
+            accumulator.addClass(analysis);
+            hashes.put(analysis.getClassName(), classFileHash);
+        } else {
+            accumulator.fullRebuildNeeded(fileDetails.getName() + " could not be analyzed for incremental compilation. See the debug log for more details");
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Could not analyze " + fileDetails.getName() + " for incremental compilation", failure);
+            }
         }
     }
 
-    private abstract class EntryVisitor implements FileVisitor {
+    private class JarEntryVisitor implements FileVisitor {
         private final ClassDependentsAccumulator accumulator;
         private final Map<String, HashCode> hashes;
 
-        public EntryVisitor(ClassDependentsAccumulator accumulator, Map<String, HashCode> hashes) {
+        public JarEntryVisitor(ClassDependentsAccumulator accumulator, Map<String, HashCode> hashes) {
             this.accumulator = accumulator;
             this.hashes = hashes;
         }
@@ -94,31 +157,20 @@ public class DefaultClasspathEntrySnapshotter {
                 return;
             }
 
+            // Entries of an archive can only be read while it is being visited, so they are analyzed one at a time.
+            // Archives of the class path are themselves snapshotted in parallel.
             HashCode classFileHash = getHashCode(fileDetails);
-
+            ClassAnalysis analysis = null;
+            Exception failure = null;
             try {
-                ClassAnalysis analysis = analyzer.getClassAnalysis(classFileHash, fileDetails);
-                accumulator.addClass(analysis);
-                hashes.put(analysis.getClassName(), classFileHash);
+                analysis = analyzer.getClassAnalysis(classFileHash, fileDetails);
             } catch (Exception e) {
-                accumulator.fullRebuildNeeded(fileDetails.getName() + " could not be analyzed for incremental compilation. See the debug log for more details");
-                if (LOGGER.isDebugEnabled()) {
-                    LOGGER.debug("Could not analyze " + fileDetails.getName() + " for incremental compilation", e);
-                }
+                failure = e;
             }
+            addClass(fileDetails, classFileHash, analysis, failure, accumulator, hashes);
         }
 
-        protected abstract HashCode getHashCode(FileVisitDetails fileDetails);
-    }
-
-    private class JarEntryVisitor extends EntryVisitor {
-
-        public JarEntryVisitor(ClassDependentsAccumulator accumulator, Map<String, HashCode> hashes) {
-            super(accumulator, hashes);
-        }
-
-        @Override
-        protected HashCode getHashCode(FileVisitDetails fileDetails) {
+        private HashCode getHashCode(FileVisitDetails fileDetails) {
             InputStream inputStream = fileDetails.open();
             try {
                 return hasher.hash(inputStream);
@@ -128,16 +180,54 @@ public class DefaultClasspathEntrySnapshotter {
         }
     }
 
-    private class DirectoryEntryVisitor extends EntryVisitor {
+    private static class DirectoryEntryVisitor implements FileVisitor {
+        private final List<FileVisitDetails> classFiles = Lists.newArrayList();
 
-        public DirectoryEntryVisitor(ClassDependentsAccumulator accumulator, Map<String, HashCode> hashes) {
-            super(accumulator, hashes);
+        @Override
+        public void visitDir(FileVisitDetails dirDetails) {
         }
 
         @Override
-        protected HashCode getHashCode(FileVisitDetails fileDetails) {
-            return fileHasher.hash(fileDetails);
+        public void visitFile(FileVisitDetails fileDetails) {
+            if (fileDetails.getName().endsWith(".class")) {
+                classFiles.add(fileDetails);
+            }
         }
     }
 
+    private class AnalyzeClasses implements RunnableBuildOperation {
+        private final List<FileVisitDetails> classFiles;
+        private final HashCode[] hashes;
+        private final ClassAnalysis[] analyses;
+        private final Exception[] failures;
+
+        AnalyzeClasses(List<FileVisitDetails> classFiles) {
+            this.classFiles = classFiles;
+            this.hashes = new HashCode[classFiles.size()];
+            this.analyses = new ClassAnalysis[classFiles.size()];
+            this.failures = new Exception[classFiles.size()];
+        }
+
+        @Override
+        public void run(BuildOperationContext context) {
+            analyze();
+        }
+
+        void analyze() {
+            for (int i = 0; i < classFiles.size(); i++) {
+                FileVisitDetails fileDetails = classFiles.get(i);
+                hashes[i] = fileHasher.hash(fileDetails);
+                try {
+                    analyses[i] = analyzer.getClassAnalysis(hashes[i], fileDetails);
+                } catch (Exception e) {
+                    failures[i] = e;
+                }
+            }
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            return BuildOperationDescriptor.displayName("Analyze " + classFiles.size() + " classes for incremental compilation");
+        }
+    }
 }
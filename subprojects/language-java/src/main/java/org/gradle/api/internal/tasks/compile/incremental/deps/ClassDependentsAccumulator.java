@@ -31,16 +31,30 @@ import java.util.Set;
 public class ClassDependentsAccumulator {
 
     private final Set<String> dependenciesToAll = Sets.newHashSet();
-    private final Map<String, Set<String>> dependents = new HashMap<String, Set<String>>();
+    private final Map<String, Set<String>> privateDependents = new HashMap<String, Set<String>>();
+    private final Map<String, Set<String>> accessibleDependents = new HashMap<String, Set<String>>();
     private final ImmutableMap.Builder<String, IntSet> classesToConstants = ImmutableMap.builder();
     private final Set<String> seenClasses = Sets.newHashSet();
+    private final boolean privateDependenciesAccessible;
     private String fullRebuildCause;
 
+    public ClassDependentsAccumulator() {
+        this(false);
+    }
+
+    /**
+     * @param privateDependenciesAccessible whether the private dependencies of a class are recorded as accessible ones, so that a change to them
+     * also recompiles the dependents of the class. This is needed when a compiler can derive the API of a class from its private dependencies.
+     */
+    public ClassDependentsAccumulator(boolean privateDependenciesAccessible) {
+        this.privateDependenciesAccessible = privateDependenciesAccessible;
+    }
+
     public void addClass(ClassAnalysis classAnalysis) {
-        addClass(classAnalysis.getClassName(), classAnalysis.isDependencyToAll(), classAnalysis.getClassDependencies(), classAnalysis.getConstants());
+        addClass(classAnalysis.getClassName(), classAnalysis.isDependencyToAll(), classAnalysis.getPrivateClassDependencies(), classAnalysis.getAccessibleClassDependencies(), classAnalysis.getConstants());
     }
 
-    public void addClass(String className, boolean dependencyToAll, Iterable<String> classDependencies, IntSet constants) {
+    public void addClass(String className, boolean dependencyToAll, Iterable<String> privateClassDependencies, Iterable<String> accessibleClassDependencies, IntSet constants) {
         if (seenClasses.contains(className)) {
             // same classes may be found in different classpath trees/jars
             // and we keep only the first one
@@ -52,16 +66,22 @@ public class ClassDependentsAccumulator {
         }
         if (dependencyToAll) {
             dependenciesToAll.add(className);
-            dependents.remove(className);
+            privateDependents.remove(className);
+            accessibleDependents.remove(className);
+        }
+        for (String dependency : privateClassDependencies) {
+            if (!dependency.equals(className) && !dependenciesToAll.contains(dependency)) {
+                addDependency(privateDependenciesAccessible ? accessibleDependents : privateDependents, dependency, className);
+            }
         }
-        for (String dependency : classDependencies) {
+        for (String dependency : accessibleClassDependencies) {
             if (!dependency.equals(className) && !dependenciesToAll.contains(dependency)) {
-                addDependency(dependency, className);
+                addDependency(accessibleDependents, dependency, className);
             }
         }
     }
 
-    private Set<String> rememberClass(String className) {
+    private Set<String> rememberClass(Map<String, Set<String>> dependents, String className) {
         Set<String> d = dependents.get(className);
         if (d == null) {
             d = Sets.newHashSet();
@@ -72,15 +92,15 @@ public class ClassDependentsAccumulator {
 
     @VisibleForTesting
     Map<String, DependentsSet> getDependentsMap() {
-        if (dependenciesToAll.isEmpty() && dependents.isEmpty()) {
+        if (dependenciesToAll.isEmpty() && privateDependents.isEmpty() && accessibleDependents.isEmpty()) {
             return Collections.emptyMap();
         }
         ImmutableMap.Builder<String, DependentsSet> builder = ImmutableMap.builder();
         for (String s : dependenciesToAll) {
             builder.put(s, DependentsSet.dependencyToAll());
         }
-        for (Map.Entry<String, Set<String>> entry : dependents.entrySet()) {
-            builder.put(entry.getKey(), DependentsSet.dependentClasses(entry.getValue()));
+        for (String s : Sets.union(privateDependents.keySet(), accessibleDependents.keySet())) {
+            builder.put(s, DependentsSet.dependentClasses(getDependents(privateDependents, s), getDependents(accessibleDependents, s)));
         }
         return builder.build();
     }
@@ -90,9 +110,14 @@ public class ClassDependentsAccumulator {
         return classesToConstants.build();
     }
 
-    private void addDependency(String dependency, String dependent) {
-        Set<String> dependents = rememberClass(dependency);
-        dependents.add(dependent);
+    private static Set<String> getDependents(Map<String, Set<String>> dependents, String className) {
+        Set<String> d = dependents.get(className);
+        return d == null ? Collections.<String>emptySet() : d;
+    }
+
+    private void addDependency(Map<String, Set<String>> dependents, String dependency, String dependent) {
+        Set<String> d = rememberClass(dependents, dependency);
+        d.add(dependent);
     }
 
     public void fullRebuildNeeded(String fullRebuildCause) {
@@ -110,8 +110,11 @@ public class ClassSetAnalysis {
 
         Set<String> resultClasses = new HashSet<String>();
         Set<GeneratedResource> resultResources = new HashSet<GeneratedResource>(resourcesDependingOnAllOthers);
-        recurseDependentClasses(new HashSet<String>(), resultClasses, resultResources, deps.getDependentClasses());
-        recurseDependentClasses(new HashSet<String>(), resultClasses, resultResources, classesDependingOnAllOthers);
+        DependentClassesCollector collector = new DependentClassesCollector(resultClasses, resultResources);
+        collector.addDependentClasses(deps);
+        for (String dependentClass : classesDependingOnAllOthers) {
+            collector.addAccessibleDependentClass(dependentClass);
+        }
         resultClasses.remove(className);
 
         return DependentsSet.dependents(resultClasses, resultResources);
@@ -126,13 +129,33 @@ public class ClassSetAnalysis {
     }
 
     /**
-     * Recursively accumulate dependent classes and resources.  Dependent classes discovered can themselves be used to query
-     * further dependents, while resources are just data accumulated along the way.
+     * Recursively accumulates dependent classes and resources. The API of an accessible dependent may change along with the class it depends on,
+     * so its own dependents are accumulated as well. The API of a private dependent does not change, so it is recompiled but its own dependents
+     * are not. Resources are just data accumulated along the way.
      */
-    private void recurseDependentClasses(Set<String> visitedClasses, Set<String> resultClasses, Set<GeneratedResource> resultResources, Iterable<String> dependentClasses) {
-        for (String d : dependentClasses) {
-            if (!visitedClasses.add(d)) {
-                continue;
+    private class DependentClassesCollector {
+        private final Set<String> resultClasses;
+        private final Set<GeneratedResource> resultResources;
+        private final Set<String> visitedAccessibleClasses = new HashSet<String>();
+        private final Set<String> visitedPrivateClasses = new HashSet<String>();
+
+        DependentClassesCollector(Set<String> resultClasses, Set<GeneratedResource> resultResources) {
+            this.resultClasses = resultClasses;
+            this.resultResources = resultResources;
+        }
+
+        void addDependentClasses(DependentsSet dependents) {
+            for (String d : dependents.getPrivateDependentClasses()) {
+                addPrivateDependentClass(d);
+            }
+            for (String d : dependents.getAccessibleDependentClasses()) {
+                addAccessibleDependentClass(d);
+            }
+        }
+
+        void addAccessibleDependentClass(String d) {
+            if (!visitedAccessibleClasses.add(d)) {
+                return;
             }
             if (!isNestedClass(d)) {
                 resultClasses.add(d);
@@ -140,7 +163,32 @@ public class ClassSetAnalysis {
             DependentsSet currentDependents = getDependents(d);
             if (!currentDependents.isDependencyToAll()) {
                 resultResources.addAll(currentDependents.getDependentResources());
-                recurseDependentClasses(visitedClasses, resultClasses, resultResources, currentDependents.getDependentClasses());
+                addDependentClasses(currentDependents);
+            }
+        }
+
+        private void addPrivateDependentClass(String d) {
+            if (visitedAccessibleClasses.contains(d) || !visitedPrivateClasses.add(d)) {
+                return;
+            }
+            DependentsSet currentDependents = getDependents(d);
+            if (currentDependents.isDependencyToAll()) {
+                if (!isNestedClass(d)) {
+                    resultClasses.add(d);
+                }
+                return;
+            }
+            resultResources.addAll(currentDependents.getDependentResources());
+            if (isNestedClass(d)) {
+                // A nested class is recompiled along with its enclosing class, which is one of its dependents
+                for (String dependentClass : currentDependents.getDependentClasses()) {
+                    addPrivateDependentClass(dependentClass);
+                }
+            } else {
+                resultClasses.add(d);
+                for (String dependentClass : classDependenciesFromAnnotationProcessing.get(d)) {
+                    addPrivateDependentClass(dependentClass);
+                }
             }
         }
     }
@@ -155,7 +203,7 @@ public class ClassSetAnalysis {
         if (additionalClassDeps.isEmpty() && additionalResourceDeps.isEmpty()) {
             return dependents;
         }
-        return DependentsSet.dependents(Sets.union(dependents.getDependentClasses(), additionalClassDeps), Sets.union(dependents.getDependentResources(), additionalResourceDeps));
+        return DependentsSet.dependents(dependents.getPrivateDependentClasses(), Sets.union(dependents.getAccessibleDependentClasses(), additionalClassDeps), Sets.union(dependents.getDependentResources(), additionalResourceDeps));
     }
 
     private boolean isNestedClass(String d) {
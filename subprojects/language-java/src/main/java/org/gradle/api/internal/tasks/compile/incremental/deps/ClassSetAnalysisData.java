@@ -145,12 +145,18 @@ public class ClassSetAnalysisData {
             if (b == 1) {
                 return DependentsSet.dependencyToAll(decoder.readNullableString());
             }
+            Set<String> privateDependentClasses = readClassNames(decoder, classNameMap);
+            Set<String> accessibleDependentClasses = readClassNames(decoder, classNameMap);
+            return DependentsSet.dependentClasses(privateDependentClasses, accessibleDependentClasses);
+        }
+
+        private Set<String> readClassNames(Decoder decoder, Map<Integer, String> classNameMap) throws IOException {
             int count = decoder.readSmallInt();
             ImmutableSet.Builder<String> builder = ImmutableSet.builder();
             for (int i = 0; i < count; i++) {
                 builder.add(readClassName(decoder, classNameMap));
             }
-            return DependentsSet.dependentClasses(builder.build());
+            return builder.build();
         }
 
         private void writeDependentSet(DependentsSet dependentsSet, Map<String, Integer> classNameMap, Encoder encoder) throws IOException {
@@ -159,10 +165,15 @@ public class ClassSetAnalysisData {
                 encoder.writeNullableString(dependentsSet.getDescription());
             } else {
                 encoder.writeByte((byte) 2);
-                encoder.writeSmallInt(dependentsSet.getDependentClasses().size());
-                for (String className : dependentsSet.getDependentClasses()) {
-                    writeClassName(className, classNameMap, encoder);
-                }
+                writeClassNames(dependentsSet.getPrivateDependentClasses(), classNameMap, encoder);
+                writeClassNames(dependentsSet.getAccessibleDependentClasses(), classNameMap, encoder);
+            }
+        }
+
+        private void writeClassNames(Set<String> classNames, Map<String, Integer> classNameMap, Encoder encoder) throws IOException {
+            encoder.writeSmallInt(classNames.size());
+            for (String className : classNames) {
+                writeClassName(className, classNameMap, encoder);
             }
         }
 
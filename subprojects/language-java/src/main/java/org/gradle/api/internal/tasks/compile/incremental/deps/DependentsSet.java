@@ -17,6 +17,7 @@
 package org.gradle.api.internal.tasks.compile.incremental.deps;
 
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import org.gradle.api.internal.tasks.compile.incremental.processing.GeneratedResource;
 
 import javax.annotation.Nullable;
@@ -29,7 +30,7 @@ public abstract class DependentsSet {
         if (dependentClasses.length == 0) {
             return empty();
         } else {
-            return new DefaultDependentsSet(ImmutableSet.copyOf(dependentClasses), Collections.<GeneratedResource>emptySet());
+            return new DefaultDependentsSet(ImmutableSet.<String>of(), ImmutableSet.copyOf(dependentClasses), Collections.<GeneratedResource>emptySet());
         }
     }
 
@@ -37,11 +38,19 @@ public abstract class DependentsSet {
         return dependents(dependentClasses, Collections.<GeneratedResource>emptySet());
     }
 
+    public static DependentsSet dependentClasses(Set<String> privateDependentClasses, Set<String> accessibleDependentClasses) {
+        return dependents(privateDependentClasses, accessibleDependentClasses, Collections.<GeneratedResource>emptySet());
+    }
+
     public static DependentsSet dependents(Set<String> dependentClasses, Set<GeneratedResource> dependentResources) {
-        if (dependentClasses.isEmpty() && dependentResources.isEmpty()) {
+        return dependents(Collections.<String>emptySet(), dependentClasses, dependentResources);
+    }
+
+    public static DependentsSet dependents(Set<String> privateDependentClasses, Set<String> accessibleDependentClasses, Set<GeneratedResource> dependentResources) {
+        if (privateDependentClasses.isEmpty() && accessibleDependentClasses.isEmpty() && dependentResources.isEmpty()) {
             return empty();
         } else {
-            return new DefaultDependentsSet(ImmutableSet.copyOf(dependentClasses), ImmutableSet.copyOf(dependentResources));
+            return new DefaultDependentsSet(ImmutableSet.copyOf(privateDependentClasses), ImmutableSet.copyOf(accessibleDependentClasses), ImmutableSet.copyOf(dependentResources));
         }
     }
 
@@ -57,8 +66,21 @@ public abstract class DependentsSet {
         return EmptyDependentsSet.INSTANCE;
     }
 
+    /**
+     * All dependent classes, both private and accessible.
+     */
     public abstract Set<String> getDependentClasses();
 
+    /**
+     * The dependent classes that use the class only in their implementation, so that their own API does not change when the class changes.
+     */
+    public abstract Set<String> getPrivateDependentClasses();
+
+    /**
+     * The dependent classes that have the class in their API, so that their own API may change when the class changes.
+     */
+    public abstract Set<String> getAccessibleDependentClasses();
+
     public abstract Set<GeneratedResource> getDependentResources();
 
     public abstract boolean isDependencyToAll();
@@ -76,6 +98,16 @@ public abstract class DependentsSet {
             return Collections.emptySet();
         }
 
+        @Override
+        public Set<String> getPrivateDependentClasses() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public Set<String> getAccessibleDependentClasses() {
+            return Collections.emptySet();
+        }
+
         @Override
         public Set<GeneratedResource> getDependentResources() {
             return Collections.emptySet();
@@ -95,17 +127,35 @@ public abstract class DependentsSet {
 
     private static class DefaultDependentsSet extends DependentsSet {
 
-        private final Set<String> dependentClasses;
+        private final Set<String> privateDependentClasses;
+        private final Set<String> accessibleDependentClasses;
         private final Set<GeneratedResource> dependentResources;
 
-        private DefaultDependentsSet(Set<String> dependentClasses, Set<GeneratedResource> dependentResources) {
-            this.dependentClasses = dependentClasses;
+        private DefaultDependentsSet(Set<String> privateDependentClasses, Set<String> accessibleDependentClasses, Set<GeneratedResource> dependentResources) {
+            this.privateDependentClasses = privateDependentClasses;
+            this.accessibleDependentClasses = accessibleDependentClasses;
             this.dependentResources = dependentResources;
         }
 
         @Override
         public Set<String> getDependentClasses() {
-            return dependentClasses;
+            if (privateDependentClasses.isEmpty()) {
+                return accessibleDependentClasses;
+            }
+            if (accessibleDependentClasses.isEmpty()) {
+                return privateDependentClasses;
+            }
+            return Sets.union(privateDependentClasses, accessibleDependentClasses);
+        }
+
+        @Override
+        public Set<String> getPrivateDependentClasses() {
+            return privateDependentClasses;
+        }
+
+        @Override
+        public Set<String> getAccessibleDependentClasses() {
+            return accessibleDependentClasses;
         }
 
         @Override
@@ -142,6 +192,16 @@ public abstract class DependentsSet {
             throw new UnsupportedOperationException("This instance of dependents set does not have dependent classes information.");
         }
 
+        @Override
+        public Set<String> getPrivateDependentClasses() {
+            throw new UnsupportedOperationException("This instance of dependents set does not have dependent classes information.");
+        }
+
+        @Override
+        public Set<String> getAccessibleDependentClasses() {
+            throw new UnsupportedOperationException("This instance of dependents set does not have dependent classes information.");
+        }
+
         @Override
         public Set<GeneratedResource> getDependentResources() {
             throw new UnsupportedOperationException("This instance of dependents set does not have dependent resources information.");
@@ -104,7 +104,8 @@ public class ClasspathChangeDependentsFinder {
                 if (dependents.isDependencyToAll()) {
                     return dependents;
                 } else {
-                    for (String intermediate : dependents.getDependentClasses()) {
+                    // The API of a private dependent does not change, so classes that depend on it are not affected
+                    for (String intermediate : dependents.getAccessibleDependentClasses()) {
                         if (dependentClasses.add(intermediate)) {
                             queue.add(intermediate);
                         }
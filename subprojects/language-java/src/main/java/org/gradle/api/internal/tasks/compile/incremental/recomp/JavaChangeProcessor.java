@@ -22,23 +22,24 @@ import org.gradle.api.tasks.incremental.InputFileDetails;
 
 class JavaChangeProcessor {
 
-    private final SourceToNameConverter sourceToNameConverter;
+    private final SourceFileClassNameConverter sourceFileClassNameConverter;
     private final PreviousCompilation previousCompilation;
 
-    public JavaChangeProcessor(PreviousCompilation previousCompilation, SourceToNameConverter sourceToNameConverter) {
+    public JavaChangeProcessor(PreviousCompilation previousCompilation, SourceFileClassNameConverter sourceFileClassNameConverter) {
         this.previousCompilation = previousCompilation;
-        this.sourceToNameConverter = sourceToNameConverter;
+        this.sourceFileClassNameConverter = sourceFileClassNameConverter;
     }
 
     public void processChange(InputFileDetails input, RecompilationSpec spec) {
-        String className = sourceToNameConverter.getClassName(input.getFile());
-        spec.getClassesToCompile().add(className);
-        DependentsSet actualDependents = previousCompilation.getDependents(className, IntSets.EMPTY_SET);
-        if (actualDependents.isDependencyToAll()) {
-            spec.setFullRebuildCause(actualDependents.getDescription(), input.getFile());
-            return;
+        for (String className : sourceFileClassNameConverter.getClassNames(input.getFile())) {
+            spec.getClassesToCompile().add(className);
+            DependentsSet actualDependents = previousCompilation.getDependents(className, IntSets.EMPTY_SET);
+            if (actualDependents.isDependencyToAll()) {
+                spec.setFullRebuildCause(actualDependents.getDescription(), input.getFile());
+                return;
+            }
+            spec.getClassesToCompile().addAll(actualDependents.getDependentClasses());
+            spec.getResourcesToGenerate().addAll(actualDependents.getDependentResources());
         }
-        spec.getClassesToCompile().addAll(actualDependents.getDependentClasses());
-        spec.getResourcesToGenerate().addAll(actualDependents.getDependentResources());
     }
 }
@@ -29,10 +29,10 @@ import java.util.Set;
 
 public class RecompilationSpecProvider {
 
-    private final SourceToNameConverter sourceToNameConverter;
+    private final SourceFileClassNameConverter sourceFileClassNameConverter;
 
-    public RecompilationSpecProvider(SourceToNameConverter sourceToNameConverter) {
-        this.sourceToNameConverter = sourceToNameConverter;
+    public RecompilationSpecProvider(SourceFileClassNameConverter sourceFileClassNameConverter) {
+        this.sourceFileClassNameConverter = sourceFileClassNameConverter;
     }
 
     public RecompilationSpec provideRecompilationSpec(CurrentCompilation current, PreviousCompilation previous) {
@@ -79,7 +79,7 @@ public class RecompilationSpecProvider {
     }
 
     private void processOtherChanges(CurrentCompilation current, PreviousCompilation previous, RecompilationSpec spec) {
-        JavaChangeProcessor javaChangeProcessor = new JavaChangeProcessor(previous, sourceToNameConverter);
+        JavaChangeProcessor javaChangeProcessor = new JavaChangeProcessor(previous, sourceFileClassNameConverter);
         AnnotationProcessorChangeProcessor annotationProcessorChangeProcessor = new AnnotationProcessorChangeProcessor(current, previous);
         ResourceChangeProcessor resourceChangeProcessor = new ResourceChangeProcessor(current.getAnnotationProcessorPath());
         InputChangeAction action = new InputChangeAction(spec, javaChangeProcessor, annotationProcessorChangeProcessor, resourceChangeProcessor);
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.compile.incremental.recomp;
+
+import java.io.File;
+import java.util.Collection;
+
+/**
+ * Knows which classes are compiled from a source file, and which source files a class is compiled from.
+ */
+public interface SourceFileClassNameConverter {
+    /**
+     * Returns the names of the top level classes compiled from the given source file.
+     */
+    Collection<String> getClassNames(File sourceFile);
+
+    /**
+     * Returns the source files the given top level class is compiled from, in addition to the Java source files found by their naming convention.
+     */
+    Collection<File> getSourceFiles(String className);
+}
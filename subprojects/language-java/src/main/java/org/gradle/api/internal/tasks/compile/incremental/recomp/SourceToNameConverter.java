@@ -19,11 +19,13 @@ package org.gradle.api.internal.tasks.compile.incremental.recomp;
 import org.gradle.util.RelativePathUtil;
 
 import java.io.File;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import static java.lang.String.format;
 
-public class SourceToNameConverter {
+public class SourceToNameConverter implements SourceFileClassNameConverter {
 
     private CompilationSourceDirs sourceDirs;
 
@@ -31,13 +33,23 @@ public class SourceToNameConverter {
         this.sourceDirs = sourceDirs;
     }
 
+    @Override
+    public Collection<String> getClassNames(File sourceFile) {
+        return Collections.singleton(getClassName(sourceFile));
+    }
+
+    @Override
+    public Collection<File> getSourceFiles(String className) {
+        return Collections.emptySet();
+    }
+
     public String getClassName(File javaSourceClass) {
         List<File> dirs = sourceDirs.getSourceRoots();
         for (File sourceDir : dirs) {
             if (javaSourceClass.getAbsolutePath().startsWith(sourceDir.getAbsolutePath())) { //perf tweak only
                 String relativePath = RelativePathUtil.relativePath(sourceDir, javaSourceClass);
                 if (!relativePath.startsWith("..")) {
-                    return relativePath.replaceAll("/", ".").replaceAll("\\.java$", "");
+                    return relativePath.replaceAll("/", ".").replaceAll("\\.(java|groovy)$", "");
                 }
             }
         }
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile
+
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+import javax.tools.JavaCompiler
+import javax.tools.StandardJavaFileManager
+import javax.tools.StandardLocation
+import java.nio.charset.Charset
+
+class ReusableJavaFileManagersTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tempDir = new TestNameTestDirectoryProvider()
+
+    def zipCacheCleanup = Mock(Runnable)
+    def fileManagers = new ReusableJavaFileManagers(zipCacheCleanup)
+    def compiler = Mock(JavaCompiler)
+    def jar = tempDir.file("lib.jar").createFile()
+    def options = ["-classpath", jar.path, "-d", "out", "-source", "8"]
+
+    def "reuses file manager of finished compilation"() {
+        def fileManager = Mock(StandardJavaFileManager)
+
+        when:
+        def first = fileManagers.acquire(compiler, null, options, [jar])
+        fileManagers.release(first)
+        def second = fileManagers.acquire(compiler, null, options, [jar])
+
+        then:
+        1 * compiler.getStandardFileManager(null, null, null) >> fileManager
+        first.is(fileManager)
+        second.is(fileManager)
+
+        and:
+        1 * fileManager.setLocation(StandardLocation.CLASS_PATH, null)
+        0 * fileManager.close()
+        0 * zipCacheCleanup.run()
+    }
+
+    def "does not reuse file manager that is still in use"() {
+        def fileManager1 = Mock(StandardJavaFileManager)
+        def fileManager2 = Mock(StandardJavaFileManager)
+
+        when:
+        def first = fileManagers.acquire(compiler, null, options, [jar])
+        def second = fileManagers.acquire(compiler, null, options, [jar])
+
+        then:
+        2 * compiler.getStandardFileManager(null, null, null) >>> [fileManager1, fileManager2]
+        first.is(fileManager1)
+        second.is(fileManager2)
+    }
+
+    def "does not reuse file manager when an archive it has used has changed"() {
+        def fileManager = Mock(StandardJavaFileManager)
+        def newFileManager = Mock(StandardJavaFileManager)
+
+        when:
+        def first = fileManagers.acquire(compiler, null, options, [jar])
+        fileManagers.release(first)
+        jar.text = "changed"
+        def second = fileManagers.acquire(compiler, null, options, [jar])
+
+        then:
+        2 * compiler.getStandardFileManager(null, null, null) >>> [fileManager, newFileManager]
+        1 * fileManager.close()
+        1 * zipCacheCleanup.run()
+        second.is(newFileManager)
+    }
+
+    def "does not reuse file manager for a different encoding"() {
+        def utf8 = Charset.forName("UTF-8")
+        def defaultFileManager = Mock(StandardJavaFileManager)
+        def utf8FileManager = Mock(StandardJavaFileManager)
+
+        when:
+        def first = fileManagers.acquire(compiler, null, options, [jar])
+        fileManagers.release(first)
+        def second = fileManagers.acquire(compiler, utf8, options, [jar])
+
+        then:
+        1 * compiler.getStandardFileManager(null, null, null) >> defaultFileManager
+        1 * compiler.getStandardFileManager(null, null, utf8) >> utf8FileManager
+        first.is(defaultFileManager)
+        second.is(utf8FileManager)
+    }
+
+    def "does not reuse file manager for different options"() {
+        def fileManager = Mock(StandardJavaFileManager)
+        def releaseFileManager = Mock(StandardJavaFileManager)
+        def xdFileManager = Mock(StandardJavaFileManager)
+
+        when:
+        def first = fileManagers.acquire(compiler, null, options, [jar])
+        fileManagers.release(first)
+        def second = fileManagers.acquire(compiler, null, ["-classpath", jar.path, "-d", "out", "--release", "8"], [jar])
+        fileManagers.release(second)
+        def third = fileManagers.acquire(compiler, null, ["-classpath", jar.path, "-d", "out", "-source", "8", "-XDuseOptimizedZip=false"], [jar])
+
+        then:
+        3 * compiler.getStandardFileManager(null, null, null) >>> [fileManager, releaseFileManager, xdFileManager]
+        second.is(releaseFileManager)
+        third.is(xdFileManager)
+    }
+
+    def "reuses file manager for options that only differ in reset locations and annotation processor options"() {
+        def other = tempDir.file("other.jar").createFile()
+
+        expect:
+        ReusableJavaFileManagers.reuseKeyOptions(["-classpath", jar.path, "-d", "out", "-source", "8", "-Akey=value"]) ==
+            ReusableJavaFileManagers.reuseKeyOptions(["-sourcepath", "", "-classpath", other.path, "-d", "other", "-source", "8"])
+        ReusableJavaFileManagers.reuseKeyOptions(["-source", "8"]) != ReusableJavaFileManagers.reuseKeyOptions(["--release", "8"])
+    }
+
+    def "cleans up ZIP cache when a file manager is closed rather than kept"() {
+        def fileManagersInUse = (1..5).collect { Mock(StandardJavaFileManager) }
+
+        when:
+        def acquired = (1..5).collect { fileManagers.acquire(compiler, null, options, [jar]) }
+        acquired.each { fileManagers.release(it) }
+
+        then:
+        5 * compiler.getStandardFileManager(null, null, null) >>> fileManagersInUse
+        1 * fileManagersInUse[4].close()
+        1 * zipCacheCleanup.run()
+        0 * fileManagersInUse[0].close()
+        0 * fileManagersInUse[1].close()
+        0 * fileManagersInUse[2].close()
+        0 * fileManagersInUse[3].close()
+    }
+
+    def "closes idle file managers when stopped, and file managers in use when they are given back"() {
+        def fileManager1 = Mock(StandardJavaFileManager)
+        def fileManager2 = Mock(StandardJavaFileManager)
+
+        when:
+        def first = fileManagers.acquire(compiler, null, options, [jar])
+        def second = fileManagers.acquire(compiler, null, options, [jar])
+        fileManagers.release(first)
+        fileManagers.stop()
+
+        then:
+        2 * compiler.getStandardFileManager(null, null, null) >>> [fileManager1, fileManager2]
+        1 * fileManager1.close()
+        0 * fileManager2.close()
+        1 * zipCacheCleanup.run()
+
+        when:
+        fileManagers.release(second)
+
+        then:
+        1 * fileManager2.close()
+
+        then:
+        1 * zipCacheCleanup.run()
+    }
+
+    def "does not reuse file managers for compilations that use modules"() {
+        expect:
+        ReusableJavaFileManagers.canReuseFor(["-classpath", jar.path, "-d", "out"])
+        !ReusableJavaFileManagers.canReuseFor(["--module-path", jar.path, "-d", "out"])
+        !ReusableJavaFileManagers.canReuseFor(["--patch-module", "a=b"])
+    }
+}
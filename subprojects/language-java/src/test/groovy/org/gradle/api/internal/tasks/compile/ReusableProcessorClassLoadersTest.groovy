@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile
+
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class ReusableProcessorClassLoadersTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tempDir = new TestNameTestDirectoryProvider()
+
+    def classLoaders = new ReusableProcessorClassLoaders()
+    def owner = getClass().classLoader
+    def parent = new URLClassLoader(new URL[0], owner)
+    def jar = tempDir.file("processor.jar").createFile()
+
+    def "reuses class loader of finished compilation"() {
+        when:
+        def first = classLoaders.acquire(owner, [jar], parent)
+        classLoaders.release(first)
+        def second = classLoaders.acquire(owner, [jar], parent)
+
+        then:
+        second.is(first)
+    }
+
+    def "does not reuse class loader that is still in use"() {
+        when:
+        def first = classLoaders.acquire(owner, [jar], parent)
+        def second = classLoaders.acquire(owner, [jar], parent)
+
+        then:
+        !second.is(first)
+    }
+
+    def "does not reuse class loader for a different processor path or owner"() {
+        def otherJar = tempDir.file("other.jar").createFile()
+
+        when:
+        def first = classLoaders.acquire(owner, [jar], parent)
+        classLoaders.release(first)
+        def differentPath = classLoaders.acquire(owner, [jar, otherJar], parent)
+        def differentOwner = classLoaders.acquire(new URLClassLoader(new URL[0], owner), [jar], parent)
+
+        then:
+        !differentPath.is(first)
+        !differentOwner.is(first)
+    }
+
+    def "does not reuse class loader when a jar on the processor path has changed"() {
+        when:
+        def first = classLoaders.acquire(owner, [jar], parent)
+        classLoaders.release(first)
+        jar.text = "changed"
+        def second = classLoaders.acquire(owner, [jar], parent)
+
+        then:
+        !second.is(first)
+    }
+
+    def "does not reuse class loader of failed compilation"() {
+        when:
+        def first = classLoaders.acquire(owner, [jar], parent)
+        classLoaders.discard(first)
+        def second = classLoaders.acquire(owner, [jar], parent)
+
+        then:
+        !second.is(first)
+    }
+
+    def "does not keep class loaders once stopped"() {
+        when:
+        def first = classLoaders.acquire(owner, [jar], parent)
+        def second = classLoaders.acquire(owner, [jar], parent)
+        classLoaders.release(first)
+        classLoaders.stop()
+        classLoaders.release(second)
+        def third = classLoaders.acquire(owner, [jar], parent)
+
+        then:
+        !third.is(first)
+        !third.is(second)
+    }
+
+    def "does not reuse class loader for a processor path with directories"() {
+        def classesDir = tempDir.createDir("classes")
+
+        when:
+        def first = classLoaders.acquire(owner, [jar, classesDir], parent)
+        classLoaders.release(first)
+        def second = classLoaders.acquire(owner, [jar, classesDir], parent)
+
+        then:
+        !second.is(first)
+    }
+}
@@ -25,8 +25,10 @@ import org.gradle.api.internal.tasks.compile.incremental.analyzer.annotations.Us
 import org.gradle.api.internal.tasks.compile.incremental.analyzer.annotations.UsesRuntimeAnnotation
 import org.gradle.api.internal.tasks.compile.incremental.analyzer.annotations.UsesSourceAnnotation
 import org.gradle.api.internal.tasks.compile.incremental.deps.ClassAnalysis
+import org.gradle.api.internal.tasks.compile.incremental.test.AccessedFromPrivateClass
 import org.gradle.api.internal.tasks.compile.incremental.test.HasInnerClass
 import org.gradle.api.internal.tasks.compile.incremental.test.HasNonPrivateConstants
+import org.gradle.api.internal.tasks.compile.incremental.test.HasPrivateAndAccessibleDependencies
 import org.gradle.api.internal.tasks.compile.incremental.test.HasPrivateConstants
 import org.gradle.api.internal.tasks.compile.incremental.test.HasPublicConstants
 import org.gradle.api.internal.tasks.compile.incremental.test.SomeClass
@@ -53,11 +55,20 @@ class DefaultClassDependenciesAnalyzerTest extends Specification {
 
     def "knows dependencies of a java class"() {
         expect:
-        analyze(SomeOtherClass).classDependencies == [YetAnotherClass.name, SomeClass.name] as Set
+        analyze(SomeOtherClass).privateClassDependencies == [YetAnotherClass.name] as Set
+        analyze(SomeOtherClass).accessibleClassDependencies == [SomeClass.name] as Set
+    }
+
+    def "knows which dependencies of a java class are part of its API"() {
+        def analysis = analyze(HasPrivateAndAccessibleDependencies)
+
+        expect:
+        analysis.accessibleClassDependencies == [SomeClass.name, SomeOtherClass.name] as Set
+        analysis.privateClassDependencies == [YetAnotherClass.name, UsedByNonPrivateConstantsClass.name, AccessedFromPrivateClass.name] as Set
     }
 
     def "knows basic class dependencies of a groovy class"() {
-        def deps = analyze(DefaultClassDependenciesAnalyzerTest).classDependencies
+        def deps = analyze(DefaultClassDependenciesAnalyzerTest).accessibleClassDependencies
 
         expect:
         deps.contains(Specification.class.name)
@@ -68,7 +79,8 @@ class DefaultClassDependenciesAnalyzerTest extends Specification {
         def analysis = analyze(HasNonPrivateConstants)
 
         then:
-        analysis.classDependencies == [UsedByNonPrivateConstantsClass.name] as Set
+        analysis.accessibleClassDependencies == [UsedByNonPrivateConstantsClass.name] as Set
+        analysis.privateClassDependencies.isEmpty()
         !analysis.dependencyToAll
         analysis.constants == ['X|1'.hashCode()] as Set
 
@@ -76,7 +88,8 @@ class DefaultClassDependenciesAnalyzerTest extends Specification {
         analysis = analyze(HasPublicConstants)
 
         then:
-        analysis.classDependencies.isEmpty()
+        analysis.accessibleClassDependencies.isEmpty()
+        analysis.privateClassDependencies.isEmpty()
         !analysis.dependencyToAll
         analysis.constants == ['X|1'.hashCode()] as Set
 
@@ -84,23 +97,24 @@ class DefaultClassDependenciesAnalyzerTest extends Specification {
         analysis = analyze(HasPrivateConstants)
 
         then:
-        analysis.classDependencies == [HasNonPrivateConstants.name] as Set
+        analysis.accessibleClassDependencies.isEmpty()
+        analysis.privateClassDependencies == [HasNonPrivateConstants.name] as Set
         !analysis.dependencyToAll
         analysis.constants == [] as Set
     }
 
     def "knows if a class uses annotations with source retention"() {
         expect:
-        analyze(UsesRuntimeAnnotation).classDependencies  == ["org.gradle.api.internal.tasks.compile.incremental.analyzer.annotations.SomeRuntimeAnnotation"] as Set
-        analyze(SomeRuntimeAnnotation).classDependencies.isEmpty()
+        analyze(UsesRuntimeAnnotation).accessibleClassDependencies  == ["org.gradle.api.internal.tasks.compile.incremental.analyzer.annotations.SomeRuntimeAnnotation"] as Set
+        analyze(SomeRuntimeAnnotation).accessibleClassDependencies.isEmpty()
         !analyze(SomeRuntimeAnnotation).dependencyToAll
 
-        analyze(UsesClassAnnotation).classDependencies == ["org.gradle.api.internal.tasks.compile.incremental.analyzer.annotations.SomeClassAnnotation"] as Set
-        analyze(SomeClassAnnotation).classDependencies.isEmpty()
+        analyze(UsesClassAnnotation).accessibleClassDependencies == ["org.gradle.api.internal.tasks.compile.incremental.analyzer.annotations.SomeClassAnnotation"] as Set
+        analyze(SomeClassAnnotation).accessibleClassDependencies.isEmpty()
         !analyze(SomeClassAnnotation).dependencyToAll
 
-        analyze(UsesSourceAnnotation).classDependencies.isEmpty() //source annotations are wiped from the bytecode
-        analyze(SomeSourceAnnotation).classDependencies.isEmpty()
+        analyze(UsesSourceAnnotation).accessibleClassDependencies.isEmpty() //source annotations are wiped from the bytecode
+        analyze(SomeSourceAnnotation).accessibleClassDependencies.isEmpty()
         analyze(SomeSourceAnnotation).dependencyToAll
     }
 
@@ -27,6 +27,7 @@ import org.gradle.api.internal.tasks.compile.incremental.deps.ClassAnalysis
 import org.gradle.internal.hash.FileHasher
 import org.gradle.internal.hash.HashCode
 import org.gradle.internal.hash.StreamHasher
+import org.gradle.internal.operations.TestBuildOperationExecutor
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
 import org.gradle.util.UsesNativeServices
 import org.junit.Rule
@@ -42,7 +43,7 @@ class DefaultClasspathEntrySnapshotterTest extends Specification {
     def streamHasher = Mock(StreamHasher)
     def classDependenciesAnalyzer = Mock(ClassDependenciesAnalyzer)
     def fileOperations = Mock(FileOperations)
-    @Subject snapshotter = new DefaultClasspathEntrySnapshotter(fileHasher, streamHasher, classDependenciesAnalyzer, fileOperations)
+    @Subject snapshotter = new DefaultClasspathEntrySnapshotter(fileHasher, streamHasher, classDependenciesAnalyzer, fileOperations, new TestBuildOperationExecutor())
 
     def "creates snapshot for an empty entry"() {
         expect:
@@ -87,4 +88,32 @@ class DefaultClasspathEntrySnapshotterTest extends Specification {
         snapshot.hashes == ["Foo": f1Hash, "com.Foo2": f2Hash]
         snapshot.classAnalysis
     }
+
+    def "analyzes classes of a directory in batches"() {
+        def entry = temp.createDir("foo")
+        def classCount = DefaultClasspathEntrySnapshotter.CLASSES_PER_OPERATION * 2 + 1
+        def classFiles = (0..<classCount).collect { new DefaultFileVisitDetails(entry.file("C${it}.class"), null, null) }
+        def fileTree = Mock(ConfigurableFileTree)
+
+        when:
+        def snapshot = snapshotter.createSnapshot(HashCode.fromInt(123), entry)
+
+        then:
+        1 * fileOperations.fileTree(entry) >> fileTree
+        1 * fileTree.visit(_) >> { FileVisitor visitor ->
+            classFiles.each { visitor.visitFile(it) }
+        }
+        classCount * fileHasher.hash(_) >> { args -> HashCode.fromInt(classFiles.indexOf(args[0])) }
+        classCount * classDependenciesAnalyzer.getClassAnalysis(_, _) >> { HashCode hash, details ->
+            Stub(ClassAnalysis) {
+                getClassName() >> details.name - ".class"
+            }
+        }
+
+        and:
+        snapshot.hashes.size() == classCount
+        snapshot.hashes["C0"] == HashCode.fromInt(0)
+        snapshot.hashes["C" + (classCount - 1)] == HashCode.fromInt(classCount - 1)
+        snapshot.classAnalysis
+    }
 }
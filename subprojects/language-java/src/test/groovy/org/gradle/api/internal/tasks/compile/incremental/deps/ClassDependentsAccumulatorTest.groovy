@@ -31,9 +31,9 @@ class ClassDependentsAccumulatorTest extends Specification {
 
     def "remembers if class is dependency to all"() {
         // a -> b -> c
-        accumulator.addClass("a", false, ["b"], IntSets.EMPTY_SET)
-        accumulator.addClass("b", true,  ["c"], IntSets.EMPTY_SET)
-        accumulator.addClass("c", false, ["a"] as Set, IntSets.EMPTY_SET)
+        accumulator.addClass("a", false, [] as Set, ["b"], IntSets.EMPTY_SET)
+        accumulator.addClass("b", true, [] as Set, ["c"], IntSets.EMPTY_SET)
+        accumulator.addClass("c", false, [] as Set, ["a"] as Set, IntSets.EMPTY_SET)
 
         expect:
         !accumulator.dependentsMap.a.dependencyToAll
@@ -43,9 +43,9 @@ class ClassDependentsAccumulatorTest extends Specification {
 
     def "remembers if class declares non-private constants"() {
         // a -> b -> c
-        accumulator.addClass("a", false, ["b"], new IntOpenHashSet(1, 2, 3, 5, 8))
-        accumulator.addClass("b", false,  ["c"], new IntOpenHashSet([0, 8]))
-        accumulator.addClass("c", false, [], new IntOpenHashSet([3, 4]))
+        accumulator.addClass("a", false, [] as Set, ["b"], new IntOpenHashSet(1, 2, 3, 5, 8))
+        accumulator.addClass("b", false, [] as Set, ["c"], new IntOpenHashSet([0, 8]))
+        accumulator.addClass("c", false, [] as Set, [], new IntOpenHashSet([3, 4]))
 
         expect:
         accumulator.classesToConstants.get('a') == [1, 2, 3, 5, 8] as Set
@@ -54,10 +54,10 @@ class ClassDependentsAccumulatorTest extends Specification {
     }
 
     def "accumulates dependents"() {
-        accumulator.addClass("d", true, ['x'], IntSets.EMPTY_SET)
-        accumulator.addClass("a", false, ["b", "c"], IntSets.EMPTY_SET)
-        accumulator.addClass("b", true,  ["c", "a"], IntSets.EMPTY_SET)
-        accumulator.addClass("c", false, [] as Set, IntSets.EMPTY_SET)
+        accumulator.addClass("d", true, [] as Set, ['x'], IntSets.EMPTY_SET)
+        accumulator.addClass("a", false, [] as Set, ["b", "c"], IntSets.EMPTY_SET)
+        accumulator.addClass("b", true, [] as Set, ["c", "a"], IntSets.EMPTY_SET)
+        accumulator.addClass("c", false, [] as Set, [] as Set, IntSets.EMPTY_SET)
 
         expect:
         accumulator.dependentsMap.a.dependentClasses == ['b'] as Set
@@ -67,34 +67,58 @@ class ClassDependentsAccumulatorTest extends Specification {
         accumulator.dependentsMap.x.dependentClasses == ['d'] as Set
     }
 
+    def "accumulates private and accessible dependents separately"() {
+        accumulator.addClass("a", false, ["c"], ["b"], IntSets.EMPTY_SET)
+        accumulator.addClass("d", false, ["b"], ["c"], IntSets.EMPTY_SET)
+
+        expect:
+        accumulator.dependentsMap.b.privateDependentClasses == ['d'] as Set
+        accumulator.dependentsMap.b.accessibleDependentClasses == ['a'] as Set
+        accumulator.dependentsMap.b.dependentClasses == ['a', 'd'] as Set
+        accumulator.dependentsMap.c.privateDependentClasses == ['a'] as Set
+        accumulator.dependentsMap.c.accessibleDependentClasses == ['d'] as Set
+    }
+
+    def "records private dependents as accessible when private dependencies are accessible"() {
+        accumulator = new ClassDependentsAccumulator(true)
+        accumulator.addClass("a", false, ["c"], ["b"], IntSets.EMPTY_SET)
+        accumulator.addClass("d", false, ["b"], ["c"], IntSets.EMPTY_SET)
+
+        expect:
+        accumulator.dependentsMap.b.privateDependentClasses.empty
+        accumulator.dependentsMap.b.accessibleDependentClasses == ['a', 'd'] as Set
+        accumulator.dependentsMap.c.privateDependentClasses.empty
+        accumulator.dependentsMap.c.accessibleDependentClasses == ['a', 'd'] as Set
+    }
+
     def "creates keys for all encountered classes which are dependency to another"() {
-        accumulator.addClass("a", false, ["x"], IntSets.EMPTY_SET)
-        accumulator.addClass("b", true,  ["a", "b"], IntSets.EMPTY_SET)
-        accumulator.addClass("c", true,  [] as Set, IntSets.EMPTY_SET)
-        accumulator.addClass("e", false,  [] as Set, IntSets.EMPTY_SET)
+        accumulator.addClass("a", false, [] as Set, ["x"], IntSets.EMPTY_SET)
+        accumulator.addClass("b", true, [] as Set, ["a", "b"], IntSets.EMPTY_SET)
+        accumulator.addClass("c", true, [] as Set, [] as Set, IntSets.EMPTY_SET)
+        accumulator.addClass("e", false, [] as Set, [] as Set, IntSets.EMPTY_SET)
 
         expect:
         accumulator.dependentsMap.keySet() == ["a", "b", "c", "x"] as Set
     }
 
     def "knows when class is dependent to all if that class is added first"() {
-        accumulator.addClass("b", true,  [] as Set, IntSets.EMPTY_SET)
-        accumulator.addClass("a", false, ["b"], IntSets.EMPTY_SET)
+        accumulator.addClass("b", true, [] as Set, [] as Set, IntSets.EMPTY_SET)
+        accumulator.addClass("a", false, [] as Set, ["b"], IntSets.EMPTY_SET)
 
         expect:
         accumulator.dependentsMap.b.dependencyToAll
     }
 
     def "knows when class is dependent to all even if that class is added last"() {
-        accumulator.addClass("a", false, ["b"], IntSets.EMPTY_SET)
-        accumulator.addClass("b", true,  [] as Set, IntSets.EMPTY_SET)
+        accumulator.addClass("a", false, [] as Set, ["b"], IntSets.EMPTY_SET)
+        accumulator.addClass("b", true, [] as Set, [] as Set, IntSets.EMPTY_SET)
 
         expect:
         accumulator.dependentsMap.b.dependencyToAll
     }
 
     def "filters out self dependencies"() {
-        accumulator.addClass("a", false, ["a", "b"], IntSets.EMPTY_SET)
+        accumulator.addClass("a", false, [] as Set, ["a", "b"], IntSets.EMPTY_SET)
 
         expect:
         accumulator.dependentsMap["b"].dependentClasses == ["a"] as Set
@@ -91,6 +91,43 @@ class ClassSetAnalysisTest extends Specification {
         deps.dependentClasses == ["b", "c", "d", "e"] as Set
     }
 
+    def "does not recurse into dependents of private dependents"() {
+        def a = analysis([
+            "Foo": dependentClasses(["Bar"] as Set, ["Baz"] as Set),
+            "Bar": dependentClasses("Qux"),
+            "Baz": dependentClasses(["Quux"] as Set, ["Corge"] as Set),
+            "Corge": dependentClasses("Grault"),
+        ])
+        def deps = a.getRelevantDependents("Foo", IntSets.EMPTY_SET)
+
+        expect:
+        deps.dependentClasses == ["Bar", "Baz", "Quux", "Corge", "Grault"] as Set
+    }
+
+    def "recurses into dependents of classes that are both private and accessible dependents"() {
+        def a = analysis([
+            "Foo": dependentClasses(["Bar"] as Set, ["Baz"] as Set),
+            "Baz": dependentClasses("Bar"),
+            "Bar": dependentClasses("Qux"),
+        ])
+        def deps = a.getRelevantDependents("Foo", IntSets.EMPTY_SET)
+
+        expect:
+        deps.dependentClasses == ["Bar", "Baz", "Qux"] as Set
+    }
+
+    def "recompiles the enclosing class of a nested private dependent"() {
+        def a = analysis([
+            "Foo": dependentClasses(['Bar$Inner'] as Set, [] as Set),
+            'Bar$Inner': dependentClasses(["Bar"] as Set, [] as Set),
+            "Bar": dependentClasses("Baz"),
+        ])
+        def deps = a.getRelevantDependents("Foo", IntSets.EMPTY_SET)
+
+        expect:
+        deps.dependentClasses == ["Bar"] as Set
+    }
+
     def "removes self from dependents"() {
         def a = analysis([
             "Foo": dependentClasses("Foo")
@@ -74,6 +74,28 @@ abstract class AbstractCompilerDaemonReuseIntegrationTest extends AbstractIntegr
         assertOneCompilerDaemonIsCreated()
     }
 
+    def "reuses compiler daemons across builds"() {
+        withSingleProjectSources()
+
+        when:
+        succeeds("compileAll")
+
+        then:
+        executedAndNotSkipped "${compileTaskPath('main')}"
+
+        when:
+        succeeds("compileAll", "--rerun-tasks")
+
+        then:
+        executedAndNotSkipped "${compileTaskPath('main')}"
+
+        and:
+        def compilerDaemonSets = compilerDaemonIdentityFile.readLines()
+        compilerDaemonSets.size() == 2
+        compilerDaemonSets[0].split(" ").size() == 1
+        compilerDaemonSets[1] == compilerDaemonSets[0]
+    }
+
     @IgnoreIf({GradleContextualExecuter.parallel})
     def "reuses compiler daemons within a multi-project build"() {
         withMultiProjectSources()
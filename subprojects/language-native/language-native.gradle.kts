@@ -45,6 +45,7 @@ testFixtures {
     from(":messaging")
     from(":platformNative", "testFixtures")
     from(":snapshots")
+    from(":baseServices")
 }
 
 classycle {
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.language.nativeplatform.internal.incremental.sourceparser;
+
+import org.gradle.language.nativeplatform.internal.IncludeDirectives;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Measures extracting the directives from a corpus of generated headers that, like most system headers, are mostly declarations and comments.
+ */
+@Fork(2)
+@Warmup(iterations = 10, time = 1, timeUnit = SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = SECONDS)
+@State(Scope.Benchmark)
+public class CSourceParserBenchmark {
+    private static final int HEADERS = 200;
+    private static final int DECLARATIONS_PER_HEADER = 500;
+
+    private final RegexBackedCSourceParser parser = new RegexBackedCSourceParser();
+    private String[] headers;
+
+    @Setup
+    public void setupHeaders() {
+        headers = new String[HEADERS];
+        for (int i = 0; i < HEADERS; i++) {
+            StringBuilder header = new StringBuilder();
+            header.append("/*\n * Generated header ").append(i).append("\n */\n");
+            header.append("#ifndef HEADER_").append(i).append("_H\n#define HEADER_").append(i).append("_H\n");
+            header.append("#include <stddef.h>\n#include \"header").append((i + 1) % HEADERS).append(".h\"\n");
+            header.append("#define HEADER_").append(i).append("_IMPL(x) \"impl/\" #x\n");
+            for (int j = 0; j < DECLARATIONS_PER_HEADER; j++) {
+                header.append("/** Returns value ").append(j).append(" of the header. */\n");
+                header.append("extern int header").append(i).append("_value").append(j).append("(const char* name, size_t length); // see docs\n");
+            }
+            header.append("#endif\n");
+            headers[i] = header.toString();
+        }
+    }
+
+    @Benchmark
+    public void parseHeaders(Blackhole bh) throws IOException {
+        for (String header : headers) {
+            IncludeDirectives directives = parser.parseSource(new StringReader(header));
+            bh.consume(directives);
+        }
+    }
+}
@@ -18,6 +18,7 @@ package org.gradle.language.nativeplatform.internal;
 
 import org.gradle.internal.operations.logging.BuildOperationLogger;
 import org.gradle.nativeplatform.internal.AbstractBinaryToolSpec;
+import org.gradle.nativeplatform.toolchain.internal.CompileMemoryLimit;
 import org.gradle.nativeplatform.toolchain.internal.NativeCompileSpec;
 
 import java.io.File;
@@ -41,6 +42,7 @@ public abstract class AbstractNativeCompileSpec extends AbstractBinaryToolSpec i
     private boolean debuggable;
     private boolean optimized;
     private BuildOperationLogger oplogger;
+    private CompileMemoryLimit memoryLimit;
     private File prefixHeaderFile;
     private File preCompiledHeaderObjectFile;
     private List<File> sourceFilesForPch = new ArrayList<File>();
@@ -219,6 +221,16 @@ public abstract class AbstractNativeCompileSpec extends AbstractBinaryToolSpec i
         this.oplogger = oplogger;
     }
 
+    @Override
+    public CompileMemoryLimit getMemoryLimit() {
+        return memoryLimit;
+    }
+
+    @Override
+    public void setMemoryLimit(CompileMemoryLimit memoryLimit) {
+        this.memoryLimit = memoryLimit;
+    }
+
     @Override
     public List<File> getSourceFilesForPch() {
         return sourceFilesForPch;
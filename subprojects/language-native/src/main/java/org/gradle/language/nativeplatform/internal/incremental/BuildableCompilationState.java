@@ -29,11 +29,11 @@ public class BuildableCompilationState {
         return sourceFileStates.keySet();
     }
 
-    public void setState(File file, SourceFileState sourceFileState) {
+    public synchronized void setState(File file, SourceFileState sourceFileState) {
         sourceFileStates.put(file, sourceFileState);
     }
 
-    public CompilationState snapshot() {
+    public synchronized CompilationState snapshot() {
         return new CompilationState(ImmutableMap.copyOf(sourceFileStates));
     }
 }
@@ -73,7 +73,10 @@ public class CollectingMacroLookup implements MacroLookup {
         return Iterators.concat(initialDirectives, visible.values().iterator());
     }
 
-    public void appendTo(CollectingMacroLookup lookup) {
+    /**
+     * Appends the macros of this lookup to the given lookup. Can be called concurrently once this lookup is no longer being appended to.
+     */
+    public synchronized void appendTo(CollectingMacroLookup lookup) {
         collectAll();
         if (visible != null) {
             for (Map.Entry<File, IncludeDirectives> entry : visible.entrySet()) {
@@ -33,17 +33,21 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Resolves includes against a fixed include path. Can be used concurrently to resolve the includes of different source files.
+ */
 public class DefaultSourceIncludesResolver implements SourceIncludesResolver {
     private static final MissingIncludeFile MISSING_INCLUDE_FILE = new MissingIncludeFile();
     private final FileSystemSnapshotter fileSystemSnapshotter;
-    private final Map<File, DirectoryContents> includeRoots = new HashMap<File, DirectoryContents>();
+    private final ConcurrentMap<File, DirectoryContents> includeRoots = new ConcurrentHashMap<File, DirectoryContents>();
     private final FixedIncludePath includePath;
 
     public DefaultSourceIncludesResolver(List<File> includePaths, FileSystemSnapshotter fileSystemSnapshotter) {
@@ -261,7 +265,10 @@ public class DefaultSourceIncludesResolver implements SourceIncludesResolver {
         DirectoryContents directoryContents = includeRoots.get(includeDir);
         if (directoryContents == null) {
             directoryContents = new DirectoryContents(includeDir);
-            includeRoots.put(includeDir, directoryContents);
+            DirectoryContents existing = includeRoots.putIfAbsent(includeDir, directoryContents);
+            if (existing != null) {
+                directoryContents = existing;
+            }
         }
         return directoryContents;
     }
@@ -302,7 +309,7 @@ public class DefaultSourceIncludesResolver implements SourceIncludesResolver {
 
     private static class FixedIncludePath extends IncludePath {
         private final List<DirectoryContents> directories;
-        private final Map<String, CachedIncludeFile> cachedLookups = new HashMap<String, CachedIncludeFile>();
+        private final Map<String, CachedIncludeFile> cachedLookups = new ConcurrentHashMap<String, CachedIncludeFile>();
 
         FixedIncludePath(List<DirectoryContents> directories) {
             this.directories = directories;
@@ -337,7 +344,7 @@ public class DefaultSourceIncludesResolver implements SourceIncludesResolver {
 
     private class DirectoryContents {
         private final File searchDir;
-        private final Map<String, CachedIncludeFile> contents = new HashMap<String, CachedIncludeFile>();
+        private final Map<String, CachedIncludeFile> contents = new ConcurrentHashMap<String, CachedIncludeFile>();
 
         DirectoryContents(File searchDir) {
             this.searchDir = searchDir;
@@ -17,6 +17,7 @@
 package org.gradle.language.nativeplatform.internal.incremental;
 
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.snapshot.FileSystemSnapshotter;
 import org.gradle.language.nativeplatform.internal.Include;
@@ -36,6 +37,8 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class IncrementalCompileFilesFactory {
 
@@ -60,28 +63,29 @@ public class IncrementalCompileFilesFactory {
         return new DefaultIncrementalCompileSourceProcessor(previousCompileState);
     }
 
+    /**
+     * Processes source files, possibly concurrently. The details of each visited file, and the include graph of a file that does not depend on macros,
+     * are shared between all source files.
+     */
     private class DefaultIncrementalCompileSourceProcessor implements IncrementalCompileSourceProcessor {
         private final CompilationState previous;
         private final BuildableCompilationState current = new BuildableCompilationState();
-        private final List<File> toRecompile = new ArrayList<File>();
-        private final Set<File> existingHeaders = new HashSet<File>();
-        private final Map<File, FileDetails> visitedFiles = new HashMap<File, FileDetails>();
-        private boolean hasUnresolvedHeaders;
+        private final Set<File> existingHeaders = Sets.newConcurrentHashSet();
+        private final ConcurrentMap<File, FileDetails> visitedFiles = new ConcurrentHashMap<File, FileDetails>();
+        private volatile boolean hasUnresolvedHeaders;
 
         DefaultIncrementalCompileSourceProcessor(CompilationState previousCompileState) {
             this.previous = previousCompileState == null ? new CompilationState() : previousCompileState;
         }
 
         @Override
-        public IncrementalCompilation getResult() {
+        public IncrementalCompilation getResult(List<File> toRecompile) {
             return new DefaultIncrementalCompilation(current.snapshot(), toRecompile, getRemovedSources(), existingHeaders, hasUnresolvedHeaders);
         }
 
         @Override
-        public void processSource(File sourceFile) {
-            if (visitSourceFile(sourceFile)) {
-                toRecompile.add(sourceFile);
-            }
+        public boolean processSource(File sourceFile) {
+            return visitSourceFile(sourceFile);
         }
 
         /**
@@ -177,7 +181,10 @@ public class IncrementalCompileFilesFactory {
             if (fileDetails == null) {
                 IncludeDirectives includeDirectives = sourceIncludesParser.parseIncludes(file);
                 fileDetails = new FileDetails(includeDirectives);
-                visitedFiles.put(file, fileDetails);
+                FileDetails existing = visitedFiles.putIfAbsent(file, fileDetails);
+                if (existing != null) {
+                    fileDetails = existing;
+                }
             }
 
             CollectingMacroLookup includedFileDirectives = new CollectingMacroLookup();
@@ -242,7 +249,7 @@ public class IncrementalCompileFilesFactory {
         final IncludeDirectives directives;
         // Non-null when the result of visiting this file can be reused
         @Nullable
-        FileVisitResult results;
+        volatile FileVisitResult results;
 
         FileDetails(IncludeDirectives directives) {
             this.directives = directives;
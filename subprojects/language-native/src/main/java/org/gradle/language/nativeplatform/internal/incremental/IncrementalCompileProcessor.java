@@ -15,16 +15,25 @@
  */
 package org.gradle.language.nativeplatform.internal.incremental;
 
+import com.google.common.collect.ImmutableList;
+import org.gradle.api.Action;
 import org.gradle.cache.PersistentStateCache;
 import org.gradle.internal.operations.BuildOperationContext;
 import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.BuildOperationQueue;
 import org.gradle.internal.operations.CallableBuildOperation;
 import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.RunnableBuildOperation;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 public class IncrementalCompileProcessor {
+    // Processing a source file is cheap once the headers it shares with other source files have been processed, so process source files in batches
+    private static final int SOURCE_FILES_PER_OPERATION = 100;
+
     private final PersistentStateCache<CompilationState> previousCompileStateCache;
     private final IncrementalCompileFilesFactory incrementalCompileFilesFactory;
     private final BuildOperationExecutor buildOperationExecutor;
@@ -40,11 +49,28 @@ public class IncrementalCompileProcessor {
             @Override
             public IncrementalCompilation call(BuildOperationContext context) {
                 CompilationState previousCompileState = previousCompileStateCache.get();
-                IncrementalCompileSourceProcessor processor = incrementalCompileFilesFactory.files(previousCompileState);
-                for (File sourceFile : sourceFiles) {
-                    processor.processSource(sourceFile);
+                final IncrementalCompileSourceProcessor processor = incrementalCompileFilesFactory.files(previousCompileState);
+                final List<File> files = ImmutableList.copyOf(sourceFiles);
+                final boolean[] recompile = new boolean[files.size()];
+                if (files.size() <= SOURCE_FILES_PER_OPERATION) {
+                    new ProcessSourceFiles(processor, files, 0, files.size(), recompile).run(context);
+                } else {
+                    buildOperationExecutor.runAll(new Action<BuildOperationQueue<ProcessSourceFiles>>() {
+                        @Override
+                        public void execute(BuildOperationQueue<ProcessSourceFiles> queue) {
+                            for (int start = 0; start < files.size(); start += SOURCE_FILES_PER_OPERATION) {
+                                queue.add(new ProcessSourceFiles(processor, files, start, Math.min(start + SOURCE_FILES_PER_OPERATION, files.size()), recompile));
+                            }
+                        }
+                    });
+                }
+                List<File> toRecompile = new ArrayList<File>();
+                for (int i = 0; i < recompile.length; i++) {
+                    if (recompile[i]) {
+                        toRecompile.add(files.get(i));
+                    }
                 }
-                return processor.getResult();
+                return processor.getResult(toRecompile);
             }
 
             @Override
@@ -69,4 +95,31 @@ public class IncrementalCompileProcessor {
         });
     }
 
+    private static class ProcessSourceFiles implements RunnableBuildOperation {
+        private final IncrementalCompileSourceProcessor processor;
+        private final List<File> files;
+        private final int start;
+        private final int end;
+        private final boolean[] recompile;
+
+        ProcessSourceFiles(IncrementalCompileSourceProcessor processor, List<File> files, int start, int end, boolean[] recompile) {
+            this.processor = processor;
+            this.files = files;
+            this.start = start;
+            this.end = end;
+            this.recompile = recompile;
+        }
+
+        @Override
+        public void run(BuildOperationContext context) {
+            for (int i = start; i < end; i++) {
+                recompile[i] = processor.processSource(files.get(i));
+            }
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            return BuildOperationDescriptor.displayName("Process source files " + (start + 1) + " to " + end);
+        }
+    }
 }
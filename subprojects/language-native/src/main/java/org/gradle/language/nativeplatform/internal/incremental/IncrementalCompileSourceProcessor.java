@@ -17,9 +17,18 @@
 package org.gradle.language.nativeplatform.internal.incremental;
 
 import java.io.File;
+import java.util.List;
 
 public interface IncrementalCompileSourceProcessor {
-    void processSource(File sourceFile);
+    /**
+     * Processes the given source file. Can be called concurrently for different source files.
+     *
+     * @return true if the source file needs to be recompiled.
+     */
+    boolean processSource(File sourceFile);
 
-    IncrementalCompilation getResult();
+    /**
+     * Returns the result, given the source files to recompile in the order they were presented.
+     */
+    IncrementalCompilation getResult(List<File> toRecompile);
 }
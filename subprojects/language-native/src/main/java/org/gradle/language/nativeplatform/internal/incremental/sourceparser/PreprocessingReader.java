@@ -21,9 +21,14 @@ import java.io.Reader;
 /**
  * Replaces c-style comments with a single space, and removes line-continuation characters.
  * This code is largely adopted from org.apache.tools.ant.filters.StripJavaComments.
+ *
+ * <p>Reads the underlying reader in chunks, so it does not need to be buffered.</p>
  */
 public class PreprocessingReader {
     private final Reader reader;
+    private final char[] chars = new char[8192];
+    private int pos;
+    private int count;
     /**
      * The read-ahead characters, used for reading ahead up to 2 characters and pushing back into stream.
      * A value of -1 indicates that no character is in the buffer.
@@ -71,6 +76,42 @@ public class PreprocessingReader {
         return read;
     }
 
+    /**
+     * Collects the next line from the filtered stream that contains a preprocessor directive into the given buffer, starting with the '#' character.
+     * Does not include the line separators. Lines that do not start with a '#' character, possibly preceded by whitespace, are skipped without being collected.
+     *
+     * @return true if a directive line is available, false when end of stream reached.
+     */
+    public boolean readNextDirectiveLine(Appendable buffer) throws IOException {
+        int ch;
+        boolean atLineStart = true;
+        boolean directive = false;
+        while ((ch = read()) >= 0) {
+            if (ch == '\n' || ch == '\r') {
+                if (ch == '\r') {
+                    int next = next();
+                    if (next != '\n') {
+                        pushBack(next);
+                    }
+                }
+                if (directive) {
+                    return true;
+                }
+                atLineStart = true;
+            } else if (directive) {
+                buffer.append((char) ch);
+            } else if (atLineStart) {
+                if (ch == '#') {
+                    buffer.append('#');
+                    directive = true;
+                } else if (!Character.isWhitespace(ch) && ch != 0) {
+                    atLineStart = false;
+                }
+            }
+        }
+        return directive;
+    }
+
     /**
      * Returns the next character in the filtered stream:
      * <ul>
@@ -153,7 +194,15 @@ public class PreprocessingReader {
             return ch;
         }
 
-        return reader.read();
+        if (pos == count) {
+            count = reader.read(chars);
+            pos = 0;
+            if (count <= 0) {
+                count = 0;
+                return -1;
+            }
+        }
+        return chars[pos++];
     }
 
     private void pushBack(int ch) {
@@ -17,14 +17,24 @@ package org.gradle.language.nativeplatform.internal.incremental
 
 
 import org.gradle.cache.PersistentStateCache
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import org.gradle.internal.concurrent.ParallelismConfigurationManagerFixture
 import org.gradle.internal.hash.HashCode
+import org.gradle.internal.operations.BuildOperationExecutor
+import org.gradle.internal.operations.BuildOperationListener
+import org.gradle.internal.operations.DefaultBuildOperationExecutor
+import org.gradle.internal.operations.DefaultBuildOperationIdFactory
+import org.gradle.internal.operations.DefaultBuildOperationQueueFactory
 import org.gradle.internal.operations.TestBuildOperationExecutor
+import org.gradle.internal.progress.NoOpProgressLoggerFactory
 import org.gradle.internal.snapshot.impl.TestFileSnapshotter
+import org.gradle.internal.time.Clock
 import org.gradle.language.nativeplatform.internal.Include
 import org.gradle.language.nativeplatform.internal.IncludeDirectives
 import org.gradle.language.nativeplatform.internal.incremental.sourceparser.TestIncludeParser
 import org.gradle.test.fixtures.file.TestFile
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.test.fixtures.work.TestWorkerLeaseService
 import org.gradle.util.UsesNativeServices
 import org.junit.Rule
 import spock.lang.Specification
@@ -49,6 +59,7 @@ class IncrementalCompileProcessorTest extends Specification {
     def dep3 = sourceFile("dep3")
     def dep4 = sourceFile("dep4")
     def sourceFiles
+    DefaultBuildOperationExecutor parallelExecutor
 
     Map<TestFile, List<File>> graph = [:]
     List<TestFile> modifiedFiles = []
@@ -68,6 +79,10 @@ class IncrementalCompileProcessorTest extends Specification {
         graph[dep4] = []
     }
 
+    def cleanup() {
+        parallelExecutor?.stop()
+    }
+
     def initialFiles() {
         graph.keySet().each { TestFile sourceFile ->
             parse(sourceFile)
@@ -375,6 +390,48 @@ class IncrementalCompileProcessorTest extends Specification {
         result.unresolvedHeaders
     }
 
+    def "processes many source files in batches and keeps their order"() {
+        given:
+        initialFiles()
+        def added = (1..250).collect { sourceFile("many${it}") }
+        added.each { sourceAdded(it, [dep3]) }
+
+        expect:
+        checkCompile recompiled: added, removed: []
+        checkCompile recompiled: [], removed: []
+    }
+
+    def "processes many source files sharing headers in parallel"() {
+        given:
+        incrementalCompileProcessor = new IncrementalCompileProcessor(stateCache, new IncrementalCompileFilesFactory(IncludeDirectives.EMPTY, includesParser, dependencyResolver, fileSystemSnapshotter), parallelBuildOperationExecutor())
+        initialFiles()
+        def added = (1..1000).collect { sourceFile("many${it}") }
+        added.eachWithIndex { file, i -> sourceAdded(file, i % 2 == 0 ? [dep1, dep2] : [dep3, dep4]) }
+
+        expect:
+        checkCompile recompiled: added, removed: []
+        checkCompile recompiled: [], removed: []
+
+        when:
+        modified(dep3)
+
+        then:
+        checkCompile recompiled: [source1, source2] + added, removed: []
+
+        when:
+        modified(dep2)
+
+        then:
+        checkCompile recompiled: [source1] + added.findAll { added.indexOf(it) % 2 == 0 }, removed: []
+    }
+
+    private BuildOperationExecutor parallelBuildOperationExecutor() {
+        parallelExecutor = new DefaultBuildOperationExecutor(
+            Stub(BuildOperationListener), Stub(Clock), new NoOpProgressLoggerFactory(),
+            new DefaultBuildOperationQueueFactory(new TestWorkerLeaseService()), new DefaultExecutorFactory(), new ParallelismConfigurationManagerFixture(true, 4), new DefaultBuildOperationIdFactory())
+        return parallelExecutor
+    }
+
     def checkCompile(Map<String, List<File>> args) {
         parseAndResolve()
         with(state) {
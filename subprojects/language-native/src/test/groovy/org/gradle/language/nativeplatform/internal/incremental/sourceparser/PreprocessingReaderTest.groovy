@@ -152,4 +152,40 @@ line comments.
         "inline comment" | "/* inline comment at the start */of the line" | " of the line"
         "line continuation" | "${BN} at the start of the content" | " at the start of the content"
     }
+
+    def "reads only lines that contain a directive"() {
+        when:
+        def reader = new PreprocessingReader(new StringReader("""
+int a; // #not a directive
+  #include "a.h"
+/* #not a directive
+#not a directive */ #define A \\
+  "b.h"
+const char* s = "#not a directive";
+\t#
+""".replace('\n', eol)))
+        def lines = []
+        def line = new StringBuilder()
+        while (reader.readNextDirectiveLine(line)) {
+            lines << line.toString()
+            line.setLength(0)
+        }
+
+        then:
+        lines == ['#include "a.h"', '#define A   "b.h"', '#']
+
+        where:
+        eol << ['\n', '\r\n']
+    }
+
+    def "reads directive from content larger than the read buffer"() {
+        when:
+        def reader = new PreprocessingReader(new StringReader(("int a;\n" * 5000) + "#include <a.h>"))
+        def line = new StringBuilder()
+
+        then:
+        reader.readNextDirectiveLine(line)
+        line.toString() == "#include <a.h>"
+        !reader.readNextDirectiveLine(line)
+    }
 }
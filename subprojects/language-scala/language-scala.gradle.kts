@@ -12,6 +12,8 @@ dependencies {
 
     // keep in sync with ScalaLanguagePlugin code
     compileOnly("com.typesafe.zinc:zinc:0.3.15")
+
+    testImplementation("com.typesafe.zinc:zinc:0.3.15")
 }
 
 gradlebuildJava {
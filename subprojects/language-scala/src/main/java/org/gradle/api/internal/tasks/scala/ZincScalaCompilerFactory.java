@@ -16,7 +16,12 @@
 
 package org.gradle.api.internal.tasks.scala;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.typesafe.zinc.Compiler;
 import com.typesafe.zinc.SbtJars;
 import com.typesafe.zinc.ScalaLocation;
@@ -29,6 +34,7 @@ import org.gradle.cache.PersistentCache;
 import org.gradle.cache.internal.CacheRepositoryServices;
 import org.gradle.internal.Factory;
 import org.gradle.internal.SystemProperties;
+import org.gradle.internal.UncheckedException;
 import org.gradle.internal.jvm.Jvm;
 import org.gradle.internal.service.DefaultServiceRegistry;
 import org.gradle.internal.service.ServiceRegistry;
@@ -41,14 +47,73 @@ import xsbti.compile.JavaCompiler;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 import static org.gradle.cache.internal.filelock.LockOptionsBuilder.mode;
 
 public class ZincScalaCompilerFactory {
     private static final Logger LOGGER = Logging.getLogger(ZincScalaCompilerFactory.class);
+    // Same as the default size of the compiler cache of Zinc
+    private static final int MAX_RESIDENT_COMPILERS = 5;
+    private static final Cache<List<Object>, ResidentCompiler> RESIDENT_COMPILERS = CacheBuilder.newBuilder().maximumSize(MAX_RESIDENT_COMPILERS).build();
 
-    static Compiler createParallelSafeCompiler(ServiceRegistry serviceRegistry, final Iterable<File> scalaClasspath, final Iterable<File> zincClasspath, final xsbti.Logger logger, File gradleUserHome) {
-        File zincCacheHomeDir = new File(System.getProperty(ZincScalaCompilerUtil.ZINC_CACHE_HOME_DIR_SYSTEM_PROPERTY, gradleUserHome.getAbsolutePath()));
+    /**
+     * Returns a compiler for the given Scala and Zinc class paths. A compiler that has been created by this process before is reused without
+     * locking the Zinc cache again, so that only the first compilation with a Scala version in a compiler daemon pays for setting up the compiler.
+     */
+    static Compiler getOrCreateParallelSafeCompiler(final ServiceRegistry serviceRegistry, final Iterable<File> scalaClasspath, final Iterable<File> zincClasspath, final xsbti.Logger logger, final File gradleUserHome) {
+        return getOrCreateResidentCompiler(getZincCacheHomeDir(gradleUserHome), scalaClasspath, zincClasspath, new Factory<Compiler>() {
+            @Override
+            public Compiler create() {
+                return createParallelSafeCompiler(serviceRegistry, scalaClasspath, zincClasspath, logger, gradleUserHome);
+            }
+        });
+    }
+
+    /**
+     * Returns the resident compiler for the given class paths, or creates one using the given factory. A resident compiler is discarded when
+     * the length or the last modified time of a file on its class paths has changed since it was created.
+     */
+    @VisibleForTesting
+    static Compiler getOrCreateResidentCompiler(File zincCacheHomeDir, Iterable<File> scalaClasspath, Iterable<File> zincClasspath, final Factory<Compiler> factory) {
+        List<Object> key = ImmutableList.<Object>of(zincCacheHomeDir, ImmutableList.copyOf(scalaClasspath), ImmutableList.copyOf(zincClasspath));
+        final List<Object> fileStamps = ImmutableList.<Object>of(fileStamps(scalaClasspath), fileStamps(zincClasspath));
+        ResidentCompiler residentCompiler = RESIDENT_COMPILERS.getIfPresent(key);
+        if (residentCompiler != null) {
+            if (residentCompiler.fileStamps.equals(fileStamps)) {
+                LOGGER.info("Reusing resident Zinc Scala compiler.");
+                return residentCompiler.compiler;
+            }
+            LOGGER.info("Discarding resident Zinc Scala compiler as its class path has changed.");
+            RESIDENT_COMPILERS.invalidate(key);
+        }
+        try {
+            return RESIDENT_COMPILERS.get(key, new Callable<ResidentCompiler>() {
+                @Override
+                public ResidentCompiler call() {
+                    return new ResidentCompiler(factory.create(), fileStamps);
+                }
+            }).compiler;
+        } catch (ExecutionException e) {
+            throw UncheckedException.throwAsUncheckedException(e.getCause());
+        } catch (UncheckedExecutionException e) {
+            throw UncheckedException.throwAsUncheckedException(e.getCause());
+        }
+    }
+
+    private static List<Object> fileStamps(Iterable<File> classpath) {
+        ImmutableList.Builder<Object> builder = ImmutableList.builder();
+        for (File file : classpath) {
+            builder.add(file.length());
+            builder.add(file.lastModified());
+        }
+        return builder.build();
+    }
+
+    private static Compiler createParallelSafeCompiler(ServiceRegistry serviceRegistry, final Iterable<File> scalaClasspath, final Iterable<File> zincClasspath, final xsbti.Logger logger, File gradleUserHome) {
+        File zincCacheHomeDir = getZincCacheHomeDir(gradleUserHome);
         CacheRepository cacheRepository = ZincCompilerServices.getInstance(serviceRegistry, zincCacheHomeDir).get(CacheRepository.class);
 
         String zincVersion = Setup.zincVersion().published();
@@ -154,6 +219,10 @@ public class ZincScalaCompilerFactory {
         }
     }
 
+    private static File getZincCacheHomeDir(File gradleUserHome) {
+        return new File(System.getProperty(ZincScalaCompilerUtil.ZINC_CACHE_HOME_DIR_SYSTEM_PROPERTY, gradleUserHome.getAbsolutePath()));
+    }
+
     private static Setup createZincSetup(Iterable<File> scalaClasspath, Iterable<File> zincClasspath, xsbti.Logger logger) {
         ScalaLocation scalaLocation = ScalaLocation.fromPath(Lists.newArrayList(scalaClasspath));
         SbtJars sbtJars = SbtJars.fromPath(Lists.newArrayList(zincClasspath));
@@ -164,6 +233,16 @@ public class ZincScalaCompilerFactory {
         return setup;
     }
 
+    private static class ResidentCompiler {
+        private final Compiler compiler;
+        private final List<Object> fileStamps;
+
+        ResidentCompiler(Compiler compiler, List<Object> fileStamps) {
+            this.compiler = compiler;
+            this.fileStamps = fileStamps;
+        }
+    }
+
     private static class ZincCompilerServices extends DefaultServiceRegistry {
         private static ZincCompilerServices instance;
 
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.scala
+
+import com.typesafe.zinc.Compiler
+import org.gradle.internal.Factory
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class ZincScalaCompilerFactoryTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+
+    def factory = Mock(Factory)
+    def cacheDir = tmpDir.file("zinc-cache")
+    def scalaJar = tmpDir.file("scala-library.jar").createFile()
+    def zincJar = tmpDir.file("zinc.jar").createFile()
+
+    def "reuses compiler for the same class paths"() {
+        def compiler = Stub(Compiler)
+
+        when:
+        def first = ZincScalaCompilerFactory.getOrCreateResidentCompiler(cacheDir, [scalaJar], [zincJar], factory)
+
+        then:
+        first == compiler
+        1 * factory.create() >> compiler
+
+        when:
+        def second = ZincScalaCompilerFactory.getOrCreateResidentCompiler(cacheDir, [scalaJar], [zincJar], factory)
+
+        then:
+        second == compiler
+        0 * factory._
+    }
+
+    def "discards compiler when a jar on its class path changes"() {
+        def compiler = Stub(Compiler)
+        def newCompiler = Stub(Compiler)
+
+        when:
+        ZincScalaCompilerFactory.getOrCreateResidentCompiler(cacheDir, [scalaJar], [zincJar], factory)
+
+        then:
+        1 * factory.create() >> compiler
+
+        when:
+        scalaJar.text = "changed"
+        def second = ZincScalaCompilerFactory.getOrCreateResidentCompiler(cacheDir, [scalaJar], [zincJar], factory)
+
+        then:
+        second == newCompiler
+        1 * factory.create() >> newCompiler
+
+        when:
+        def third = ZincScalaCompilerFactory.getOrCreateResidentCompiler(cacheDir, [scalaJar], [zincJar], factory)
+
+        then:
+        third == newCompiler
+        0 * factory._
+    }
+
+    def "creates separate compilers for different class paths"() {
+        def otherScalaJar = tmpDir.file("other-scala-library.jar").createFile()
+        def compiler = Stub(Compiler)
+        def otherCompiler = Stub(Compiler)
+
+        when:
+        def first = ZincScalaCompilerFactory.getOrCreateResidentCompiler(cacheDir, [scalaJar], [zincJar], factory)
+        def second = ZincScalaCompilerFactory.getOrCreateResidentCompiler(cacheDir, [otherScalaJar], [zincJar], factory)
+
+        then:
+        first == compiler
+        second == otherCompiler
+        2 * factory.create() >>> [compiler, otherCompiler]
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.serialize;
+
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.hash.Hashing;
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures writing and reading back the kinds of values that are stored in the caches, such as file hashes keyed by path.
+ */
+@Fork(2)
+@Warmup(iterations = 10)
+@State(Scope.Benchmark)
+public class SerializersBenchmark {
+    private static final int ENTRIES = 1000;
+
+    private final HashCodeSerializer hashSerializer = new HashCodeSerializer();
+    private final ListSerializer<String> listSerializer = new ListSerializer<String>(BaseSerializerFactory.STRING_SERIALIZER);
+    private final MapSerializer<String, HashCode> mapSerializer = new MapSerializer<String, HashCode>(BaseSerializerFactory.STRING_SERIALIZER, hashSerializer);
+
+    private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(64 * 1024);
+
+    private HashCode hash;
+    private List<String> paths;
+    private Map<String, HashCode> hashesByPath;
+
+    @Setup
+    public void setupValues() {
+        hash = Hashing.hashString("some content");
+        paths = new ArrayList<String>(ENTRIES);
+        hashesByPath = new LinkedHashMap<String, HashCode>();
+        for (int i = 0; i < ENTRIES; i++) {
+            String path = "/home/user/project/src/main/java/org/gradle/sample/Sample" + i + ".java";
+            paths.add(path);
+            hashesByPath.put(path, Hashing.hashString(path));
+        }
+    }
+
+    @Benchmark
+    public HashCode hashCodeRoundTrip() throws Exception {
+        return roundTrip(hashSerializer, hash);
+    }
+
+    @Benchmark
+    public List<String> listRoundTrip() throws Exception {
+        return roundTrip(listSerializer, paths);
+    }
+
+    @Benchmark
+    public Map<String, HashCode> mapRoundTrip() throws Exception {
+        return roundTrip(mapSerializer, hashesByPath);
+    }
+
+    private <T> T roundTrip(Serializer<T> serializer, T value) throws Exception {
+        outputStream.reset();
+        KryoBackedEncoder encoder = new KryoBackedEncoder(outputStream);
+        serializer.write(encoder, value);
+        encoder.flush();
+        KryoBackedDecoder decoder = new KryoBackedDecoder(new ByteArrayInputStream(outputStream.toByteArray()));
+        return serializer.read(decoder);
+    }
+}
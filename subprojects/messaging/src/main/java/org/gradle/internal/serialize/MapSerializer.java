@@ -16,8 +16,8 @@
 package org.gradle.internal.serialize;
 
 import com.google.common.base.Objects;
+import com.google.common.collect.Maps;
 
-import java.util.LinkedHashMap;
 import java.util.Map;
 
 public class MapSerializer<U, V> extends AbstractSerializer<Map<U, V>> {
@@ -32,7 +32,7 @@ public class MapSerializer<U, V> extends AbstractSerializer<Map<U, V>> {
     @Override
     public Map<U, V> read(Decoder decoder) throws Exception {
         int size = decoder.readInt();
-        Map<U, V> valueMap = new LinkedHashMap<U, V>(size);
+        Map<U, V> valueMap = Maps.newLinkedHashMapWithExpectedSize(size);
         for (int i = 0; i < size; i++) {
             U key = keySerializer.read(decoder);
             V value = valueSerializer.read(decoder);
@@ -26,13 +26,27 @@ import java.io.OutputStream;
 
 public class KryoBackedEncoder extends AbstractEncoder implements FlushableEncoder, Closeable {
     private final Output output;
+    private final boolean bulkAsciiStrings;
 
     public KryoBackedEncoder(OutputStream outputStream) {
         this(outputStream, 4096);
     }
 
     public KryoBackedEncoder(OutputStream outputStream, int bufferSize) {
-        output = new Output(outputStream, bufferSize);
+        this(outputStream, bufferSize, true);
+    }
+
+    private KryoBackedEncoder(OutputStream outputStream, int bufferSize, boolean bulkAsciiStrings) {
+        this.output = new Output(outputStream, bufferSize);
+        this.bulkAsciiStrings = bulkAsciiStrings;
+    }
+
+    /**
+     * Creates an encoder whose output is hashed into keys that are persisted. This encoder writes every string one character at a time, as earlier Gradle
+     * versions did, so that these keys do not change.
+     */
+    public static KryoBackedEncoder forHashing(OutputStream outputStream) {
+        return new KryoBackedEncoder(outputStream, 4096, false);
     }
 
     @Override
@@ -75,12 +89,17 @@ public class KryoBackedEncoder extends AbstractEncoder implements FlushableEncod
         if (value == null) {
             throw new IllegalArgumentException("Cannot encode a null string.");
         }
-        output.writeString(value);
+        writeNullableString(value);
     }
 
     @Override
     public void writeNullableString(@Nullable CharSequence value) {
-        output.writeString(value);
+        if (bulkAsciiStrings && value instanceof String) {
+            // Kryo writes short ASCII strings in bulk and reads them back without decoding each character
+            output.writeString((String) value);
+        } else {
+            output.writeString(value);
+        }
     }
 
     /**
@@ -452,6 +452,10 @@ abstract class AbstractCodecTest extends Specification {
         new StringBuilder("some string") | _
         CharBuffer.wrap("a string")      | _
         (0..1000).join("-")              | _
+        "a"                              | _
+        "a" * 63                         | _
+        "a" * 64                         | _
+        "ascii then \u3100"              | _
     }
 
     def "decode fails when string cannot be fully read"() {
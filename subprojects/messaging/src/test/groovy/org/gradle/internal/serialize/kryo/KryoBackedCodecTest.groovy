@@ -34,6 +34,30 @@ class KryoBackedCodecTest extends AbstractCodecTest {
         closure.call(decoder)
     }
 
+    def "hashing encoder writes short ASCII strings one character at a time"() {
+        def outstr = new ByteArrayOutputStream()
+        def encoder = KryoBackedEncoder.forHashing(outstr)
+
+        when:
+        encoder.writeString("journal-1")
+        encoder.flush()
+
+        then:
+        outstr.toByteArray() == [0x8a, 0x6a, 0x6f, 0x75, 0x72, 0x6e, 0x61, 0x6c, 0x2d, 0x31] as byte[]
+    }
+
+    def "writes short ASCII strings in bulk"() {
+        def outstr = new ByteArrayOutputStream()
+        def encoder = new KryoBackedEncoder(outstr)
+
+        when:
+        encoder.writeString("journal-1")
+        encoder.flush()
+
+        then:
+        outstr.toByteArray() == [0x6a, 0x6f, 0x75, 0x72, 0x6e, 0x61, 0x6c, 0x2d, 0xb1] as byte[]
+    }
+
     def "can query write and read positions"() {
         def outstr = new ByteArrayOutputStream()
         def encoder = new KryoBackedEncoder(outstr)
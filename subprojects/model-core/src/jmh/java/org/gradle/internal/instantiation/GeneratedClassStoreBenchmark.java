@@ -0,0 +1,163 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.instantiation;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteStreams;
+import org.gradle.api.Action;
+import org.gradle.internal.classloader.ClassLoaderHierarchyHasher;
+import org.gradle.internal.hash.HashCode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.annotation.Nullable;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Compares generating the decorated class of a type that has not been seen by the process, as a new daemon does, with defining it from the {@link GeneratedClassStore}.
+ *
+ * <p>Each invocation uses a new class loader for the type, so that the classes generated in memory by earlier invocations are not reused.</p>
+ */
+@Fork(2)
+@State(Scope.Benchmark)
+@Warmup(iterations = 10, time = 1, timeUnit = SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = SECONDS)
+public class GeneratedClassStoreBenchmark {
+    private static final ClassLoaderHierarchyHasher CLASS_LOADER_HASHER = new ClassLoaderHierarchyHasher() {
+        @Override
+        public HashCode getClassLoaderHash(ClassLoader classLoader) {
+            return HashCode.fromInt(1);
+        }
+    };
+
+    private final InMemoryStore store = new InMemoryStore();
+    private final ClassGenerator withoutStore = AsmBackedClassGenerator.decorateAndInject(ImmutableList.of(), ImmutableList.of());
+    private final ClassGenerator withStore = AsmBackedClassGenerator.decorateAndInject(ImmutableList.of(), ImmutableList.of(), store, CLASS_LOADER_HASHER);
+    private byte[] typeBytes;
+    private Class<?> type;
+
+    @Setup
+    public void setup() throws Exception {
+        InputStream classFile = Bean.class.getClassLoader().getResourceAsStream(Bean.class.getName().replace('.', '/') + ".class");
+        try {
+            typeBytes = ByteStreams.toByteArray(classFile);
+        } finally {
+            classFile.close();
+        }
+        // Populate the store
+        withStore.generate(new IsolatingClassLoader(typeBytes).loadClass(Bean.class.getName()));
+    }
+
+    @Setup(Level.Invocation)
+    public void loadType() throws Exception {
+        type = new IsolatingClassLoader(typeBytes).loadClass(Bean.class.getName());
+    }
+
+    @Benchmark
+    public Class<?> generate() {
+        return withoutStore.generate(type).getGeneratedClass();
+    }
+
+    @Benchmark
+    public Class<?> defineFromStore() {
+        return withStore.generate(type).getGeneratedClass();
+    }
+
+    public static class Bean {
+        private String name;
+        private int count;
+        private List<String> values;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public List<String> getValues() {
+            return values;
+        }
+
+        public void setValues(List<String> values) {
+            this.values = values;
+        }
+
+        public void values(Action<? super List<String>> action) {
+            action.execute(values);
+        }
+    }
+
+    private static class InMemoryStore implements GeneratedClassStore {
+        private final Map<HashCode, byte[]> entries = new ConcurrentHashMap<HashCode, byte[]>();
+
+        @Nullable
+        @Override
+        public byte[] load(HashCode key) {
+            return entries.get(key);
+        }
+
+        @Override
+        public void store(HashCode key, byte[] entry) {
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Defines its own copy of the benchmark type, as the class loader of a new process would.
+     */
+    private static class IsolatingClassLoader extends ClassLoader {
+        private final byte[] typeBytes;
+
+        IsolatingClassLoader(byte[] typeBytes) {
+            super(GeneratedClassStoreBenchmark.class.getClassLoader());
+            this.typeBytes = typeBytes;
+        }
+
+        @Override
+        protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(Bean.class.getName())) {
+                return super.loadClass(name, resolve);
+            }
+            Class<?> type = findLoadedClass(name);
+            if (type == null) {
+                type = defineClass(name, typeBytes, 0, typeBytes.length);
+            }
+            return type;
+        }
+    }
+}
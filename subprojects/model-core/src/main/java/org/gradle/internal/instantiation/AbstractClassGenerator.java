@@ -21,6 +21,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.SetMultimap;
 import com.google.common.reflect.TypeParameter;
@@ -43,7 +44,11 @@ import org.gradle.api.provider.Provider;
 import org.gradle.api.provider.SetProperty;
 import org.gradle.api.reflect.InjectionPointQualifier;
 import org.gradle.internal.Cast;
+import org.gradle.internal.classloader.ClassLoaderHierarchyHasher;
 import org.gradle.internal.extensibility.NoConventionMapping;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.hash.Hasher;
+import org.gradle.internal.hash.Hashing;
 import org.gradle.internal.logging.text.TreeFormatter;
 import org.gradle.internal.reflect.ClassDetails;
 import org.gradle.internal.reflect.ClassInspector;
@@ -57,6 +62,11 @@ import org.gradle.internal.service.ServiceRegistry;
 
 import javax.annotation.Nullable;
 import javax.inject.Inject;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
@@ -97,8 +107,13 @@ abstract class AbstractClassGenerator implements ClassGenerator {
     private final ImmutableSet<Class<? extends Annotation>> disabledAnnotations;
     private final ImmutableSet<Class<? extends Annotation>> enabledAnnotations;
     private final ImmutableMultimap<Class<? extends Annotation>, TypeToken<?>> allowedTypesForAnnotation;
+    private final GeneratedClassStore generatedClassStore;
+    @Nullable
+    private final ClassLoaderHierarchyHasher classLoaderHierarchyHasher;
 
-    public AbstractClassGenerator(Collection<? extends InjectAnnotationHandler> allKnownAnnotations, Collection<Class<? extends Annotation>> enabledAnnotations) {
+    public AbstractClassGenerator(Collection<? extends InjectAnnotationHandler> allKnownAnnotations, Collection<Class<? extends Annotation>> enabledAnnotations, GeneratedClassStore generatedClassStore, @Nullable ClassLoaderHierarchyHasher classLoaderHierarchyHasher) {
+        this.generatedClassStore = generatedClassStore;
+        this.classLoaderHierarchyHasher = classLoaderHierarchyHasher;
         this.enabledAnnotations = ImmutableSet.copyOf(enabledAnnotations);
         ImmutableSet.Builder<Class<? extends Annotation>> builder = ImmutableSet.builder();
         ImmutableListMultimap.Builder<Class<? extends Annotation>, TypeToken<?>> allowedTypesBuilder = ImmutableListMultimap.builder();
@@ -130,26 +145,64 @@ abstract class AbstractClassGenerator implements ClassGenerator {
     public <T> GeneratedClass<? extends T> generate(Class<T> type) {
         CACHE_LOCK.lock();
         try {
-            return Cast.uncheckedCast(generateUnderLock(type));
+            GeneratedClass<?> generatedClass = findGenerated(type);
+            if (generatedClass != null) {
+                return Cast.uncheckedCast(generatedClass);
+            }
+        } finally {
+            CACHE_LOCK.unlock();
+        }
+
+        // Calculate the key and read the store without holding the lock, as reading the store may wait for other processes
+        HashCode storeKey = storeKey(type);
+        byte[] storedEntry = storeKey == null ? null : generatedClassStore.load(storeKey);
+
+        Generation generation;
+        CACHE_LOCK.lock();
+        try {
+            generation = generateUnderLock(type, storeKey != null, storedEntry);
         } finally {
             CACHE_LOCK.unlock();
         }
+
+        if (generation.newStoreEntry != null) {
+            generatedClassStore.store(storeKey, generation.newStoreEntry);
+        }
+        return Cast.uncheckedCast(generation.generatedClass);
     }
 
-    private GeneratedClass<?> generateUnderLock(Class<?> type) {
+    private Map<Class<?>, CachedClass> getCache() {
         Map<Class<?>, CachedClass> cache = GENERATED_CLASSES.get(key());
         if (cache == null) {
             // Use weak keys to allow the type to be garbage collected. The entries maintain only weak and soft references to the type and the generated class
             cache = new WeakHashMap<Class<?>, CachedClass>();
             GENERATED_CLASSES.put(key(), cache);
         }
-        CachedClass generatedClass = cache.get(type);
-        if (generatedClass != null) {
-            GeneratedClass<?> wrapper = generatedClass.asWrapper();
-            if (wrapper != null) {
-                return wrapper;
+        return cache;
+    }
+
+    @Nullable
+    private GeneratedClass<?> findGenerated(Class<?> type) {
+        CachedClass generatedClass = getCache().get(type);
+        // Null when the generated class has been collected, so a new one needs to be generated
+        return generatedClass == null ? null : generatedClass.asWrapper();
+    }
+
+    private Generation generateUnderLock(Class<?> type, boolean storable, @Nullable byte[] storedEntry) {
+        // Another thread may have generated the class while the store was read
+        GeneratedClass<?> generated = findGenerated(type);
+        if (generated != null) {
+            return new Generation(generated, null);
+        }
+
+        Map<Class<?>, CachedClass> cache = getCache();
+        if (storedEntry != null) {
+            CachedClass storedClass = loadFromStore(type, storedEntry);
+            if (storedClass != null) {
+                cache.put(type, storedClass);
+                cache.put(storedClass.generatedClass.get(), storedClass);
+                return new Generation(storedClass.asWrapper(), null);
             }
-            // Else, the generated class has been collected, so generate a new one
         }
 
         List<CustomInjectAnnotationPropertyHandler> customAnnotationPropertyHandlers = new ArrayList<CustomInjectAnnotationPropertyHandler>(enabledAnnotations.size());
@@ -182,6 +235,7 @@ abstract class AbstractClassGenerator implements ClassGenerator {
         validators.add(new InjectionAnnotationValidator(enabledAnnotations, allowedTypesForAnnotation));
 
         final Class<?> subclass;
+        final byte[] bytecode;
         try {
             ClassInspectionVisitor inspectionVisitor = start(type);
 
@@ -205,6 +259,7 @@ abstract class AbstractClassGenerator implements ClassGenerator {
             }
 
             subclass = generationVisitor.generate();
+            bytecode = generationVisitor.getBytecode();
         } catch (ClassGenerationException e) {
             throw e;
         } catch (Throwable e) {
@@ -224,7 +279,115 @@ abstract class AbstractClassGenerator implements ClassGenerator {
         CachedClass cachedClass = new CachedClass(type, subclass, injectionHandler.getInjectedServices(), annotationsTriggeringServiceInjection.build());
         cache.put(type, cachedClass);
         cache.put(subclass, cachedClass);
-        return cachedClass.asWrapper();
+        byte[] newStoreEntry = storable ? toStoreEntry(type, cachedClass, bytecode) : null;
+        return new Generation(cachedClass.asWrapper(), newStoreEntry);
+    }
+
+    /**
+     * Calculates the key of the generated class in the store, or returns null when the generated class cannot be stored because the class loader of the type or
+     * of an annotation handled by this generator cannot be hashed, for example because it was not created from a known class path.
+     *
+     * <p>Every type that is inspected during generation, such as the supertypes, property types, injected service types and annotations of the type, is loaded
+     * through the class loader of the type. So the hash of the class path of that class loader hierarchy, which is calculated once when the class loader is created,
+     * covers all of them and the class files do not need to be read.</p>
+     */
+    @Nullable
+    private HashCode storeKey(Class<?> type) {
+        if (generatedClassStore == GeneratedClassStore.NONE || classLoaderHierarchyHasher == null) {
+            return null;
+        }
+        Hasher hasher = Hashing.newHasher();
+        hasher.putString(getClass().getName());
+        hasher.putString(key().toString());
+        hasher.putString(System.getProperty("java.version"));
+        for (Class<? extends Annotation> annotation : Iterables.concat(enabledAnnotations, disabledAnnotations)) {
+            if (!hashType(annotation, hasher, classLoaderHierarchyHasher)) {
+                return null;
+            }
+        }
+        if (!hashType(type, hasher, classLoaderHierarchyHasher)) {
+            return null;
+        }
+        return hasher.hash();
+    }
+
+    private static boolean hashType(Class<?> type, Hasher hasher, ClassLoaderHierarchyHasher classLoaderHierarchyHasher) {
+        hasher.putString(type.getName());
+        ClassLoader classLoader = type.getClassLoader();
+        // JVM classes have no class loader, and are covered by the Java version instead
+        if (classLoader != null) {
+            HashCode classLoaderHash = classLoaderHierarchyHasher.getClassLoaderHash(classLoader);
+            if (classLoaderHash == null) {
+                return false;
+            }
+            hasher.putHash(classLoaderHash);
+        }
+        return true;
+    }
+
+    @Nullable
+    private CachedClass loadFromStore(Class<?> type, byte[] entry) {
+        try {
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(entry));
+            String generatedClassName = input.readUTF();
+            ClassLoader classLoader = type.getClassLoader();
+            int serviceCount = input.readInt();
+            List<Class<?>> injectedServices = new ArrayList<Class<?>>(serviceCount);
+            for (int i = 0; i < serviceCount; i++) {
+                injectedServices.add(Class.forName(input.readUTF(), false, classLoader));
+            }
+            int annotationCount = input.readInt();
+            ImmutableList.Builder<Class<? extends Annotation>> annotationsTriggeringServiceInjection = ImmutableList.builder();
+            for (int i = 0; i < annotationCount; i++) {
+                Class<? extends Annotation> annotation = findEnabledAnnotation(input.readUTF());
+                if (annotation == null) {
+                    return null;
+                }
+                annotationsTriggeringServiceInjection.add(annotation);
+            }
+            byte[] bytecode = new byte[input.readInt()];
+            input.readFully(bytecode);
+            Class<?> subclass = bytecode.length == 0 ? type : defineGeneratedClass(type, generatedClassName, bytecode);
+            return new CachedClass(type, subclass, injectedServices, annotationsTriggeringServiceInjection.build());
+        } catch (Exception e) {
+            // Generate the class again instead
+            return null;
+        }
+    }
+
+    @Nullable
+    private Class<? extends Annotation> findEnabledAnnotation(String name) {
+        for (Class<? extends Annotation> annotation : enabledAnnotations) {
+            if (annotation.getName().equals(name)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    private byte[] toStoreEntry(Class<?> type, CachedClass cachedClass, @Nullable byte[] bytecode) {
+        try {
+            ByteArrayOutputStream entry = new ByteArrayOutputStream();
+            DataOutputStream output = new DataOutputStream(entry);
+            output.writeUTF(bytecode == null ? type.getName() : cachedClass.generatedClass.get().getName());
+            output.writeInt(cachedClass.injectedServices.size());
+            for (Class<?> injectedService : cachedClass.injectedServices) {
+                output.writeUTF(injectedService.getName());
+            }
+            output.writeInt(cachedClass.annotationsTriggeringServiceInjection.size());
+            for (Class<? extends Annotation> annotation : cachedClass.annotationsTriggeringServiceInjection) {
+                output.writeUTF(annotation.getName());
+            }
+            // An empty class means that the type itself is used
+            byte[] classBytes = bytecode == null ? new byte[0] : bytecode;
+            output.writeInt(classBytes.length);
+            output.write(classBytes);
+            output.flush();
+            return entry.toByteArray();
+        } catch (IOException e) {
+            // Cannot happen when writing to memory
+            throw new IllegalStateException(e);
+        }
     }
 
     /**
@@ -234,6 +397,11 @@ abstract class AbstractClassGenerator implements ClassGenerator {
 
     protected abstract ClassInspectionVisitor start(Class<?> type);
 
+    /**
+     * Defines a class previously generated by this generator for the given type.
+     */
+    protected abstract Class<?> defineGeneratedClass(Class<?> type, String className, byte[] bytecode);
+
     protected abstract <T> T newInstance(Constructor<T> constructor, ServiceLookup services, Instantiator nested, Object[] params) throws InvocationTargetException, IllegalAccessException, InstantiationException;
 
     private void inspectType(Class<?> type, List<ClassValidator> validators, List<ClassGenerationHandler> generationHandlers, UnclaimedPropertyHandler unclaimedHandler) {
@@ -438,6 +606,18 @@ abstract class AbstractClassGenerator implements ClassGenerator {
         }
     }
 
+    private static class Generation {
+        private final GeneratedClass<?> generatedClass;
+        // The entry to add to the store, or null when the class was not generated or cannot be stored
+        @Nullable
+        private final byte[] newStoreEntry;
+
+        Generation(GeneratedClass<?> generatedClass, @Nullable byte[] newStoreEntry) {
+            this.generatedClass = generatedClass;
+            this.newStoreEntry = newStoreEntry;
+        }
+    }
+
     private class CachedClass {
         // Keep a weak reference to the generated class, to allow it to be collected
         private final WeakReference<Class<?>> generatedClass;
@@ -1277,5 +1457,11 @@ abstract class AbstractClassGenerator implements ClassGenerator {
         void addPropertySetters(PropertyMetadata property, Method getter);
 
         Class<?> generate() throws Exception;
+
+        /**
+         * Returns the bytecode of the class returned by {@link #generate()}, or null when no class was generated and the type itself is used.
+         */
+        @Nullable
+        byte[] getBytecode();
     }
 }
@@ -43,6 +43,8 @@ import org.gradle.api.provider.MapProperty;
 import org.gradle.api.provider.Property;
 import org.gradle.api.provider.SetProperty;
 import org.gradle.internal.UncheckedException;
+import org.gradle.internal.classloader.ClassLoaderHierarchyHasher;
+import org.gradle.internal.classloader.ClassLoaderUtils;
 import org.gradle.internal.extensibility.ConventionAwareHelper;
 import org.gradle.internal.logging.text.TreeFormatter;
 import org.gradle.internal.metaobject.AbstractDynamicObject;
@@ -63,6 +65,7 @@ import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 
+import javax.annotation.Nullable;
 import java.lang.annotation.Annotation;
 import java.lang.annotation.Inherited;
 import java.lang.annotation.Retention;
@@ -114,8 +117,8 @@ public class AsmBackedClassGenerator extends AbstractClassGenerator {
         return SERVICES_FOR_NEXT_OBJECT.get().services;
     }
 
-    private AsmBackedClassGenerator(boolean decorate, String suffix, Collection<? extends InjectAnnotationHandler> allKnownAnnotations, Collection<Class<? extends Annotation>> enabledAnnotations) {
-        super(allKnownAnnotations, enabledAnnotations);
+    private AsmBackedClassGenerator(boolean decorate, String suffix, Collection<? extends InjectAnnotationHandler> allKnownAnnotations, Collection<Class<? extends Annotation>> enabledAnnotations, GeneratedClassStore generatedClassStore, @Nullable ClassLoaderHierarchyHasher classLoaderHierarchyHasher) {
+        super(allKnownAnnotations, enabledAnnotations, generatedClassStore, classLoaderHierarchyHasher);
         this.decorate = decorate;
         this.suffix = suffix;
         // TODO - this isn't correct, fix this. It's just enough to get the tests to pass
@@ -126,16 +129,32 @@ public class AsmBackedClassGenerator extends AbstractClassGenerator {
      * Returns a generator that applies DSL mix-in, extensibility and service injection for generated classes.
      */
     static ClassGenerator decorateAndInject(Collection<? extends InjectAnnotationHandler> allKnownAnnotations, Collection<Class<? extends Annotation>> enabledAnnotations) {
+        return new AsmBackedClassGenerator(true, "_Decorated", allKnownAnnotations, enabledAnnotations, GeneratedClassStore.NONE, null);
+    }
+
+    /**
+     * Returns a generator that applies DSL mix-in, extensibility and service injection for generated classes, reusing the classes in the given store.
+     * Classes are stored for types whose class loader can be hashed by the given hasher.
+     */
+    static ClassGenerator decorateAndInject(Collection<? extends InjectAnnotationHandler> allKnownAnnotations, Collection<Class<? extends Annotation>> enabledAnnotations, GeneratedClassStore generatedClassStore, @Nullable ClassLoaderHierarchyHasher classLoaderHierarchyHasher) {
         // TODO wolfs: We use `_Decorated` here, since IDEA import currently relies on this
         // See https://github.com/gradle/gradle/issues/8244
-        return new AsmBackedClassGenerator(true, "_Decorated", allKnownAnnotations, enabledAnnotations);
+        return new AsmBackedClassGenerator(true, "_Decorated", allKnownAnnotations, enabledAnnotations, generatedClassStore, classLoaderHierarchyHasher);
     }
 
     /**
      * Returns a generator that applies service injection only for generated classes, and will generate classes only if required.
      */
     static ClassGenerator injectOnly(Collection<? extends InjectAnnotationHandler> allKnownAnnotations, Collection<Class<? extends Annotation>> enabledAnnotations) {
-        return new AsmBackedClassGenerator(false, "$Inject", allKnownAnnotations, enabledAnnotations);
+        return new AsmBackedClassGenerator(false, "$Inject", allKnownAnnotations, enabledAnnotations, GeneratedClassStore.NONE, null);
+    }
+
+    /**
+     * Returns a generator that applies service injection only for generated classes, and will generate classes only if required, reusing the classes in the given store.
+     * Classes are stored for types whose class loader can be hashed by the given hasher.
+     */
+    static ClassGenerator injectOnly(Collection<? extends InjectAnnotationHandler> allKnownAnnotations, Collection<Class<? extends Annotation>> enabledAnnotations, GeneratedClassStore generatedClassStore, @Nullable ClassLoaderHierarchyHasher classLoaderHierarchyHasher) {
+        return new AsmBackedClassGenerator(false, "$Inject", allKnownAnnotations, enabledAnnotations, generatedClassStore, classLoaderHierarchyHasher);
     }
 
     @Override
@@ -167,6 +186,11 @@ public class AsmBackedClassGenerator extends AbstractClassGenerator {
         return new ClassInspectionVisitorImpl(type, decorate, suffix);
     }
 
+    @Override
+    protected Class<?> defineGeneratedClass(Class<?> type, String className, byte[] bytecode) {
+        return ClassLoaderUtils.defineDecorator(type, type.getClassLoader(), className, bytecode);
+    }
+
     private static class ClassInspectionVisitorImpl implements ClassInspectionVisitor {
         private final Class<?> type;
         private final boolean decorate;
@@ -344,6 +368,7 @@ public class AsmBackedClassGenerator extends AbstractClassGenerator {
         private final Map<java.lang.reflect.Type, ReturnTypeEntry> genericReturnTypeConstantsIndex = Maps.newHashMap();
         private final AsmClassGenerator classGenerator;
         private boolean hasMappingField;
+        private byte[] bytecode;
         private final boolean conventionAware;
         private final boolean mixInDsl;
         private final boolean extensible;
@@ -1469,7 +1494,13 @@ public class AsmBackedClassGenerator extends AbstractClassGenerator {
             writeGenericReturnTypeFields();
             visitor.visitEnd();
 
-            return classGenerator.define();
+            bytecode = visitor.toByteArray();
+            return ClassLoaderUtils.defineDecorator(type, type.getClassLoader(), classGenerator.getGeneratedTypeName(), bytecode);
+        }
+
+        @Override
+        public byte[] getBytecode() {
+            return bytecode;
         }
 
         private void writeGenericReturnTypeFields() {
@@ -1635,5 +1666,11 @@ public class AsmBackedClassGenerator extends AbstractClassGenerator {
         public Class<?> generate() {
             return type;
         }
+
+        @Nullable
+        @Override
+        public byte[] getBytecode() {
+            return null;
+        }
     }
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.instantiation;
+
+import org.gradle.internal.hash.HashCode;
+
+import javax.annotation.Nullable;
+
+/**
+ * Persists the classes generated for a type, so that a new process can define them without inspecting the type and generating them again.
+ *
+ * <p>Entries are keyed by a hash of the class loader hierarchy of the type and of the generator configuration. The store is expected to be specific to the Gradle version.</p>
+ */
+public interface GeneratedClassStore {
+    GeneratedClassStore NONE = new GeneratedClassStore() {
+        @Nullable
+        @Override
+        public byte[] load(HashCode key) {
+            return null;
+        }
+
+        @Override
+        public void store(HashCode key, byte[] entry) {
+        }
+    };
+
+    @Nullable
+    byte[] load(HashCode key);
+
+    void store(HashCode key, byte[] entry);
+}
@@ -24,6 +24,7 @@ import groovy.lang.MetaMethod;
 import groovy.lang.MetaProperty;
 import groovy.lang.MissingMethodException;
 import groovy.lang.MissingPropertyException;
+import org.codehaus.groovy.runtime.GroovyCategorySupport;
 import org.codehaus.groovy.runtime.InvokerInvocationException;
 import org.codehaus.groovy.runtime.MetaClassHelper;
 import org.codehaus.groovy.runtime.metaclass.MultipleSetterProperty;
@@ -44,6 +45,9 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * A {@link DynamicObject} which uses groovy reflection to provide access to the properties and methods of a bean.
@@ -327,17 +331,17 @@ public class BeanDynamicObject extends AbstractDynamicObject {
         /*
          * MetaClass.getMetaProperty(name) is very expensive when the property is not known.
          * Instead, we reach into the meta class to call a much more efficient lookup method.
-         * Since we do this in a hot code path, we also reuse the argument array used for the
-         * reflective call to save memory.
+         * Since we do this in a hot code path, we also cache the result for the meta class,
+         * including when the property is not known.
          */
         @Nullable
         protected MetaProperty lookupProperty(MetaClass metaClass, String name) {
             if (metaClass instanceof MetaClassImpl) {
-                try {
-                    return (MetaProperty) META_PROP_METHOD.invoke(metaClass, name, false);
-                } catch (Throwable e) {
-                    throw UncheckedException.throwAsUncheckedException(e);
+                MetaClassMembers members = MetaClassMembers.of(metaClass);
+                if (members != null) {
+                    return members.getProperty(name);
                 }
+                return findMetaProperty(metaClass, name);
             }
 
             // Some other meta-class implementation - fall back to the public API
@@ -508,6 +512,13 @@ public class BeanDynamicObject extends AbstractDynamicObject {
 
         @Nullable
         protected MetaMethod lookupMethod(MetaClass metaClass, String name, Class[] arguments) {
+            // The methods of a category that is in use are visible only to the current thread, so cannot be cached
+            if (!GroovyCategorySupport.hasCategoryInCurrentThread()) {
+                MetaClassMembers members = MetaClassMembers.of(metaClass);
+                if (members != null) {
+                    return members.getMethod(name, arguments);
+                }
+            }
             return metaClass.pickMethod(name, arguments);
         }
 
@@ -653,4 +664,101 @@ public class BeanDynamicObject extends AbstractDynamicObject {
             return null;
         }
     }
+
+    @Nullable
+    private static MetaProperty findMetaProperty(MetaClass metaClass, String name) {
+        try {
+            return (MetaProperty) META_PROP_METHOD.invoke(metaClass, name, false);
+        } catch (Throwable e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+
+    /**
+     * The properties and methods that have been looked up on a meta-class, including those that were not found, shared by all beans of the same type.
+     *
+     * <p>Only used for {@link MetaClassImpl} itself, as its properties and methods cannot change once it has been initialized. When the meta-class of a type
+     * is replaced, for example with an {@link groovy.lang.ExpandoMetaClass}, the members looked up on the previous meta-class are discarded.</p>
+     */
+    private static class MetaClassMembers {
+        private static final Object MISSING = new Object();
+        private static final ClassValue<AtomicReference<MetaClassMembers>> MEMBERS_BY_TYPE = new ClassValue<AtomicReference<MetaClassMembers>>() {
+            @Override
+            protected AtomicReference<MetaClassMembers> computeValue(Class<?> type) {
+                return new AtomicReference<MetaClassMembers>();
+            }
+        };
+
+        private final MetaClass metaClass;
+        private final ConcurrentMap<String, Object> properties = new ConcurrentHashMap<String, Object>();
+        private final ConcurrentMap<MethodKey, Object> methods = new ConcurrentHashMap<MethodKey, Object>();
+
+        private MetaClassMembers(MetaClass metaClass) {
+            this.metaClass = metaClass;
+        }
+
+        @Nullable
+        static MetaClassMembers of(MetaClass metaClass) {
+            if (metaClass.getClass() != MetaClassImpl.class) {
+                return null;
+            }
+            AtomicReference<MetaClassMembers> reference = MEMBERS_BY_TYPE.get(metaClass.getTheClass());
+            MetaClassMembers members = reference.get();
+            if (members == null || members.metaClass != metaClass) {
+                members = new MetaClassMembers(metaClass);
+                reference.set(members);
+            }
+            return members;
+        }
+
+        @Nullable
+        MetaProperty getProperty(String name) {
+            Object property = properties.get(name);
+            if (property == null) {
+                property = findMetaProperty(metaClass, name);
+                properties.put(name, property == null ? MISSING : property);
+            }
+            return property == MISSING ? null : (MetaProperty) property;
+        }
+
+        @Nullable
+        MetaMethod getMethod(String name, Class[] arguments) {
+            MethodKey key = new MethodKey(name, arguments);
+            Object method = methods.get(key);
+            if (method == null) {
+                method = metaClass.pickMethod(name, arguments);
+                methods.put(key, method == null ? MISSING : method);
+            }
+            return method == MISSING ? null : (MetaMethod) method;
+        }
+    }
+
+    private static class MethodKey {
+        private final String name;
+        private final Class[] arguments;
+        private final int hashCode;
+
+        MethodKey(String name, Class[] arguments) {
+            this.name = name;
+            this.arguments = arguments;
+            this.hashCode = 31 * name.hashCode() + Arrays.hashCode(arguments);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj == null || obj.getClass() != getClass()) {
+                return false;
+            }
+            MethodKey other = (MethodKey) obj;
+            return name.equals(other.name) && Arrays.equals(arguments, other.arguments);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
 }
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.instantiation
+
+import org.gradle.internal.classloader.ClassLoaderHierarchyHasher
+import org.gradle.internal.hash.HashCode
+import org.gradle.test.fixtures.concurrent.ConcurrentSpec
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
+
+class GeneratedClassStoreTest extends ConcurrentSpec {
+    def store = new TestStore()
+    def classLoaderHasher = new TestClassLoaderHasher()
+    def generator = AsmBackedClassGenerator.decorateAndInject([], [], store, classLoaderHasher)
+
+    def "stores generated class"() {
+        def type = new IsolatingClassLoader().loadClass(TestJavaObject.name)
+
+        when:
+        def generated = generator.generate(type).generatedClass
+
+        then:
+        generated.name == TestJavaObject.name + "_Decorated"
+        store.entries.size() == 1
+        store.stores == 1
+    }
+
+    def "reuses stored class in another class loader"() {
+        generator.generate(new IsolatingClassLoader().loadClass(TestJavaObject.name))
+        def loader = new IsolatingClassLoader()
+        def type = loader.loadClass(TestJavaObject.name)
+
+        when:
+        def generated = generator.generate(type).generatedClass
+
+        then:
+        generated.classLoader.is(loader)
+        generated.superclass.is(type)
+        generated.newInstance().someValue == "value"
+        store.stores == 1
+    }
+
+    def "does not reuse stored class when the class path of the type has changed"() {
+        generator.generate(new IsolatingClassLoader("1").loadClass(TestJavaObject.name))
+
+        when:
+        generator.generate(new IsolatingClassLoader("2").loadClass(TestJavaObject.name))
+
+        then:
+        store.stores == 2
+    }
+
+    def "does not store classes of types whose class loader cannot be hashed"() {
+        def type = new IsolatingClassLoader(null).loadClass(TestJavaObject.name)
+
+        when:
+        generator.generate(type)
+
+        then:
+        store.stores == 0
+    }
+
+    def "does not read class files to calculate the key"() {
+        def loader = new IsolatingClassLoader()
+        def type = loader.loadClass(TestJavaObject.name)
+        loader.resourceRequests = 0
+
+        when:
+        generator.generate(type)
+
+        then:
+        store.stores == 1
+        loader.resourceRequests == 0
+    }
+
+    def "reads the store without blocking the generation of other types"() {
+        def first = new IsolatingClassLoader().loadClass(TestJavaObject.name)
+        def second = new IsolatingClassLoader().loadClass(TestJavaObject.name)
+        def loads = new AtomicInteger()
+        def blockingStore = new TestStore() {
+            @Override
+            byte[] load(HashCode key) {
+                if (loads.getAndIncrement() == 0) {
+                    instant.firstLoading
+                    thread.blockUntil.secondGenerated
+                }
+                return super.load(key)
+            }
+        }
+        def generator = AsmBackedClassGenerator.decorateAndInject([], [], blockingStore, classLoaderHasher)
+
+        when:
+        async {
+            start {
+                generator.generate(first)
+            }
+            start {
+                thread.blockUntil.firstLoading
+                generator.generate(second)
+                instant.secondGenerated
+            }
+        }
+
+        then:
+        // The first thread reuses the class stored by the second thread
+        blockingStore.stores == 1
+    }
+
+    def "uses the class generated by another thread while the store was read"() {
+        def type = new IsolatingClassLoader().loadClass(TestJavaObject.name)
+        def loads = new AtomicInteger()
+        def blockingStore = new TestStore() {
+            @Override
+            byte[] load(HashCode key) {
+                if (loads.getAndIncrement() == 0) {
+                    instant.firstLoading
+                    thread.blockUntil.secondGenerated
+                }
+                return super.load(key)
+            }
+        }
+        def generator = AsmBackedClassGenerator.decorateAndInject([], [], blockingStore, classLoaderHasher)
+        def generated = new ConcurrentHashMap()
+
+        when:
+        async {
+            start {
+                generated.first = generator.generate(type).generatedClass
+            }
+            start {
+                thread.blockUntil.firstLoading
+                generated.second = generator.generate(type).generatedClass
+                instant.secondGenerated
+            }
+        }
+
+        then:
+        generated.first.is(generated.second)
+        blockingStore.stores == 1
+    }
+
+    static class TestStore implements GeneratedClassStore {
+        Map<HashCode, byte[]> entries = [:]
+        int stores
+
+        @Override
+        synchronized byte[] load(HashCode key) {
+            return entries[key]
+        }
+
+        @Override
+        synchronized void store(HashCode key, byte[] entry) {
+            stores++
+            entries[key] = entry
+        }
+    }
+
+    /**
+     * Hashes the class path of the isolating class loaders, as the hasher of the class loaders created for a class path would.
+     */
+    static class TestClassLoaderHasher implements ClassLoaderHierarchyHasher {
+        @Override
+        HashCode getClassLoaderHash(ClassLoader classLoader) {
+            if (classLoader instanceof IsolatingClassLoader) {
+                def classPath = ((IsolatingClassLoader) classLoader).classPath
+                return classPath == null ? null : HashCode.fromInt(classPath.hashCode())
+            }
+            // The class loader of the test classes
+            return HashCode.fromInt(0)
+        }
+    }
+
+    /**
+     * Defines its own copy of the test type, as a new process would.
+     */
+    static class IsolatingClassLoader extends ClassLoader {
+        final String classPath
+        int resourceRequests
+
+        IsolatingClassLoader(String classPath = "1") {
+            super(GeneratedClassStoreTest.classLoader)
+            this.classPath = classPath
+        }
+
+        @Override
+        protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (name != TestJavaObject.name) {
+                return super.loadClass(name, resolve)
+            }
+            def type = findLoadedClass(name)
+            if (type == null) {
+                def bytes = parent.getResourceAsStream(name.replace('.', '/') + ".class").bytes
+                type = defineClass(name, bytes, 0, bytes.length)
+            }
+            return type
+        }
+
+        @Override
+        URL getResource(String name) {
+            resourceRequests++
+            return super.getResource(name)
+        }
+    }
+}
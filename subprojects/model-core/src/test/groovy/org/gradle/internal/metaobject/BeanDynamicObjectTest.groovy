@@ -526,6 +526,40 @@ class BeanDynamicObjectTest extends Specification {
         !dynamicObject.hasMethod("methodWithValue", [Integer] as Object[])
     }
 
+    def "can look up the same methods and properties of groovy object again"() {
+        def dynamicObject = new BeanDynamicObject(new Bean())
+        def other = new BeanDynamicObject(new Bean())
+
+        expect:
+        dynamicObject.hasMethod("m", [12] as Object[])
+        other.hasMethod("m", [12] as Object[])
+        !dynamicObject.hasMethod("other", [12] as Object[])
+        !other.hasMethod("other", [12] as Object[])
+        other.invokeMethod("m", [12] as Object[]) == "[13]"
+        dynamicObject.hasProperty("prop")
+        other.hasProperty("prop")
+        !dynamicObject.hasProperty("unknown")
+        !other.hasProperty("unknown")
+    }
+
+    def "can invoke method added to meta-class of type after methods have been looked up"() {
+        def dynamicObject = new BeanDynamicObject(new BeanWithReplacedMetaClass())
+
+        expect:
+        !dynamicObject.hasMethod("added", [] as Object[])
+
+        when:
+        BeanWithReplacedMetaClass.metaClass.added = { -> "added" }
+        def other = new BeanDynamicObject(new BeanWithReplacedMetaClass())
+
+        then:
+        other.hasMethod("added", [] as Object[])
+        other.invokeMethod("added", [] as Object[]) == "added"
+
+        cleanup:
+        GroovySystem.metaClassRegistry.removeMetaClass(BeanWithReplacedMetaClass)
+    }
+
     def "coerces parameters of method of groovy object"() {
         def bean = new EnumBean()
         def dynamicObject = new BeanDynamicObject(bean, EnumBean, true, false, new SomeEnumConverter(), new SomeEnumConverter())
@@ -797,6 +831,9 @@ class BeanDynamicObjectTest extends Specification {
         }
     }
 
+    static class BeanWithReplacedMetaClass {
+    }
+
     static class EnumBean {
         SomeEnum prop
 
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.performance.regression.corefeature
+
+import org.gradle.performance.AbstractCrossVersionPerformanceTest
+
+class ArtifactTransformsPerformanceTest extends AbstractCrossVersionPerformanceTest {
+
+    private final static TEST_PROJECT_NAME = 'excludeRuleMergingBuild'
+
+    def setup() {
+        runner.minimumVersion = '5.3'
+        runner.targetVersions = ["5.5-20190515115345+0000"]
+    }
+
+    def "transform large external classpath with up-to-date results"() {
+        runner.testProject = TEST_PROJECT_NAME
+        def initScript = temporaryFolder.file("init/minify-transforms.gradle")
+        initScript.text = """
+            def artifactType = Attribute.of('artifactType', String)
+            def minified = Attribute.of('minified', Boolean)
+
+            allprojects {
+                dependencies {
+                    attributesSchema {
+                        attribute(minified)
+                    }
+                    artifactTypes.maybeCreate('jar').attributes.attribute(minified, false)
+                    registerTransform(Minify) {
+                        from.attribute(minified, false).attribute(artifactType, 'jar')
+                        to.attribute(minified, true).attribute(artifactType, 'jar')
+                    }
+                }
+            }
+
+            rootProject {
+                tasks.register('resolveTransformedDependencies') {
+                    doLast {
+                        def configurations = allprojects*.configurations.flatten().findAll { it.canBeResolved && !it.allDependencies.empty }
+                        configurations.each { configuration ->
+                            configuration.incoming.artifactView {
+                                attributes { it.attribute(minified, true) }
+                            }.files.files
+                        }
+                    }
+                }
+            }
+
+            abstract class Minify implements TransformAction<TransformParameters.None> {
+                @InputArtifact
+                abstract Provider<FileSystemLocation> getInputArtifact()
+
+                void transform(TransformOutputs outputs) {
+                    def input = inputArtifact.get().asFile
+                    def output = outputs.file("min-\${input.name}")
+                    new java.util.zip.ZipOutputStream(output.newOutputStream()).withCloseable { out ->
+                        new java.util.zip.ZipFile(input).withCloseable { zip ->
+                            zip.entries().findAll { it.name.endsWith('.class') }.each { entry ->
+                                out.putNextEntry(new java.util.zip.ZipEntry(entry.name))
+                                out << zip.getInputStream(entry)
+                                out.closeEntry()
+                            }
+                        }
+                    }
+                }
+            }
+        """
+
+        given:
+        runner.tasksToRun = ['resolveTransformedDependencies']
+        runner.gradleOpts = ["-Xms800m", "-Xmx800m"]
+        runner.args = ['-PnoExcludes', '--init-script', initScript.absolutePath]
+
+        when:
+        def result = runner.run()
+
+        then:
+        result.assertCurrentVersionHasNotRegressed()
+    }
+}
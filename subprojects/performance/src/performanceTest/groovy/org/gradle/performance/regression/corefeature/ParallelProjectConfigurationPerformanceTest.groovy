@@ -0,0 +1,39 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.performance.regression.corefeature
+
+import org.gradle.performance.AbstractCrossVersionPerformanceTest
+
+import static org.gradle.performance.generator.JavaTestProject.LARGE_JAVA_MULTI_PROJECT
+
+class ParallelProjectConfigurationPerformanceTest extends AbstractCrossVersionPerformanceTest {
+
+    def "configure large multi-project build in parallel"() {
+        given:
+        runner.testProject = LARGE_JAVA_MULTI_PROJECT.projectName
+        runner.tasksToRun = ['help']
+        runner.args = ['-Dorg.gradle.configuration.parallel=true']
+        runner.gradleOpts = ["-Xms${LARGE_JAVA_MULTI_PROJECT.daemonMemory}", "-Xmx${LARGE_JAVA_MULTI_PROJECT.daemonMemory}"]
+        runner.targetVersions = ["5.5-20190515115345+0000"]
+
+        when:
+        def result = runner.run()
+
+        then:
+        result.assertCurrentVersionHasNotRegressed()
+    }
+}
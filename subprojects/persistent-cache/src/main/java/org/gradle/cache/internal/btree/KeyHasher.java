@@ -29,7 +29,7 @@ import java.security.NoSuchAlgorithmException;
 class KeyHasher<K> {
     private final Serializer<K> serializer;
     private final MessageDigestStream digestStream = new MessageDigestStream();
-    private final KryoBackedEncoder encoder = new KryoBackedEncoder(digestStream);
+    private final KryoBackedEncoder encoder = KryoBackedEncoder.forHashing(digestStream);
 
     public KeyHasher(Serializer<K> serializer) {
         this.serializer = serializer;
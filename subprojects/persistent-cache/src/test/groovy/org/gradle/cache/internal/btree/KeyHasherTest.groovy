@@ -41,6 +41,13 @@ class KeyHasherTest extends Specification {
         hasher.getHashCode(12000L) == new KeyHasher(new InefficientSerializer()).getHashCode(12000L)
     }
 
+    def "hash of a string key does not change"() {
+        def hasher = new KeyHasher(BaseSerializerFactory.STRING_SERIALIZER)
+
+        expect:
+        hasher.getHashCode("journal-1") == 9202819622701123818L
+    }
+
     static class InefficientSerializer implements Serializer<Long> {
         @Override
         void write(Encoder encoder, Long value) throws Exception {
@@ -31,6 +31,7 @@ import org.gradle.nativeplatform.internal.SharedLibraryBinaryRenderer;
 import org.gradle.nativeplatform.internal.StaticLibraryBinaryRenderer;
 import org.gradle.nativeplatform.internal.resolve.NativeDependencyResolverServices;
 import org.gradle.nativeplatform.platform.internal.NativePlatforms;
+import org.gradle.nativeplatform.toolchain.internal.CompileMemoryLimit;
 import org.gradle.nativeplatform.toolchain.internal.gcc.metadata.SystemLibraryDiscovery;
 import org.gradle.nativeplatform.toolchain.internal.metadata.CompilerMetaDataProviderFactory;
 import org.gradle.nativeplatform.toolchain.internal.msvcpp.DefaultUcrtLocator;
@@ -72,6 +73,7 @@ public class NativeBinaryServices extends AbstractPluginServiceRegistry {
         registration.add(MacOSSdkPlatformPathLocator.class);
         registration.add(SwiftStdlibToolLocator.class);
         registration.add(SystemLibraryDiscovery.class);
+        registration.add(CompileMemoryLimit.class);
     }
 
     @Override
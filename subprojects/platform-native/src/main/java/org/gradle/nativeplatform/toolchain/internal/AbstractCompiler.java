@@ -49,16 +49,22 @@ public abstract class AbstractCompiler<T extends BinaryToolSpec> implements Comp
     @Override
     public WorkResult execute(final T spec) {
         List<String> commonArguments = getArguments(spec);
-        final Action<BuildOperationQueue<CommandLineToolInvocation>> invocationAction = newInvocationAction(spec, commonArguments);
+        runAll(commandLineToolInvocationWorker, newInvocationAction(spec, commonArguments));
 
+        return WorkResults.didWork(true);
+    }
+
+    protected void runAll(final CommandLineToolInvocationWorker worker, final Action<BuildOperationQueue<CommandLineToolInvocation>> invocationAction) {
         workerLeaseService.withoutProjectLock(new Runnable() {
             @Override
             public void run() {
-                buildOperationExecutor.runAll(commandLineToolInvocationWorker, invocationAction);
+                buildOperationExecutor.runAll(worker, invocationAction);
             }
         });
+    }
 
-        return WorkResults.didWork(true);
+    protected CommandLineToolInvocationWorker getCommandLineToolInvocationWorker() {
+        return commandLineToolInvocationWorker;
     }
 
     // TODO(daniel): Should support in a better way multi file invocation.
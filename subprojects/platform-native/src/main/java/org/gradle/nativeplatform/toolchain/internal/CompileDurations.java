@@ -0,0 +1,179 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.nativeplatform.toolchain.internal;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.time.Time;
+import org.gradle.internal.time.Timer;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The durations of the previous compilations of the source files of a compile task. They are used to start the source files that take longest
+ * to compile first, so that a large source file started last does not hold up the end of the compilation.
+ *
+ * <p>The durations are kept in the temporary directory of the compile task. A source file that has not been compiled before is assumed to take a
+ * time proportional to its size.</p>
+ */
+public class CompileDurations {
+    private static final String FILE_NAME = "compile-durations.txt";
+
+    @Nullable
+    private final File durationsFile;
+    private final Map<File, Long> previousDurations;
+    private final Map<File, Long> durations = new ConcurrentHashMap<File, Long>();
+    private final Map<CommandLineToolInvocation, File> sourceFiles = new ConcurrentHashMap<CommandLineToolInvocation, File>();
+
+    private CompileDurations(@Nullable File durationsFile, Map<File, Long> previousDurations) {
+        this.durationsFile = durationsFile;
+        this.previousDurations = previousDurations;
+    }
+
+    /**
+     * Loads the durations kept in the given temporary directory. Durations are not kept when there is no temporary directory.
+     */
+    public static CompileDurations load(@Nullable File tempDir) {
+        if (tempDir == null) {
+            return new CompileDurations(null, Collections.<File, Long>emptyMap());
+        }
+        File durationsFile = new File(tempDir, FILE_NAME);
+        return new CompileDurations(durationsFile, read(durationsFile));
+    }
+
+    /**
+     * Returns the given source files, ordered by their expected compile duration, longest first.
+     */
+    public List<File> longestFirst(Collection<File> sourceFiles) {
+        long knownDuration = 0;
+        long knownLength = 0;
+        final Map<File, Long> lengths = new HashMap<File, Long>(sourceFiles.size());
+        for (File sourceFile : sourceFiles) {
+            long length = sourceFile.length();
+            lengths.put(sourceFile, length);
+            Long duration = previousDurations.get(sourceFile);
+            if (duration != null) {
+                knownDuration += duration;
+                knownLength += length;
+            }
+        }
+        final double durationPerByte = knownLength > 0 ? (double) knownDuration / knownLength : 1;
+        List<File> ordered = new ArrayList<File>(sourceFiles);
+        Collections.sort(ordered, new Comparator<File>() {
+            @Override
+            public int compare(File left, File right) {
+                return Double.compare(expectedDuration(right), expectedDuration(left));
+            }
+
+            private double expectedDuration(File sourceFile) {
+                Long duration = previousDurations.get(sourceFile);
+                return duration != null ? duration : lengths.get(sourceFile) * durationPerByte;
+            }
+        });
+        return ordered;
+    }
+
+    /**
+     * Records that the given invocation compiles the given source file, so that its duration is recorded by {@link #recordingDurations(CommandLineToolInvocationWorker)}.
+     */
+    public void compiles(CommandLineToolInvocation invocation, File sourceFile) {
+        sourceFiles.put(invocation, sourceFile);
+    }
+
+    /**
+     * Returns a worker that records the duration of each successful invocation of the given worker that compiles a source file.
+     */
+    public CommandLineToolInvocationWorker recordingDurations(final CommandLineToolInvocationWorker worker) {
+        return new CommandLineToolInvocationWorker() {
+            @Override
+            public String getDisplayName() {
+                return worker.getDisplayName();
+            }
+
+            @Override
+            public void execute(CommandLineToolInvocation invocation, BuildOperationContext context) {
+                Timer timer = Time.startTimer();
+                worker.execute(invocation, context);
+                File sourceFile = sourceFiles.remove(invocation);
+                if (sourceFile != null) {
+                    durations.put(sourceFile, timer.getElapsedMillis());
+                }
+            }
+        };
+    }
+
+    /**
+     * Keeps the recorded durations for the next compilation, along with the previous durations of the source files that still exist.
+     */
+    public void store() {
+        if (durationsFile == null || durations.isEmpty()) {
+            return;
+        }
+        Map<File, Long> merged = new HashMap<File, Long>();
+        for (Map.Entry<File, Long> entry : previousDurations.entrySet()) {
+            if (entry.getKey().isFile()) {
+                merged.put(entry.getKey(), entry.getValue());
+            }
+        }
+        merged.putAll(durations);
+        StringBuilder content = new StringBuilder();
+        for (Map.Entry<File, Long> entry : merged.entrySet()) {
+            content.append(entry.getValue()).append(' ').append(entry.getKey().getAbsolutePath()).append('\n');
+        }
+        try {
+            Files.createParentDirs(durationsFile);
+            Files.write(content, durationsFile, Charsets.UTF_8);
+        } catch (IOException e) {
+            // The durations are only used to order the next compilation, so carry on without them
+            durationsFile.delete();
+        }
+    }
+
+    private static Map<File, Long> read(File durationsFile) {
+        if (!durationsFile.isFile()) {
+            return Collections.emptyMap();
+        }
+        Map<File, Long> durations = new HashMap<File, Long>();
+        try {
+            for (String line : Files.readLines(durationsFile, Charsets.UTF_8)) {
+                int separator = line.indexOf(' ');
+                if (separator > 0) {
+                    try {
+                        durations.put(new File(line.substring(separator + 1)), Long.parseLong(line.substring(0, separator)));
+                    } catch (NumberFormatException e) {
+                        // Ignore the line
+                    }
+                }
+            }
+        } catch (IOException e) {
+            return Collections.emptyMap();
+        }
+        return durations;
+    }
+}
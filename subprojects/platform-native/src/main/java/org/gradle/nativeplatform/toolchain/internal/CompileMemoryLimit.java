@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.nativeplatform.toolchain.internal;
+
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.process.internal.health.memory.OsMemoryInfo;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Limits the number of compiler processes that run at the same time by the free physical memory of the machine. Compiling a large translation unit
+ * can take a lot of memory, so running a compiler process for every worker lease can make the machine swap.
+ *
+ * <p>A compiler process is started only when the machine has at least {@value #MEMORY_PER_COMPILE_PROCESS} bytes of free physical memory, or when no
+ * other compiler process is running, so that compilation always makes progress. The free memory is checked again when a compiler process finishes,
+ * and periodically while waiting. The number of compiler processes is not limited when the free memory of the machine cannot be determined.</p>
+ *
+ * <p>The limit is shared by the native compile tasks of a build.</p>
+ */
+@ThreadSafe
+public class CompileMemoryLimit {
+    static final long MEMORY_PER_COMPILE_PROCESS = 512L * 1024 * 1024;
+    private static final long RECHECK_INTERVAL_MILLIS = 200;
+
+    private final OsMemoryInfo memoryInfo;
+    private final Object lock = new Object();
+    private int running;
+    private boolean freeMemoryUnknown;
+
+    public CompileMemoryLimit(OsMemoryInfo memoryInfo) {
+        this.memoryInfo = memoryInfo;
+    }
+
+    /**
+     * Returns a worker that waits for enough free memory before each invocation of the given worker.
+     */
+    public CommandLineToolInvocationWorker limiting(final CommandLineToolInvocationWorker worker) {
+        return new CommandLineToolInvocationWorker() {
+            @Override
+            public String getDisplayName() {
+                return worker.getDisplayName();
+            }
+
+            @Override
+            public void execute(CommandLineToolInvocation invocation, BuildOperationContext context) {
+                acquire();
+                try {
+                    worker.execute(invocation, context);
+                } finally {
+                    release();
+                }
+            }
+        };
+    }
+
+    private void acquire() {
+        synchronized (lock) {
+            while (running > 0 && !hasFreeMemory()) {
+                try {
+                    lock.wait(RECHECK_INTERVAL_MILLIS);
+                } catch (InterruptedException e) {
+                    throw UncheckedException.throwAsUncheckedException(e);
+                }
+            }
+            running++;
+        }
+    }
+
+    private void release() {
+        synchronized (lock) {
+            running--;
+            lock.notifyAll();
+        }
+    }
+
+    private boolean hasFreeMemory() {
+        if (freeMemoryUnknown) {
+            return true;
+        }
+        try {
+            return memoryInfo.getOsSnapshot().getFreePhysicalMemory() >= MEMORY_PER_COMPILE_PROCESS;
+        } catch (UnsupportedOperationException e) {
+            freeMemoryUnknown = true;
+            return true;
+        }
+    }
+}
@@ -18,6 +18,7 @@ package org.gradle.nativeplatform.toolchain.internal;
 
 import org.gradle.nativeplatform.internal.BinaryToolSpec;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.util.Collection;
 import java.util.List;
@@ -77,6 +78,14 @@ public interface NativeCompileSpec extends BinaryToolSpec {
 
     void setIncrementalCompile(boolean flag);
 
+    /**
+     * The limit on concurrent compiler processes by free memory, or {@code null} when only worker leases limit them.
+     */
+    @Nullable
+    CompileMemoryLimit getMemoryLimit();
+
+    void setMemoryLimit(@Nullable CompileMemoryLimit memoryLimit);
+
     File getPrefixHeaderFile();
 
     void setPrefixHeaderFile(File prefixHeaderFile);
@@ -50,21 +50,38 @@ public abstract class NativeCompiler<T extends NativeCompileSpec> extends Abstra
     public WorkResult execute(final T spec) {
         final T transformedSpec = specTransformer.transform(spec);
 
-        super.execute(spec);
+        // Start the source files that took longest to compile last time first, and record how long they take this time
+        CompileDurations durations = CompileDurations.load(spec.getTempDir());
+        List<String> commonArguments = getArguments(spec);
+        CommandLineToolInvocationWorker worker = durations.recordingDurations(getCommandLineToolInvocationWorker());
+        if (spec.getMemoryLimit() != null) {
+            // Wait for free memory outside of the recorded duration
+            worker = spec.getMemoryLimit().limiting(worker);
+        }
+        try {
+            runAll(worker, newInvocationAction(spec, commonArguments, durations));
+        } finally {
+            durations.store();
+        }
 
         return WorkResults.didWork(!transformedSpec.getSourceFiles().isEmpty());
     }
 
-    // TODO(daniel): Should support in a better way multi file invocation.
     @Override
     protected Action<BuildOperationQueue<CommandLineToolInvocation>> newInvocationAction(final T spec, final List<String> genericArgs) {
+        return newInvocationAction(spec, genericArgs, CompileDurations.load(null));
+    }
+
+    // TODO(daniel): Should support in a better way multi file invocation.
+    private Action<BuildOperationQueue<CommandLineToolInvocation>> newInvocationAction(final T spec, final List<String> genericArgs, final CompileDurations durations) {
         final File objectDir = spec.getObjectFileDir();
         return new Action<BuildOperationQueue<CommandLineToolInvocation>>() {
             @Override
             public void execute(BuildOperationQueue<CommandLineToolInvocation> buildQueue) {
                 buildQueue.setLogLocation(spec.getOperationLogger().getLogLocation());
-                for (File sourceFile : spec.getSourceFiles()) {
+                for (File sourceFile : durations.longestFirst(spec.getSourceFiles())) {
                     CommandLineToolInvocation perFileInvocation = createPerFileInvocation(genericArgs, sourceFile, objectDir, spec);
+                    durations.compiles(perFileInvocation, sourceFile);
                     buildQueue.add(perFileInvocation);
                 }
             }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.nativeplatform.toolchain.internal
+
+import org.gradle.internal.operations.BuildOperationContext
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class CompileDurationsTest extends Specification {
+    @Rule
+    final TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+
+    def small = tmpDir.file("small.c") << "int a;"
+    def large = tmpDir.file("large.c") << ("int a;\n" * 100)
+    def medium = tmpDir.file("medium.c") << ("int a;\n" * 10)
+
+    def "orders source files that have not been compiled before by size"() {
+        def durations = CompileDurations.load(tmpDir.file("tmp"))
+
+        expect:
+        durations.longestFirst([small, large, medium]) == [large, medium, small]
+    }
+
+    def "orders source files by the duration of their previous compilation"() {
+        def worker = Mock(CommandLineToolInvocationWorker)
+        def smallInvocation = Stub(CommandLineToolInvocation)
+        def largeInvocation = Stub(CommandLineToolInvocation)
+
+        given:
+        def durations = CompileDurations.load(tmpDir.file("tmp"))
+        durations.compiles(smallInvocation, small)
+        durations.compiles(largeInvocation, large)
+
+        when:
+        def recordingWorker = durations.recordingDurations(worker)
+        recordingWorker.execute(smallInvocation, Stub(BuildOperationContext))
+        recordingWorker.execute(largeInvocation, Stub(BuildOperationContext))
+        durations.store()
+
+        then:
+        1 * worker.execute(smallInvocation, _) >> { Thread.sleep(100) }
+        1 * worker.execute(largeInvocation, _)
+
+        and:
+        CompileDurations.load(tmpDir.file("tmp")).longestFirst([large, small]) == [small, large]
+    }
+
+    def "does not record the duration of a failed compilation"() {
+        def worker = Mock(CommandLineToolInvocationWorker)
+        def invocation = Stub(CommandLineToolInvocation)
+
+        given:
+        def durations = CompileDurations.load(tmpDir.file("tmp"))
+        durations.compiles(invocation, small)
+
+        when:
+        durations.recordingDurations(worker).execute(invocation, Stub(BuildOperationContext))
+
+        then:
+        1 * worker.execute(invocation, _) >> { throw new RuntimeException("broken") }
+        thrown(RuntimeException)
+
+        when:
+        durations.store()
+
+        then:
+        !tmpDir.file("tmp/compile-durations.txt").exists()
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.nativeplatform.toolchain.internal
+
+import org.gradle.internal.operations.BuildOperationContext
+import org.gradle.process.internal.health.memory.OsMemoryInfo
+import org.gradle.process.internal.health.memory.OsMemoryStatusSnapshot
+import org.gradle.test.fixtures.concurrent.ConcurrentSpec
+
+class CompileMemoryLimitTest extends ConcurrentSpec {
+    static final long GB = 1024 * 1024 * 1024
+
+    def memoryInfo = Stub(OsMemoryInfo)
+    def limit = new CompileMemoryLimit(memoryInfo)
+    def first = Stub(CommandLineToolInvocation)
+    def second = Stub(CommandLineToolInvocation)
+    def context = Stub(BuildOperationContext)
+
+    def "runs compiler processes concurrently when there is enough free memory"() {
+        memoryInfo.osSnapshot >> new OsMemoryStatusSnapshot(16 * GB, 8 * GB)
+
+        when:
+        runBothConcurrently()
+
+        then:
+        noExceptionThrown()
+    }
+
+    def "runs compiler processes concurrently when the free memory cannot be determined"() {
+        memoryInfo.osSnapshot >> { throw new UnsupportedOperationException() }
+
+        when:
+        runBothConcurrently()
+
+        then:
+        noExceptionThrown()
+    }
+
+    def "runs a compiler process when there is not enough free memory but no other compiler process is running"() {
+        def worker = Mock(CommandLineToolInvocationWorker)
+        memoryInfo.osSnapshot >> new OsMemoryStatusSnapshot(16 * GB, 0)
+
+        when:
+        limit.limiting(worker).execute(first, context)
+
+        then:
+        1 * worker.execute(first, context)
+    }
+
+    def "waits for a running compiler process to finish when there is not enough free memory"() {
+        def worker = Stub(CommandLineToolInvocationWorker) {
+            execute(first, _) >> {
+                instant.firstStarted
+                thread.block()
+                instant.firstFinished
+            }
+            execute(second, _) >> {
+                instant.secondStarted
+            }
+        }
+        memoryInfo.osSnapshot >> new OsMemoryStatusSnapshot(16 * GB, 0)
+        def limited = limit.limiting(worker)
+
+        when:
+        async {
+            start {
+                limited.execute(first, context)
+            }
+            start {
+                thread.blockUntil.firstStarted
+                limited.execute(second, context)
+            }
+        }
+
+        then:
+        instant.secondStarted > instant.firstFinished
+    }
+
+    private void runBothConcurrently() {
+        def worker = Stub(CommandLineToolInvocationWorker) {
+            execute(first, _) >> {
+                instant.firstStarted
+                thread.blockUntil.secondStarted
+            }
+            execute(second, _) >> {
+                instant.secondStarted
+                thread.blockUntil.firstStarted
+            }
+        }
+        def limited = limit.limiting(worker)
+        async {
+            start {
+                limited.execute(first, context)
+            }
+            start {
+                limited.execute(second, context)
+            }
+        }
+    }
+}
@@ -34,6 +34,8 @@ import org.gradle.internal.progress.NoOpProgressLoggerFactory
 import org.gradle.internal.time.Clock
 import org.gradle.internal.work.WorkerLeaseService
 import org.gradle.nativeplatform.internal.CompilerOutputFileNamingSchemeFactory
+import org.gradle.process.internal.health.memory.OsMemoryInfo
+import org.gradle.process.internal.health.memory.OsMemoryStatusSnapshot
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
 import org.gradle.test.fixtures.work.TestWorkerLeaseService
 import org.junit.Rule
@@ -186,6 +188,38 @@ abstract class NativeCompilerTest extends Specification {
         false           | "options passed on the command line only"
     }
 
+    def "compiles all source files when the number of compiler processes is limited by free memory"() {
+        given:
+        GradleThread.setManaged()
+
+        def compiler = getCompiler()
+        def testDir = tmpDirProvider.testDirectory
+        def sourceFiles = [ testDir.file("source1.ext"), testDir.file("source2.ext") ]
+        def memoryInfo = Stub(OsMemoryInfo) {
+            getOsSnapshot() >> new OsMemoryStatusSnapshot(1024, 0)
+        }
+
+        when:
+        def compileSpec = Stub(getCompileSpecType()) {
+            getTempDir() >> testDir
+            getObjectFileDir() >> testDir.file("output/objects")
+            getSourceFiles() >> sourceFiles
+            getOperationLogger() >> Stub(BuildOperationLogger)
+            getMemoryLimit() >> new CompileMemoryLimit(memoryInfo)
+        }
+
+        and:
+        compiler.execute(compileSpec)
+
+        then:
+        sourceFiles.each{ sourceFile ->
+            1 * commandLineTool.execute(_, _)
+        }
+
+        cleanup:
+        GradleThread.setUnmanaged()
+    }
+
     def "user-supplied arg actions run once per execute"() {
         given:
         def invocationContext = new DefaultMutableCommandLineToolContext()
@@ -197,6 +231,7 @@ abstract class NativeCompilerTest extends Specification {
         def sourceFiles = [ testDir.file("source1.ext"), testDir.file("source2.ext") ]
         when:
         NativeCompileSpec compileSpec = Stub(getCompileSpecType()) {
+            getTempDir() >> testDir
             getObjectFileDir() >> objectFileDir
             getSourceFiles() >> sourceFiles
             getOperationLogger() >> Mock(BuildOperationLogger)
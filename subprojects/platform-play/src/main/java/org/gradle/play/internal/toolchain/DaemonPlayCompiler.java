@@ -50,11 +50,12 @@ public class DaemonPlayCompiler<T extends PlayCompileSpec> extends AbstractDaemo
         JavaForkOptions javaForkOptions = new BaseForkOptionsConverter(forkOptionsFactory).transform(forkOptions);
         javaForkOptions.setWorkingDir(daemonWorkingDir);
 
+        // Keep the daemon between builds, so that later builds compile in a warm JVM. The daemon is stopped when a jar on its class path changes
         return new DaemonForkOptionsBuilder(forkOptionsFactory)
             .javaForkOptions(javaForkOptions)
             .classpath(compilerClasspath)
             .sharedPackages(classLoaderPackages)
-            .keepAliveMode(KeepAliveMode.SESSION)
+            .keepAliveMode(KeepAliveMode.DAEMON)
             .build();
     }
 }
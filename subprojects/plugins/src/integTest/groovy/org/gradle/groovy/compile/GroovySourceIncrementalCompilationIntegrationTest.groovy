@@ -0,0 +1,234 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.groovy.compile
+
+import org.gradle.integtests.fixtures.AbstractIntegrationSpec
+import org.gradle.integtests.fixtures.CompilationOutputsFixture
+
+class GroovySourceIncrementalCompilationIntegrationTest extends AbstractIntegrationSpec {
+
+    CompilationOutputsFixture outputs
+
+    def setup() {
+        outputs = new CompilationOutputsFixture(file("build/classes"))
+
+        buildFile << """
+            apply plugin: 'groovy'
+
+            dependencies {
+                implementation localGroovy()
+            }
+
+            compileGroovy.options.incremental = true
+        """
+    }
+
+    private File groovy(String... classBodies) {
+        source("groovy", classBodies)
+    }
+
+    private File java(String... classBodies) {
+        source("java", classBodies)
+    }
+
+    private File source(String extension, String... classBodies) {
+        File out
+        for (String body : classBodies) {
+            def className = (body =~ /(?s).*?(?:class|interface|enum) (\w+) .*/)[0][1]
+            assert className: "unable to find class name"
+            def f = file("src/main/groovy/${className}.${extension}")
+            f.createFile()
+            f.text = body
+            out = f
+        }
+        out
+    }
+
+    def "recompiles only the changed source file"() {
+        def a = groovy "class A {}"
+        groovy "class B {}"
+
+        outputs.snapshot { run "compileGroovy" }
+
+        when:
+        a.text = "class A { String foo() { 'foo' } }"
+        run "compileGroovy"
+
+        then:
+        outputs.recompiledClasses 'A'
+    }
+
+    def "recompiles dependents of a changed class"() {
+        def a = groovy "class A {}"
+        groovy "class B extends A {}", "class C {}"
+
+        outputs.snapshot { run "compileGroovy" }
+
+        when:
+        a.text = "class A { String foo() { 'foo' } }"
+        run "compileGroovy"
+
+        then:
+        outputs.recompiledClasses 'A', 'B'
+    }
+
+    def "recompiles Groovy and Java dependents of a changed Java class in a joint compilation"() {
+        def j = java "public class J {}"
+        groovy "class G extends J {}", "class U {}"
+        java "public class K extends G {}"
+
+        outputs.snapshot { run "compileGroovy" }
+
+        when:
+        j.text = "public class J { public String foo() { return \"foo\"; } }"
+        run "compileGroovy"
+
+        then:
+        outputs.recompiledClasses 'J', 'G', 'K'
+    }
+
+    def "recompiles Java dependents of a changed Groovy class in a joint compilation"() {
+        def g = groovy "class G {}"
+        groovy "class U {}"
+        java "public class K extends G {}", "public class L {}"
+
+        outputs.snapshot { run "compileGroovy" }
+
+        when:
+        g.text = "class G { String foo() { 'foo' } }"
+        run "compileGroovy"
+
+        then:
+        outputs.recompiledClasses 'G', 'K'
+    }
+
+    def "recompiles dependents of a class whose API is derived from a private field by a local AST transformation"() {
+        def dep = groovy "class Dep { String foo() { 'foo' } }"
+        groovy """
+            class A {
+                @Delegate
+                private Dep dep = new Dep()
+            }
+        """, "class B { String bar(A a) { a.foo() } }", "class C {}"
+
+        outputs.snapshot { run "compileGroovy" }
+
+        when:
+        dep.text = "class Dep { String foo() { 'foo' }\n String baz() { 'baz' } }"
+        run "compileGroovy"
+
+        then:
+        outputs.recompiledClasses 'Dep', 'A', 'B'
+    }
+
+    def "deletes the classes of a source file that no longer declares them"() {
+        def multi = file("src/main/groovy/Multi.groovy")
+        multi.text = """
+            class X {}
+            class Y {}
+        """
+        groovy "class Z {}"
+
+        outputs.snapshot { run "compileGroovy" }
+
+        when:
+        multi.text = """
+            class X {}
+        """
+        run "compileGroovy"
+
+        then:
+        outputs.recompiledClasses 'X'
+        outputs.deletedClasses 'Y'
+    }
+
+    def "detects deletion of a source file"() {
+        def a = groovy "class A {}"
+        groovy "class B {}"
+
+        outputs.snapshot { run "compileGroovy" }
+
+        when:
+        assert a.delete()
+        run "compileGroovy"
+
+        then:
+        outputs.noneRecompiled()
+        outputs.deletedClasses 'A'
+    }
+
+    def "recompiles all classes when incremental compilation is not enabled"() {
+        buildFile << """
+            compileGroovy.options.incremental = false
+        """
+        def a = groovy "class A {}"
+        groovy "class B {}"
+
+        outputs.snapshot { run "compileGroovy" }
+
+        when:
+        a.text = "class A { String foo() { 'foo' } }"
+        run "compileGroovy"
+
+        then:
+        outputs.recompiledClasses 'A', 'B'
+    }
+
+    def "recompiles all classes when a global AST transformation is on the compile classpath"() {
+        settingsFile << "include 'transform'"
+        file("transform/build.gradle") << """
+            apply plugin: 'groovy'
+
+            dependencies {
+                implementation localGroovy()
+            }
+        """
+        file("transform/src/main/groovy/NoOpTransformation.groovy") << """
+            import org.codehaus.groovy.ast.ASTNode
+            import org.codehaus.groovy.control.CompilePhase
+            import org.codehaus.groovy.control.SourceUnit
+            import org.codehaus.groovy.transform.ASTTransformation
+            import org.codehaus.groovy.transform.GroovyASTTransformation
+
+            @GroovyASTTransformation(phase = CompilePhase.CONVERSION)
+            class NoOpTransformation implements ASTTransformation {
+                void visit(ASTNode[] nodes, SourceUnit source) {}
+            }
+        """
+        file("transform/src/main/resources/META-INF/services/org.codehaus.groovy.transform.ASTTransformation") << "NoOpTransformation"
+        buildFile << """
+            evaluationDependsOn(':transform')
+
+            dependencies {
+                implementation files(project(':transform').tasks.jar)
+            }
+        """
+        def a = groovy "class A {}"
+        groovy "class B {}"
+
+        outputs.snapshot { run "compileGroovy" }
+
+        when:
+        a.text = "class A { String foo() { 'foo' } }"
+        run "compileGroovy", "--info"
+
+        then:
+        outputs.recompiledClasses 'A', 'B'
+        outputContains("the compile classpath contains global AST transformations: [NoOpTransformation]")
+    }
+}
@@ -18,6 +18,7 @@ package org.gradle.api.internal.tasks;
 
 import org.gradle.api.internal.cache.StringInterner;
 import org.gradle.api.internal.jvm.JvmBinaryRenderer;
+import org.gradle.api.internal.tasks.compile.GlobalAstTransformationDetector;
 import org.gradle.api.internal.tasks.compile.incremental.cache.DefaultGeneralCompileCaches;
 import org.gradle.api.internal.tasks.compile.incremental.cache.DefaultUserHomeScopedCompileCaches;
 import org.gradle.api.internal.tasks.compile.incremental.cache.UserHomeScopedCompileCaches;
@@ -61,5 +62,9 @@ public class CompileServices extends AbstractPluginServiceRegistry {
         DefaultUserHomeScopedCompileCaches createCompileCaches(CacheRepository cacheRepository, InMemoryCacheDecoratorFactory inMemoryCacheDecoratorFactory, FileSystemSnapshotter fileSystemSnapshotter, StringInterner interner) {
             return new DefaultUserHomeScopedCompileCaches(fileSystemSnapshotter, cacheRepository, inMemoryCacheDecoratorFactory, interner);
         }
+
+        GlobalAstTransformationDetector createGlobalAstTransformationDetector(FileSystemSnapshotter fileSystemSnapshotter) {
+            return new GlobalAstTransformationDetector(fileSystemSnapshotter);
+        }
     }
 }
@@ -29,6 +29,7 @@ import org.apache.http.protocol.HttpContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.io.Closeable;
 import java.io.IOException;
 import java.net.URI;
@@ -45,6 +46,8 @@ public class HttpClientHelper implements Closeable {
     private static final Logger LOGGER = LoggerFactory.getLogger(HttpClientHelper.class);
     private CloseableHttpClient client;
     private final HttpSettings settings;
+    @Nullable
+    private final HttpHostConnectionLimiter connectionLimiter;
 
     /**
      * Maintains a queue of contexts which are shared between threads when authentication
@@ -56,7 +59,12 @@ public class HttpClientHelper implements Closeable {
     private final ConcurrentLinkedQueue<HttpContext> sharedContext;
 
     public HttpClientHelper(HttpSettings settings) {
+        this(settings, null);
+    }
+
+    public HttpClientHelper(HttpSettings settings, @Nullable HttpHostConnectionLimiter connectionLimiter) {
         this.settings = settings;
+        this.connectionLimiter = connectionLimiter;
         if (!settings.getAuthenticationSettings().isEmpty()) {
             sharedContext = new ConcurrentLinkedQueue<HttpContext>();
         } else {
@@ -128,19 +136,32 @@ public class HttpClientHelper implements Closeable {
         // Without this, HTTP Client prohibits multiple redirects to the same location within the same context
         httpContext.removeAttribute(REDIRECT_LOCATIONS);
         LOGGER.debug("Performing HTTP {}: {}", request.getMethod(), request.getURI());
+        // The lease is held until the content has been read or the response is closed, as the connection remains in use until then
+        HttpHostConnectionLimiter.Lease lease = connectionLimiter == null ? null : connectionLimiter.acquire(request.getURI());
+        boolean leaseTransferred = false;
         try {
             CloseableHttpResponse response = getClient().execute(request, httpContext);
-            return toHttpClientResponse(request, httpContext, response);
+            HttpClientResponse clientResponse = toHttpClientResponse(request, httpContext, response, lease);
+            leaseTransferred = true;
+            if (lease != null) {
+                // Gives the lease back when the response is never closed
+                connectionLimiter.releaseWhenUnreachable(clientResponse, lease);
+            }
+            return clientResponse;
         } catch (IOException e) {
             URI lastRedirectLocation = getLastRedirectLocation(httpContext);
             throw (lastRedirectLocation == null) ? e : new FailureFromRedirectLocation(lastRedirectLocation, e);
+        } finally {
+            if (lease != null && !leaseTransferred) {
+                lease.release();
+            }
         }
     }
 
-    private HttpClientResponse toHttpClientResponse(HttpRequestBase request, HttpContext httpContext, CloseableHttpResponse response) {
+    private HttpClientResponse toHttpClientResponse(HttpRequestBase request, HttpContext httpContext, CloseableHttpResponse response, @Nullable HttpHostConnectionLimiter.Lease lease) {
         URI lastRedirectLocation = getLastRedirectLocation(httpContext);
         URI effectiveUri = lastRedirectLocation == null ? request.getURI() : lastRedirectLocation;
-        return new HttpClientResponse(request.getMethod(), effectiveUri, response);
+        return new HttpClientResponse(request.getMethod(), effectiveUri, response, lease);
     }
 
     @SuppressWarnings("unchecked")
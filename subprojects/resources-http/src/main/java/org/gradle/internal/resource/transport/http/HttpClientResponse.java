@@ -22,7 +22,9 @@ import org.apache.http.StatusLine;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.utils.HttpClientUtils;
 
+import javax.annotation.Nullable;
 import java.io.Closeable;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -32,12 +34,22 @@ public class HttpClientResponse implements Closeable {
     private final String method;
     private final URI effectiveUri;
     private final CloseableHttpResponse httpResponse;
+    private final HttpHostConnectionLimiter.Lease lease;
     private boolean closed;
 
     HttpClientResponse(String method, URI effectiveUri, CloseableHttpResponse httpResponse) {
+        this(method, effectiveUri, httpResponse, null);
+    }
+
+    HttpClientResponse(String method, URI effectiveUri, CloseableHttpResponse httpResponse, @Nullable HttpHostConnectionLimiter.Lease lease) {
         this.method = method;
         this.effectiveUri = effectiveUri;
         this.httpResponse = httpResponse;
+        this.lease = lease;
+        if (lease != null && httpResponse.getEntity() == null) {
+            // Without content, the connection has already been given back to the pool
+            lease.release();
+        }
     }
 
     public String getHeader(String name) {
@@ -50,7 +62,8 @@ public class HttpClientResponse implements Closeable {
         if (entity == null) {
             throw new IOException(String.format("Response %d: %s has no content!", getStatusLine().getStatusCode(), getStatusLine().getReasonPhrase()));
         }
-        return entity.getContent();
+        InputStream content = entity.getContent();
+        return lease == null ? content : new LeaseReleasingInputStream(content, entity.getContentLength());
     }
 
     public StatusLine getStatusLine() {
@@ -62,6 +75,9 @@ public class HttpClientResponse implements Closeable {
         if (!closed) {
             closed = true;
             HttpClientUtils.closeQuietly(httpResponse);
+            if (lease != null) {
+                lease.release();
+            }
         }
     }
 
@@ -82,4 +98,50 @@ public class HttpClientResponse implements Closeable {
         int statusCode = getStatusLine().getStatusCode();
         return statusCode == 404;
     }
+
+    /**
+     * Gives back the lease once the content has been read or closed, which is when the connection is given back to the pool.
+     * When the length of the content is known, the lease is given back as soon as that many bytes have been read, without waiting for the end of the stream to be reached.
+     * Also keeps this response reachable while its content is in use.
+     */
+    private class LeaseReleasingInputStream extends FilterInputStream {
+        private final long contentLength;
+        private long bytesRead;
+
+        LeaseReleasingInputStream(InputStream content, long contentLength) {
+            super(content);
+            this.contentLength = contentLength;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            return releaseAtEnd(read, read < 0 ? -1 : 1);
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            return releaseAtEnd(read, read);
+        }
+
+        private int releaseAtEnd(int result, int count) {
+            if (count > 0) {
+                bytesRead += count;
+            }
+            if (count < 0 || (contentLength >= 0 && bytesRead >= contentLength)) {
+                lease.release();
+            }
+            return result;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                lease.release();
+            }
+        }
+    }
 }
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.resource.transport.http;
+
+import org.apache.commons.lang.StringUtils;
+import org.gradle.internal.UncheckedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the number of concurrent requests made to a single host, across all the HTTP repositories of the process.
+ *
+ * <p>Each HTTP client has its own connection pool, so without this limit a host that serves many repositories could
+ * receive many times the number of connections of a single pool.</p>
+ *
+ * <p>Leases are reentrant per thread: a thread that already holds a lease for a host gets another one without waiting, and gives back
+ * its permit when it has released all of them. This way a thread that makes a request to a host while it is still reading the response
+ * of an earlier request to the same host cannot deadlock when the limit has been reached.</p>
+ *
+ * <p>A lease can be tied to the object that uses the connection, such as a response. When that object is garbage collected without
+ * the lease having been released, for example because a response was never closed, the permit is given back to the host.</p>
+ */
+public class HttpHostConnectionLimiter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpHostConnectionLimiter.class);
+    public static final String MAX_CONNECTIONS_PER_HOST_SYSTEM_PROPERTY = "org.gradle.internal.http.maxConnectionsPerHost";
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 20;
+
+    private final int maxConnectionsPerHost;
+    private final ConcurrentMap<String, HostPermits> hosts = new ConcurrentHashMap<String, HostPermits>();
+    private final ReferenceQueue<Object> unreachableOwners = new ReferenceQueue<Object>();
+    // Keeps the references to the owners of unreleased leases reachable, so that they are enqueued when their owner is collected
+    private final Set<OwnerReference> ownerReferences = Collections.newSetFromMap(new ConcurrentHashMap<OwnerReference, Boolean>());
+
+    public HttpHostConnectionLimiter() {
+        this(initMaxConnectionsPerHost());
+    }
+
+    public HttpHostConnectionLimiter(int maxConnectionsPerHost) {
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+    }
+
+    /**
+     * Blocks until a request can be made to the host of the given URI, unless the current thread already holds a lease for that host.
+     * The returned lease must be released once the response has been consumed.
+     */
+    public Lease acquire(URI uri) {
+        HostPermits host = getHost(uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort());
+        Thread thread = Thread.currentThread();
+        if (!host.reenter(thread)) {
+            try {
+                // Wake up periodically to give back the permits of leases whose owner has been collected
+                while (!host.semaphore.tryAcquire(1, TimeUnit.SECONDS)) {
+                    releaseUnreachable();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+            host.enter(thread);
+        }
+        releaseUnreachable();
+        return new Lease(host, thread);
+    }
+
+    /**
+     * Releases the given lease once the given owner has been garbage collected, unless the lease has been released before.
+     */
+    public void releaseWhenUnreachable(Object owner, Lease lease) {
+        OwnerReference reference = new OwnerReference(owner, unreachableOwners, lease);
+        if (lease.track(reference)) {
+            ownerReferences.add(reference);
+        }
+    }
+
+    private void releaseUnreachable() {
+        Reference<?> reference;
+        while ((reference = unreachableOwners.poll()) != null) {
+            OwnerReference ownerReference = (OwnerReference) reference;
+            ownerReferences.remove(ownerReference);
+            ownerReference.lease.release();
+        }
+    }
+
+    private HostPermits getHost(String host) {
+        HostPermits permits = hosts.get(host);
+        if (permits == null) {
+            permits = new HostPermits(maxConnectionsPerHost);
+            HostPermits existing = hosts.putIfAbsent(host, permits);
+            if (existing != null) {
+                permits = existing;
+            }
+        }
+        return permits;
+    }
+
+    private static int initMaxConnectionsPerHost() {
+        String systemProperty = System.getProperty(MAX_CONNECTIONS_PER_HOST_SYSTEM_PROPERTY);
+        if (!StringUtils.isBlank(systemProperty)) {
+            try {
+                int value = Integer.parseInt(systemProperty);
+                if (value > 0) {
+                    return value;
+                }
+            } catch (NumberFormatException e) {
+                // Fall through
+            }
+            LOGGER.warn("Invalid value for java system property '{}': {}. Default value '{}' will be used.",
+                MAX_CONNECTIONS_PER_HOST_SYSTEM_PROPERTY, systemProperty, DEFAULT_MAX_CONNECTIONS_PER_HOST);
+        }
+        return DEFAULT_MAX_CONNECTIONS_PER_HOST;
+    }
+
+    /**
+     * The permits of a host, and the number of unreleased leases of each thread that holds one of them.
+     */
+    private static class HostPermits {
+        private final Semaphore semaphore;
+        // Guarded by this
+        private final Map<Thread, Integer> leasesByThread = new HashMap<Thread, Integer>();
+
+        HostPermits(int permits) {
+            this.semaphore = new Semaphore(permits, true);
+        }
+
+        synchronized boolean reenter(Thread thread) {
+            Integer leases = leasesByThread.get(thread);
+            if (leases == null) {
+                return false;
+            }
+            leasesByThread.put(thread, leases + 1);
+            return true;
+        }
+
+        synchronized void enter(Thread thread) {
+            leasesByThread.put(thread, 1);
+        }
+
+        synchronized void exit(Thread thread) {
+            int leases = leasesByThread.get(thread);
+            if (leases == 1) {
+                leasesByThread.remove(thread);
+                semaphore.release();
+            } else {
+                leasesByThread.put(thread, leases - 1);
+            }
+        }
+    }
+
+    /**
+     * A permit to make a request to a host. Releasing a lease more than once has no effect. A lease can be released by any thread.
+     */
+    public class Lease {
+        private final Thread thread;
+        private HostPermits host;
+        private OwnerReference ownerReference;
+
+        private Lease(HostPermits host, Thread thread) {
+            this.host = host;
+            this.thread = thread;
+        }
+
+        private synchronized boolean track(OwnerReference reference) {
+            if (host == null) {
+                return false;
+            }
+            ownerReference = reference;
+            return true;
+        }
+
+        public synchronized void release() {
+            if (host != null) {
+                host.exit(thread);
+                host = null;
+            }
+            if (ownerReference != null) {
+                ownerReferences.remove(ownerReference);
+                ownerReference.clear();
+                ownerReference = null;
+            }
+        }
+    }
+
+    private static class OwnerReference extends PhantomReference<Object> {
+        private final Lease lease;
+
+        OwnerReference(Object owner, ReferenceQueue<Object> queue, Lease lease) {
+            super(owner, queue);
+            this.lease = lease;
+        }
+    }
+}
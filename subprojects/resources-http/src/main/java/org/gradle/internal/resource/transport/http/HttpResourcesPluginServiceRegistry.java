@@ -43,8 +43,12 @@ public class HttpResourcesPluginServiceRegistry extends AbstractPluginServiceReg
             return new DefaultSslContextFactory();
         }
 
-        ResourceConnectorFactory createHttpConnectorFactory(SslContextFactory sslContextFactory) {
-            return new HttpConnectorFactory(sslContextFactory);
+        HttpHostConnectionLimiter createHttpHostConnectionLimiter() {
+            return new HttpHostConnectionLimiter();
+        }
+
+        ResourceConnectorFactory createHttpConnectorFactory(SslContextFactory sslContextFactory, HttpHostConnectionLimiter connectionLimiter) {
+            return new HttpConnectorFactory(sslContextFactory, connectionLimiter);
         }
     }
 
@@ -24,6 +24,7 @@ import org.gradle.internal.resource.transfer.ExternalResourceReadResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -35,12 +36,22 @@ public class HttpResponseResource implements ExternalResourceReadResponse {
     private final URI source;
     private final HttpClientResponse response;
     private final ExternalResourceMetaData metaData;
+    @Nullable
+    private final HttpClientHelper resumeWith;
     private boolean wasOpened;
 
     public HttpResponseResource(String method, URI source, HttpClientResponse response) {
+        this(method, source, response, null);
+    }
+
+    /**
+     * @param resumeWith the client to use to resume the download when the connection fails while reading the content, or null when the download should not be resumed.
+     */
+    public HttpResponseResource(String method, URI source, HttpClientResponse response, @Nullable HttpClientHelper resumeWith) {
         this.method = method;
         this.source = source;
         this.response = response;
+        this.resumeWith = resumeWith;
 
         String etag = getEtag(response);
         this.metaData = new DefaultExternalResourceMetaData(source, getLastModified(), getContentLength(), getContentType(), etag, getSha1(response, etag));
@@ -108,6 +119,12 @@ public class HttpResponseResource implements ExternalResourceReadResponse {
         }
         LOGGER.debug("Attempting to download resource {}.", source);
         this.wasOpened = true;
+        if (resumeWith != null) {
+            String validator = getResumeValidator();
+            if (ResumableHttpInputStream.canResume(this, validator)) {
+                return new ResumableHttpInputStream(resumeWith, response.getEffectiveUri(), validator, getContentLength(), response);
+            }
+        }
         return response.getContent();
     }
 
@@ -116,6 +133,18 @@ public class HttpResponseResource implements ExternalResourceReadResponse {
         response.close();
     }
 
+    /**
+     * A strong validator that identifies the content of this response, for use in an {@code If-Range} header.
+     */
+    @Nullable
+    private String getResumeValidator() {
+        String etag = metaData.getEtag();
+        if (etag != null && !etag.startsWith("W/")) {
+            return etag;
+        }
+        return response.getHeader(HttpHeaders.LAST_MODIFIED);
+    }
+
     private static String getEtag(HttpClientResponse response) {
         return response.getHeader(HttpHeaders.ETAG);
     }
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.resource.transport.http;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpGet;
+import org.gradle.internal.IoActions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
+/**
+ * Reads the content of a large HTTP resource, continuing from the current position with a range request when the connection fails part way through.
+ *
+ * <p>The range request uses an {@code If-Range} validator, so that the download starts over with an error rather than mixing content from two
+ * versions of the resource.</p>
+ */
+class ResumableHttpInputStream extends InputStream {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResumableHttpInputStream.class);
+    private static final int MAX_RESUME_ATTEMPTS = 3;
+
+    private final HttpClientHelper http;
+    private final URI uri;
+    private final String validator;
+    private final long contentLength;
+    private final byte[] singleByte = new byte[1];
+    private HttpClientResponse response;
+    private InputStream content;
+    private long position;
+    private int resumeAttempts;
+
+    ResumableHttpInputStream(HttpClientHelper http, URI uri, String validator, long contentLength, HttpClientResponse response) throws IOException {
+        this.http = http;
+        this.uri = uri;
+        this.validator = validator;
+        this.contentLength = contentLength;
+        this.response = response;
+        this.content = response.getContent();
+    }
+
+    /**
+     * Returns true when a download of the given response can be resumed.
+     */
+    static boolean canResume(HttpResponseResource resource, @Nullable String validator) {
+        return validator != null && resource.getContentLength() > 0 && "bytes".equalsIgnoreCase(resource.getHeaderValue(HttpHeaders.ACCEPT_RANGES));
+    }
+
+    @Override
+    public int read() throws IOException {
+        int read = read(singleByte, 0, 1);
+        return read < 0 ? -1 : singleByte[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        while (true) {
+            try {
+                int read = content.read(buffer, offset, length);
+                if (read > 0) {
+                    position += read;
+                }
+                return read;
+            } catch (IOException e) {
+                if (position >= contentLength || resumeAttempts >= MAX_RESUME_ATTEMPTS || !resume()) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private boolean resume() {
+        resumeAttempts++;
+        LOGGER.info("Resuming download of {} at byte {} of {}.", uri, position, contentLength);
+        closeCurrent();
+        HttpGet request = new HttpGet(uri);
+        request.addHeader(HttpHeaders.RANGE, "bytes=" + position + "-");
+        request.addHeader(HttpHeaders.IF_RANGE, validator);
+        try {
+            response = http.performRequest(request, false);
+        } catch (HttpRequestException e) {
+            LOGGER.debug("Could not resume download of {}.", uri, e);
+            return false;
+        }
+        if (response.getStatusLine().getStatusCode() != HttpStatus.SC_PARTIAL_CONTENT || !startsAtPosition(response.getHeader(HttpHeaders.CONTENT_RANGE))) {
+            return false;
+        }
+        try {
+            content = response.getContent();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private boolean startsAtPosition(@Nullable String contentRange) {
+        // e.g. bytes 1000-1999/2000
+        return contentRange != null && contentRange.startsWith("bytes " + position + "-");
+    }
+
+    private void closeCurrent() {
+        // Also closes the response, so that its connection is released before a new one is requested
+        IoActions.closeQuietly(content);
+        if (response != null) {
+            response.close();
+            response = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        closeCurrent();
+    }
+}
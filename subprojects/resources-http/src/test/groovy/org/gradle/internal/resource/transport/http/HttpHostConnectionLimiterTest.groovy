@@ -0,0 +1,174 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.resource.transport.http
+
+import org.gradle.test.fixtures.ConcurrentTestUtil
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS
+import static java.util.concurrent.TimeUnit.SECONDS
+
+class HttpHostConnectionLimiterTest extends Specification {
+    def limiter = new HttpHostConnectionLimiter(1)
+
+    def "blocks until a connection to the host is released"() {
+        def lease = limiter.acquire(new URI("http://repo.example/a.jar"))
+        def acquired = new CountDownLatch(1)
+
+        when:
+        Thread.start {
+            limiter.acquire(new URI("http://repo.example/b.jar")).release()
+            acquired.countDown()
+        }
+
+        then:
+        !acquired.await(200, MILLISECONDS)
+
+        when:
+        lease.release()
+
+        then:
+        acquired.await(10, SECONDS)
+    }
+
+    def "thread that holds a lease can make a nested request to the same host at the limit"() {
+        def nestedAcquired = new CountDownLatch(1)
+        def otherAcquired = new CountDownLatch(1)
+        HttpHostConnectionLimiter.Lease outer = null
+        HttpHostConnectionLimiter.Lease nested = null
+
+        when:
+        def requester = Thread.start {
+            outer = limiter.acquire(new URI("http://repo.example/a.pom"))
+            nested = limiter.acquire(new URI("http://repo.example/b.pom"))
+            nestedAcquired.countDown()
+        }
+
+        then:
+        nestedAcquired.await(10, SECONDS)
+
+        when:
+        requester.join(10000)
+        Thread.start {
+            limiter.acquire(new URI("http://repo.example/c.jar")).release()
+            otherAcquired.countDown()
+        }
+
+        then:
+        !otherAcquired.await(200, MILLISECONDS)
+
+        when:
+        nested.release()
+
+        then:
+        !otherAcquired.await(200, MILLISECONDS)
+
+        when:
+        outer.release()
+
+        then:
+        otherAcquired.await(10, SECONDS)
+    }
+
+    def "lease of a nested request can be released by another thread"() {
+        def outer = limiter.acquire(new URI("http://repo.example/a.pom"))
+        def nested = limiter.acquire(new URI("http://repo.example/b.pom"))
+        def acquired = new CountDownLatch(1)
+
+        when:
+        Thread.start { nested.release() }.join(10000)
+        Thread.start { outer.release() }.join(10000)
+        Thread.start {
+            limiter.acquire(new URI("http://repo.example/c.jar"))
+            acquired.countDown()
+        }
+
+        then:
+        acquired.await(10, SECONDS)
+    }
+
+    def "requests to other hosts are not limited"() {
+        limiter.acquire(new URI("http://repo.example/a.jar"))
+
+        when:
+        def lease = limiter.acquire(new URI("https://repo.example/a.jar"))
+        def other = limiter.acquire(new URI("http://other.example/a.jar"))
+
+        then:
+        lease != null
+        other != null
+    }
+
+    def "releasing a lease more than once has no effect"() {
+        def lease = limiter.acquire(new URI("http://repo.example/a.jar"))
+        lease.release()
+        lease.release()
+        limiter.acquire(new URI("http://repo.example/a.jar"))
+        def acquired = new CountDownLatch(1)
+
+        when:
+        Thread.start {
+            limiter.acquire(new URI("http://repo.example/b.jar"))
+            acquired.countDown()
+        }
+
+        then:
+        !acquired.await(200, MILLISECONDS)
+    }
+
+    def "gives back the lease of an owner that has been garbage collected"() {
+        def lease = limiter.acquire(new URI("http://repo.example/a.jar"))
+        limiter.releaseWhenUnreachable(new Object(), lease)
+        def acquired = new CountDownLatch(1)
+
+        when:
+        Thread.start {
+            limiter.acquire(new URI("http://repo.example/b.jar"))
+            acquired.countDown()
+        }
+
+        then:
+        ConcurrentTestUtil.poll(30) {
+            System.gc()
+            assert acquired.await(100, MILLISECONDS)
+        }
+    }
+
+    def "preserves the interrupt status when interrupted while waiting"() {
+        limiter.acquire(new URI("http://repo.example/a.jar"))
+        def failure = null
+        def interrupted = false
+
+        when:
+        def thread = Thread.start {
+            Thread.currentThread().interrupt()
+            try {
+                limiter.acquire(new URI("http://repo.example/b.jar"))
+            } catch (Exception e) {
+                failure = e
+                interrupted = Thread.currentThread().isInterrupted()
+            }
+        }
+        thread.join(10000)
+
+        then:
+        failure != null
+        interrupted
+    }
+}
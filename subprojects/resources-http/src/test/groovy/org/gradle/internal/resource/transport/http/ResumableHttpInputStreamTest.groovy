@@ -0,0 +1,193 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.resource.transport.http
+
+import org.apache.http.ssl.SSLContexts
+import org.gradle.util.SetSystemProperties
+import org.junit.Rule
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+import java.util.concurrent.CopyOnWriteArrayList
+
+import static org.gradle.internal.resource.transport.http.JavaSystemPropertiesHttpTimeoutSettings.SOCKET_TIMEOUT_SYSTEM_PROPERTY
+
+class ResumableHttpInputStreamTest extends Specification {
+    @Rule SetSystemProperties systemProperties = new SetSystemProperties((SOCKET_TIMEOUT_SYSTEM_PROPERTY): "10000")
+
+    def content = (0..<10000).collect { (byte) (it % 251) } as byte[]
+    def server = new DroppingHttpServer(content)
+    def limiter = new HttpHostConnectionLimiter(1)
+    def client = new HttpClientHelper(httpSettings, limiter)
+
+    def cleanup() {
+        client.close()
+        server.stop()
+    }
+
+    def "resumes download with a range request when the connection is dropped part way through"() {
+        server.dropAfter = [4000, 7000]
+
+        when:
+        def bytes = download()
+
+        then:
+        bytes == content
+        server.requests.size() == 3
+        server.requests[0].range == null
+        server.requests[1].range == "bytes=4000-"
+        server.requests[1].ifRange == '"v1"'
+        server.requests[2].range == "bytes=7000-"
+
+        and:
+        // All leases have been given back, checked from another thread as leases are reentrant for the thread that holds them
+        def acquired = false
+        Thread.start {
+            limiter.acquire(server.uri).release()
+            acquired = true
+        }.join(10000)
+        acquired
+    }
+
+    def "does not mix content when the resource has changed before the download is resumed"() {
+        server.dropAfter = [4000]
+        server.etagOnResume = '"v2"'
+
+        when:
+        download()
+
+        then:
+        thrown(IOException)
+        server.requests.size() == 2
+        server.requests[1].ifRange == '"v1"'
+    }
+
+    def "gives up after the maximum number of resume attempts"() {
+        server.dropAfter = [1000, 2000, 3000, 4000, 5000]
+
+        when:
+        download()
+
+        then:
+        thrown(IOException)
+        server.requests.size() == 4
+    }
+
+    private byte[] download() {
+        def response = client.performGet(server.uri.toString(), false)
+        def resource = new HttpResponseResource("GET", server.uri, response, client)
+        try {
+            def stream = resource.openStream()
+            try {
+                return stream.bytes
+            } finally {
+                stream.close()
+            }
+        } finally {
+            resource.close()
+        }
+    }
+
+    private HttpSettings getHttpSettings() {
+        Stub(HttpSettings) {
+            getProxySettings() >> Mock(HttpProxySettings)
+            getSecureProxySettings() >> Mock(HttpProxySettings)
+            getTimeoutSettings() >> { new JavaSystemPropertiesHttpTimeoutSettings() }
+            getSslContextFactory() >> Mock(SslContextFactory) {
+                createSslContext() >> SSLContexts.createDefault()
+            }
+        }
+    }
+
+    /**
+     * Serves a single resource, closing the connection after the given positions have been reached.
+     */
+    static class DroppingHttpServer {
+        final byte[] content
+        final ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.loopbackAddress)
+        final List<Map<String, String>> requests = new CopyOnWriteArrayList<Map<String, String>>()
+        List<Integer> dropAfter = []
+        String etagOnResume = '"v1"'
+        final Thread thread
+
+        DroppingHttpServer(byte[] content) {
+            this.content = content
+            thread = Thread.start {
+                while (!serverSocket.closed) {
+                    Socket socket
+                    try {
+                        socket = serverSocket.accept()
+                    } catch (SocketException e) {
+                        return
+                    }
+                    try {
+                        handle(socket)
+                    } finally {
+                        socket.close()
+                    }
+                }
+            }
+        }
+
+        URI getUri() {
+            new URI("http://localhost:${serverSocket.localPort}/lib.jar")
+        }
+
+        void stop() {
+            serverSocket.close()
+            thread.join(10000)
+        }
+
+        private void handle(Socket socket) {
+            def input = new BufferedReader(new InputStreamReader(socket.inputStream, StandardCharsets.ISO_8859_1))
+            def request = [:]
+            def line = input.readLine()
+            while (line) {
+                def separator = line.indexOf(':')
+                if (separator > 0) {
+                    request[line.substring(0, separator).trim().toLowerCase(Locale.ROOT).replace('-', '')] = line.substring(separator + 1).trim()
+                }
+                line = input.readLine()
+            }
+            requests << [range: request.range, ifRange: request.ifrange]
+
+            int start = 0
+            def output = socket.outputStream
+            def headers
+            if (request.range) {
+                if (request.ifrange != etagOnResume) {
+                    // The resource has changed, so the whole new content is sent
+                    headers = "HTTP/1.1 200 OK\r\nETag: ${etagOnResume}\r\n"
+                } else {
+                    start = Integer.parseInt(request.range.substring("bytes=".length(), request.range.length() - 1))
+                    headers = "HTTP/1.1 206 Partial Content\r\nETag: ${etagOnResume}\r\nContent-Range: bytes ${start}-${content.length - 1}/${content.length}\r\n"
+                }
+            } else {
+                headers = "HTTP/1.1 200 OK\r\nETag: \"v1\"\r\n"
+            }
+            headers += "Accept-Ranges: bytes\r\nContent-Length: ${content.length - start}\r\nConnection: close\r\n\r\n"
+            output.write(headers.getBytes(StandardCharsets.ISO_8859_1))
+            def end = dropAfter.find { it > start } ?: content.length
+            if (end < content.length) {
+                dropAfter.remove((Object) end)
+            }
+            output.write(content, start, end - start)
+            output.flush()
+        }
+    }
+}
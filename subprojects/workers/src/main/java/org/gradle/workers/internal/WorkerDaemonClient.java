@@ -16,18 +16,24 @@
 
 package org.gradle.workers.internal;
 
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableMap;
 import org.gradle.api.logging.LogLevel;
 import org.gradle.internal.concurrent.Stoppable;
 import org.gradle.internal.operations.BuildOperationRef;
 import org.gradle.process.internal.health.memory.JvmMemoryStatus;
 import org.gradle.process.internal.worker.WorkerProcess;
 
+import java.io.File;
+import java.util.Map;
+
 class WorkerDaemonClient implements Worker, Stoppable {
     public static final String DISABLE_EXPIRATION_PROPERTY_KEY = "org.gradle.workers.internal.disable-daemons-expiration";
     private final DaemonForkOptions forkOptions;
     private final WorkerDaemonProcess workerDaemonProcess;
     private final WorkerProcess workerProcess;
     private final LogLevel logLevel;
+    private final Map<File, FileState> classpathState;
     private int uses;
     private boolean failed;
     private boolean cannotBeExpired = Boolean.getBoolean(DISABLE_EXPIRATION_PROPERTY_KEY);
@@ -37,6 +43,17 @@ class WorkerDaemonClient implements Worker, Stoppable {
         this.workerDaemonProcess = workerDaemonProcess;
         this.workerProcess = workerProcess;
         this.logLevel = logLevel;
+        this.classpathState = snapshot(forkOptions.getClasspath());
+    }
+
+    private static Map<File, FileState> snapshot(Iterable<File> classpath) {
+        ImmutableMap.Builder<File, FileState> builder = ImmutableMap.builder();
+        for (File file : classpath) {
+            if (file.isFile()) {
+                builder.put(file, FileState.of(file));
+            }
+        }
+        return builder.build();
     }
 
     @Override
@@ -54,6 +71,18 @@ class WorkerDaemonClient implements Worker, Stoppable {
         return forkOptions.isCompatibleWith(required);
     }
 
+    /**
+     * Returns true when a jar on the class path of this daemon has changed since the daemon was started, so the daemon may run out-of-date classes.
+     */
+    public boolean hasChangedClasspath() {
+        for (Map.Entry<File, FileState> entry : classpathState.entrySet()) {
+            if (!entry.getValue().equals(FileState.of(entry.getKey()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     JvmMemoryStatus getJvmMemoryStatus() {
         return workerProcess.getJvmMemoryStatus();
     }
@@ -95,6 +124,37 @@ class WorkerDaemonClient implements Worker, Stoppable {
         return cannotBeExpired;
     }
 
+    private static class FileState {
+        private final long length;
+        private final long lastModified;
+
+        private FileState(long length, long lastModified) {
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+
+        static FileState of(File file) {
+            return new FileState(file.length(), file.lastModified());
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj == null || obj.getClass() != getClass()) {
+                return false;
+            }
+            FileState other = (FileState) obj;
+            return length == other.length && lastModified == other.lastModified;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(length, lastModified);
+        }
+    }
+
     @Override
     public String toString() {
         return "WorkerDaemonClient{" +
@@ -60,6 +60,8 @@ public class WorkerDaemonClientsManager implements Stoppable {
     private final WorkerDaemonExpiration workerDaemonExpiration;
     private final MemoryManager memoryManager;
     private volatile LogLevel currentLogLevel;
+    private int reusedClients;
+    private int startedClients;
 
     public WorkerDaemonClientsManager(WorkerDaemonStarter workerDaemonStarter, ListenerManager listenerManager, LoggingManagerInternal loggingManager, MemoryManager memoryManager, OsMemoryInfo memoryInfo) {
         this.workerDaemonStarter = workerDaemonStarter;
@@ -81,23 +83,37 @@ public class WorkerDaemonClientsManager implements Stoppable {
         return reserveIdleClient(forkOptions, idleClients);
     }
 
+    /**
+     * Reserves the compatible idle client that has run the most work, as its JVM has the most warmed up compiled code and class data. Clients kept
+     * from earlier builds are stopped rather than reused once a jar on their class path has changed.
+     */
     WorkerDaemonClient reserveIdleClient(DaemonForkOptions forkOptions, List<WorkerDaemonClient> clients) {
         synchronized (lock) {
+            WorkerDaemonClient warmest = null;
             Iterator<WorkerDaemonClient> it = clients.iterator();
             while (it.hasNext()) {
                 WorkerDaemonClient candidate = it.next();
                 if (candidate.isCompatibleWith(forkOptions)) {
-                    it.remove();
                     if (candidate.getLogLevel() != currentLogLevel) {
+                        it.remove();
                         // TODO: Send a message to workers to change their log level rather than stopping
                         LOGGER.info("Log level has changed, stopping idle worker daemon with out-of-date log level.");
                         candidate.stop();
-                    } else {
-                        return candidate;
+                    } else if (candidate.hasChangedClasspath()) {
+                        it.remove();
+                        LOGGER.info("Class path has changed, stopping idle worker daemon with out-of-date classes.");
+                        candidate.stop();
+                    } else if (warmest == null || candidate.getUses() > warmest.getUses()) {
+                        warmest = candidate;
                     }
                 }
             }
-            return null;
+            if (warmest != null) {
+                clients.remove(warmest);
+                reusedClients++;
+                LOGGER.debug("Reusing worker daemon that has run {} action(s).", warmest.getUses());
+            }
+            return warmest;
         }
     }
 
@@ -106,6 +122,7 @@ public class WorkerDaemonClientsManager implements Stoppable {
         WorkerDaemonClient client = workerDaemonStarter.startDaemon(workerProtocolImplementationClass, forkOptions, workerProcessCleanupAction);
         synchronized (lock) {
             allClients.add(client);
+            startedClients++;
         }
         return client;
     }
@@ -185,6 +202,15 @@ public class WorkerDaemonClientsManager implements Stoppable {
         }
     }
 
+    private void logReuse() {
+        int requests = reusedClients + startedClients;
+        if (requests > 0) {
+            LOGGER.info("Reused an idle worker daemon for {} of {} worker daemon request(s) in this session, started {} worker daemon(s).", reusedClients, requests, startedClients);
+        }
+        reusedClients = 0;
+        startedClients = 0;
+    }
+
     private class StopSessionScopedWorkers implements SessionLifecycleListener {
         @Override
         public void afterStart() { }
@@ -199,6 +225,7 @@ public class WorkerDaemonClientsManager implements Stoppable {
                     }
                 });
                 stopWorkers(sessionScopedClients);
+                logReuse();
             }
         }
     }
@@ -19,9 +19,14 @@ package org.gradle.workers.internal
 import org.gradle.api.logging.LogLevel
 import org.gradle.internal.operations.BuildOperationExecutor
 import org.gradle.internal.operations.BuildOperationRef
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
 import spock.lang.Specification
 
 class WorkerDaemonClientTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+
     BuildOperationExecutor buildOperationExecutor = Mock(BuildOperationExecutor)
     BuildOperationRef buildOperation = Mock(BuildOperationRef)
 
@@ -52,12 +57,31 @@ class WorkerDaemonClientTest extends Specification {
         client.uses == 5
     }
 
+    def "detects when a jar on the class path has changed"() {
+        def jar = tmpDir.file("lib.jar")
+        jar.text = "original"
+
+        given:
+        client = client(Mock(WorkerDaemonProcess), [jar, tmpDir.file("classes").createDir(), tmpDir.file("missing.jar")])
+
+        expect:
+        !client.hasChangedClasspath()
+
+        when:
+        jar.text = "changed content"
+
+        then:
+        client.hasChangedClasspath()
+    }
+
     WorkerDaemonClient client() {
         return client(Mock(WorkerDaemonProcess))
     }
 
-    WorkerDaemonClient client(WorkerDaemonProcess workerDaemonProcess) {
-        def daemonForkOptions = Mock(DaemonForkOptions)
+    WorkerDaemonClient client(WorkerDaemonProcess workerDaemonProcess, List<File> classpath = []) {
+        def daemonForkOptions = Stub(DaemonForkOptions) {
+            getClasspath() >> classpath
+        }
         def workerProcess = workerDaemonProcess.start()
         return new WorkerDaemonClient(daemonForkOptions, workerDaemonProcess, workerProcess, LogLevel.INFO)
     }
@@ -68,6 +68,32 @@ class WorkerDaemonClientsManagerTest extends ConcurrentSpecification {
         input == [noMatch] //match removed from input
     }
 
+    def "reserves the compatible idle client that has been used the most"() {
+        def noMatch = Stub(WorkerDaemonClient) { isCompatibleWith(_) >> false; getUses() >> 10 }
+        def cold = Stub(WorkerDaemonClient) { isCompatibleWith(_) >> true; getUses() >> 1 }
+        def warm = Stub(WorkerDaemonClient) { isCompatibleWith(_) >> true; getUses() >> 5 }
+        def input = [noMatch, cold, warm]
+
+        expect:
+        manager.reserveIdleClient(options, input) == warm
+        input == [noMatch, cold]
+    }
+
+    def "stops idle client when a jar on its class path has changed"() {
+        def changed = Mock(WorkerDaemonClient)
+        def input = [changed]
+
+        when:
+        def client = manager.reserveIdleClient(options, input)
+
+        then:
+        _ * changed.isCompatibleWith(_) >> true
+        _ * changed.hasChangedClasspath() >> true
+        1 * changed.stop()
+        client == null
+        input.empty
+    }
+
     def "reserves new client"() {
         def newClient = Stub(WorkerDaemonClient)
         starter.startDaemon(serverImpl.class, options, _) >> newClient